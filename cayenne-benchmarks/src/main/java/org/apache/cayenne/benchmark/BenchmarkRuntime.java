@@ -0,0 +1,97 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.SQLExec;
+
+/**
+ * Manages a {@link ServerRuntime} backed by an in-memory H2 database, shared by all
+ * benchmarks in this module. The schema is created on first access and the tables are
+ * refilled with a known number of rows for each benchmark trial.
+ *
+ * @since 4.1
+ */
+public class BenchmarkRuntime {
+
+    public static final String CONFIG_LOCATION = "cayenne-benchmark.xml";
+
+    private ServerRuntime runtime;
+
+    public BenchmarkRuntime() {
+        this.runtime = ServerRuntime.builder().addConfig(CONFIG_LOCATION).build();
+    }
+
+    public ServerRuntime getRuntime() {
+        return runtime;
+    }
+
+    public ObjectContext newContext() {
+        return runtime.newContext();
+    }
+
+    /**
+     * Deletes all existing data and inserts a given number of artists, each with a given
+     * number of paintings.
+     */
+    public void populate(int artists, int paintingsPerArtist) {
+        clear();
+
+        ObjectContext context = newContext();
+        LocalDate dob = LocalDate.of(1900, 1, 1);
+
+        for (int i = 0; i < artists; i++) {
+            Artist artist = context.newObject(Artist.class);
+            artist.setName("artist" + i);
+            artist.setDateOfBirth(dob.plusDays(i % 10000));
+
+            for (int j = 0; j < paintingsPerArtist; j++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setTitle("painting" + i + "_" + j);
+                painting.setPrice(BigDecimal.valueOf(i * 10 + j, 2));
+                painting.setArtist(artist);
+            }
+
+            // commit in chunks to keep the setup memory footprint reasonable
+            if (i % 1000 == 999) {
+                context.commitChanges();
+                context = newContext();
+            }
+        }
+
+        context.commitChanges();
+    }
+
+    public void clear() {
+        ObjectContext context = newContext();
+        SQLExec.query("DELETE FROM PAINTING").execute(context);
+        SQLExec.query("DELETE FROM ARTIST").execute(context);
+        runtime.getDataDomain().getSharedSnapshotCache().clear();
+    }
+
+    public void shutdown() {
+        runtime.shutdown();
+    }
+}
@@ -0,0 +1,98 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.DataRowStore;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures snapshot lookups in the shared {@link DataRowStore}, single threaded and under
+ * concurrent access.
+ *
+ * @since 4.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataRowStoreBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private BenchmarkRuntime runtime;
+    private DataRowStore snapshotCache;
+    private ObjectId[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        runtime = new BenchmarkRuntime();
+        runtime.populate(rows, 0);
+
+        // fetching objects fills the shared snapshot cache
+        List<Artist> artists = ObjectSelect.query(Artist.class).select(runtime.newContext());
+
+        ids = new ObjectId[artists.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = artists.get(i).getObjectId();
+        }
+
+        snapshotCache = runtime.getRuntime().getDataDomain().getSharedSnapshotCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.clear();
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public DataRow getCachedSnapshot() {
+        return snapshotCache.getCachedSnapshot(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public DataRow getCachedSnapshotConcurrent() {
+        return snapshotCache.getCachedSnapshot(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
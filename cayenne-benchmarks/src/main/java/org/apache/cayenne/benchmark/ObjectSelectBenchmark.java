@@ -0,0 +1,95 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ObjectSelect} fetch followed by object materialization, i.e. the whole
+ * "row to object" path: SQL translation, JDBC read, DataRow creation, snapshot caching and
+ * object hydration.
+ *
+ * @since 4.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectSelectBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private BenchmarkRuntime runtime;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        runtime = new BenchmarkRuntime();
+        runtime.populate(rows, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.clear();
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public List<Artist> selectObjects() {
+        // fresh context each time, so that objects are materialized and not just looked up
+        ObjectContext context = runtime.newContext();
+        return ObjectSelect.query(Artist.class).select(context);
+    }
+
+    @Benchmark
+    public List<DataRow> selectDataRows() {
+        ObjectContext context = runtime.newContext();
+        return ObjectSelect.dataRowQuery(Artist.class).select(context);
+    }
+
+    @Benchmark
+    public List<Painting> selectObjectsWithJointPrefetch() {
+        ObjectContext context = runtime.newContext();
+        return ObjectSelect.query(Painting.class)
+                .prefetch(Painting.ARTIST.joint())
+                .select(context);
+    }
+}
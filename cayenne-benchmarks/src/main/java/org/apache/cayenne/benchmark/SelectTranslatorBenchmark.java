@@ -0,0 +1,94 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.benchmark.persistent.Artist;
+import org.apache.cayenne.benchmark.persistent.Painting;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.query.Ordering;
+import org.apache.cayenne.query.SelectQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures SQL generation by {@link org.apache.cayenne.access.translator.select.DefaultSelectTranslator}
+ * for queries of varying complexity. No SQL is executed.
+ *
+ * @since 4.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectTranslatorBenchmark {
+
+    private BenchmarkRuntime runtime;
+    private DataNode node;
+
+    private SelectQuery<Artist> simpleQuery;
+    private SelectQuery<Painting> joinQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        runtime = new BenchmarkRuntime();
+        node = runtime.getRuntime().getDataDomain().getDataNode("benchmark");
+
+        simpleQuery = new SelectQuery<>(Artist.class, Artist.NAME.eq("artist1"));
+
+        Expression qualifier = Painting.ARTIST.dot(Artist.NAME).like("a%")
+                .andExp(Painting.PRICE.between(BigDecimal.ONE, BigDecimal.TEN))
+                .orExp(Painting.TITLE.in("p1", "p2", "p3"));
+        joinQuery = new SelectQuery<>(Painting.class, qualifier);
+        joinQuery.addOrdering(new Ordering(Painting.ARTIST.dot(Artist.NAME).getName()));
+        joinQuery.addOrdering(Painting.TITLE.desc());
+        joinQuery.addPrefetch(Painting.ARTIST.joint());
+        joinQuery.setFetchLimit(50);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.shutdown();
+    }
+
+    @Benchmark
+    public String translateSimple() throws Exception {
+        return node.selectTranslator(simpleQuery).getSql();
+    }
+
+    @Benchmark
+    public String translateWithJoinsAndPrefetch() throws Exception {
+        return node.selectTranslator(joinQuery).getSql();
+    }
+}
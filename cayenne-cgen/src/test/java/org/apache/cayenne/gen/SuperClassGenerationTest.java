@@ -83,4 +83,26 @@ public class SuperClassGenerationTest extends ClassGenerationCase {
         assertTrue(res.contains("org.apache.cayenne.exp.Property"));
     }
 
+    @Test
+    public void testPropertyIndexes() throws Exception {
+        ObjEntity objEntity = new ObjEntity("TEST1");
+        ObjAttribute attr = new ObjAttribute("attr");
+        attr.setType("java.lang.String");
+        ObjRelationship rel = new ObjRelationship("rel");
+
+        objEntity.addAttribute(attr);
+        objEntity.addRelationship(rel);
+
+        VelocityContext context = new VelocityContext();
+        context.put(Artifact.OBJECT_KEY, objEntity);
+        context.put(Artifact.BASE_CLASS_KEY, "BaseDataObject");
+
+        String res = renderTemplate(ClassGenerationAction.SUPERCLASS_TEMPLATE, context);
+        assertTrue(res.contains("public static final int PROPERTY_COUNT = BaseDataObject.PROPERTY_COUNT + 2;"));
+        assertTrue(res.contains("case \"attr\":\n                return BaseDataObject.PROPERTY_COUNT + 0;"));
+        assertTrue(res.contains("case \"rel\":\n                return BaseDataObject.PROPERTY_COUNT + 1;"));
+        assertTrue(res.contains("switch(propIndex - BaseDataObject.PROPERTY_COUNT) {"));
+        assertTrue(res.contains("case 0:\n                return this.attr;"));
+        assertTrue(res.contains("case 1:\n                this.rel = val;"));
+    }
 }
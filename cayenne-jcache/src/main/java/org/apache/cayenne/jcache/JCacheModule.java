@@ -43,7 +43,7 @@ public class JCacheModule implements Module {
     public void configure(Binder binder) {
         binder.bind(CacheManager.class).toProvider(JCacheManagerProvider.class);
         binder.bind(JCacheConfigurationFactory.class).to(JCacheDefaultConfigurationFactory.class);
-        binder.bind(QueryCache.class).to(JCacheQueryCache.class);
+        binder.bind(QueryCache.class).toProvider(JCacheQueryCacheProvider.class);
     }
 
 }
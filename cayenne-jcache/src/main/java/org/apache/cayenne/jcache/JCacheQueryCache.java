@@ -21,6 +21,7 @@ package org.apache.cayenne.jcache;
 
 import org.apache.cayenne.cache.QueryCache;
 import org.apache.cayenne.cache.QueryCacheEntryFactory;
+import org.apache.cayenne.cache.QueryCacheStats;
 import org.apache.cayenne.di.BeforeScopeEnd;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.query.QueryMetadata;
@@ -47,31 +48,67 @@ public class JCacheQueryCache implements QueryCache {
 
     private Set<String> seenCacheNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
+    // JCache provides no portable way to count evictions or cache size, so only lookups,
+    // puts and loads are tracked
+    private final QueryCacheStats stats = new QueryCacheStats();
+
     @Override
     public List get(QueryMetadata metadata) {
         String key = Objects.requireNonNull(metadata.getCacheKey());
-        Cache<String, List> cache = createIfAbsent(metadata);
+        String cacheName = cacheName(metadata);
+        Cache<String, List> cache = createIfAbsent(cacheName);
 
-        return cache.get(key);
+        List<?> result = cache.get(key);
+        recordLookup(cacheName, result);
+        return result;
     }
 
     @Override
     public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
         String key = Objects.requireNonNull(metadata.getCacheKey());
-        Cache<String, List> cache = createIfAbsent(metadata);
+        String cacheName = cacheName(metadata);
+        Cache<String, List> cache = createIfAbsent(cacheName);
 
         List<?> result = cache.get(key);
+        recordLookup(cacheName, result);
         return result != null
                 ? result
-                : cache.invoke(key, new JCacheEntryLoader(factory));
+                : cache.invoke(key, new JCacheEntryLoader(timedFactory(cacheName, factory)));
     }
 
     @Override
     public void put(QueryMetadata metadata, List results) {
         String key = Objects.requireNonNull(metadata.getCacheKey());
-        Cache<String, List> cache = createIfAbsent(metadata);
+        String cacheName = cacheName(metadata);
+        Cache<String, List> cache = createIfAbsent(cacheName);
 
         cache.put(key, results);
+        stats.recordPut(cacheName);
+    }
+
+    /**
+     * @since 4.1
+     */
+    @Override
+    public QueryCacheStats getStats() {
+        return stats;
+    }
+
+    private void recordLookup(String cacheName, List<?> result) {
+        if (result != null) {
+            stats.recordHit(cacheName);
+        } else {
+            stats.recordMiss(cacheName);
+        }
+    }
+
+    private QueryCacheEntryFactory timedFactory(String cacheName, QueryCacheEntryFactory factory) {
+        return () -> {
+            long start = System.nanoTime();
+            List result = factory.createObject();
+            stats.recordLoad(cacheName, System.nanoTime() - start);
+            return result;
+        };
     }
 
     @Override
@@ -154,6 +191,7 @@ public class JCacheQueryCache implements QueryCache {
 
     @BeforeScopeEnd
     public void shutdown() {
+        stats.unregisterMBean();
         cacheManager.close();
     }
 }
@@ -0,0 +1,55 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.jcache;
+
+import org.apache.cayenne.cache.MapQueryCacheProvider;
+import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.DIRuntimeException;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Provider;
+
+/**
+ * Creates {@link JCacheQueryCache}, registering its statistics MBean if
+ * {@link Constants#QUERY_CACHE_JMX_PROPERTY} is enabled.
+ *
+ * @since 4.1
+ */
+public class JCacheQueryCacheProvider implements Provider<QueryCache> {
+
+    @Inject
+    private RuntimeProperties properties;
+
+    @Inject
+    private Injector injector;
+
+    @Override
+    public QueryCache get() throws DIRuntimeException {
+        JCacheQueryCache cache = new JCacheQueryCache();
+        injector.injectMembers(cache);
+
+        if (properties.getBoolean(Constants.QUERY_CACHE_JMX_PROPERTY, false)) {
+            cache.getStats().registerMBean(MapQueryCacheProvider.mbeanName(properties, injector));
+        }
+
+        return cache;
+    }
+}
@@ -37,6 +37,7 @@ import org.apache.cayenne.map.Procedure;
 import org.apache.cayenne.query.PrefetchTreeNode;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.QueryCacheStrategy;
+import org.apache.cayenne.query.QueryCancellationHandle;
 import org.apache.cayenne.query.QueryChain;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.query.QueryRouter;
@@ -225,6 +226,16 @@ public class StringIdQuery implements Query {
                 return QueryMetadata.STATEMENT_FETCH_SIZE_DEFAULT;
             }
 
+            @Override
+            public long getStatementTimeout() {
+                return QueryMetadata.STATEMENT_TIMEOUT_DEFAULT;
+            }
+
+            @Override
+            public QueryCancellationHandle getCancellationHandle() {
+                return null;
+            }
+
             @Override
             public boolean isSuppressingDistinct() {
                 return false;
@@ -49,6 +49,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * A common base superclass for Cayenne ObjectContext implementors.
@@ -100,6 +101,11 @@ public abstract class BaseContext implements ObjectContext {
 	protected transient QueryCache queryCache;
 	protected transient EntityResolver entityResolver;
 
+	/**
+	 * @since 4.1
+	 */
+	protected transient Executor asyncExecutor;
+
 	protected boolean validatingObjectsOnCommit = true;
 
 	/**
@@ -481,6 +487,27 @@ public abstract class BaseContext implements ObjectContext {
 		this.queryCache = queryCache;
 	}
 
+	/**
+	 * Returns an executor used to run asynchronous operations of this context.
+	 * If none was set, falls back to the default ObjectContext executor.
+	 *
+	 * @since 4.1
+	 */
+	@Override
+	public Executor getAsyncExecutor() {
+		attachToRuntimeIfNeeded();
+		return asyncExecutor != null ? asyncExecutor : ObjectContext.super.getAsyncExecutor();
+	}
+
+	/**
+	 * Sets an executor used to run asynchronous operations of this context.
+	 *
+	 * @since 4.1
+	 */
+	public void setAsyncExecutor(Executor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
 	/**
 	 * Returns EventManager associated with the ObjectStore.
 	 * 
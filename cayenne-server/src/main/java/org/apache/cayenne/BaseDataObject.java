@@ -69,6 +69,15 @@ public abstract class BaseDataObject extends PersistentObject implements DataObj
 
     private static final long serialVersionUID = 4598677040697008371L;
 
+    /**
+     * Number of indexed properties declared in this class and its superclasses. Each
+     * generated class redefines it, adding the number of its own declared properties,
+     * so that the indexes of the subclass properties start after the superclass ones.
+     *
+     * @see #propertyIndex(String)
+     */
+    public static final int PROPERTY_COUNT = 0;
+
     protected long snapshotVersion = DEFAULT_VERSION;
 
     @Override
@@ -82,6 +91,40 @@ public abstract class BaseDataObject extends PersistentObject implements DataObj
         throw new IllegalArgumentException("Unknown property: " + propName);
     }
 
+    /**
+     * Returns an index of a property that can be used with {@link #readPropertyDirectly(int)}
+     * and {@link #writePropertyDirectly(int, Object)}, or -1 if the property is not indexed.
+     * The index of a property is the same for all instances of a class, so callers are
+     * expected to look it up once and then access the property by index, avoiding
+     * dispatch by property name. Indexes are provided by the classes generated by cgen,
+     * by default there are no indexed properties.
+     * <p>
+     * Cayenne doesn't use the indexes of a class if any non-generated class in its
+     * hierarchy overrides {@link #readPropertyDirectly(String)} or
+     * {@link #writePropertyDirectly(String, Object)}, so such overrides keep being called.
+     */
+    public int propertyIndex(String propName) {
+        return -1;
+    }
+
+    /**
+     * Reads a property by its index, without disturbing the object state.
+     *
+     * @see #propertyIndex(String)
+     */
+    public Object readPropertyDirectly(int propIndex) {
+        throw new IllegalArgumentException("Unknown property index: " + propIndex);
+    }
+
+    /**
+     * Writes a property by its index, without disturbing the object state.
+     *
+     * @see #propertyIndex(String)
+     */
+    public void writePropertyDirectly(int propIndex, Object val) {
+        throw new IllegalArgumentException("Unknown property index: " + propIndex);
+    }
+
     protected void beforePropertyRead(String propName) {
         if(objectContext != null) {
             // will resolve faults ourselves below as checking class descriptors
@@ -0,0 +1,678 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.cayenne.util.Util;
+
+/**
+ * A DataRow that stores its values in an array, with the mapping of keys to array slots
+ * provided by a {@link KeyIndex} shared between all rows read from the same
+ * ResultSet. This avoids allocating a hash table and an entry object per column for
+ * each fetched row. The row is still a fully functional {@link Map}: keys that are not
+ * present in the shared index can be added, and any key can be removed.
+ * <p>
+ * When serialized, CompactDataRow is replaced with a regular {@link DataRow}.
+ *
+ * @since 4.1
+ */
+public class CompactDataRow extends DataRow {
+
+    private static final long serialVersionUID = 2577003414532604938L;
+
+    // marks a slot whose key was removed from the row (or never set)
+    private static final Object ABSENT = new Object();
+
+    protected transient KeyIndex index;
+    protected transient Object[] values;
+    protected transient int slotsUsed;
+
+    // keys not known to the shared index
+    protected transient Map<String, Object> extraValues;
+
+    protected transient Set<Map.Entry<String, Object>> entrySetView;
+
+    /**
+     * Creates an empty row that will store values for the keys from the index in an
+     * array.
+     */
+    public CompactDataRow(KeyIndex index) {
+        super(0);
+        this.index = Objects.requireNonNull(index);
+        this.values = new Object[index.size()];
+        Arrays.fill(values, ABSENT);
+    }
+
+    private CompactDataRow(CompactDataRow row) {
+        super(0);
+        this.index = row.index;
+        this.values = row.values.clone();
+        this.slotsUsed = row.slotsUsed;
+        this.entityName = row.entityName;
+
+        if (row.extraValues != null) {
+            this.extraValues = new LinkedHashMap<>(row.extraValues);
+        }
+    }
+
+    /**
+     * Returns a shared key index of this row.
+     */
+    public KeyIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets a value for the key stored in the index at a given slot. This is the fast
+     * path used by the row readers that compute slot positions upfront.
+     */
+    public void putAt(int slot, Object value) {
+        if (values[slot] == ABSENT) {
+            slotsUsed++;
+        }
+
+        values[slot] = value;
+    }
+
+    /**
+     * Returns a value stored at a given slot, or null if no value is set for this slot.
+     */
+    public Object getAt(int slot) {
+        Object value = values[slot];
+        return value != ABSENT ? value : null;
+    }
+
+    /**
+     * Builds a new CompactDataRow sharing the same key index, merging changes from the
+     * <code>diff</code> parameter with data contained in this row.
+     */
+    @Override
+    public DataRow applyDiff(DataRow diff) {
+        CompactDataRow merged = new CompactDataRow(this);
+
+        for (Map.Entry<String, Object> entry : diff.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue());
+        }
+
+        return merged;
+    }
+
+    @Override
+    public int size() {
+        return extraValues != null ? slotsUsed + extraValues.size() : slotsUsed;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = index.slotOf(key);
+        if (slot >= 0) {
+            Object value = values[slot];
+            return value != ABSENT ? value : null;
+        }
+
+        return extraValues != null ? extraValues.get(key) : null;
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        int slot = index.slotOf(key);
+        if (slot >= 0) {
+            Object value = values[slot];
+            return value != ABSENT ? value : defaultValue;
+        }
+
+        return extraValues != null ? extraValues.getOrDefault(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = index.slotOf(key);
+        if (slot >= 0) {
+            return values[slot] != ABSENT;
+        }
+
+        return extraValues != null && extraValues.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Object v : values) {
+            if (v != ABSENT && Util.nullSafeEquals(v, value)) {
+                return true;
+            }
+        }
+
+        return extraValues != null && extraValues.containsValue(value);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int slot = index.slotOf(key);
+        if (slot >= 0) {
+            Object old = values[slot];
+            values[slot] = value;
+
+            if (old == ABSENT) {
+                slotsUsed++;
+                return null;
+            }
+
+            return old;
+        }
+
+        if (extraValues == null) {
+            extraValues = new LinkedHashMap<>();
+        }
+
+        return extraValues.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        Object old = get(key);
+        if (old == null) {
+            old = put(key, value);
+        }
+
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = index.slotOf(key);
+        if (slot >= 0) {
+            return removeAt(slot);
+        }
+
+        return extraValues != null ? extraValues.remove(key) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (containsKey(key) && Util.nullSafeEquals(get(key), value)) {
+            remove(key);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        if (containsKey(key) && Util.nullSafeEquals(get(key), oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        Object value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        Object oldValue = get(key);
+        if (oldValue == null) {
+            return null;
+        }
+
+        Object newValue = remappingFunction.apply(key, oldValue);
+        if (newValue != null) {
+            put(key, newValue);
+        } else {
+            remove(key);
+        }
+
+        return newValue;
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        Object oldValue = get(key);
+        Object newValue = remappingFunction.apply(key, oldValue);
+
+        if (newValue != null) {
+            put(key, newValue);
+        } else if (oldValue != null || containsKey(key)) {
+            remove(key);
+        }
+
+        return newValue;
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        Objects.requireNonNull(value);
+
+        Object oldValue = get(key);
+        Object newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+
+        if (newValue != null) {
+            put(key, newValue);
+        } else {
+            remove(key);
+        }
+
+        return newValue;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != ABSENT) {
+                action.accept(index.keyAt(i), values[i]);
+            }
+        }
+
+        if (extraValues != null) {
+            extraValues.forEach(action);
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != ABSENT) {
+                values[i] = function.apply(index.keyAt(i), values[i]);
+            }
+        }
+
+        if (extraValues != null) {
+            extraValues.replaceAll(function);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        slotsUsed = 0;
+        extraValues = null;
+    }
+
+    /**
+     * Returns a copy of this row. Unlike a HashMap clone, the copy gets its own
+     * DataRow version.
+     */
+    @Override
+    public Object clone() {
+        return new CompactDataRow(this);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySetView == null) {
+            entrySetView = new EntrySet();
+        }
+
+        return entrySetView;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<Map.Entry<String, Object>> it = new EntryIterator();
+                return new Iterator<String>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return it.next().getKey();
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactDataRow.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (containsKey(o)) {
+                    CompactDataRow.this.remove(o);
+                    return true;
+                }
+
+                return false;
+            }
+
+            @Override
+            public void clear() {
+                CompactDataRow.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return new AbstractCollection<Object>() {
+
+            @Override
+            public Iterator<Object> iterator() {
+                Iterator<Map.Entry<String, Object>> it = new EntryIterator();
+                return new Iterator<Object>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Object next() {
+                        return it.next().getValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactDataRow.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            @Override
+            public void clear() {
+                CompactDataRow.this.clear();
+            }
+        };
+    }
+
+    private Object removeAt(int slot) {
+        Object old = values[slot];
+        if (old == ABSENT) {
+            return null;
+        }
+
+        values[slot] = ABSENT;
+        slotsUsed--;
+        return old;
+    }
+
+    /**
+     * Serializes this row as a regular DataRow, as the shared index is only meaningful
+     * within a single JVM.
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        DataRow row = new DataRow(this);
+        row.version = this.version;
+        row.replacesVersion = this.replacesVersion;
+        row.entityName = this.entityName;
+        return row;
+    }
+
+    /**
+     * An immutable mapping of DataRow keys to array slots, shared by all
+     * {@link CompactDataRow} instances produced from a single row descriptor.
+     *
+     * @since 4.1
+     */
+    public static class KeyIndex implements Serializable {
+
+        private static final long serialVersionUID = -3361926263553004604L;
+
+        private final String[] keys;
+        private final Map<String, Integer> slots;
+
+        /**
+         * Creates an index for a given array of keys. Repeating keys are mapped to the
+         * same slot.
+         */
+        public KeyIndex(String[] keys) {
+            this.slots = new HashMap<>((int) Math.ceil(keys.length / 0.75));
+
+            String[] uniqueKeys = new String[keys.length];
+            int size = 0;
+            for (String key : keys) {
+                if (!slots.containsKey(key)) {
+                    slots.put(key, size);
+                    uniqueKeys[size++] = key;
+                }
+            }
+
+            this.keys = size == keys.length ? uniqueKeys : Arrays.copyOf(uniqueKeys, size);
+        }
+
+        /**
+         * Returns a slot for a given key or -1 if the key is not a part of this index.
+         */
+        public int slotOf(Object key) {
+            Integer slot = slots.get(key);
+            return slot != null ? slot : -1;
+        }
+
+        public String keyAt(int slot) {
+            return keys[slot];
+        }
+
+        public int size() {
+            return keys.length;
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactDataRow.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactDataRow.this.clear();
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        int nextSlot;
+        int currentSlot;
+        Iterator<Map.Entry<String, Object>> extraIterator;
+        boolean inExtra;
+
+        EntryIterator() {
+            this.currentSlot = -1;
+            this.nextSlot = advance(0);
+        }
+
+        private int advance(int from) {
+            int len = values.length;
+            for (int i = from; i < len; i++) {
+                if (values[i] != ABSENT) {
+                    return i;
+                }
+            }
+
+            return len;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextSlot < values.length) {
+                return true;
+            }
+
+            if (extraIterator == null) {
+                if (extraValues == null) {
+                    return false;
+                }
+
+                extraIterator = extraValues.entrySet().iterator();
+            }
+
+            return extraIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (nextSlot < values.length) {
+                int slot = nextSlot;
+                if (values[slot] == ABSENT) {
+                    throw new ConcurrentModificationException();
+                }
+
+                currentSlot = slot;
+                nextSlot = advance(slot + 1);
+                return new SlotEntry(slot);
+            }
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            inExtra = true;
+            currentSlot = -1;
+            return extraIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (inExtra) {
+                extraIterator.remove();
+            } else if (currentSlot >= 0) {
+                removeAt(currentSlot);
+                currentSlot = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    final class SlotEntry implements Map.Entry<String, Object> {
+
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return index.keyAt(slot);
+        }
+
+        @Override
+        public Object getValue() {
+            return getAt(slot);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = getAt(slot);
+            putAt(slot, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Util.nullSafeEquals(getKey(), e.getKey()) && Util.nullSafeEquals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -27,6 +27,9 @@ import org.apache.cayenne.query.Select;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A Cayenne object facade to a persistent store. Instances of ObjectContext are
@@ -244,6 +247,69 @@ public interface ObjectContext extends DataChannel, Serializable {
      */
     <T> ResultBatchIterator<T> batchIterator(Select<T> query, int size);
 
+    /**
+     * Returns an executor used to run asynchronous operations of this context. Default
+     * implementation returns {@link ForkJoinPool#commonPool()}, while contexts created by
+     * Cayenne runtime use an executor configured in DI.
+     *
+     * @since 4.1
+     */
+    default Executor getAsyncExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Executes a selecting query asynchronously using {@link #getAsyncExecutor()}. ObjectContext
+     * is not designed for concurrent modification, so the caller should avoid changing objects
+     * in this context until the returned future is completed.
+     *
+     * @since 4.1
+     */
+    default <T> CompletableFuture<List<T>> selectAsync(Select<T> query) {
+        return CompletableFuture.supplyAsync(() -> select(query), getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous version of {@link #selectOne(Select)}.
+     *
+     * @see #selectAsync(Select)
+     * @since 4.1
+     */
+    default <T> CompletableFuture<T> selectOneAsync(Select<T> query) {
+        return CompletableFuture.supplyAsync(() -> selectOne(query), getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous version of {@link #selectFirst(Select)}.
+     *
+     * @see #selectAsync(Select)
+     * @since 4.1
+     */
+    default <T> CompletableFuture<T> selectFirstAsync(Select<T> query) {
+        return CompletableFuture.supplyAsync(() -> selectFirst(query), getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous version of {@link #iterate(Select, ResultIteratorCallback)}. The callback
+     * is invoked on the executor thread.
+     *
+     * @see #selectAsync(Select)
+     * @since 4.1
+     */
+    default <T> CompletableFuture<Void> iterateAsync(Select<T> query, ResultIteratorCallback<T> callback) {
+        return CompletableFuture.runAsync(() -> iterate(query, callback), getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronous version of {@link #commitChanges()}. The caller should not modify objects
+     * in this context until the returned future is completed.
+     *
+     * @since 4.1
+     */
+    default CompletableFuture<Void> commitChangesAsync() {
+        return CompletableFuture.runAsync(this::commitChanges, getAsyncExecutor());
+    }
+
     /**
      * Executes any kind of query providing the result in a form of
      * QueryResponse.
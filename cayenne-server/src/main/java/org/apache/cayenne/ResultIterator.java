@@ -20,6 +20,10 @@
 package org.apache.cayenne;
 
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.cayenne.util.ResultIteratorSpliterator;
 
 /**
  * Defines API of an iterator over the records returned as a result of
@@ -69,4 +73,30 @@ public interface ResultIterator<T> extends Iterable<T>, AutoCloseable {
      * Otherwise unused database resources will not be released properly.
      */
     void close();
+
+    /**
+     * Returns a sequential Stream over the remaining rows of this iterator. Closing the
+     * stream (e.g. via try-with-resources) closes this iterator. The stream must be
+     * closed explicitly, as the iterator and its connection are released only when the
+     * stream is closed, not when it is fully consumed.
+     *
+     * @since 4.1
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(new ResultIteratorSpliterator<>(this), false).onClose(this::close);
+    }
+
+    /**
+     * Returns a parallel Stream over the remaining rows of this iterator. Rows are read
+     * sequentially from the iterator in batches of the specified size that are processed
+     * in parallel downstream. The iterator is never accessed by more than one thread at a
+     * time, but it may be read from the fork/join pool threads, not just from the calling
+     * thread. Same as with {@link #stream()}, the stream must be closed explicitly to
+     * close this iterator and release its connection.
+     *
+     * @since 4.1
+     */
+    default Stream<T> parallelStream(int batchSize) {
+        return StreamSupport.stream(new ResultIteratorSpliterator<>(this, batchSize), true).onClose(this::close);
+    }
 }
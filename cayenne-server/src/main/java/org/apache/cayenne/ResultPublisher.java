@@ -0,0 +1,74 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne;
+
+/**
+ * A producer of query results that pushes them to a {@link Subscriber} as the subscriber
+ * signals demand. This is a mirror of Java 9 {@code java.util.concurrent.Flow} (and Reactive
+ * Streams) interfaces that allows to stream large results with backpressure on Java 8, and can
+ * be trivially adapted to either of those APIs. Each subscription executes the query anew and
+ * holds an open ResultSet (and a connection) until all the results are consumed, an error occurs
+ * or the subscription is cancelled.
+ *
+ * @see org.apache.cayenne.query.Select#publisher(ObjectContext)
+ * @since 4.1
+ */
+public interface ResultPublisher<T> {
+
+    /**
+     * Adds a subscriber to this publisher. {@link Subscriber#onSubscribe(Subscription)} is invoked
+     * before any other signals.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+    /**
+     * A receiver of results produced by {@link ResultPublisher}. Signals to the subscriber are
+     * never invoked concurrently.
+     */
+    interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * A link between a {@link ResultPublisher} and a {@link Subscriber}, used by the subscriber
+     * to request more results or to cancel the subscription.
+     */
+    interface Subscription {
+
+        /**
+         * Adds "n" items to the current unfulfilled demand of this subscription. A non-positive
+         * value results in {@link Subscriber#onError(Throwable)} with an
+         * {@link IllegalArgumentException}.
+         */
+        void request(long n);
+
+        /**
+         * Stops sending results to the subscriber, closing the underlying ResultIterator and
+         * releasing its connection.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,358 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.Fault;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.DbJoin;
+import org.apache.cayenne.map.DbRelationship;
+import org.apache.cayenne.map.ObjRelationship;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.reflect.ArcProperty;
+import org.apache.cayenne.reflect.ClassDescriptor;
+import org.apache.cayenne.reflect.PropertyDescriptor;
+
+/**
+ * Resolves relationship faults of the objects fetched by the same query in
+ * batches. Each query result is remembered as a "fetch group", and when a
+ * relationship fault of one of the group objects is resolved, the same
+ * relationship of up to "batchSize" group siblings is resolved with a single
+ * query. Objects are referenced weakly, so the groups do not prevent the
+ * fetched objects from being garbage collected.
+ *
+ * @since 4.1
+ */
+class BatchFaultResolver {
+
+    private DataContext context;
+    private Map<Persistent, GroupMember> members;
+
+    BatchFaultResolver(DataContext context) {
+        this.context = context;
+        this.members = Collections.synchronizedMap(new WeakHashMap<Persistent, GroupMember>());
+    }
+
+    /**
+     * Registers a list of query results as a fetch group. Lazy lists are
+     * ignored, as walking through them would resolve all their objects.
+     */
+    void register(List<?> objects) {
+        if (objects.size() < 2 || objects instanceof IncrementalFaultList || objects instanceof SpilledObjectList
+                || !(objects.get(0) instanceof Persistent)) {
+            return;
+        }
+
+        List<WeakReference<Persistent>> group = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            if (object instanceof Persistent) {
+                Persistent persistent = (Persistent) object;
+                members.put(persistent, new GroupMember(group, group.size()));
+                group.add(new WeakReference<>(persistent));
+            }
+        }
+    }
+
+    /**
+     * Resolves a relationship of the object together with the same
+     * relationship of its fetch group siblings. Returns true if the
+     * relationship of the object was resolved.
+     */
+    boolean resolve(Persistent object, String relationshipName, int batchSize) {
+
+        GroupMember member = members.get(object);
+        if (member == null) {
+            return false;
+        }
+
+        String entityName = object.getObjectId().getEntityName();
+        ClassDescriptor descriptor = context.getEntityResolver().getClassDescriptor(entityName);
+        PropertyDescriptor property = descriptor != null ? descriptor.getProperty(relationshipName) : null;
+        if (!(property instanceof ArcProperty)) {
+            return false;
+        }
+
+        ArcProperty arc = (ArcProperty) property;
+        ObjRelationship relationship = arc.getRelationship();
+        if (relationship.isFlattened() || !isUnresolved(object, entityName, arc)) {
+            return false;
+        }
+
+        List<Persistent> batch = new ArrayList<>(batchSize);
+        batch.add(object);
+
+        List<WeakReference<Persistent>> group = member.group;
+        int size = group.size();
+        for (int i = 1; i < size && batch.size() < batchSize; i++) {
+            Persistent sibling = group.get((member.index + i) % size).get();
+            if (sibling != null && isUnresolved(sibling, entityName, arc)) {
+                batch.add(sibling);
+            }
+        }
+
+        if (batch.size() < 2) {
+            return false;
+        }
+
+        DbRelationship dbRelationship = relationship.getDbRelationships().get(0);
+        return relationship.isSourceIndependentFromTargetChange()
+                ? resolveByTargetKey(batch, arc, dbRelationship)
+                : resolveBySourceKey(batch, arc, dbRelationship);
+    }
+
+    /**
+     * Resolves to-one relationships that have a FK on the source side, fetching
+     * the targets by ids taken from the source snapshots.
+     */
+    private boolean resolveBySourceKey(List<Persistent> batch, ArcProperty arc, DbRelationship dbRelationship) {
+
+        // FK pointing to a unique field that is a 'fake' PK (CAY-1755)
+        if (dbRelationship.getJoins().size() < dbRelationship.getTargetEntity().getPrimaryKeys().size()) {
+            return false;
+        }
+
+        String targetEntityName = arc.getRelationship().getTargetEntityName();
+        ObjectStore objectStore = context.getObjectStore();
+
+        Map<Persistent, ObjectId> targetIds = new IdentityHashMap<>();
+        Set<ObjectId> missingIds = new LinkedHashSet<>();
+
+        for (Persistent source : batch) {
+            DataRow snapshot = objectStore.getCachedSnapshot(source.getObjectId());
+            ObjectId targetId = snapshot != null
+                    ? snapshot.createTargetObjectId(targetEntityName, dbRelationship)
+                    : null;
+
+            if (targetId != null) {
+                targetIds.put(source, targetId);
+                if (!isRegistered(targetId)) {
+                    missingIds.add(targetId);
+                }
+            }
+        }
+
+        // if the target of the fault object is already in memory, there's
+        // nothing to gain from the batch
+        ObjectId firstId = targetIds.get(batch.get(0));
+        if (firstId == null || !missingIds.contains(firstId) || objectStore.getCachedSnapshot(firstId) != null) {
+            return false;
+        }
+
+        ObjectSelect.query(Persistent.class, targetEntityName).where(idQualifier(missingIds)).select(context);
+
+        for (Map.Entry<Persistent, ObjectId> entry : targetIds.entrySet()) {
+            Object target = objectStore.getNode(entry.getValue());
+            if (target != null) {
+                arc.writePropertyDirectly(entry.getKey(), null, target);
+            }
+        }
+
+        return !arc.isFault(batch.get(0));
+    }
+
+    /**
+     * Resolves to-many relationships and to-one relationships that have a FK on
+     * the target side, fetching the targets by the source PK values.
+     */
+    private boolean resolveByTargetKey(List<Persistent> batch, ArcProperty arc, DbRelationship dbRelationship) {
+
+        // source side of the join must be a PK, so that the targets could be
+        // matched against the source ids
+        List<DbJoin> joins = dbRelationship.getJoins();
+        DbEntity sourceEntity = dbRelationship.getSourceEntity();
+        if (joins.isEmpty() || joins.size() != sourceEntity.getPrimaryKeys().size()) {
+            return false;
+        }
+
+        for (DbJoin join : joins) {
+            if (join.getSource() == null || !join.getSource().isPrimaryKey()) {
+                return false;
+            }
+        }
+
+        Map<Object, Persistent> sources = new HashMap<>();
+        List<Expression> qualifiers = new ArrayList<>(batch.size());
+        List<Object> values = new ArrayList<>(batch.size());
+
+        for (Persistent source : batch) {
+            Map<String, Object> id = source.getObjectId().getIdSnapshot();
+            Map<String, Object> fk = new HashMap<>();
+            List<Object> key = new ArrayList<>(joins.size());
+
+            for (DbJoin join : joins) {
+                Object value = id.get(join.getSourceName());
+                fk.put(join.getTargetName(), value);
+                key.add(normalize(value));
+            }
+
+            sources.put(key, source);
+            qualifiers.add(ExpressionFactory.matchAllDbExp(fk, Expression.EQUAL_TO));
+            values.add(id.get(joins.get(0).getSourceName()));
+        }
+
+        Expression qualifier = joins.size() == 1
+                ? ExpressionFactory.inDbExp(joins.get(0).getTargetName(), values)
+                : ExpressionFactory.or(qualifiers);
+
+        ClassDescriptor targetDescriptor = arc.getTargetDescriptor();
+        List<DataRow> rows = ObjectSelect.query(DataRow.class, targetDescriptor.getEntity().getName())
+                .where(qualifier)
+                .fetchDataRows()
+                .select(context);
+
+        // match the rows to the sources before creating any objects; if a row
+        // can't be matched (e.g. FK is not a part of the row), leave the faults
+        // alone
+        List<Object> rowKeys = new ArrayList<>(rows.size());
+        for (DataRow row : rows) {
+            List<Object> key = new ArrayList<>(joins.size());
+            for (DbJoin join : joins) {
+                key.add(normalize(row.get(join.getTargetName())));
+            }
+
+            if (!sources.containsKey(key)) {
+                return false;
+            }
+
+            rowKeys.add(key);
+        }
+
+        List<?> targets = context.objectsFromDataRows(targetDescriptor, rows);
+        register(targets);
+
+        Map<Persistent, List<Object>> related = new IdentityHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            related.computeIfAbsent(sources.get(rowKeys.get(i)), k -> new ArrayList<>()).add(targets.get(i));
+        }
+
+        boolean toMany = arc.getRelationship().isToMany();
+        for (Persistent source : batch) {
+            List<Object> sourceTargets = related.get(source);
+
+            if (toMany) {
+                setToManyList(source, arc, sourceTargets != null ? sourceTargets : new ArrayList<>(1));
+            } else if (sourceTargets == null) {
+                arc.writePropertyDirectly(source, null, null);
+            } else if (sourceTargets.size() == 1) {
+                arc.writePropertyDirectly(source, null, sourceTargets.get(0));
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setToManyList(Persistent source, ArcProperty arc, List<Object> targets) {
+        Object value = arc.readPropertyDirectly(source);
+
+        if (value instanceof ToManyList) {
+            ((ToManyList<Object>) value).setValueDirectly(targets);
+        } else {
+            ToManyList<Object> list = new ToManyList<>(source, arc.getName());
+            list.setValueDirectly(targets);
+            arc.writePropertyDirectly(source, null, list);
+        }
+    }
+
+    /**
+     * Checks that the object relationship is an unresolved fault that can be
+     * resolved as a part of a batch.
+     */
+    private boolean isUnresolved(Persistent object, String entityName, ArcProperty arc) {
+        if (object.getObjectContext() != context
+                || object.getPersistenceState() != PersistenceState.COMMITTED
+                || !entityName.equals(object.getObjectId().getEntityName())) {
+            return false;
+        }
+
+        Object value = arc.readPropertyDirectly(object);
+        if (arc.getRelationship().isToMany()) {
+            // only the lists are batched, other collection types are resolved
+            // individually
+            return value instanceof ToManyListFault || (value instanceof ToManyList && ((ToManyList<?>) value).isFault());
+        }
+
+        return value instanceof Fault;
+    }
+
+    private boolean isRegistered(ObjectId id) {
+        Object object = context.getObjectStore().getNode(id);
+        return object instanceof Persistent && ((Persistent) object).getPersistenceState() != PersistenceState.HOLLOW;
+    }
+
+    private static Expression idQualifier(Collection<ObjectId> ids) {
+        List<Expression> qualifiers = new ArrayList<>(ids.size());
+        List<Object> values = new ArrayList<>(ids.size());
+        String singleKey = null;
+
+        for (ObjectId id : ids) {
+            Map<String, Object> snapshot = id.getIdSnapshot();
+            qualifiers.add(ExpressionFactory.matchAllDbExp(snapshot, Expression.EQUAL_TO));
+
+            if (snapshot.size() == 1) {
+                singleKey = snapshot.keySet().iterator().next();
+                values.add(snapshot.get(singleKey));
+            }
+        }
+
+        return singleKey != null && values.size() == ids.size()
+                ? ExpressionFactory.inDbExp(singleKey, values)
+                : ExpressionFactory.or(qualifiers);
+    }
+
+    /**
+     * Brings integer values of PK and FK columns that may be of different JDBC
+     * types to the same Java type.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+
+        return value;
+    }
+
+    private static class GroupMember {
+
+        final List<WeakReference<Persistent>> group;
+        final int index;
+
+        GroupMember(List<WeakReference<Persistent>> group, int index) {
+            this.group = group;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+
+/**
+ * An {@link ObjectStore} that allows concurrent lock-free reads. It is intended for
+ * read-mostly contexts shared between multiple threads (e.g. a shared read-only
+ * DataContext serving web requests). Object lookups, registration of new objects and
+ * state queries do not synchronize on the ObjectStore, while operations that mutate the
+ * object graph as a whole (change tracking, snapshot event processing, rollback,
+ * resolving fetched objects) are still serialized as in the superclass.
+ * <p>
+ * The object map passed to the constructor must be thread-safe, e.g. the one created by
+ * {@link ObjectMapRetainStrategy#createConcurrentObjectMap()}. Changes are tracked in
+ * a {@link ConcurrentHashMap}.
+ *
+ * @since 4.1
+ */
+public class ConcurrentObjectStore extends ObjectStore {
+
+    private boolean syncWithDataRowCache;
+
+    /**
+     * Creates a ConcurrentObjectStore.
+     *
+     * @param dataRowCache          parent DataRowStore
+     * @param objectMap             a thread-safe map to store registered objects
+     * @param syncWithDataRowCache  whether this store should receive snapshot change
+     *                              events from the DataRowStore. If false, it behaves
+     *                              like a {@link NoSyncObjectStore}.
+     */
+    public ConcurrentObjectStore(DataRowStore dataRowCache, Map<Object, Persistent> objectMap,
+                                 boolean syncWithDataRowCache) {
+        super(null, objectMap);
+        this.syncWithDataRowCache = syncWithDataRowCache;
+        setDataRowCache(dataRowCache);
+    }
+
+    @Override
+    protected Map<Object, ObjectDiff> createChangesMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void setDataRowCache(DataRowStore dataRowCache) {
+        if (syncWithDataRowCache) {
+            super.setDataRowCache(dataRowCache);
+        } else {
+            this.dataRowCache = dataRowCache;
+            dataRowCacheSet = dataRowCache != null;
+        }
+    }
+
+    @Override
+    public Object getNode(Object nodeId) {
+        return objectMap.get(nodeId);
+    }
+
+    @Override
+    public Collection<Object> registeredNodes() {
+        return new ArrayList<Object>(objectMap.values());
+    }
+
+    @Override
+    public void registerNode(Object nodeId, Object nodeObject) {
+        objectMap.put(nodeId, (Persistent) nodeObject);
+    }
+
+    @Override
+    public Iterator<Persistent> getObjectIterator() {
+        return objectMap.values().iterator();
+    }
+
+    @Override
+    public boolean hasChanges() {
+        return !changes.isEmpty();
+    }
+
+    @Override
+    public List<Persistent> objectsInState(int state) {
+        return objectsInStateNoSync(state);
+    }
+
+    /**
+     * Returns a snapshot for ObjectId. Unlike the superclass, does not lock the
+     * ObjectStore while the snapshot is being fetched, so slow fetches do not block the
+     * other threads.
+     */
+    @Override
+    public DataRow getSnapshot(ObjectId oid) {
+        return getSnapshotNoSync(oid);
+    }
+}
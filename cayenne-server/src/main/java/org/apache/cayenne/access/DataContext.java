@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.cayenne.BaseContext;
 import org.apache.cayenne.CayenneRuntimeException;
@@ -42,7 +43,9 @@ import org.apache.cayenne.Persistent;
 import org.apache.cayenne.QueryResponse;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.access.util.IteratedSelectObserver;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Key;
 import org.apache.cayenne.event.EventManager;
 import org.apache.cayenne.graph.ChildDiffLoader;
 import org.apache.cayenne.graph.CompoundDiff;
@@ -88,6 +91,16 @@ public class DataContext extends BaseContext {
 
     protected transient DataContextMergeHandler mergeHandler;
 
+    /**
+     * @since 4.1
+     */
+    protected int batchFaultingSize;
+
+    /**
+     * @since 4.1
+     */
+    protected transient BatchFaultResolver batchFaultResolver;
+
     /**
      * Creates a new DataContext that is not attached to the Cayenne stack.
      */
@@ -123,6 +136,7 @@ public class DataContext extends BaseContext {
     protected void attachToRuntime(Injector injector) {
         super.attachToRuntime(injector);
         this.transactionFactory = injector.getInstance(TransactionFactory.class);
+        this.asyncExecutor = injector.getInstance(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR));
     }
 
     /**
@@ -952,7 +966,12 @@ public class DataContext extends BaseContext {
         }
 
         List result = onQuery(this, query).firstList();
-        return result != null ? result : new ArrayList<>(1);
+        if (result == null) {
+            return new ArrayList<>(1);
+        }
+
+        registerFetchGroup(result);
+        return result;
     }
 
     /**
@@ -1055,6 +1074,57 @@ public class DataContext extends BaseContext {
         this.usingSharedSnaphsotCache = flag;
     }
 
+    /**
+     * Returns a max number of objects fetched by the same query, whose
+     * relationship is resolved in a single query when it is accessed on one of
+     * them. Zero (the default) means that batch faulting is disabled and each
+     * relationship fault is resolved on its own.
+     * 
+     * @since 4.1
+     */
+    public int getBatchFaultingSize() {
+        return batchFaultingSize;
+    }
+
+    /**
+     * Sets a max number of objects fetched by the same query, whose
+     * relationship is resolved in a single query when it is accessed on one of
+     * them. Only the results of the queries executed after this call are
+     * considered for batch faulting.
+     * 
+     * @since 4.1
+     */
+    public void setBatchFaultingSize(int batchFaultingSize) {
+        this.batchFaultingSize = batchFaultingSize;
+    }
+
+    /**
+     * Resolves a relationship fault of the object together with the same
+     * relationship of the objects fetched along with it. Returns false if batch
+     * faulting is disabled or not applicable, and the fault must be resolved
+     * individually.
+     */
+    boolean resolveFaultInBatch(Persistent object, String relationshipName) {
+        BatchFaultResolver resolver = this.batchFaultResolver;
+        return resolver != null && batchFaultingSize > 1
+                && resolver.resolve(object, relationshipName, batchFaultingSize);
+    }
+
+    /**
+     * Remembers the objects fetched by a query, so that their relationships
+     * could be faulted together.
+     */
+    void registerFetchGroup(List<?> objects) {
+        if (batchFaultingSize > 1) {
+            BatchFaultResolver resolver = this.batchFaultResolver;
+            if (resolver == null) {
+                resolver = this.batchFaultResolver = new BatchFaultResolver(this);
+            }
+
+            resolver.register(objects);
+        }
+    }
+
     // ---------------------------------------------
     // Serialization Support
     // ---------------------------------------------
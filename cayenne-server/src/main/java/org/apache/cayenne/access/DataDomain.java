@@ -53,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 
 /**
  * DataDomain performs query routing functions in Cayenne. DataDomain creates
@@ -90,6 +91,11 @@ public class DataDomain implements QueryEngine, DataChannel {
 	 */
 	protected int maxIdQualifierSize;
 
+	/**
+	 * @since 4.1
+	 */
+	protected int batchFaultingSize;
+
 	/**
 	 * @since 3.1
 	 * @deprecated since 4.1 this field is unused
@@ -133,6 +139,11 @@ public class DataDomain implements QueryEngine, DataChannel {
 
 	protected boolean stopped;
 
+	/**
+	 * @since 4.1
+	 */
+	protected ExecutorService flushExecutor;
+
 	/**
 	 * Creates a DataDomain and assigns it a name.
 	 */
@@ -333,6 +344,7 @@ public class DataDomain implements QueryEngine, DataChannel {
 	synchronized DataRowStore nonNullSharedSnapshotCache() {
 		if (sharedSnapshotCache == null) {
 			this.sharedSnapshotCache = dataRowStoreFactory.createDataRowStore(name);
+			sharedSnapshotCache.registerMBean();
 		}
 
 		return sharedSnapshotCache;
@@ -353,6 +365,7 @@ public class DataDomain implements QueryEngine, DataChannel {
 			if (snapshotCache != null) {
 				snapshotCache.setEventManager(getEventManager());
 				snapshotCache.setName(getName());
+				snapshotCache.registerMBean();
 			}
 		}
 	}
@@ -520,6 +533,10 @@ public class DataDomain implements QueryEngine, DataChannel {
 			if (sharedSnapshotCache != null) {
 				sharedSnapshotCache.shutdown();
 			}
+
+			if (flushExecutor != null) {
+				flushExecutor.shutdown();
+			}
 		}
 	}
 
@@ -864,6 +881,47 @@ public class DataDomain implements QueryEngine, DataChannel {
 		this.maxIdQualifierSize = maxIdQualifierSize;
 	}
 
+	/**
+	 * Returns a default max number of objects whose relationship is resolved
+	 * together by the child DataContexts. Zero (the default) means that batch
+	 * faulting is disabled.
+	 *
+	 * @since 4.1
+	 * @see Constants#BATCH_FAULTING_SIZE_PROPERTY
+	 */
+	public int getBatchFaultingSize() {
+		return batchFaultingSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setBatchFaultingSize(int batchFaultingSize) {
+		this.batchFaultingSize = batchFaultingSize;
+	}
+
+	/**
+	 * Returns an executor used to flush commit batches to independent DataNodes in
+	 * parallel, or null if commits are flushed sequentially (the default).
+	 *
+	 * @since 4.1
+	 */
+	public ExecutorService getFlushExecutor() {
+		return flushExecutor;
+	}
+
+	/**
+	 * Sets an executor used to flush commit batches to independent DataNodes in
+	 * parallel. Null value (the default) disables parallel flush. The executor is
+	 * shut down together with the DataDomain.
+	 *
+	 * @since 4.1
+	 * @see Constants#SERVER_PARALLEL_FLUSH_THREADS_PROPERTY
+	 */
+	public void setFlushExecutor(ExecutorService flushExecutor) {
+		this.flushExecutor = flushExecutor;
+	}
+
 	TransactionManager getTransactionManager() {
 		return transactionManager;
 	}
@@ -28,18 +28,24 @@ import org.apache.cayenne.graph.CompoundDiff;
 import org.apache.cayenne.graph.GraphDiff;
 import org.apache.cayenne.log.JdbcEventLogger;
 import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.DbRelationship;
 import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.reflect.ClassDescriptor;
 import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.tx.Transaction;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * A stateful commit handler used by DataContext to perform commit operation.
@@ -198,42 +204,185 @@ class DataDomainFlushAction {
         DataDomainFlushObserver observer = new DataDomainFlushObserver(
                 domain.getJdbcEventLogger());
 
-        // split query list by spanned nodes and run each single node range individually.
-        // Since connections are reused per node within an open transaction, there should
-        // not be much overhead in accessing the same node multiple times (may happen due
-        // to imperfect sorting)
-
         try {
+            List<NodeRange> ranges = splitByNode();
+
+            if (domain.getFlushExecutor() != null && ranges.size() > 1) {
+                runRangesInParallel(groupIndependentRanges(ranges), observer);
+            } else {
+                for (NodeRange range : ranges) {
+                    range.run(observer);
+                }
+            }
+        } catch (Throwable th) {
+            BaseTransaction.getThreadTransaction().setRollbackOnly();
+            throw new CayenneRuntimeException("Transaction was rolledback.", th);
+        }
+    }
 
-            DataNode lastNode = null;
-            DbEntity lastEntity = null;
-            int rangeStart = 0;
-            int len = queries.size();
+    /*
+     * Splits query list by spanned nodes, so that each single node range can be run
+     * individually. Since connections are reused per node within an open transaction,
+     * there should not be much overhead in accessing the same node multiple times (may
+     * happen due to imperfect sorting)
+     */
+    private List<NodeRange> splitByNode() {
+        List<NodeRange> ranges = new ArrayList<>();
 
-            for (int i = 0; i < len; i++) {
+        DataNode lastNode = null;
+        DbEntity lastEntity = null;
+        int rangeStart = 0;
+        int len = queries.size();
 
-                BatchQuery query = (BatchQuery) queries.get(i);
-                if (query.getDbEntity() != lastEntity) {
-                    lastEntity = query.getDbEntity();
+        for (int i = 0; i < len; i++) {
 
-                    DataNode node = domain.lookupDataNode(lastEntity.getDataMap());
-                    if (node != lastNode) {
+            BatchQuery query = (BatchQuery) queries.get(i);
+            if (query.getDbEntity() != lastEntity) {
+                lastEntity = query.getDbEntity();
 
-                        if (i - rangeStart > 0) {
-                            lastNode.performQueries(queries.subList(rangeStart, i), observer);
-                        }
+                DataNode node = domain.lookupDataNode(lastEntity.getDataMap());
+                if (node != lastNode) {
 
-                        rangeStart = i;
-                        lastNode = node;
+                    if (i - rangeStart > 0) {
+                        ranges.add(new NodeRange(lastNode, queries.subList(rangeStart, i)));
                     }
+
+                    rangeStart = i;
+                    lastNode = node;
                 }
             }
+        }
+
+        // process last segment of the query list...
+        ranges.add(new NodeRange(lastNode, queries.subList(rangeStart, len)));
+        return ranges;
+    }
+
+    /*
+     * Combines node ranges into groups that can be flushed independently of each other.
+     * Nodes with entities in this commit connected via relationships end up in the same
+     * group, as their queries may depend on each other's results (e.g. generated keys).
+     * Within a group the original sorted order of ranges is preserved.
+     */
+    private Collection<List<NodeRange>> groupIndependentRanges(List<NodeRange> ranges) {
+
+        // union-find over the nodes spanned by this commit
+        Map<DataNode, DataNode> parents = new HashMap<>();
+        Map<DbEntity, DataNode> entityNodes = new HashMap<>();
+        for (NodeRange range : ranges) {
+            parents.put(range.node, range.node);
+            for (Query query : range.queries) {
+                entityNodes.put(((BatchQuery) query).getDbEntity(), range.node);
+            }
+        }
+
+        for (Map.Entry<DbEntity, DataNode> entry : entityNodes.entrySet()) {
+            for (DbRelationship relationship : entry.getKey().getRelationships()) {
+                DataNode targetNode = entityNodes.get(relationship.getTargetEntity());
+                if (targetNode != null && targetNode != entry.getValue()) {
+                    parents.put(findRoot(parents, entry.getValue()), findRoot(parents, targetNode));
+                }
+            }
+        }
+
+        Map<DataNode, List<NodeRange>> groups = new LinkedHashMap<>();
+        for (NodeRange range : ranges) {
+            groups.computeIfAbsent(findRoot(parents, range.node), n -> new ArrayList<>()).add(range);
+        }
+
+        return groups.values();
+    }
+
+    private static DataNode findRoot(Map<DataNode, DataNode> parents, DataNode node) {
+        DataNode parent;
+        while ((parent = parents.get(node)) != node) {
+            node = parent;
+        }
+        return node;
+    }
 
-            // process last segment of the query list...
-            lastNode.performQueries(queries.subList(rangeStart, len), observer);
+    private void runRangesInParallel(Collection<List<NodeRange>> groups, DataDomainFlushObserver observer)
+            throws Exception {
+
+        if (groups.size() == 1) {
+            for (NodeRange range : groups.iterator().next()) {
+                range.run(observer);
+            }
+            return;
+        }
+
+        Transaction transaction = BaseTransaction.getThreadTransaction();
+
+        // transaction connections are not thread-safe to create, so open them for all
+        // the nodes on the calling thread before going parallel; worker threads will only
+        // look them up
+        for (List<NodeRange> group : groups) {
+            for (NodeRange range : group) {
+                range.node.getDataSource().getConnection().close();
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<>(groups.size() - 1);
+        Iterator<List<NodeRange>> it = groups.iterator();
+        List<NodeRange> localGroup = it.next();
+
+        while (it.hasNext()) {
+            List<NodeRange> group = it.next();
+            futures.add(domain.getFlushExecutor().submit(() -> {
+                BaseTransaction.bindThreadTransaction(transaction);
+                try {
+                    for (NodeRange range : group) {
+                        range.run(observer);
+                    }
+                } finally {
+                    BaseTransaction.bindThreadTransaction(null);
+                }
+                return null;
+            }));
+        }
+
+        // run one of the groups on the calling thread
+        Throwable failure = null;
+        try {
+            for (NodeRange range : localGroup) {
+                range.run(observer);
+            }
         } catch (Throwable th) {
-            BaseTransaction.getThreadTransaction().setRollbackOnly();
-            throw new CayenneRuntimeException("Transaction was rolledback.", th);
+            failure = th;
+        }
+
+        // wait for all the groups to finish before reporting the first failure, so that
+        // no query is still running by the time the transaction is rolled back
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw new CayenneRuntimeException("Parallel flush failed.", failure);
+        }
+    }
+
+    /**
+     * A contiguous range of commit queries that belong to the same DataNode.
+     */
+    private static class NodeRange {
+
+        final DataNode node;
+        final List<Query> queries;
+
+        NodeRange(DataNode node, List<Query> queries) {
+            this.node = node;
+            this.queries = queries;
+        }
+
+        void run(OperationObserver observer) {
+            node.performQueries(queries, observer);
         }
     }
 
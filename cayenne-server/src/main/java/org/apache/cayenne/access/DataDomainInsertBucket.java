@@ -19,8 +19,10 @@
 
 package org.apache.cayenne.access;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -110,6 +112,10 @@ class DataDomainInsertBucket extends DataDomainSyncBucket {
 
         PkGenerator pkGenerator = node.getAdapter().getPkGenerator();
 
+        // ids that need a generated PK, grouped by PK attribute, so that all
+        // keys for the attribute can be generated at once
+        Map<DbAttribute, List<Map<String, Object>>> pendingIds = new LinkedHashMap<>();
+
         for (Persistent object : objects) {
             ObjectId id = object.getObjectId();
             if (id == null || !id.isTemporary()) {
@@ -164,13 +170,30 @@ class DataDomainInsertBucket extends DataDomainSyncBucket {
                 }
 
                 // finally, use database generation mechanism
-                try {
-                    Object pkValue = pkGenerator.generatePk(node, dbAttr);
-                    idMap.put(dbAttrName, pkValue);
-                    autoPkDone = true;
-                } catch (Exception ex) {
-                    throw new CayenneRuntimeException("Error generating PK: %s", ex,  ex.getMessage());
+                List<Map<String, Object>> idMaps = pendingIds.get(dbAttr);
+                if (idMaps == null) {
+                    idMaps = new ArrayList<>();
+                    pendingIds.put(dbAttr, idMaps);
                 }
+
+                idMaps.add(idMap);
+                autoPkDone = true;
+            }
+        }
+
+        for (Map.Entry<DbAttribute, List<Map<String, Object>>> entry : pendingIds.entrySet()) {
+            DbAttribute dbAttr = entry.getKey();
+            List<Map<String, Object>> idMaps = entry.getValue();
+
+            List<Object> pkValues;
+            try {
+                pkValues = pkGenerator.generatePks(node, dbAttr, idMaps.size());
+            } catch (Exception ex) {
+                throw new CayenneRuntimeException("Error generating PK: %s", ex,  ex.getMessage());
+            }
+
+            for (int i = 0; i < idMaps.size(); i++) {
+                idMaps.get(i).put(dbAttr.getName(), pkValues.get(i));
             }
         }
     }
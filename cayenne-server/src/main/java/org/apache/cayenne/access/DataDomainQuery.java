@@ -29,6 +29,7 @@ import org.apache.cayenne.map.Procedure;
 import org.apache.cayenne.query.PrefetchTreeNode;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.QueryCacheStrategy;
+import org.apache.cayenne.query.QueryCancellationHandle;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.query.QueryRouter;
 import org.apache.cayenne.query.SQLAction;
@@ -145,6 +146,16 @@ class DataDomainQuery implements Query, QueryMetadata {
         return 0;
     }
 
+    @Override
+    public long getStatementTimeout() {
+        return 0;
+    }
+
+    @Override
+    public QueryCancellationHandle getCancellationHandle() {
+        return null;
+    }
+
     @Override
     public boolean isSuppressingDistinct() {
         return false;
@@ -674,6 +674,13 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
                     ? metadata.getClassDescriptor()
                     : resultSegment.getClassDescriptor();
 
+            // rows spilled to disk are resolved to objects lazily, on access
+            if (prefetchTree == null && mainRows instanceof SpilledDataRowList) {
+                updateResponse(mainRows, new SpilledObjectList(context, descriptor, metadata.isRefreshingObjects(),
+                        (SpilledDataRowList) mainRows));
+                return;
+            }
+
             PrefetchProcessorNode node = toResultsTree(descriptor, prefetchTree, mainRows);
             List<Persistent> objects = node.getObjects();
             updateResponse(mainRows, objects != null ? objects : new ArrayList<>(1));
@@ -63,6 +63,11 @@ import java.util.logging.Logger;
  */
 public class DataNode implements QueryEngine {
 
+	/**
+	 * @since 4.1
+	 */
+	public static final int DEFAULT_RESULT_SPILL_PAGE_SIZE = 1000;
+
 	protected String name;
 	protected DataSource dataSource;
 	protected DbAdapter adapter;
@@ -77,6 +82,11 @@ public class DataNode implements QueryEngine {
 	private BatchTranslatorFactory batchTranslatorFactory;
 	private SelectTranslatorFactory selectTranslatorFactory;
 	private SQLTemplateProcessor sqlTemplateProcessor;
+	private int batchSize;
+	private int multiRowInsertSize;
+	private int bulkInsertThreshold;
+	private int resultSpillThreshold;
+	private int resultSpillPageSize;
 
 	TransactionDataSource readThroughDataSource;
 
@@ -98,6 +108,7 @@ public class DataNode implements QueryEngine {
 
 		// make sure logger is not null
 		this.jdbcEventLogger = NoopJdbcEventLogger.getInstance();
+		this.resultSpillPageSize = DEFAULT_RESULT_SPILL_PAGE_SIZE;
 	}
 
 	/**
@@ -408,6 +419,99 @@ public class DataNode implements QueryEngine {
 		this.selectTranslatorFactory = selectTranslatorFactory;
 	}
 
+	/**
+	 * Returns the maximum number of rows sent to the database in a single JDBC
+	 * batch. Zero means that the batch size is not limited.
+	 * 
+	 * @since 4.1
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the maximum number of rows inserted with a single multi-row
+	 * INSERT statement. Zero means that multi-row inserts are disabled. Only
+	 * used with the adapters that support multi-row inserts.
+	 * 
+	 * @see DbAdapter#supportsMultiRowInsert()
+	 * @since 4.1
+	 */
+	public int getMultiRowInsertSize() {
+		return multiRowInsertSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setMultiRowInsertSize(int multiRowInsertSize) {
+		this.multiRowInsertSize = multiRowInsertSize;
+	}
+
+	/**
+	 * Returns the minimal number of rows in an INSERT batch that is loaded
+	 * with a database bulk load protocol. Zero means that bulk inserts are
+	 * disabled. Only used with the adapters that support bulk inserts.
+	 * 
+	 * @see org.apache.cayenne.access.jdbc.BulkInsertStrategy
+	 * @since 4.1
+	 */
+	public int getBulkInsertThreshold() {
+		return bulkInsertThreshold;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setBulkInsertThreshold(int bulkInsertThreshold) {
+		this.bulkInsertThreshold = bulkInsertThreshold;
+	}
+
+	/**
+	 * Returns the max number of rows of a select result kept on heap. Rows
+	 * past this number are stored in a temporary file and read back on
+	 * access. Zero means that results are never spilled to disk. Spilled
+	 * results are returned as {@link SpilledDataRowList} or
+	 * {@link SpilledObjectList}, that should be closed when no longer needed.
+	 * 
+	 * @see SpilledDataRowList
+	 * @since 4.1
+	 */
+	public int getResultSpillThreshold() {
+		return resultSpillThreshold;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setResultSpillThreshold(int resultSpillThreshold) {
+		this.resultSpillThreshold = resultSpillThreshold;
+	}
+
+	/**
+	 * Returns the number of spilled rows read back from disk and converted
+	 * to objects together.
+	 * 
+	 * @since 4.1
+	 */
+	public int getResultSpillPageSize() {
+		return resultSpillPageSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setResultSpillPageSize(int resultSpillPageSize) {
+		this.resultSpillPageSize = resultSpillPageSize;
+	}
+
     // a read-through DataSource that ensures returning the same connection
     // within
     // transaction.
@@ -0,0 +1,437 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.CompactDataRow;
+import org.apache.cayenne.DataRow;
+
+/**
+ * A temporary file storing DataRows in a compact binary form. Rows are appended
+ * sequentially and read back by pages of a fixed size, each page being memory
+ * mapped on demand. Column names are written once per distinct set of keys, and
+ * the values of common JDBC types are written without Java serialization. The
+ * file is deleted as soon as it is created, so it only lives as long as its open
+ * channel. The channel is closed explicitly, or, if the file has an owner that
+ * became unreachable without closing it, the next time a spill file is created.
+ * 
+ * @since 4.1
+ */
+class DataRowSpillFile {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte BYTES = 11;
+    private static final byte SQL_DATE = 12;
+    private static final byte SQL_TIME = 13;
+    private static final byte TIMESTAMP = 14;
+    private static final byte DATE = 15;
+    private static final byte CHARACTER = 16;
+    private static final byte SERIALIZED = 17;
+
+    // tracks the owners of open files, so that the files of the owners that were
+    // garbage collected without being closed can be closed too
+    private static final ReferenceQueue<Object> UNREACHABLE_OWNERS = new ReferenceQueue<>();
+    private static final Set<OwnerReference> OWNER_REFERENCES = ConcurrentHashMap.newKeySet();
+
+    private int pageSize;
+    private FileChannel channel;
+    private DataOutputStream out;
+    private long position;
+    private int rowCount;
+    private long[] pageOffsets;
+    private OwnerReference ownerReference;
+
+    // distinct key sets, indexed by their position in the list
+    private List<String[]> keySets;
+    private Map<List<String>, Integer> keySetIds;
+    private List<CompactDataRow.KeyIndex> keyIndexes;
+    private String[] lastKeys;
+    private int lastKeySetId;
+
+    private ByteArrayOutputStream rowBuffer;
+    private DataOutputStream rowOut;
+
+    DataRowSpillFile(int pageSize) throws IOException {
+        closeUnreachable();
+
+        this.pageSize = pageSize;
+        this.pageOffsets = new long[16];
+        this.keySets = new ArrayList<>();
+        this.keySetIds = new HashMap<>();
+        this.keyIndexes = new ArrayList<>();
+        this.rowBuffer = new ByteArrayOutputStream(1024);
+        this.rowOut = new DataOutputStream(rowBuffer);
+
+        File file = File.createTempFile("cayenne-rows", ".tmp");
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+
+        // the open channel keeps the file contents accessible
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    int size() {
+        return rowCount;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Appends a row to the end of the file.
+     */
+    void append(DataRow row) throws IOException {
+
+        if (rowCount % pageSize == 0) {
+            int page = rowCount / pageSize;
+            if (page == pageOffsets.length) {
+                pageOffsets = Arrays.copyOf(pageOffsets, page * 2);
+            }
+
+            pageOffsets[page] = position;
+        }
+
+        rowBuffer.reset();
+        writeRow(row, rowOut);
+        rowBuffer.writeTo(out);
+
+        position += rowBuffer.size();
+        rowCount++;
+    }
+
+    /**
+     * Flushes appended rows, after which the file can be read.
+     */
+    void finishWriting() throws IOException {
+        out.flush();
+        out = null;
+        rowBuffer = null;
+        rowOut = null;
+    }
+
+    /**
+     * Reads rows of a given page.
+     */
+    List<DataRow> readPage(int page) throws IOException {
+
+        int first = page * pageSize;
+        int count = Math.min(pageSize, rowCount - first);
+        long start = pageOffsets[page];
+        long end = first + count < rowCount ? pageOffsets[page + 1] : position;
+
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        List<DataRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(readRow(buffer));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Ties the file lifetime to the owner object, so that the file is closed
+     * after the owner becomes unreachable, even if it was never closed
+     * explicitly.
+     */
+    void registerOwner(Object owner) {
+        ownerReference = new OwnerReference(owner, channel);
+        OWNER_REFERENCES.add(ownerReference);
+    }
+
+    void close() throws IOException {
+        if (ownerReference != null) {
+            OWNER_REFERENCES.remove(ownerReference);
+            ownerReference.clear();
+            ownerReference = null;
+        }
+
+        channel.close();
+    }
+
+    /**
+     * Closes the files of the owners that were garbage collected.
+     */
+    static void closeUnreachable() {
+        Reference<?> reference;
+        while ((reference = UNREACHABLE_OWNERS.poll()) != null) {
+            OwnerReference ownerReference = (OwnerReference) reference;
+            OWNER_REFERENCES.remove(ownerReference);
+
+            try {
+                ownerReference.channel.close();
+            } catch (IOException e) {
+                // nothing we can do here, the file was deleted already
+            }
+        }
+    }
+
+    static final class OwnerReference extends PhantomReference<Object> {
+
+        final FileChannel channel;
+
+        OwnerReference(Object owner, FileChannel channel) {
+            super(owner, UNREACHABLE_OWNERS);
+            this.channel = channel;
+        }
+    }
+
+    private void writeRow(DataRow row, DataOutputStream out) throws IOException {
+        out.writeInt(keySetId(row));
+
+        String entityName = row.getEntityName();
+        if (entityName != null) {
+            out.writeBoolean(true);
+            writeString(entityName, out);
+        } else {
+            out.writeBoolean(false);
+        }
+
+        for (Object value : row.values()) {
+            writeValue(value, out);
+        }
+    }
+
+    private int keySetId(DataRow row) {
+
+        // fast path - rows read from the same ResultSet normally have the same keys
+        if (lastKeys != null && lastKeys.length == row.size()) {
+            Iterator<String> it = row.keySet().iterator();
+            int i = 0;
+            while (it.hasNext() && lastKeys[i].equals(it.next())) {
+                i++;
+            }
+
+            if (i == lastKeys.length) {
+                return lastKeySetId;
+            }
+        }
+
+        String[] keys = row.keySet().toArray(new String[0]);
+        List<String> key = Arrays.asList(keys);
+        Integer id = keySetIds.get(key);
+        if (id == null) {
+            id = keySets.size();
+            keySets.add(keys);
+            keyIndexes.add(new CompactDataRow.KeyIndex(keys));
+            keySetIds.put(key, id);
+        }
+
+        lastKeys = keys;
+        lastKeySetId = id;
+        return id;
+    }
+
+    private DataRow readRow(ByteBuffer in) throws IOException {
+        int keySetId = in.getInt();
+        CompactDataRow row = new CompactDataRow(keyIndexes.get(keySetId));
+
+        if (in.get() != 0) {
+            row.setEntityName(readString(in));
+        }
+
+        int width = keySets.get(keySetId).length;
+        for (int i = 0; i < width; i++) {
+            row.putAt(i, readValue(in));
+        }
+
+        return row;
+    }
+
+    private void writeValue(Object value, DataOutputStream out) throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString((String) value, out);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(decimal.unscaledValue().toByteArray(), out);
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray(), out);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes((byte[]) value, out);
+        } else if (value.getClass() == java.sql.Date.class) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == Time.class) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == Timestamp.class) {
+            Timestamp timestamp = (Timestamp) value;
+            out.writeByte(TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+
+            out.writeByte(SERIALIZED);
+            writeBytes(bytes.toByteArray(), out);
+        }
+    }
+
+    private Object readValue(ByteBuffer in) throws IOException {
+
+        byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case SHORT:
+                return in.getShort();
+            case BYTE:
+                return in.get();
+            case DOUBLE:
+                return in.getDouble();
+            case FLOAT:
+                return in.getFloat();
+            case BOOLEAN:
+                return in.get() != 0;
+            case BIG_DECIMAL:
+                int scale = in.getInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case BYTES:
+                return readBytes(in);
+            case SQL_DATE:
+                return new java.sql.Date(in.getLong());
+            case SQL_TIME:
+                return new Time(in.getLong());
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.getLong());
+                timestamp.setNanos(in.getInt());
+                return timestamp;
+            case DATE:
+                return new Date(in.getLong());
+            case CHARACTER:
+                return in.getChar();
+            case SERIALIZED:
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new CayenneRuntimeException("Error reading spilled value", e);
+                }
+            default:
+                throw new CayenneRuntimeException("Unknown spilled value type: %s", type);
+        }
+    }
+
+    private static void writeString(String string, DataOutputStream out) throws IOException {
+        writeBytes(string.getBytes(StandardCharsets.UTF_8), out);
+    }
+
+    private static String readString(ByteBuffer in) {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return bytes;
+    }
+}
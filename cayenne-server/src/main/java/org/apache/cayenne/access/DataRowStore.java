@@ -32,21 +32,34 @@ import org.apache.cayenne.event.EventBridge;
 import org.apache.cayenne.event.EventManager;
 import org.apache.cayenne.event.EventSubject;
 import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import org.apache.cayenne.util.concurrentlinkedhashmap.EvictionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 /**
- * A fixed size cache of DataRows keyed by ObjectId.
+ * A fixed size cache of DataRows keyed by ObjectId. The cache is bounded either by the
+ * number of snapshots or, if {@link Constants#SNAPSHOT_CACHE_MAX_BYTES_PROPERTY} is set,
+ * by the estimated memory size of the snapshots. Snapshots may optionally expire after a
+ * configured time-to-live, that can be set per entity via
+ * {@link Constants#SNAPSHOT_CACHE_TTL_PROPERTY}. If
+ * {@link Constants#SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY} is set, snapshots evicted from
+ * the cache are moved to an {@link OffHeapSnapshotTier} and brought back to the heap when
+ * accessed again.
  *
  * @since 1.1
  */
@@ -59,10 +72,48 @@ public class DataRowStore implements Serializable {
     public static final long SNAPSHOT_EXPIRATION_DEFAULT = 2 * 60 * 60; // default expiration time is 2 hours
     public static final int SNAPSHOT_CACHE_SIZE_DEFAULT = 10000;
 
+    /**
+     * @since 4.1
+     */
+    public static final int SNAPSHOT_CACHE_OFF_HEAP_SLAB_SIZE_DEFAULT = 64 * 1024 * 1024;
+
+    // max weighted capacity supported by ConcurrentLinkedHashMap
+    private static final long MAX_WEIGHTED_CAPACITY = 1 << 30;
+
     protected String name;
     private int maxSize;
     protected ConcurrentMap<ObjectId, DataRow> snapshots;
 
+    /**
+     * Weigher used to bound the cache by memory. Null if the cache is bounded by the
+     * number of snapshots.
+     *
+     * @since 4.1
+     */
+    protected DataRowWeigher weigher;
+
+    /**
+     * Expiration timestamps of the snapshots that have a time-to-live.
+     *
+     * @since 4.1
+     */
+    protected ConcurrentMap<ObjectId, Long> expirationTimes = new ConcurrentHashMap<>();
+
+    private long defaultTtlMs;
+    private transient RuntimeProperties properties;
+    private transient ConcurrentMap<String, Long> ttlMsByEntity = new ConcurrentHashMap<>();
+
+    /**
+     * Off-heap storage of the snapshots evicted from the cache. Null if off-heap tier is
+     * disabled.
+     *
+     * @since 4.1
+     */
+    protected transient OffHeapSnapshotTier offHeapTier;
+
+    protected transient DataRowStoreStatistics statistics;
+    private transient ObjectName mbeanName;
+
     protected transient EventManager eventManager;
     protected transient EventBridge remoteNotificationsHandler;
 
@@ -90,6 +141,7 @@ public class DataRowStore implements Serializable {
         this.name = name;
         this.eventSubject = createSubject();
         this.eventManager = eventManager;
+        this.statistics = new DataRowStoreStatistics(this);
         initWithProperties(properties);
     }
 
@@ -106,9 +158,82 @@ public class DataRowStore implements Serializable {
             logger.debug("DataRowStore property " + Constants.SNAPSHOT_CACHE_SIZE_PROPERTY + " = " + maxSize);
         }
 
-        this.snapshots = new ConcurrentLinkedHashMap.Builder<ObjectId, DataRow>()
-                .maximumWeightedCapacity(maxSize)
-                .build();
+        long maxBytes = properties.getLong(Constants.SNAPSHOT_CACHE_MAX_BYTES_PROPERTY, 0);
+        ConcurrentLinkedHashMap.Builder<ObjectId, DataRow> builder = new ConcurrentLinkedHashMap.Builder<ObjectId, DataRow>()
+                .listener(new SnapshotEvictionListener());
+
+        if (maxBytes > 0) {
+            // coarsen the weight unit if the requested size doesn't fit in the map capacity
+            int bytesPerUnit = (int) ((maxBytes + MAX_WEIGHTED_CAPACITY - 1) / MAX_WEIGHTED_CAPACITY);
+            this.weigher = new DataRowWeigher(bytesPerUnit);
+            builder.weigher(weigher).maximumWeightedCapacity((int) (maxBytes / bytesPerUnit));
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("DataRowStore property " + Constants.SNAPSHOT_CACHE_MAX_BYTES_PROPERTY + " = " + maxBytes);
+            }
+        } else {
+            builder.maximumWeightedCapacity(maxSize);
+        }
+
+        this.snapshots = builder.build();
+
+        long offHeapSize = properties.getLong(Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY, 0);
+        if (offHeapSize > 0) {
+            long slabSize = properties.getLong(
+                    Constants.SNAPSHOT_CACHE_OFF_HEAP_SLAB_SIZE_PROPERTY,
+                    SNAPSHOT_CACHE_OFF_HEAP_SLAB_SIZE_DEFAULT);
+            this.offHeapTier = new OffHeapSnapshotTier(
+                    offHeapSize,
+                    (int) Math.min(Math.min(slabSize, offHeapSize), Integer.MAX_VALUE),
+                    this::offHeapSnapshotDropped);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("DataRowStore property " + Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY + " = " + offHeapSize);
+            }
+        }
+
+        this.properties = properties;
+        this.defaultTtlMs = properties.getLong(Constants.SNAPSHOT_CACHE_TTL_PROPERTY, 0) * 1000;
+    }
+
+    /**
+     * Registers statistics of this store with the platform MBeanServer if enabled via
+     * {@link Constants#SNAPSHOT_CACHE_JMX_PROPERTY}. DataDomain calls this method for its
+     * shared cache only, so that the short-lived per-context stores are never registered.
+     * The MBean is unregistered on {@link #shutdown()}.
+     *
+     * @since 4.1
+     */
+    public void registerMBean() {
+        if (mbeanName != null || properties == null
+                || !properties.getBoolean(Constants.SNAPSHOT_CACHE_JMX_PROPERTY, false)) {
+            return;
+        }
+
+        try {
+            ObjectName objectName = new ObjectName("org.apache.cayenne:type=DataRowStore,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                logger.warn("DataRowStore MBean is already registered: " + objectName);
+                return;
+            }
+
+            server.registerMBean(statistics, objectName);
+            this.mbeanName = objectName;
+        } catch (Exception ex) {
+            logger.warn("Error registering DataRowStore MBean.", ex);
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (Exception ex) {
+                logger.info("Error unregistering DataRowStore MBean.", ex);
+            }
+            mbeanName = null;
+        }
     }
 
     protected void setEventBridge(EventBridge eventBridge) {
@@ -159,7 +284,7 @@ public class DataRowStore implements Serializable {
             // add snapshots if refresh is forced, or if a snapshot is
             // missing
 
-            DataRow cachedSnapshot = this.snapshots.get(oid);
+            DataRow cachedSnapshot = lookupSnapshot(oid);
             if (refresh || cachedSnapshot == null) {
 
                 DataRow newSnapshot = snapshots.get(i);
@@ -202,17 +327,39 @@ public class DataRowStore implements Serializable {
     }
 
     /**
-     * Returns maximum allowed cache size.
+     * Returns maximum allowed cache size. Note that if the cache is bounded by memory,
+     * the number of cached snapshots is not limited by this value.
      */
     public int maximumSize() {
         return maxSize;
     }
 
     /**
-     * Shuts down any remote notification connections, and clears internal cache.
+     * Returns the number of snapshots stored off-heap, or zero if off-heap tier is
+     * disabled. These snapshots are not included in {@link #size()}.
+     *
+     * @since 4.1
+     */
+    public int offHeapSize() {
+        return offHeapTier != null ? offHeapTier.size() : 0;
+    }
+
+    /**
+     * Returns hit, miss, eviction and expiration statistics of this DataRowStore.
+     *
+     * @since 4.1
+     */
+    public DataRowStoreStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Shuts down any remote notification connections, unregisters statistics MBean and
+     * clears internal cache.
      */
     public void shutdown() {
         stopListeners();
+        unregisterMBean();
         clear();
     }
 
@@ -259,7 +406,125 @@ public class DataRowStore implements Serializable {
      * ObjectId.
      */
     public DataRow getCachedSnapshot(ObjectId oid) {
-        return snapshots.get(oid);
+        DataRow snapshot = lookupSnapshot(oid);
+        if (snapshot != null) {
+            statistics.recordHit();
+        } else {
+            statistics.recordMiss();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot for the ObjectId, evicting it if it has expired.
+     */
+    private DataRow lookupSnapshot(ObjectId oid) {
+        DataRow snapshot = snapshots.get(oid);
+        if (snapshot == null && offHeapTier != null) {
+            snapshot = promoteSnapshot(oid);
+        }
+
+        if (snapshot != null && !expirationTimes.isEmpty()) {
+            Long expiresAt = expirationTimes.get(oid);
+            if (expiresAt != null && expiresAt <= currentTimeMillis()) {
+                if (snapshots.remove(oid, snapshot)) {
+                    expirationTimes.remove(oid, expiresAt);
+                    statistics.recordExpiration();
+                }
+                return null;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Moves a snapshot from the off-heap tier back to the heap.
+     */
+    private DataRow promoteSnapshot(ObjectId oid) {
+        DataRow snapshot = offHeapTier.remove(oid);
+        if (snapshot == null) {
+            return null;
+        }
+
+        statistics.recordOffHeapHit();
+
+        // a fresher snapshot may have been stored concurrently
+        DataRow existing = snapshots.putIfAbsent(oid, snapshot);
+        return existing != null ? existing : snapshot;
+    }
+
+    private DataRow storeSnapshot(ObjectId oid, DataRow snapshot) {
+        DataRow oldSnapshot = snapshots.put(oid, snapshot);
+        if (offHeapTier != null) {
+            if (oldSnapshot == null) {
+                oldSnapshot = offHeapTier.remove(oid);
+            } else {
+                offHeapTier.invalidate(oid);
+            }
+        }
+
+        long ttlMs = getTtlMs(oid.getEntityName());
+        if (ttlMs > 0) {
+            expirationTimes.put(oid, currentTimeMillis() + ttlMs);
+        } else if (!expirationTimes.isEmpty()) {
+            expirationTimes.remove(oid);
+        }
+        return oldSnapshot;
+    }
+
+    private DataRow removeSnapshot(ObjectId oid) {
+        DataRow oldSnapshot = snapshots.remove(oid);
+        if (offHeapTier != null) {
+            if (oldSnapshot == null) {
+                oldSnapshot = offHeapTier.remove(oid);
+            } else {
+                offHeapTier.invalidate(oid);
+            }
+        }
+
+        if (!expirationTimes.isEmpty()) {
+            expirationTimes.remove(oid);
+        }
+        return oldSnapshot;
+    }
+
+    private boolean isExpired(ObjectId oid) {
+        Long expiresAt = expirationTimes.get(oid);
+        return expiresAt != null && expiresAt <= currentTimeMillis();
+    }
+
+    private void offHeapSnapshotDropped(ObjectId oid) {
+        // expiration time is still needed if the snapshot was brought back to the heap
+        if (!snapshots.containsKey(oid)) {
+            expirationTimes.remove(oid);
+        }
+    }
+
+    /**
+     * Returns time-to-live in milliseconds for the snapshots of a given entity, or zero
+     * if they never expire.
+     */
+    long getTtlMs(String entityName) {
+        if (properties == null) {
+            return defaultTtlMs;
+        }
+
+        Long ttlMs = ttlMsByEntity.get(entityName);
+        if (ttlMs == null) {
+            ttlMs = properties.getLong(Constants.SNAPSHOT_CACHE_TTL_PROPERTY + "." + entityName, defaultTtlMs / 1000) * 1000;
+            ttlMsByEntity.put(entityName, ttlMs);
+        }
+        return ttlMs;
+    }
+
+    /**
+     * Returns current time used to calculate snapshot expiration. Exists mainly to
+     * allow overriding in tests.
+     *
+     * @since 4.1
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
     }
 
     /**
@@ -274,13 +539,17 @@ public class DataRowStore implements Serializable {
      */
     public void clear() {
         snapshots.clear();
+        expirationTimes.clear();
+        if (offHeapTier != null) {
+            offHeapTier.clear();
+        }
     }
 
     /**
      * Evicts a snapshot from cache without generating any SnapshotEvents.
      */
     public void forgetSnapshot(ObjectId id) {
-        snapshots.remove(id);
+        removeSnapshot(id);
     }
 
     /**
@@ -356,7 +625,7 @@ public class DataRowStore implements Serializable {
         // DELETED: evict deleted snapshots
         if (!deletedSnapshotIDs.isEmpty()) {
             for (ObjectId deletedSnapshotID : deletedSnapshotIDs) {
-                snapshots.remove(deletedSnapshotID);
+                removeSnapshot(deletedSnapshotID);
             }
         }
     }
@@ -365,7 +634,7 @@ public class DataRowStore implements Serializable {
         // INVALIDATED: forget snapshot, treat as expired from cache
         if (!invalidatedSnapshotIds.isEmpty()) {
             for (ObjectId invalidatedSnapshotId : invalidatedSnapshotIds) {
-                snapshots.remove(invalidatedSnapshotId);
+                removeSnapshot(invalidatedSnapshotId);
             }
         }
     }
@@ -378,7 +647,7 @@ public class DataRowStore implements Serializable {
             for (Map.Entry<ObjectId, DataRow> entry : updatedSnapshots.entrySet()) {
                 ObjectId key = entry.getKey();
                 DataRow newSnapshot = entry.getValue();
-                DataRow oldSnapshot = snapshots.put(key, newSnapshot);
+                DataRow oldSnapshot = storeSnapshot(key, newSnapshot);
 
                 // generate diff for the updated event, if this not a new
                 // snapshot
@@ -438,14 +707,14 @@ public class DataRowStore implements Serializable {
         if (!diffs.isEmpty()) {
             for (Map.Entry<ObjectId, DataRow> entry : diffs.entrySet()) {
                 ObjectId key = entry.getKey();
-                DataRow oldSnapshot = snapshots.remove(key);
+                DataRow oldSnapshot = removeSnapshot(key);
 
                 if (oldSnapshot == null) {
                     continue;
                 }
 
                 DataRow newSnapshot = oldSnapshot.applyDiff(entry.getValue());
-                snapshots.put(key, newSnapshot);
+                storeSnapshot(key, newSnapshot);
             }
         }
     }
@@ -489,6 +758,8 @@ public class DataRowStore implements Serializable {
 
         // restore subjects
         this.eventSubject = createSubject();
+        this.statistics = new DataRowStoreStatistics(this);
+        this.ttlMsByEntity = new ConcurrentHashMap<>();
     }
 
     void stopListeners() {
@@ -539,4 +810,34 @@ public class DataRowStore implements Serializable {
             }
         }
     }
+
+    /**
+     * Keeps expiration times and statistics in sync with the snapshots evicted by the
+     * cache.
+     */
+    private class SnapshotEvictionListener implements EvictionListener<ObjectId, DataRow>, Serializable {
+
+        private static final long serialVersionUID = 6165466618442541373L;
+
+        @Override
+        public void onEviction(ObjectId key, DataRow value) {
+
+            // demote the snapshot to the off-heap tier keeping its expiration time
+            if (offHeapTier != null && !isExpired(key) && offHeapTier.put(key, value)) {
+                if (statistics != null) {
+                    statistics.recordEviction();
+                }
+                return;
+            }
+
+            // the store may still be being deserialized
+            if (expirationTimes != null) {
+                expirationTimes.remove(key);
+            }
+
+            if (statistics != null) {
+                statistics.recordEviction();
+            }
+        }
+    }
 }
@@ -0,0 +1,148 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * Collects hit, miss, eviction and expiration counters of a {@link DataRowStore}. An
+ * instance can be registered with an MBeanServer as a standard MBean.
+ *
+ * @since 4.1
+ */
+public class DataRowStoreStatistics implements DataRowStoreStatisticsMBean {
+
+    private final DataRowStore store;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LongAdder expirations;
+    private final LongAdder offHeapHits;
+
+    public DataRowStoreStatistics(DataRowStore store) {
+        this.store = store;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.expirations = new LongAdder();
+        this.offHeapHits = new LongAdder();
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordExpiration() {
+        expirations.increment();
+    }
+
+    void recordOffHeapHit() {
+        offHeapHits.increment();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public long getOffHeapHitCount() {
+        return offHeapHits.sum();
+    }
+
+    @Override
+    public int getOffHeapSize() {
+        return store.offHeapSize();
+    }
+
+    @Override
+    public int getSize() {
+        return store.size();
+    }
+
+    @Override
+    public long getWeightedSize() {
+        if (store.snapshots instanceof ConcurrentLinkedHashMap) {
+            return ((ConcurrentLinkedHashMap<?, ?>) store.snapshots).weightedSize();
+        }
+        return store.size();
+    }
+
+    @Override
+    public long getCapacity() {
+        if (store.snapshots instanceof ConcurrentLinkedHashMap) {
+            return ((ConcurrentLinkedHashMap<?, ?>) store.snapshots).capacity();
+        }
+        return store.maximumSize();
+    }
+
+    @Override
+    public int getWeightUnitBytes() {
+        return store.weigher != null ? store.weigher.getBytesPerUnit() : 0;
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+        offHeapHits.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "DataRowStoreStatistics[hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+                + getEvictionCount() + ", expirations=" + getExpirationCount() + ", size=" + getSize() + "]";
+    }
+}
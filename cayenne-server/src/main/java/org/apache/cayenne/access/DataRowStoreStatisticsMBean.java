@@ -0,0 +1,96 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+/**
+ * JMX management interface of {@link DataRowStore} statistics.
+ *
+ * @since 4.1
+ */
+public interface DataRowStoreStatisticsMBean {
+
+    /**
+     * Returns the number of snapshot lookups that found a cached snapshot.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of snapshot lookups that found no cached snapshot or found an
+     * expired one.
+     */
+    long getMissCount();
+
+    /**
+     * Returns a ratio of hits to the total number of lookups, or zero if there were no
+     * lookups.
+     */
+    double getHitRatio();
+
+    /**
+     * Returns the number of snapshots evicted from the heap to keep the cache within its
+     * capacity, including those moved to the off-heap tier.
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the number of snapshots removed from the cache because their time-to-live
+     * has passed.
+     */
+    long getExpirationCount();
+
+    /**
+     * Returns the number of hits that were served by the off-heap tier. These hits are
+     * also included in {@link #getHitCount()}.
+     */
+    long getOffHeapHitCount();
+
+    /**
+     * Returns the number of snapshots stored in the off-heap tier.
+     */
+    int getOffHeapSize();
+
+    /**
+     * Returns the number of currently cached on-heap snapshots.
+     */
+    int getSize();
+
+    /**
+     * Returns the current weighted size of the cache. If the cache is bounded by memory,
+     * this is the estimated size of the cached snapshots in the units of
+     * {@link #getWeightUnitBytes()}, otherwise it is the same as {@link #getSize()}.
+     */
+    long getWeightedSize();
+
+    /**
+     * Returns the maximum weighted size of the cache.
+     */
+    long getCapacity();
+
+    /**
+     * Returns the number of bytes in a unit of weighted size, or zero if the cache is
+     * bounded by the number of entries.
+     */
+    int getWeightUnitBytes();
+
+    /**
+     * Resets all counters to zero.
+     */
+    void reset();
+}
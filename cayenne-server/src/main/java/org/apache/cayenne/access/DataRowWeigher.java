@@ -0,0 +1,115 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.util.concurrentlinkedhashmap.Weigher;
+
+/**
+ * Estimates memory footprint of a {@link DataRow} for the purpose of bounding
+ * {@link DataRowStore} by memory rather than by the number of snapshots. Estimation is
+ * rough: it accounts for the row itself, per-column entry overhead and the size of the
+ * most common value types (strings, LOBs as byte or char arrays, numbers and dates).
+ * Column names are not counted, as they are normally shared between the rows.
+ *
+ * @since 4.1
+ */
+public class DataRowWeigher implements Weigher<DataRow>, Serializable {
+
+    private static final long serialVersionUID = -1826212049063106398L;
+
+    static final int ROW_OVERHEAD = 64;
+    static final int ENTRY_OVERHEAD = 32;
+    static final int OBJECT_OVERHEAD = 16;
+    static final int ARRAY_OVERHEAD = 16;
+
+    private final int bytesPerUnit;
+
+    /**
+     * Creates a weigher that measures DataRows in bytes.
+     */
+    public DataRowWeigher() {
+        this(1);
+    }
+
+    /**
+     * Creates a weigher that measures DataRows in units of "bytesPerUnit" bytes. Allows
+     * to bound a cache by a memory size that exceeds the maximum weighted capacity of the
+     * underlying map.
+     */
+    public DataRowWeigher(int bytesPerUnit) {
+        if (bytesPerUnit < 1) {
+            throw new IllegalArgumentException("Invalid bytesPerUnit: " + bytesPerUnit);
+        }
+        this.bytesPerUnit = bytesPerUnit;
+    }
+
+    @Override
+    public int weightOf(DataRow row) {
+        long size = estimateSize(row);
+        long weight = (size + bytesPerUnit - 1) / bytesPerUnit;
+        return (int) Math.max(1, Math.min(weight, Integer.MAX_VALUE));
+    }
+
+    public int getBytesPerUnit() {
+        return bytesPerUnit;
+    }
+
+    /**
+     * Returns an estimated size of the row in bytes.
+     */
+    public static long estimateSize(DataRow row) {
+        long size = ROW_OVERHEAD;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            size += ENTRY_OVERHEAD + estimateValueSize(entry.getValue());
+        }
+        return size;
+    }
+
+    static long estimateValueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        if (value instanceof String) {
+            return OBJECT_OVERHEAD + ARRAY_OVERHEAD + 2L * ((String) value).length();
+        }
+
+        if (value instanceof byte[]) {
+            return ARRAY_OVERHEAD + ((byte[]) value).length;
+        }
+
+        if (value instanceof char[]) {
+            return ARRAY_OVERHEAD + 2L * ((char[]) value).length;
+        }
+
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 3 * OBJECT_OVERHEAD + ARRAY_OVERHEAD;
+        }
+
+        // boxed primitives, dates and other small objects
+        return OBJECT_OVERHEAD + 8;
+    }
+}
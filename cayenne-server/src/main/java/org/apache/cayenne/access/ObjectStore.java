@@ -66,7 +66,10 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ObjectStore implements Serializable, SnapshotEventListener, GraphManager {
 
     protected Map<Object, Persistent> objectMap;
-    protected Map<Object, ObjectDiff> changes;
+
+    // volatile, as the map is replaced after commit and rollback, while subclasses may
+    // read it without synchronization
+    protected volatile Map<Object, ObjectDiff> changes;
 
     /**
      * Map that tracks flattened paths for given object Id that is present in db.
@@ -114,7 +117,17 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         else {
             throw new CayenneRuntimeException("Object map is null.");
         }
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
+    }
+
+    /**
+     * Creates a map used to track object changes. Called on ObjectStore creation and
+     * every time the changes are reset after commit or rollback.
+     *
+     * @since 4.1
+     */
+    protected Map<Object, ObjectDiff> createChangesMap() {
+        return new HashMap<>();
     }
 
     /**
@@ -300,10 +313,12 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             ObjectId id = object.getObjectId();
 
             // remove object but not snapshot
-            objectMap.remove(id);
-            changes.remove(id);
-            if(id != null && trackedFlattenedPaths != null) {
-                trackedFlattenedPaths.remove(id);
+            if (id != null) {
+                objectMap.remove(id);
+                changes.remove(id);
+                if (trackedFlattenedPaths != null) {
+                    trackedFlattenedPaths.remove(id);
+                }
             }
             ids.add(id);
 
@@ -360,9 +375,9 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             }
         }
 
-        // reset changes ... using new HashMap to allow event listeners to analyze the
+        // reset changes ... using new map to allow event listeners to analyze the
         // original changes map after the rollback
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
     }
 
     /**
@@ -462,7 +477,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
 
         // create new instance of changes map so that event listeners who stored the
         // original diff don't get affected
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
     }
 
     /**
@@ -492,7 +507,11 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * @since 1.2
      */
     public synchronized DataRow getSnapshot(ObjectId oid) {
+        return getSnapshotNoSync(oid);
+    }
 
+    // non-synchronized version of getSnapshot for subclasses
+    final DataRow getSnapshotNoSync(ObjectId oid) {
         if (context != null && context.getChannel() != null) {
             ObjectIdQuery query = new ObjectIdQuery(oid, true, ObjectIdQuery.CACHE);
             List<?> results = context.getChannel().onQuery(context, query).firstList();
@@ -526,6 +545,11 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * Collection is returned by copy.
      */
     public synchronized List<Persistent> objectsInState(int state) {
+        return objectsInStateNoSync(state);
+    }
+
+    // non-synchronized version of objectsInState for subclasses
+    final List<Persistent> objectsInStateNoSync(int state) {
         List<Persistent> filteredObjects = new ArrayList<>();
 
         for (Persistent object : objectMap.values()) {
@@ -0,0 +1,268 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A second level snapshot cache of {@link DataRowStore} that keeps serialized snapshots
+ * outside of the Java heap in direct ByteBuffer slabs. Slabs form a circular log:
+ * snapshots are appended at the write position, and once the log is full, the oldest
+ * snapshots are overwritten. So the tier behaves as a FIFO cache, and removing a snapshot
+ * only removes it from the index, without reclaiming its space.
+ *
+ * @since 4.1
+ */
+public class OffHeapSnapshotTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapSnapshotTier.class);
+
+    private final ByteBuffer[] slabs;
+    private final int slabSize;
+    private final long capacity;
+
+    private final ConcurrentMap<ObjectId, Location> index;
+
+    // write order of the stored snapshots, used to clean up the index when the log wraps
+    private final Queue<Location> log;
+    private final Consumer<ObjectId> dropListener;
+
+    // absolute position in the log; the slab offset is calculated modulo the capacity
+    private long writePosition;
+
+    // only the first snapshot that can't be serialized is logged, to avoid flooding the log
+    private volatile boolean serializationFailureLogged;
+
+    /**
+     * Creates a tier of the specified total size.
+     *
+     * @param size         total size of the tier in bytes.
+     * @param slabSize     size of a single direct ByteBuffer. Also a maximum size of a
+     *                     serialized snapshot that can be stored in the tier.
+     * @param dropListener a callback notified of the snapshots overwritten by the newer
+     *                     snapshots. Can be null.
+     */
+    public OffHeapSnapshotTier(long size, int slabSize, Consumer<ObjectId> dropListener) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("Invalid slab size: " + slabSize);
+        }
+
+        if (size < slabSize) {
+            throw new IllegalArgumentException("Off-heap tier size must not be less than a slab size: " + size);
+        }
+
+        long slabCount = size / slabSize;
+        if (slabCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many slabs, increase slab size: " + slabCount);
+        }
+
+        this.slabSize = slabSize;
+        this.slabs = new ByteBuffer[(int) slabCount];
+        this.capacity = slabCount * slabSize;
+        this.index = new ConcurrentHashMap<>();
+        this.log = new ArrayDeque<>();
+        this.dropListener = dropListener;
+    }
+
+    /**
+     * Stores a serialized copy of the snapshot in the tier, replacing any snapshot
+     * previously stored for the same id. Snapshots that are larger than the slab size or
+     * that can't be serialized (e.g. contain non-serializable values) are not stored.
+     *
+     * @return whether the snapshot was stored.
+     */
+    public boolean put(ObjectId id, DataRow snapshot) {
+        byte[] bytes = serialize(snapshot);
+        if (bytes == null || bytes.length > slabSize) {
+            index.remove(id);
+            return false;
+        }
+
+        synchronized (this) {
+            long position = writePosition;
+
+            // snapshots never span slabs; skip the slab tail if the snapshot doesn't fit
+            int offset = (int) (position % slabSize);
+            if (offset + bytes.length > slabSize) {
+                position += slabSize - offset;
+                offset = 0;
+            }
+
+            writePosition = position + bytes.length;
+            dropOverwritten();
+
+            ByteBuffer slab = slab(position);
+            slab.position(offset);
+            slab.put(bytes);
+
+            Location location = new Location(id, position, bytes.length);
+            index.put(id, location);
+            log.add(location);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a snapshot stored in the tier, or null if it is not present.
+     */
+    public DataRow get(ObjectId id) {
+        byte[] bytes = read(id);
+        return bytes != null ? deserialize(bytes) : null;
+    }
+
+    /**
+     * Removes a snapshot from the tier returning its deserialized copy, or null if it was
+     * not present.
+     */
+    public DataRow remove(ObjectId id) {
+        byte[] bytes;
+        synchronized (this) {
+            bytes = read(id);
+            if (bytes != null) {
+                index.remove(id);
+            }
+        }
+        return bytes != null ? deserialize(bytes) : null;
+    }
+
+    /**
+     * Removes a snapshot from the tier without reading it.
+     */
+    public void invalidate(ObjectId id) {
+        index.remove(id);
+    }
+
+    /**
+     * Returns the number of snapshots currently stored in the tier.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns total size of the tier in bytes.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all snapshots from the tier, releasing the memory of its slabs. Slabs are
+     * allocated again when new snapshots are stored.
+     */
+    public synchronized void clear() {
+        index.clear();
+        log.clear();
+        Arrays.fill(slabs, null);
+        writePosition = 0;
+    }
+
+    private synchronized byte[] read(ObjectId id) {
+        Location location = index.get(id);
+        if (location == null) {
+            return null;
+        }
+
+        byte[] bytes = new byte[location.length];
+        ByteBuffer slab = slab(location.position);
+        slab.position((int) (location.position % slabSize));
+        slab.get(bytes);
+        return bytes;
+    }
+
+    private void dropOverwritten() {
+        long tail = writePosition - capacity;
+        Location oldest;
+        while ((oldest = log.peek()) != null && oldest.position < tail) {
+            log.poll();
+            if (index.remove(oldest.id, oldest) && dropListener != null) {
+                dropListener.accept(oldest.id);
+            }
+        }
+    }
+
+    private ByteBuffer slab(long position) {
+        int i = (int) ((position / slabSize) % slabs.length);
+
+        // allocate lazily, so that an unused tier doesn't reserve all of its memory
+        if (slabs[i] == null) {
+            slabs[i] = ByteBuffer.allocateDirect(slabSize);
+        }
+
+        return slabs[i];
+    }
+
+    /**
+     * Serializes the snapshot, returning null if it can't be serialized. Called from the
+     * cache eviction callback, so must not throw.
+     */
+    private byte[] serialize(DataRow snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(snapshot);
+        } catch (IOException e) {
+            if (!serializationFailureLogged) {
+                serializationFailureLogged = true;
+                logger.warn("Error serializing snapshot, snapshots that can't be serialized are not stored off-heap", e);
+            }
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataRow deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (DataRow) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new CayenneRuntimeException("Error deserializing snapshot", e);
+        }
+    }
+
+    private static final class Location {
+
+        final ObjectId id;
+        final long position;
+        final int length;
+
+        Location(ObjectId id, long position, int length) {
+            this.id = id;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.cayenne.access;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.CompactDataRow;
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.Persistent;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
@@ -57,7 +58,7 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
 
     ColumnDescriptor[] columns;
     int[] idIndices;
-    int rowCapacity;
+    CompactDataRow.KeyIndex rowKeyIndex;
     Map<Map, Persistent> resolved;
     List<DataRow> resolvedRows;
 
@@ -132,11 +133,11 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
      * Returns a DataRow from the flat row.
      */
     DataRow rowFromFlatRow(DataRow flatRow) {
-        DataRow row = new DataRow(rowCapacity);
+        CompactDataRow row = new CompactDataRow(rowKeyIndex);
 
         // extract subset of flat row columns, recasting to the target keys
-        for (ColumnDescriptor column : columns) {
-            row.put(column.getName(), flatRow.get(column.getDataRowKey()));
+        for (int i = 0; i < columns.length; i++) {
+            row.putAt(i, flatRow.get(columns[i].getDataRowKey()));
         }
 
         // since JDBC row reader won't inject JOINED entity name, we have to
@@ -234,9 +235,15 @@ class PrefetchProcessorJointNode extends PrefetchProcessorNode {
         }
 
         int size = targetSource.size();
-        this.rowCapacity = (int) Math.ceil(size / 0.75);
         this.columns = new ColumnDescriptor[size];
         targetSource.values().toArray(columns);
+
+        // column names are unique, so slot positions match column positions
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = columns[i].getName();
+        }
+        this.rowKeyIndex = new CompactDataRow.KeyIndex(names);
     }
 
     private ColumnDescriptor appendColumn(
@@ -0,0 +1,221 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ResultIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read-only list of DataRows that keeps only a limited number of rows on heap,
+ * with the rest of the rows stored in a temporary memory-mapped file. Spilled rows
+ * are read back by pages on access, and only a few recently accessed pages are
+ * kept in memory. Used for the results of selects exceeding the node "result spill
+ * threshold".
+ * 
+ * @see DataNode#getResultSpillThreshold()
+ * @since 4.1
+ */
+public class SpilledDataRowList extends AbstractList<DataRow> implements RandomAccess, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpilledDataRowList.class);
+
+    static final int CACHED_PAGES = 2;
+
+    protected List<DataRow> heapRows;
+    protected DataRowSpillFile spillFile;
+    protected Map<Integer, List<DataRow>> pages;
+
+    /**
+     * Reads all rows from the iterator, storing the rows after the first
+     * "threshold" rows in a temporary file. Returns a regular list if the result
+     * doesn't exceed the threshold, if the rows are not DataRows, or if some row
+     * has a value that can't be serialized.
+     */
+    public static List<?> readRows(ResultIterator<?> iterator, int threshold, int pageSize) {
+
+        List<Object> heapRows = new ArrayList<>();
+        while (heapRows.size() < threshold && iterator.hasNextRow()) {
+            heapRows.add(iterator.nextRow());
+        }
+
+        if (!iterator.hasNextRow()) {
+            return heapRows;
+        }
+
+        Object next = iterator.nextRow();
+        if (!(next instanceof DataRow)) {
+            heapRows.add(next);
+            heapRows.addAll(iterator.allRows());
+            return heapRows;
+        }
+
+        DataRowSpillFile spillFile = null;
+        DataRow row = (DataRow) next;
+        try {
+            spillFile = new DataRowSpillFile(pageSize);
+            spillFile.append(row);
+            while (iterator.hasNextRow()) {
+                row = (DataRow) iterator.nextRow();
+                spillFile.append(row);
+            }
+
+            spillFile.finishWriting();
+        } catch (NotSerializableException e) {
+
+            // the row has a value that can't be written to the file, so keep the
+            // whole result on heap instead of failing the select
+            LOGGER.info("Can't spill rows with non-serializable values, keeping the result in memory: "
+                    + e.getMessage());
+
+            try {
+                readAll(spillFile, heapRows);
+            } catch (IOException readError) {
+                throw new CayenneRuntimeException("Error reading rows from a spill file", readError);
+            } finally {
+                closeQuietly(spillFile);
+            }
+
+            heapRows.add(row);
+            heapRows.addAll(iterator.allRows());
+            return heapRows;
+        } catch (IOException e) {
+            closeQuietly(spillFile);
+            throw new CayenneRuntimeException("Error writing rows to a spill file", e);
+        } catch (RuntimeException e) {
+            closeQuietly(spillFile);
+            throw e;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        List<DataRow> dataRows = (List) heapRows;
+        return new SpilledDataRowList(dataRows, spillFile);
+    }
+
+    protected SpilledDataRowList(List<DataRow> heapRows, DataRowSpillFile spillFile) {
+        this.heapRows = heapRows;
+        this.spillFile = spillFile;
+        spillFile.registerOwner(this);
+        this.pages = new LinkedHashMap<Integer, List<DataRow>>(CACHED_PAGES + 1, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<DataRow>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+    }
+
+    @Override
+    public DataRow get(int index) {
+        int heapSize = heapRows.size();
+        if (index < heapSize) {
+            return heapRows.get(index);
+        }
+
+        if (index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        int spilledIndex = index - heapSize;
+        int pageSize = spillFile.getPageSize();
+        return page(spilledIndex / pageSize).get(spilledIndex % pageSize);
+    }
+
+    @Override
+    public int size() {
+        return heapRows.size() + spillFile.size();
+    }
+
+    /**
+     * Returns the number of rows stored in the spill file.
+     */
+    public int getSpilledSize() {
+        return spillFile.size();
+    }
+
+    /**
+     * Returns the number of rows read from the spill file together, which is also
+     * a recommended batch size for processing of this list.
+     */
+    public int getPageSize() {
+        return spillFile.getPageSize();
+    }
+
+    /**
+     * Closes the spill file. The rows stored in the file are no longer accessible
+     * after this call. A file of a list that was not closed is closed after the
+     * list is garbage collected, the next time some select result is spilled to
+     * disk, so closing the list explicitly is recommended.
+     */
+    @Override
+    public synchronized void close() {
+        pages.clear();
+
+        try {
+            spillFile.close();
+        } catch (IOException e) {
+            throw new CayenneRuntimeException("Error closing spill file", e);
+        }
+    }
+
+    private static void readAll(DataRowSpillFile spillFile, List<Object> rows) throws IOException {
+        spillFile.finishWriting();
+
+        int pages = (spillFile.size() + spillFile.getPageSize() - 1) / spillFile.getPageSize();
+        for (int i = 0; i < pages; i++) {
+            rows.addAll(spillFile.readPage(i));
+        }
+    }
+
+    private static void closeQuietly(DataRowSpillFile spillFile) {
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                // ignore, reporting the original error
+            }
+        }
+    }
+
+    private synchronized List<DataRow> page(int page) {
+        List<DataRow> rows = pages.get(page);
+        if (rows == null) {
+            try {
+                rows = spillFile.readPage(page);
+            } catch (IOException e) {
+                throw new CayenneRuntimeException("Error reading rows from a spill file", e);
+            }
+
+            pages.put(page, rows);
+        }
+
+        return rows;
+    }
+}
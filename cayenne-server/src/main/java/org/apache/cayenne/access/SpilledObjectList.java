@@ -0,0 +1,124 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.map.LifecycleEvent;
+import org.apache.cayenne.reflect.ClassDescriptor;
+import org.apache.cayenne.reflect.LifecycleCallbackRegistry;
+
+/**
+ * A read-only list of persistent objects backed by a {@link SpilledDataRowList}.
+ * Objects are resolved from the DataRows by pages on access, and only a few
+ * recently accessed pages are referenced by the list, so the objects of the pages
+ * that are not in use can be garbage collected together with their DataRows.
+ * Closing the list releases the temporary file storing the rows.
+ * 
+ * @since 4.1
+ */
+public class SpilledObjectList extends AbstractList<Object> implements RandomAccess, AutoCloseable {
+
+    protected DataContext context;
+    protected ClassDescriptor descriptor;
+    protected boolean refresh;
+    protected SpilledDataRowList rows;
+    protected int pageSize;
+    protected Map<Integer, List<Persistent>> pages;
+
+    // pages resolved at least once, that had their POST_LOAD callbacks invoked
+    protected BitSet resolvedPages;
+
+    SpilledObjectList(DataContext context, ClassDescriptor descriptor, boolean refresh, SpilledDataRowList rows) {
+        this.context = context;
+        this.descriptor = descriptor;
+        this.refresh = refresh;
+        this.rows = rows;
+        this.pageSize = rows.getPageSize();
+        this.resolvedPages = new BitSet();
+        this.pages = new LinkedHashMap<Integer, List<Persistent>>(SpilledDataRowList.CACHED_PAGES + 1, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Persistent>> eldest) {
+                return size() > SpilledDataRowList.CACHED_PAGES;
+            }
+        };
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        return page(index / pageSize).get(index % pageSize);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Closes the spill file storing the rows of this list. The objects are no
+     * longer accessible after this call.
+     * 
+     * @see SpilledDataRowList#close()
+     */
+    @Override
+    public synchronized void close() {
+        pages.clear();
+        rows.close();
+    }
+
+    private synchronized List<Persistent> page(int page) {
+        List<Persistent> objects = pages.get(page);
+        if (objects == null) {
+            int from = page * pageSize;
+            List<DataRow> pageRows = new ArrayList<>(rows.subList(from, Math.min(from + pageSize, rows.size())));
+
+            // only refresh objects with the fetched data once, as on subsequent
+            // page reads the data may be older than the object state
+            boolean firstRead = !resolvedPages.get(page);
+            objects = new ObjectResolver(context, descriptor, refresh && firstRead)
+                    .synchronizedObjectsFromDataRows(pageRows);
+
+            if (firstRead) {
+                resolvedPages.set(page);
+
+                LifecycleCallbackRegistry callbackRegistry = context.getEntityResolver().getCallbackRegistry();
+                if (!callbackRegistry.isEmpty(LifecycleEvent.POST_LOAD)) {
+                    callbackRegistry.performCallbacks(LifecycleEvent.POST_LOAD, objects);
+                }
+            }
+
+            pages.put(page, objects);
+        }
+
+        return objects;
+    }
+}
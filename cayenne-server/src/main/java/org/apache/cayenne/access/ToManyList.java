@@ -76,6 +76,21 @@ public class ToManyList<E> extends PersistentObjectList<E> implements Serializab
         return true;
     }
 
+    @Override
+    protected List<E> resolveFromDB() {
+        // the list may be filled together with the lists of other objects
+        // fetched along with the parent
+        if (relationshipOwner.getObjectContext() instanceof DataContext
+                && ((DataContext) relationshipOwner.getObjectContext()).resolveFaultInBatch(
+                        relationshipOwner,
+                        relationshipName)
+                && objectList != null) {
+            return objectList;
+        }
+
+        return super.resolveFromDB();
+    }
+
     @Override
     public String toString() {
         return getClass().getName() + "@" + System.identityHashCode(this);
@@ -73,6 +73,22 @@ public class ToOneFault extends Fault {
     }
 
     Object doResolveFault(Persistent sourceObject, String relationshipName) {
+
+        ObjectContext context = sourceObject.getObjectContext();
+        if (context instanceof DataContext
+                && ((DataContext) context).resolveFaultInBatch(sourceObject, relationshipName)) {
+
+            Object target = context
+                    .getEntityResolver()
+                    .getClassDescriptor(sourceObject.getObjectId().getEntityName())
+                    .getProperty(relationshipName)
+                    .readPropertyDirectly(sourceObject);
+
+            if (!(target instanceof Fault)) {
+                return target;
+            }
+        }
+
         RelationshipQuery query = new RelationshipQuery(
                 sourceObject.getObjectId(),
                 relationshipName,
@@ -0,0 +1,193 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.BatchQueryRow;
+import org.apache.cayenne.query.InsertBatchQuery;
+
+/**
+ * A superclass of bulk insert strategies that stream rows to the database in a
+ * text format. Values are converted to text here, bypassing ExtendedTypes, so
+ * only the common value types are supported: strings, numbers, booleans, dates
+ * and UUIDs. A batch with any other value type is not bulk-inserted.
+ * 
+ * @since 4.1
+ */
+public abstract class BaseBulkInsertStrategy implements BulkInsertStrategy {
+
+	@Override
+	public long insert(Connection connection, InsertBatchQuery query, InsertBatchTranslator translator, DataNode node)
+			throws Exception {
+
+		List<DbAttribute> columns = new ArrayList<>();
+		List<Integer> columnIndexes = new ArrayList<>();
+
+		DbAttributeBinding[] bindings = translator.getBindings();
+		for (int i = 0; i < bindings.length; i++) {
+			if (!bindings[i].isExcluded()) {
+				columns.add(bindings[i].getAttribute());
+				columnIndexes.add(i);
+			}
+		}
+
+		if (columns.isEmpty()) {
+			return -1;
+		}
+
+		// encode all rows before sending anything to the DB, so that we can
+		// still fall back to JDBC batch if some value is unsupported
+		StringBuilder data = new StringBuilder();
+		for (BatchQueryRow row : query.getRows()) {
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					data.append(getFieldSeparator());
+				}
+
+				Object value = toBulkValue(row.getValue(columnIndexes.get(i)), columns.get(i));
+				if (value == UNSUPPORTED) {
+					return -1;
+				}
+
+				appendValue(data, value);
+			}
+
+			data.append('\n');
+		}
+
+		if (!isSupported(connection)) {
+			return -1;
+		}
+
+		String sql = createSql(node.getAdapter().getQuotingStrategy(), query.getDbEntity(), columns);
+
+		JdbcEventLogger logger = node.getJdbcEventLogger();
+		logger.log(sql);
+		long count = load(connection, sql, data.toString());
+		if (count >= 0) {
+			logger.logUpdateCount((int) Math.min(count, Integer.MAX_VALUE));
+		}
+		return count;
+	}
+
+	static final Object UNSUPPORTED = new Object();
+
+	/**
+	 * Normalizes a value for bulk load. Returns null, a String, a Boolean or
+	 * a byte[], or an UNSUPPORTED marker.
+	 */
+	Object toBulkValue(Object value, DbAttribute attribute) {
+
+		if (value == null || value instanceof String || value instanceof Boolean) {
+			return value;
+		}
+
+		if (value instanceof BigDecimal) {
+			return ((BigDecimal) value).toPlainString();
+		}
+
+		if (value instanceof Number || value instanceof Character || value instanceof UUID
+				|| value instanceof Temporal) {
+			return value.toString();
+		}
+
+		if (value instanceof byte[]) {
+			return supportsBinary() ? value : UNSUPPORTED;
+		}
+
+		if (value instanceof Date) {
+			if (value instanceof java.sql.Date || value instanceof Time || value instanceof Timestamp) {
+				return value.toString();
+			}
+
+			long time = ((Date) value).getTime();
+			switch (attribute.getType()) {
+			case Types.DATE:
+				return new java.sql.Date(time).toString();
+			case Types.TIME:
+				return new Time(time).toString();
+			default:
+				return new Timestamp(time).toString();
+			}
+		}
+
+		return UNSUPPORTED;
+	}
+
+	/**
+	 * Appends a value, that is either null, a String, a Boolean or a byte[], to
+	 * the data buffer, escaping it as required by the load format.
+	 */
+	protected abstract void appendValue(StringBuilder data, Object value);
+
+	protected abstract char getFieldSeparator();
+
+	protected abstract boolean supportsBinary();
+
+	/**
+	 * Returns true if the connection can be used for bulk loading.
+	 */
+	protected abstract boolean isSupported(Connection connection) throws Exception;
+
+	protected abstract String createSql(QuotingStrategy strategy, DbEntity entity, List<DbAttribute> columns);
+
+	/**
+	 * Sends the data to the database, returning the number of loaded rows, or
+	 * -1 if the database refused the load without modifying any data.
+	 */
+	protected abstract long load(Connection connection, String sql, String data) throws Exception;
+
+	/**
+	 * Loads a JDBC driver class, returning null if the driver is not
+	 * available.
+	 */
+	protected static Class<?> loadDriverClass(String className) {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader != null) {
+			try {
+				return Class.forName(className, true, loader);
+			} catch (ClassNotFoundException e) {
+				// try the class loader of this class
+			}
+		}
+
+		try {
+			return Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+}
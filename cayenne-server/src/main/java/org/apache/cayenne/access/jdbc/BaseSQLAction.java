@@ -21,12 +21,16 @@ package org.apache.cayenne.access.jdbc;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 
+import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.OperationObserver;
+import org.apache.cayenne.access.SpilledDataRowList;
 import org.apache.cayenne.access.jdbc.reader.RowReader;
 import org.apache.cayenne.query.Query;
+import org.apache.cayenne.query.QueryCancellationHandle;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.query.SQLAction;
 
@@ -79,6 +83,59 @@ public abstract class BaseSQLAction implements SQLAction {
         }
     }
 
+    /**
+     * Reads all rows from the iterator. If the node has a result spill threshold,
+     * and the query is not paginated and has no prefetches, the rows past the
+     * threshold are stored in a temporary file.
+     * 
+     * @see SpilledDataRowList
+     * @since 4.1
+     */
+    protected static List<?> readRows(ResultIterator<?> iterator, DataNode dataNode, QueryMetadata metadata) {
+
+        int threshold = dataNode.getResultSpillThreshold();
+        if (threshold <= 0 || metadata.getPageSize() > 0 || metadata.getPrefetchTree() != null) {
+            return iterator.allRows();
+        }
+
+        return SpilledDataRowList.readRows(iterator, threshold, dataNode.getResultSpillPageSize());
+    }
+
+    /**
+     * Configures a statement that is about to be executed with the timeout from
+     * the query metadata and registers it with the query cancellation handle, if
+     * any. A statement passed to this method must later be passed to
+     * {@link #afterExecute(Statement, QueryMetadata)}.
+     * 
+     * @since 4.1
+     */
+    protected static void beforeExecute(Statement statement, QueryMetadata metadata) throws SQLException {
+
+        long timeout = metadata.getStatementTimeout();
+        if (timeout > 0) {
+            // JDBC timeout is in seconds, round up to avoid turning a short timeout into no timeout
+            statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (timeout + 999) / 1000));
+        }
+
+        QueryCancellationHandle handle = metadata.getCancellationHandle();
+        if (handle != null) {
+            handle.register(statement);
+        }
+    }
+
+    /**
+     * Unregisters a statement from the query cancellation handle once it is no
+     * longer running.
+     * 
+     * @since 4.1
+     */
+    protected static void afterExecute(Statement statement, QueryMetadata metadata) {
+        QueryCancellationHandle handle = metadata.getCancellationHandle();
+        if (handle != null) {
+            handle.unregister(statement);
+        }
+    }
+
     /**
      * Returns a value of the offset that will be used to rewind the ResultSet
      * within the SQL action before reading the result rows. The default
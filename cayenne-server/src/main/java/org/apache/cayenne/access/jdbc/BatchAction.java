@@ -19,6 +19,7 @@
 
 package org.apache.cayenne.access.jdbc;
 
+import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.OperationObserver;
@@ -26,6 +27,7 @@ import org.apache.cayenne.access.OptimisticLockException;
 import org.apache.cayenne.access.jdbc.reader.RowReader;
 import org.apache.cayenne.access.translator.DbAttributeBinding;
 import org.apache.cayenne.access.translator.batch.BatchTranslator;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.TypesMapping;
 import org.apache.cayenne.log.JdbcEventLogger;
@@ -34,20 +36,33 @@ import org.apache.cayenne.map.ObjAttribute;
 import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.BatchQueryRow;
 import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.query.QueryMetadata;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * @since 1.2
  */
 public class BatchAction extends BaseSQLAction {
 
+	/**
+	 * Maximum number of parameters bound to a single multi-row INSERT
+	 * statement. Most drivers can't handle more than 32767 (or 65535)
+	 * parameters per statement.
+	 * 
+	 * @since 4.1
+	 */
+	static final int MAX_MULTI_ROW_INSERT_PARAMETERS = 32767;
+
 	protected boolean runningAsBatch;
 	protected BatchQuery query;
 	protected RowDescriptor keyRowDescriptor;
@@ -84,7 +99,16 @@ public class BatchAction extends BaseSQLAction {
 		BatchTranslator translator = createTranslator();
 		boolean generatesKeys = hasGeneratedKeys();
 
-		if (runningAsBatch && !generatesKeys) {
+		if (runAsBulkInsert(connection, translator, observer, generatesKeys)) {
+			return;
+		}
+
+		int multiRowInsertSize = getMultiRowInsertSize(translator, generatesKeys);
+		if (multiRowInsertSize > 1) {
+			runAsMultiRowInsert(connection, (InsertBatchTranslator) translator, observer, multiRowInsertSize);
+		} else if (generatesKeys && dataNode.getAdapter().supportsBatchGeneratedKeys()) {
+			runAsBatch(connection, translator, observer, true);
+		} else if (runningAsBatch && !generatesKeys) {
 			runAsBatch(connection, translator, observer);
 		} else {
 			runAsIndividualQueries(connection, translator, observer, generatesKeys);
@@ -97,6 +121,18 @@ public class BatchAction extends BaseSQLAction {
 
 	protected void runAsBatch(Connection con, BatchTranslator translator, OperationObserver delegate)
 			throws SQLException, Exception {
+		runAsBatch(con, translator, delegate, false);
+	}
+
+	/**
+	 * Executes the query as a JDBC batch. If "generatesKeys" is true, generated
+	 * keys are read after each executed chunk of the batch and matched to the
+	 * rows in order.
+	 * 
+	 * @since 4.1
+	 */
+	protected void runAsBatch(Connection con, BatchTranslator translator, OperationObserver delegate,
+			boolean generatesKeys) throws SQLException, Exception {
 
 		String sql = translator.getSql();
 		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
@@ -109,44 +145,217 @@ public class BatchAction extends BaseSQLAction {
 
 		DbAdapter adapter = dataNode.getAdapter();
 
-		try (PreparedStatement statement = con.prepareStatement(sql)) {
-			for (BatchQueryRow row : query.getRows()) {
+		List<BatchQueryRow> rows = query.getRows();
+		int batchSize = dataNode.getBatchSize() > 0 ? dataNode.getBatchSize() : rows.size();
 
-				DbAttributeBinding[] bindings = translator.updateBindings(row);
-				logger.logQueryParameters("batch bind", bindings);
-				bind(adapter, statement, bindings);
+		try (PreparedStatement statement = prepareStatement(con, sql, adapter, generatesKeys)) {
+			QueryMetadata metadata = query.getMetaData(dataNode.getEntityResolver());
+			beforeExecute(statement, metadata);
+			try {
+				int[] results = new int[rows.size()];
+				int added = 0;
+				int executed = 0;
 
-				statement.addBatch();
-			}
+				for (BatchQueryRow row : rows) {
 
-			// execute the whole batch
-			int[] results = statement.executeBatch();
-			delegate.nextBatchCount(query, results);
+					DbAttributeBinding[] bindings = translator.updateBindings(row);
+					logger.logQueryParameters("batch bind", bindings);
+					bind(adapter, statement, bindings);
 
-			if (isLoggable) {
-				int totalUpdateCount = 0;
-				for (int result : results) {
+					statement.addBatch();
+					added++;
 
-					// this means Statement.SUCCESS_NO_INFO or
-					// Statement.EXECUTE_FAILED
-					if (result < 0) {
-						totalUpdateCount = Statement.SUCCESS_NO_INFO;
-						break;
+					// execute the batch in chunks of "batchSize" rows
+					if (added - executed == batchSize || added == results.length) {
+						int chunkStart = executed;
+						executed = executeBatch(statement, results, executed);
+
+						if (generatesKeys) {
+							processGeneratedKeys(statement, delegate, rows.subList(chunkStart, added));
+						}
 					}
+				}
+
+				delegate.nextBatchCount(query, results);
+
+				if (isLoggable) {
+					int totalUpdateCount = 0;
+					for (int result : results) {
 
-					totalUpdateCount += result;
+						// this means Statement.SUCCESS_NO_INFO or
+						// Statement.EXECUTE_FAILED
+						if (result < 0) {
+							totalUpdateCount = Statement.SUCCESS_NO_INFO;
+							break;
+						}
+
+						totalUpdateCount += result;
+					}
+
+					logger.logUpdateCount(totalUpdateCount);
 				}
+			} finally {
+				afterExecute(statement, metadata);
+			}
+		}
+	}
+
+	/**
+	 * Executes the rows added to the statement batch, copying update counts to
+	 * the "results" array starting at "offset" position. Returns the total
+	 * number of executed rows.
+	 */
+	private int executeBatch(PreparedStatement statement, int[] results, int offset) throws SQLException {
+		int[] chunkResults = statement.executeBatch();
+		System.arraycopy(chunkResults, 0, results, offset, Math.min(chunkResults.length, results.length - offset));
+		return offset + chunkResults.length;
+	}
+
+	/**
+	 * Returns a strategy to bulk insert large INSERT batches, or null if bulk
+	 * inserts are not supported. This implementation returns null, adapter
+	 * specific actions may override it.
+	 * 
+	 * @since 4.1
+	 */
+	protected BulkInsertStrategy createBulkInsertStrategy() {
+		return null;
+	}
 
-				logger.logUpdateCount(totalUpdateCount);
+	/**
+	 * Inserts the batch with a {@link BulkInsertStrategy} if this is an INSERT
+	 * batch with pre-generated keys that is large enough, returning true if the
+	 * batch was inserted.
+	 * 
+	 * @since 4.1
+	 */
+	protected boolean runAsBulkInsert(Connection connection, BatchTranslator translator,
+			OperationObserver delegate, boolean generatesKeys) throws Exception {
+
+		int threshold = dataNode.getBulkInsertThreshold();
+		if (threshold <= 0 || generatesKeys || !(translator instanceof InsertBatchTranslator)
+				|| query.getRows().size() < threshold) {
+			return false;
+		}
+
+		BulkInsertStrategy strategy = createBulkInsertStrategy();
+		if (strategy == null) {
+			return false;
+		}
+
+		long count = strategy.insert(connection, (InsertBatchQuery) query, (InsertBatchTranslator) translator,
+				dataNode);
+		if (count < 0) {
+			return false;
+		}
+
+		// bulk loaders may skip rows that failed to load instead of throwing
+		// (e.g. MySQL LOAD DATA LOCAL turns errors into warnings), so make sure
+		// that all the rows made it to the DB
+		if (count != query.getRows().size()) {
+			throw new CayenneRuntimeException("Bulk insert into '%s' loaded %d rows instead of %d",
+					query.getDbEntity().getName(), count, query.getRows().size());
+		}
+
+		delegate.nextCount(query, (int) Math.min(count, Integer.MAX_VALUE));
+		return true;
+	}
+
+	/**
+	 * Returns the number of rows to insert with a single multi-row INSERT
+	 * statement, or zero if multi-row inserts can't be used for this query.
+	 * 
+	 * @since 4.1
+	 */
+	protected int getMultiRowInsertSize(BatchTranslator translator, boolean generatesKeys) {
+
+		int multiRowInsertSize = dataNode.getMultiRowInsertSize();
+		if (multiRowInsertSize <= 1 || generatesKeys || !(translator instanceof InsertBatchTranslator)
+				|| !dataNode.getAdapter().supportsMultiRowInsert() || query.getRows().size() < 2) {
+			return 0;
+		}
+
+		int columnCount = ((InsertBatchTranslator) translator).getColumnCount();
+		if (columnCount == 0) {
+			return 0;
+		}
+
+		return Math.min(multiRowInsertSize, Math.max(1, MAX_MULTI_ROW_INSERT_PARAMETERS / columnCount));
+	}
+
+	/**
+	 * Executes INSERT batch as a series of multi-row INSERT statements, each
+	 * inserting up to "rowsPerStatement" rows.
+	 * 
+	 * @since 4.1
+	 */
+	protected void runAsMultiRowInsert(Connection connection, InsertBatchTranslator translator,
+			OperationObserver delegate, int rowsPerStatement) throws SQLException, Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+		DbAdapter adapter = dataNode.getAdapter();
+
+		List<BatchQueryRow> rows = query.getRows();
+		int fullStatements = rows.size() / rowsPerStatement;
+		int remainder = rows.size() % rowsPerStatement;
+
+		if (fullStatements > 0) {
+			String sql = translator.getSql(rowsPerStatement);
+			logger.log(sql);
+
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				QueryMetadata metadata = query.getMetaData(dataNode.getEntityResolver());
+				beforeExecute(statement, metadata);
+				try {
+					for (int i = 0; i < fullStatements; i++) {
+						int from = i * rowsPerStatement;
+						runMultiRowInsert(statement, translator, adapter, delegate, rows.subList(from, from
+								+ rowsPerStatement));
+					}
+				} finally {
+					afterExecute(statement, metadata);
+				}
 			}
 		}
+
+		if (remainder > 0) {
+			String sql = translator.getSql(remainder);
+			logger.log(sql);
+
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				QueryMetadata metadata = query.getMetaData(dataNode.getEntityResolver());
+				beforeExecute(statement, metadata);
+				try {
+					runMultiRowInsert(statement, translator, adapter, delegate, rows.subList(rows.size() - remainder,
+							rows.size()));
+				} finally {
+					afterExecute(statement, metadata);
+				}
+			}
+		}
+	}
+
+	private void runMultiRowInsert(PreparedStatement statement, InsertBatchTranslator translator, DbAdapter adapter,
+			OperationObserver delegate, List<BatchQueryRow> rows) throws SQLException, Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+
+		for (int i = 0; i < rows.size(); i++) {
+			DbAttributeBinding[] bindings = translator.updateBindings(rows.get(i), i);
+			logger.logQueryParameters("bind", bindings);
+			bind(adapter, statement, bindings);
+		}
+
+		int updated = statement.executeUpdate();
+		delegate.nextCount(query, updated);
+		logger.logUpdateCount(updated);
 	}
 
 	/**
 	 * Executes batch as individual queries over the same prepared statement.
 	 */
 	protected void runAsIndividualQueries(Connection connection, BatchTranslator translator,
-			OperationObserver delegate, boolean generatesKeys) throws SQLException, Exception {
+			OperationObserver delegate, boolean generatesKeys) throws Exception {
 
 		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
 		boolean useOptimisticLock = query.isUsingOptimisticLocking();
@@ -161,26 +370,32 @@ public class BatchAction extends BaseSQLAction {
 		DbAdapter adapter = dataNode.getAdapter();
 
 		try (PreparedStatement statement = prepareStatement(connection, queryStr, adapter, generatesKeys)) {
-			for (BatchQueryRow row : query.getRows()) {
+			QueryMetadata metadata = query.getMetaData(dataNode.getEntityResolver());
+			beforeExecute(statement, metadata);
+			try {
+				for (BatchQueryRow row : query.getRows()) {
 
-				DbAttributeBinding[] bindings = translator.updateBindings(row);
-				logger.logQueryParameters("bind", bindings);
+					DbAttributeBinding[] bindings = translator.updateBindings(row);
+					logger.logQueryParameters("bind", bindings);
 
-				bind(adapter, statement, bindings);
+					bind(adapter, statement, bindings);
 
-				int updated = statement.executeUpdate();
-				if (useOptimisticLock && updated != 1) {
-					throw new OptimisticLockException(row.getObjectId(), query.getDbEntity(), queryStr,
-							row.getQualifier());
-				}
+					int updated = statement.executeUpdate();
+					if (useOptimisticLock && updated != 1) {
+						throw new OptimisticLockException(row.getObjectId(), query.getDbEntity(), queryStr,
+								row.getQualifier());
+					}
 
-				delegate.nextCount(query, updated);
+					delegate.nextCount(query, updated);
 
-				if (generatesKeys) {
-					processGeneratedKeys(statement, delegate, row);
-				}
+					if (generatesKeys) {
+						processGeneratedKeys(statement, delegate, row);
+					}
 
-				logger.logUpdateCount(updated);
+					logger.logUpdateCount(updated);
+				}
+			} finally {
+				afterExecute(statement, metadata);
 			}
 		}
 	}
@@ -225,6 +440,40 @@ public class BatchAction extends BaseSQLAction {
 			throws SQLException {
 
 		ResultSet keysRS = statement.getGeneratedKeys();
+		ResultIterator iterator = new JDBCResultIterator(null, keysRS, keyRowReader(keysRS));
+
+		observer.nextGeneratedRows(query, iterator, row.getObjectId());
+	}
+
+	/**
+	 * Extracts generated keys for a batch of rows, matching the keys to the
+	 * rows in order.
+	 * 
+	 * @since 4.1
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected void processGeneratedKeys(Statement statement, OperationObserver observer, List<BatchQueryRow> rows)
+			throws SQLException {
+
+		ResultSet keysRS = statement.getGeneratedKeys();
+
+		List<?> keys;
+		try (ResultIterator iterator = new JDBCResultIterator(null, keysRS, keyRowReader(keysRS))) {
+			keys = iterator.allRows();
+		}
+
+		if (keys.size() != rows.size()) {
+			throw new CayenneRuntimeException("Expected %d generated keys for a batch, instead got %d", rows.size(),
+					keys.size());
+		}
+
+		for (int i = 0; i < rows.size(); i++) {
+			ResultIterator rowKeys = new RowKeysIterator(keys.get(i));
+			observer.nextGeneratedRows(query, rowKeys, rows.get(i).getObjectId());
+		}
+	}
+
+	private RowReader<?> keyRowReader(ResultSet keysRS) throws SQLException {
 
 		// TODO: andrus, 7/4/2007 - (1) get the type of meaningful PK's from
 		// their
@@ -259,10 +508,52 @@ public class BatchAction extends BaseSQLAction {
 			this.keyRowDescriptor = builder.getDescriptor(dataNode.getAdapter().getExtendedTypes());
 		}
 
-		RowReader<?> rowReader = dataNode.rowReader(keyRowDescriptor, query.getMetaData(dataNode.getEntityResolver()),
+		return dataNode.rowReader(keyRowDescriptor, query.getMetaData(dataNode.getEntityResolver()),
 				Collections.<ObjAttribute, ColumnDescriptor> emptyMap());
-		ResultIterator iterator = new JDBCResultIterator(null, keysRS, rowReader);
+	}
 
-		observer.nextGeneratedRows(query, iterator, row.getObjectId());
+	/**
+	 * A ResultIterator over the generated keys of a single batch row, that
+	 * were already read from the statement.
+	 */
+	private static final class RowKeysIterator implements ResultIterator<Object> {
+
+		private final Iterator<Object> iterator;
+
+		RowKeysIterator(Object keys) {
+			this.iterator = Collections.singletonList(keys).iterator();
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return iterator;
+		}
+
+		@Override
+		public List<Object> allRows() {
+			List<Object> rows = new ArrayList<>(1);
+			iterator.forEachRemaining(rows::add);
+			return rows;
+		}
+
+		@Override
+		public boolean hasNextRow() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Object nextRow() {
+			return iterator.next();
+		}
+
+		@Override
+		public void skipRow() {
+			iterator.next();
+		}
+
+		@Override
+		public void close() {
+			// nothing to close, the keys ResultSet is closed already
+		}
 	}
 }
@@ -0,0 +1,47 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc;
+
+import java.sql.Connection;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
+import org.apache.cayenne.query.InsertBatchQuery;
+
+/**
+ * A strategy to insert large batches of rows with a database-specific bulk load
+ * protocol instead of the JDBC batches. Used by {@link BatchAction} for the
+ * INSERT batches that have at least "cayenne.server.bulk_insert_threshold"
+ * rows and no DB-generated keys.
+ * 
+ * @since 4.1
+ */
+public interface BulkInsertStrategy {
+
+	/**
+	 * Inserts all rows of the query, returning the number of inserted rows. If
+	 * the strategy can't handle the query (e.g. some values can't be
+	 * represented in the bulk load format or the driver does not support bulk
+	 * loading), it must return -1 without modifying the database, and the
+	 * query is executed as a regular batch. A count that doesn't match the
+	 * number of query rows fails the batch.
+	 */
+	long insert(Connection connection, InsertBatchQuery query, InsertBatchTranslator translator, DataNode node)
+			throws Exception;
+}
@@ -81,6 +81,23 @@ public class ColumnDescriptor {
         this.javaClass = javaClass;
     }
 
+    /**
+     * Creates a copy of another ColumnDescriptor.
+     *
+     * @since 4.1
+     */
+    public ColumnDescriptor(ColumnDescriptor descriptor) {
+        this.attribute = descriptor.attribute;
+        this.tableName = descriptor.tableName;
+        this.procedureName = descriptor.procedureName;
+        this.name = descriptor.name;
+        this.namePrefix = descriptor.namePrefix;
+        this.dataRowKey = descriptor.dataRowKey;
+        this.jdbcType = descriptor.jdbcType;
+        this.javaClass = descriptor.javaClass;
+        this.isExpression = descriptor.isExpression;
+    }
+
     /**
      * Creates a ColumnDescriptor from Cayenne DbAttribute.
      * 
@@ -189,6 +189,7 @@ public class SQLTemplateAction implements SQLAction {
 		PreparedStatement statement = connection.prepareStatement(compiled.getSql(), generatedKeys);
 		try {
 			bind(statement, compiled.getBindings());
+			BaseSQLAction.beforeExecute(statement, queryMetadata);
 
 			// process a mix of results
 			boolean isResultSet = statement.execute();
@@ -238,6 +239,7 @@ public class SQLTemplateAction implements SQLAction {
 			}
 		} finally {
 			if (!iteratedResult) {
+				BaseSQLAction.afterExecute(statement, queryMetadata);
 				statement.close();
 			}
 		}
@@ -259,6 +261,7 @@ public class SQLTemplateAction implements SQLAction {
 			it = new ConnectionAwareResultIterator(it, connection) {
 				@Override
 				protected void doClose() {
+					BaseSQLAction.afterExecute(statement, queryMetadata);
 					dataNode.getJdbcEventLogger().logSelectCount(rowCounter, System.currentTimeMillis() - startTime);
 					super.doClose();
 				}
@@ -278,7 +281,7 @@ public class SQLTemplateAction implements SQLAction {
 			// note that we are not closing the iterator here, relying on caller
 			// to close the underlying ResultSet on its own... this is a hack,
 			// maybe a cleaner flow is due here.
-			List<?> resultRows = it.allRows();
+			List<?> resultRows = BaseSQLAction.readRows(it, dataNode, queryMetadata);
 
 			dataNode.getJdbcEventLogger().logSelectCount(resultRows.size(), System.currentTimeMillis() - startTime);
 
@@ -35,6 +35,7 @@ import org.apache.cayenne.query.SelectQuery;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.List;
 
 /**
@@ -102,8 +103,10 @@ public class SelectAction extends BaseSQLAction {
 		// need to run in try-catch block to close statement properly if
 		// exception happens
 		try {
+			beforeExecute(statement, queryMetadata);
 			rs = statement.executeQuery();
 		} catch (Exception ex) {
+			afterExecute(statement, queryMetadata);
 			statement.close();
 			throw ex;
 		}
@@ -113,7 +116,7 @@ public class SelectAction extends BaseSQLAction {
 		RowReader<?> rowReader = dataNode.rowReader(descriptor, queryMetadata, translator.getAttributeOverrides());
 
 		ResultIterator<?> it = new JDBCResultIterator<>(statement, rs, rowReader);
-		it = forIteratedResult(it, observer, connection, t1, sql);
+		it = forIteratedResult(it, observer, connection, statement, t1, sql);
 		it = forSuppressedDistinct(it, translator);
 		it = forFetchLimit(it, translator);
 
@@ -131,8 +134,9 @@ public class SelectAction extends BaseSQLAction {
 		} else {
 			List<?> resultRows;
 			try {
-				resultRows = it.allRows();
+				resultRows = readRows(it, dataNode, queryMetadata);
 			} finally {
+				afterExecute(statement, queryMetadata);
 				it.close();
 			}
 
@@ -143,7 +147,7 @@ public class SelectAction extends BaseSQLAction {
 	}
 
 	private <T> ResultIterator<T> forIteratedResult(ResultIterator<T> iterator, OperationObserver observer,
-			Connection connection, final long queryStartedAt, final String sql) {
+			Connection connection, final Statement statement, final long queryStartedAt, final String sql) {
 		if (!observer.isIteratedResult()) {
 			return iterator;
 		}
@@ -151,6 +155,7 @@ public class SelectAction extends BaseSQLAction {
 		return new ConnectionAwareResultIterator<T>(iterator, connection) {
 			@Override
 			protected void doClose() {
+				afterExecute(statement, queryMetadata);
 				dataNode.getJdbcEventLogger().logSelectCount(rowCounter, System.currentTimeMillis() - queryStartedAt, sql);
 				super.doClose();
 			}
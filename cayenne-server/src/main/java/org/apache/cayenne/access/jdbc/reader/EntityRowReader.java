@@ -21,6 +21,7 @@ package org.apache.cayenne.access.jdbc.reader;
 import java.sql.ResultSet;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.CompactDataRow;
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
@@ -39,8 +40,9 @@ class EntityRowReader implements RowReader<DataRow> {
     private int[] types;
 
     String entityName;
-    private int mapCapacity;
     private int startIndex;
+    private CompactDataRow.KeyIndex keyIndex;
+    private int[] slots;
 
     DataRowPostProcessor postProcessor;
 
@@ -77,21 +79,27 @@ class EntityRowReader implements RowReader<DataRow> {
                 labels[i] = segmentMetadata.getColumnPath(columns[startIndex + i].getDataRowKey());
             }
         }
-        this.mapCapacity = (int) Math.ceil(segmentWidth / 0.75);
+
+        // all rows read by this reader share the same key index
+        this.keyIndex = new CompactDataRow.KeyIndex(labels);
+        this.slots = new int[segmentWidth];
+        for (int i = 0; i < segmentWidth; i++) {
+            slots[i] = keyIndex.slotOf(labels[i]);
+        }
     }
 
     @Override
     public DataRow readRow(ResultSet resultSet) {
 
         try {
-            DataRow row = new DataRow(mapCapacity);
+            CompactDataRow row = new CompactDataRow(keyIndex);
             int len = converters.length;
 
             for (int i = 0; i < len; i++) {
 
                 // note: jdbc column indexes start from 1, not 0 as in arrays
                 Object val = converters[i].materializeObject(resultSet, startIndex + i + 1, types[i]);
-                row.put(labels[i], val);
+                row.putAt(slots[i], val);
             }
 
             postprocessRow(resultSet, row);
@@ -69,8 +69,53 @@ public class InsertBatchTranslator extends DefaultBatchTranslator {
             }
         }
 
-        buffer.append(") VALUES (");
+        buffer.append(") VALUES ");
+        appendValues(buffer, columnCount);
+        return buffer.toString();
+    }
 
+    /**
+     * Returns SQL of a multi-row INSERT statement that inserts "rowCount" rows
+     * at once, i.e. "INSERT INTO ... VALUES (?, ?), (?, ?), ...". Must be used
+     * with {@link #updateBindings(BatchQueryRow, int)}.
+     * 
+     * @since 4.1
+     */
+    public String getSql(int rowCount) {
+        String singleRowSql = getSql();
+        if (rowCount == 1) {
+            return singleRowSql;
+        }
+
+        int columnCount = getColumnCount();
+        StringBuilder buffer = new StringBuilder(singleRowSql.length() + (rowCount - 1) * (columnCount * 3 + 2));
+        buffer.append(singleRowSql);
+
+        for (int i = 1; i < rowCount; i++) {
+            buffer.append(", ");
+            appendValues(buffer, columnCount);
+        }
+
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the number of columns included in the INSERT statement.
+     * 
+     * @since 4.1
+     */
+    public int getColumnCount() {
+        int columnCount = 0;
+        for (DbAttributeBinding b : getBindings()) {
+            if (!b.isExcluded()) {
+                columnCount++;
+            }
+        }
+        return columnCount;
+    }
+
+    private void appendValues(StringBuilder buffer, int columnCount) {
+        buffer.append('(');
         for (int i = 0; i < columnCount; i++) {
             if (i > 0) {
                 buffer.append(", ");
@@ -79,7 +124,18 @@ public class InsertBatchTranslator extends DefaultBatchTranslator {
             buffer.append('?');
         }
         buffer.append(')');
-        return buffer.toString();
+    }
+
+    /**
+     * Updates bindings to be used with a given row of a multi-row INSERT
+     * statement, where "rowIndex" is a zero-based position of the row in the
+     * statement.
+     * 
+     * @since 4.1
+     */
+    public DbAttributeBinding[] updateBindings(BatchQueryRow row, int rowIndex) {
+        ensureTranslated();
+        return doUpdateBindings(row, rowIndex * getColumnCount() + 1);
     }
 
     @Override
@@ -110,9 +166,16 @@ public class InsertBatchTranslator extends DefaultBatchTranslator {
 
     @Override
     protected DbAttributeBinding[] doUpdateBindings(BatchQueryRow row) {
+        return doUpdateBindings(row, 1);
+    }
+
+    /**
+     * @since 4.1
+     */
+    protected DbAttributeBinding[] doUpdateBindings(BatchQueryRow row, int firstPosition) {
         int len = bindings.length;
 
-        for (int i = 0, j = 1; i < len; i++) {
+        for (int i = 0, j = firstPosition; i < len; i++) {
 
             DbAttributeBinding b = bindings[i];
 
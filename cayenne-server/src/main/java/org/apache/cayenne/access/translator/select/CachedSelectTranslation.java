@@ -0,0 +1,268 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.select.QueryAssembler.LiteralRef;
+import org.apache.cayenne.access.types.ExtendedType;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.ObjAttribute;
+
+/**
+ * A result of the SELECT translation that can be reused for all queries of the
+ * same {@link SelectQueryShape}. Stores the SQL, the result columns and the
+ * layout of the bindings, with each binding either pointing to a literal of the
+ * query shape, or holding a constant value.
+ *
+ * @since 4.1
+ */
+final class CachedSelectTranslation {
+
+	/**
+	 * A marker of the query shapes which translation depends on the literal
+	 * values and can't be reused.
+	 */
+	static final CachedSelectTranslation UNCACHEABLE = new CachedSelectTranslation();
+
+	/**
+	 * Captures translation results of the translator that was tracking its
+	 * binding sources. Returns {@link #UNCACHEABLE} if the bindings can't be
+	 * reliably matched with the query literals.
+	 */
+	static CachedSelectTranslation create(QueryAssembler assembler, SelectTranslator translator,
+			SelectQueryShape shape, String sql) {
+
+		List<Object> literals = shape.getLiterals();
+		DbAttributeBinding[] bindings = translator.getBindings();
+
+		int len = bindings.length;
+		DbAttribute[] attributes = new DbAttribute[len];
+		ExtendedType<?>[] types = new ExtendedType<?>[len];
+		int[] slots = new int[len];
+		Object[] constants = new Object[len];
+		boolean[] referenced = new boolean[literals.size()];
+
+		for (int i = 0; i < len; i++) {
+			DbAttributeBinding binding = bindings[i];
+			attributes[i] = binding.getAttribute();
+			types[i] = binding.getExtendedType();
+
+			LiteralRef source = assembler.getBindingSource(binding);
+			if (source != null) {
+				int slot = shape.getSlot(source);
+
+				// the value must be bound as is, otherwise it is impossible to
+				// tell how another literal value would be converted
+				if (slot < 0 || literals.get(slot) != binding.getValue()) {
+					return UNCACHEABLE;
+				}
+
+				slots[i] = slot;
+				referenced[slot] = true;
+			} else {
+
+				// a value that did not come from a literal must not be derived
+				// from one, as it would not change with the literal
+				if (containsIdentical(literals, binding.getValue())) {
+					return UNCACHEABLE;
+				}
+
+				slots[i] = -1;
+				constants[i] = binding.getValue();
+			}
+		}
+
+		// a literal that is not bound was rendered in the SQL or ignored, either
+		// way the translation depends on its value
+		for (boolean r : referenced) {
+			if (!r) {
+				return UNCACHEABLE;
+			}
+		}
+
+		ColumnDescriptor[] columns = translator.getResultColumns();
+		ColumnDescriptor[] columnCopies = new ColumnDescriptor[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			columnCopies[i] = new ColumnDescriptor(columns[i]);
+		}
+
+		Map<ObjAttribute, ColumnDescriptor> overrides = translator.getAttributeOverrides();
+		Map<ObjAttribute, ColumnDescriptor> overrideCopies = overrides.isEmpty()
+				? Collections.<ObjAttribute, ColumnDescriptor> emptyMap()
+				: copyOverrides(overrides, columns, columnCopies);
+
+		return new CachedSelectTranslation(sql, columnCopies, overrideCopies, translator.isSuppressingDistinct(),
+				translator.hasJoins(), attributes, types, slots, constants);
+	}
+
+	private static boolean containsIdentical(List<Object> values, Object value) {
+		if (value == null) {
+			return false;
+		}
+
+		for (Object v : values) {
+			if (v == value) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static Map<ObjAttribute, ColumnDescriptor> copyOverrides(Map<ObjAttribute, ColumnDescriptor> overrides,
+			ColumnDescriptor[] columns, ColumnDescriptor[] columnCopies) {
+
+		Map<ColumnDescriptor, ColumnDescriptor> copies = copyMap(columns, columnCopies);
+		Map<ObjAttribute, ColumnDescriptor> overrideCopies = new HashMap<>();
+		for (Map.Entry<ObjAttribute, ColumnDescriptor> e : overrides.entrySet()) {
+			ColumnDescriptor copy = copies.get(e.getValue());
+			overrideCopies.put(e.getKey(), copy != null ? copy : new ColumnDescriptor(e.getValue()));
+		}
+
+		return overrideCopies;
+	}
+
+	private static Map<ColumnDescriptor, ColumnDescriptor> copyMap(ColumnDescriptor[] columns,
+			ColumnDescriptor[] copies) {
+		Map<ColumnDescriptor, ColumnDescriptor> map = new IdentityHashMap<>();
+		for (int i = 0; i < columns.length; i++) {
+			map.put(columns[i], copies[i]);
+		}
+		return map;
+	}
+
+	private final String sql;
+	private final ColumnDescriptor[] resultColumns;
+	private final Map<ObjAttribute, ColumnDescriptor> attributeOverrides;
+	private final boolean suppressingDistinct;
+	private final boolean hasJoins;
+	private final DbAttribute[] attributes;
+	private final ExtendedType<?>[] extendedTypes;
+	private final int[] slots;
+	private final Object[] constants;
+
+	private CachedSelectTranslation() {
+		this(null, null, null, false, false, null, null, null, null);
+	}
+
+	private CachedSelectTranslation(String sql, ColumnDescriptor[] resultColumns,
+			Map<ObjAttribute, ColumnDescriptor> attributeOverrides, boolean suppressingDistinct, boolean hasJoins,
+			DbAttribute[] attributes, ExtendedType<?>[] extendedTypes, int[] slots, Object[] constants) {
+		this.sql = sql;
+		this.resultColumns = resultColumns;
+		this.attributeOverrides = attributeOverrides;
+		this.suppressingDistinct = suppressingDistinct;
+		this.hasJoins = hasJoins;
+		this.attributes = attributes;
+		this.extendedTypes = extendedTypes;
+		this.slots = slots;
+		this.constants = constants;
+	}
+
+	/**
+	 * Creates a translator for the query of the same shape, binding its literal
+	 * values.
+	 */
+	SelectTranslator translator(List<Object> literals) {
+		return new Translator(literals);
+	}
+
+	String getSql() {
+		return sql;
+	}
+
+	final class Translator implements SelectTranslator {
+
+		private final List<Object> literals;
+		private ColumnDescriptor[] columns;
+		private Map<ObjAttribute, ColumnDescriptor> overrides;
+
+		Translator(List<Object> literals) {
+			this.literals = literals;
+		}
+
+		@Override
+		public String getSql() {
+			return sql;
+		}
+
+		@Override
+		public DbAttributeBinding[] getBindings() {
+			int len = attributes.length;
+			DbAttributeBinding[] bindings = new DbAttributeBinding[len];
+			for (int i = 0; i < len; i++) {
+				DbAttributeBinding binding = new DbAttributeBinding(attributes[i]);
+				binding.setStatementPosition(i + 1);
+				binding.setValue(slots[i] < 0 ? constants[i] : literals.get(slots[i]));
+				binding.setExtendedType(extendedTypes[i]);
+				bindings[i] = binding;
+			}
+
+			return bindings;
+		}
+
+		// result columns are mutable and may be altered by the caller, so each
+		// translator gets its own copies
+
+		@Override
+		public ColumnDescriptor[] getResultColumns() {
+			ensureColumnsCopied();
+			return columns;
+		}
+
+		@Override
+		public Map<ObjAttribute, ColumnDescriptor> getAttributeOverrides() {
+			ensureColumnsCopied();
+			return overrides;
+		}
+
+		private void ensureColumnsCopied() {
+			if (columns != null) {
+				return;
+			}
+
+			ColumnDescriptor[] copies = new ColumnDescriptor[resultColumns.length];
+			for (int i = 0; i < resultColumns.length; i++) {
+				copies[i] = new ColumnDescriptor(resultColumns[i]);
+			}
+
+			this.overrides = attributeOverrides.isEmpty()
+					? attributeOverrides
+					: copyOverrides(attributeOverrides, resultColumns, copies);
+			this.columns = copies;
+		}
+
+		@Override
+		public boolean isSuppressingDistinct() {
+			return suppressingDistinct;
+		}
+
+		@Override
+		public boolean hasJoins() {
+			return hasJoins;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.Map;
+
+import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.query.SelectQuery;
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * A {@link SelectTranslator} factory that caches translations by query "shape",
+ * so that the queries differing only in the values of the qualifier parameters
+ * reuse SQL and binding layout of the first translated query, only binding the
+ * new values. Caching is applied to plain {@link SelectQuery} instances
+ * (including those produced by ObjectSelect and ColumnSelect). If translation of
+ * a certain shape turns out to depend on the parameter values, this shape is
+ * always translated from scratch. The cache is disabled unless its size is set
+ * via {@link Constants#SELECT_TRANSLATION_CACHE_SIZE_PROPERTY}. Note that the
+ * cache assumes that the mapping does not change at runtime.
+ *
+ * @since 4.1
+ */
+public class CachingSelectTranslatorFactory extends DefaultSelectTranslatorFactory {
+
+	private Map<Object, CachedSelectTranslation> cache;
+
+	public CachingSelectTranslatorFactory(@Inject RuntimeProperties properties) {
+		this(properties.getInt(Constants.SELECT_TRANSLATION_CACHE_SIZE_PROPERTY, 0));
+	}
+
+	/**
+	 * Creates a factory with the cache of a given size. Zero or negative size
+	 * disables the cache.
+	 */
+	public CachingSelectTranslatorFactory(int cacheSize) {
+		if (cacheSize > 0) {
+			this.cache = new ConcurrentLinkedHashMap.Builder<Object, CachedSelectTranslation>()
+					.maximumWeightedCapacity(cacheSize)
+					.build();
+		}
+	}
+
+	@Override
+	public SelectTranslator translator(SelectQuery<?> query, DbAdapter adapter, EntityResolver entityResolver) {
+
+		// subclasses may alter the translation in unpredictable ways
+		if (cache == null || query.getClass() != SelectQuery.class) {
+			return super.translator(query, adapter, entityResolver);
+		}
+
+		SelectQueryShape shape = SelectQueryShape.create(query, adapter, entityResolver);
+		if (shape == null) {
+			return super.translator(query, adapter, entityResolver);
+		}
+
+		CachedSelectTranslation cached = cache.get(shape.getKey());
+		if (cached != null) {
+			return cached != CachedSelectTranslation.UNCACHEABLE
+					? cached.translator(shape.getLiterals())
+					: super.translator(query, adapter, entityResolver);
+		}
+
+		SelectTranslator translator = super.translator(query, adapter, entityResolver);
+		if (!(translator instanceof QueryAssembler)) {
+			cache.put(shape.getKey(), CachedSelectTranslation.UNCACHEABLE);
+			return translator;
+		}
+
+		((QueryAssembler) translator).trackBindingSources();
+		return new CachingTranslator(translator, shape);
+	}
+
+	/**
+	 * Returns the number of cached translations.
+	 */
+	public int getCacheSize() {
+		return cache != null ? cache.size() : 0;
+	}
+
+	/**
+	 * Removes all cached translations.
+	 */
+	public void clearCache() {
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * A translator decorator that stores translation results in the cache once
+	 * the SQL is generated.
+	 */
+	class CachingTranslator implements SelectTranslator {
+
+		private final SelectTranslator delegate;
+		private final SelectQueryShape shape;
+
+		CachingTranslator(SelectTranslator delegate, SelectQueryShape shape) {
+			this.delegate = delegate;
+			this.shape = shape;
+		}
+
+		@Override
+		public String getSql() throws Exception {
+			String sql = delegate.getSql();
+
+			// result columns are copied before the caller gets a chance to
+			// modify them
+			if (!cache.containsKey(shape.getKey())) {
+				cache.putIfAbsent(shape.getKey(),
+						CachedSelectTranslation.create((QueryAssembler) delegate, delegate, shape, sql));
+			}
+
+			return sql;
+		}
+
+		@Override
+		public DbAttributeBinding[] getBindings() {
+			return delegate.getBindings();
+		}
+
+		@Override
+		public Map<ObjAttribute, ColumnDescriptor> getAttributeOverrides() {
+			return delegate.getAttributeOverrides();
+		}
+
+		@Override
+		public ColumnDescriptor[] getResultColumns() {
+			return delegate.getResultColumns();
+		}
+
+		@Override
+		public boolean isSuppressingDistinct() {
+			return delegate.isSuppressingDistinct();
+		}
+
+		@Override
+		public boolean hasJoins() {
+			return delegate.hasJoins();
+		}
+	}
+}
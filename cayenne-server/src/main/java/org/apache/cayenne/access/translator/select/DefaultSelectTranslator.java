@@ -337,7 +337,7 @@ public class DefaultSelectTranslator extends QueryAssembler implements SelectTra
 
 		if(entry.getKey().getDataRowKey().equals(entry.getKey().getName())) {
 			for (DbAttributeBinding binding : entry.getValue()) {
-				addToParamList(binding.getAttribute(), binding.getValue());
+				addToParamList(binding);
 			}
 		}
 	}
@@ -535,13 +535,17 @@ public class QualifierTranslator extends QueryAssemblerHelper implements Travers
 					appendList(parentNode, paramsDbType(parentNode));
 					break;
 				case Expression.FUNCTION_CALL:
+					queryAssembler.startLiteral(parentNode);
 					appendFunctionArg(leaf, (ASTFunctionCall)parentNode);
 					break;
 				default:
+					queryAssembler.startLiteral(parentNode);
 					appendLiteral(leaf, paramsDbType(parentNode), parentNode);
 			}
 		} catch (IOException ioex) {
 			throw new CayenneRuntimeException("Error appending content", ioex);
+		} finally {
+			queryAssembler.endLiteral();
 		}
 	}
 
@@ -582,7 +586,9 @@ public class QualifierTranslator extends QueryAssemblerHelper implements Travers
 
 		// process first element outside the loop
 		// (unroll loop to avoid condition checking
+		int index = 0;
 		if (it.hasNext()) {
+			queryAssembler.startLiteral(listExpr, index++);
 			appendLiteral(it.next(), paramDesc, listExpr);
 		} else {
 			return;
@@ -590,6 +596,7 @@ public class QualifierTranslator extends QueryAssemblerHelper implements Travers
 
 		while (it.hasNext()) {
 			out.append(", ");
+			queryAssembler.startLiteral(listExpr, index++);
 			appendLiteral(it.next(), paramDesc, listExpr);
 		}
 	}
@@ -20,6 +20,7 @@
 package org.apache.cayenne.access.translator.select;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -51,6 +52,17 @@ public abstract class QueryAssembler {
 	 */
 	protected AddBindingListener addBindingListener;
 
+	/**
+	 * Query expression literals that produced each binding. Only tracked when
+	 * the translation is going to be reused for other queries of the same
+	 * shape.
+	 *
+	 * @since 4.1
+	 */
+	private Map<DbAttributeBinding, LiteralRef> bindingSources;
+	private Map<Expression, int[]> literalCounters;
+	private LiteralRef currentLiteral;
+
 	/**
 	 * @since 4.0
 	 */
@@ -164,11 +176,92 @@ public abstract class QueryAssembler {
 		binding.setExtendedType(extendedType);
 
 		bindings.add(binding);
+		if(bindingSources != null && currentLiteral != null) {
+			bindingSources.put(binding, currentLiteral);
+		}
 		if(addBindingListener != null) {
 			addBindingListener.onAdd(binding);
 		}
 	}
 
+	/**
+	 * Registers a parameter that repeats an already existing binding, e.g. a
+	 * column expression duplicated in the GROUP BY clause.
+	 *
+	 * @since 4.1
+	 */
+	protected void addToParamList(DbAttributeBinding binding) {
+		LiteralRef literal = bindingSources != null ? bindingSources.get(binding) : null;
+		if(literal == null) {
+			addToParamList(binding.getAttribute(), binding.getValue());
+			return;
+		}
+
+		LiteralRef previous = currentLiteral;
+		currentLiteral = literal;
+		try {
+			addToParamList(binding.getAttribute(), binding.getValue());
+		} finally {
+			currentLiteral = previous;
+		}
+	}
+
+	/**
+	 * Turns on tracking of the expression literals that produce query
+	 * bindings.
+	 *
+	 * @since 4.1
+	 */
+	void trackBindingSources() {
+		if (bindingSources == null) {
+			bindingSources = new IdentityHashMap<>();
+			literalCounters = new IdentityHashMap<>();
+		}
+	}
+
+	/**
+	 * Marks the start of appending a literal operand of the expression node.
+	 * All bindings added until {@link #endLiteral()} are attributed to this
+	 * literal. Literals are numbered in the order they are appended.
+	 *
+	 * @since 4.1
+	 */
+	void startLiteral(Expression node) {
+		if (bindingSources != null) {
+			int[] counter = literalCounters.computeIfAbsent(node, n -> new int[1]);
+			currentLiteral = new LiteralRef(node, counter[0]++);
+		}
+	}
+
+	/**
+	 * Marks the start of appending an element of the list expression node.
+	 *
+	 * @since 4.1
+	 */
+	void startLiteral(Expression listNode, int index) {
+		if (bindingSources != null) {
+			currentLiteral = new LiteralRef(listNode, index);
+		}
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	void endLiteral() {
+		currentLiteral = null;
+	}
+
+	/**
+	 * Returns an expression literal that produced a given binding or null if
+	 * the binding value didn't come from the query expressions or if tracking
+	 * is off.
+	 *
+	 * @since 4.1
+	 */
+	LiteralRef getBindingSource(DbAttributeBinding binding) {
+		return bindingSources != null ? bindingSources.get(binding) : null;
+	}
+
 	/**
 	 * @since 4.0
 	 */
@@ -194,4 +287,40 @@ public abstract class QueryAssembler {
 	protected interface AddBindingListener {
 		void onAdd(DbAttributeBinding binding);
 	}
+
+	/**
+	 * A reference to a literal operand of a query expression node, identified
+	 * by the node instance and the literal ordinal within this node.
+	 *
+	 * @since 4.1
+	 */
+	static final class LiteralRef {
+
+		final Expression node;
+		final int index;
+
+		LiteralRef(Expression node, int index) {
+			this.node = node;
+			this.index = index;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof LiteralRef)) {
+				return false;
+			}
+
+			LiteralRef ref = (LiteralRef) o;
+			return node == ref.node && index == ref.index;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(node) + index;
+		}
+	}
 }
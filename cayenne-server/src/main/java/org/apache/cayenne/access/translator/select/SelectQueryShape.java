@@ -0,0 +1,323 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.cayenne.access.translator.select.QueryAssembler.LiteralRef;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.Property;
+import org.apache.cayenne.exp.TraversalHandler;
+import org.apache.cayenne.exp.parser.ASTExtract;
+import org.apache.cayenne.exp.parser.ASTFunctionCall;
+import org.apache.cayenne.exp.parser.ASTPath;
+import org.apache.cayenne.exp.parser.PatternMatchNode;
+import org.apache.cayenne.exp.parser.SimpleNode;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.Ordering;
+import org.apache.cayenne.query.PrefetchTreeNode;
+import org.apache.cayenne.query.QueryMetadata;
+import org.apache.cayenne.query.SelectQuery;
+
+/**
+ * A "shape" of a {@link SelectQuery}, i.e. everything that defines its SQL
+ * translation except for the values of the expression literals that end up as
+ * PreparedStatement parameters. Two queries with equal shape keys produce the
+ * same SQL and the same binding layout, differing only in the bound values.
+ * Literal values are collected in the order of expression traversal, so that
+ * the bindings of a cached translation can be filled with the values of
+ * another query of the same shape.
+ *
+ * @since 4.1
+ */
+final class SelectQueryShape {
+
+	private static final Object NULL = new Token("null");
+	private static final Object END = new Token("end");
+	private static final Object LIST = new Token("list");
+	private static final Object QUALIFIER = new Token("qualifier");
+	private static final Object HAVING = new Token("having");
+	private static final Object COLUMN = new Token("column");
+	private static final Object ORDERING = new Token("ordering");
+	private static final Object PREFETCH = new Token("prefetch");
+
+	/**
+	 * Builds a shape of the query, returning null if the query can't be
+	 * reliably reduced to a shape, e.g. if it contains custom expression
+	 * classes or literals of types that are not bound as-is.
+	 */
+	static SelectQueryShape create(SelectQuery<?> query, DbAdapter adapter, EntityResolver resolver) {
+		Builder builder = new Builder();
+		return builder.append(query, adapter, resolver) ? builder.toShape() : null;
+	}
+
+	private final List<Object> key;
+	private final List<Object> literals;
+	private final List<LiteralRef> literalRefs;
+	private Map<LiteralRef, Integer> slots;
+
+	private SelectQueryShape(List<Object> key, List<Object> literals, List<LiteralRef> literalRefs) {
+		this.key = key;
+		this.literals = literals;
+		this.literalRefs = literalRefs;
+	}
+
+	/**
+	 * Returns an object suitable to be used as a map key that is equal for the
+	 * queries of the same shape.
+	 */
+	Object getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns values of the query literals in the order of traversal.
+	 */
+	List<Object> getLiterals() {
+		return literals;
+	}
+
+	/**
+	 * Returns a position of the literal in the literals list, or -1 if the
+	 * reference does not point to a literal of this shape.
+	 */
+	int getSlot(LiteralRef ref) {
+		if (slots == null) {
+			Map<LiteralRef, Integer> slots = new HashMap<>();
+			for (int i = 0; i < literalRefs.size(); i++) {
+				slots.put(literalRefs.get(i), i);
+			}
+			this.slots = slots;
+		}
+
+		Integer slot = slots.get(ref);
+		return slot != null ? slot : -1;
+	}
+
+	/**
+	 * Returns whether a value is a literal that is bound "as is" and can be
+	 * replaced by another value of the same class without changing the
+	 * translated SQL.
+	 */
+	static boolean isBindableLiteral(Object value) {
+		return value instanceof String
+				|| value instanceof Number
+				|| value instanceof Boolean
+				|| value instanceof Character
+				|| value instanceof Date
+				|| value instanceof Temporal
+				|| value instanceof UUID
+				|| value instanceof Enum;
+	}
+
+	static final class Builder implements TraversalHandler {
+
+		private final List<Object> key = new ArrayList<>();
+		private final List<Object> literals = new ArrayList<>();
+		private final List<LiteralRef> literalRefs = new ArrayList<>();
+		private final Map<Expression, int[]> literalCounters = new IdentityHashMap<>();
+		private boolean supported = true;
+
+		boolean append(SelectQuery<?> query, DbAdapter adapter, EntityResolver resolver) {
+			QueryMetadata metadata = query.getMetaData(resolver);
+
+			key.add(adapter);
+			key.add(resolver);
+			key.add(query.getRoot());
+			key.add(query.isDistinct());
+			key.add(metadata.isFetchingDataRows());
+			key.add(metadata.isSuppressingDistinct());
+			key.add(metadata.getFetchLimit());
+			key.add(metadata.getFetchOffset());
+			key.add(metadata.getPageSize());
+
+			Map<String, String> aliases = metadata.getPathSplitAliases();
+			key.add(aliases == null || aliases.isEmpty()
+					? Collections.emptyMap()
+					: new HashMap<>(aliases));
+
+			appendPrefetch(metadata.getPrefetchTree());
+
+			key.add(QUALIFIER);
+			appendExpression(query.getQualifier());
+
+			key.add(HAVING);
+			appendExpression(query.getHavingQualifier());
+
+			Collection<Property<?>> columns = query.getColumns();
+			if (columns != null) {
+				for (Property<?> column : columns) {
+					key.add(COLUMN);
+					key.add(column.getName());
+					key.add(column.getAlias());
+					key.add(column.getType());
+					appendExpression(column.getExpression());
+				}
+			}
+
+			List<Ordering> orderings = query.getOrderings();
+			if (orderings != null) {
+				for (Ordering ordering : orderings) {
+					key.add(ORDERING);
+					key.add(ordering.getSortOrder());
+					key.add(ordering.isNullSortedFirst());
+					appendExpression(ordering.getSortSpec());
+				}
+			}
+
+			return supported;
+		}
+
+		SelectQueryShape toShape() {
+			return new SelectQueryShape(key, literals, literalRefs);
+		}
+
+		private void appendPrefetch(PrefetchTreeNode node) {
+			if (node == null) {
+				key.add(NULL);
+				return;
+			}
+
+			key.add(PREFETCH);
+			key.add(node.getName());
+			key.add(node.getSemantics());
+			key.add(node.isPhantom());
+
+			for (PrefetchTreeNode child : node.getChildren()) {
+				appendPrefetch(child);
+			}
+
+			key.add(END);
+		}
+
+		private void appendExpression(Expression expression) {
+			if (expression == null) {
+				key.add(NULL);
+			} else if (supported) {
+				expression.traverse(this);
+			}
+		}
+
+		@Override
+		public void startNode(Expression node, Expression parentNode) {
+			if (!(node instanceof SimpleNode)) {
+				supported = false;
+				return;
+			}
+
+			key.add(node.getClass());
+
+			if (node instanceof PatternMatchNode) {
+				key.add(((PatternMatchNode) node).getEscapeChar());
+			} else if (node instanceof ASTExtract) {
+				key.add(((ASTExtract) node).getPart());
+			} else if (node instanceof ASTFunctionCall) {
+				key.add(((ASTFunctionCall) node).getFunctionName());
+			} else if (node instanceof ASTPath) {
+				Map<String, String> aliases = ((ASTPath) node).getPathAliases();
+				key.add(aliases == null || aliases.isEmpty()
+						? Collections.emptyMap()
+						: new HashMap<>(aliases));
+			}
+		}
+
+		@Override
+		public void endNode(Expression node, Expression parentNode) {
+			key.add(END);
+		}
+
+		@Override
+		public void finishedChild(Expression node, int childIndex, boolean hasMoreChildren) {
+		}
+
+		@Override
+		public void objectNode(Object leaf, Expression parentNode) {
+			switch (parentNode.getType()) {
+				case Expression.OBJ_PATH:
+				case Expression.DB_PATH:
+					key.add(leaf);
+					break;
+				case Expression.LIST:
+					appendList(leaf, parentNode);
+					break;
+				default:
+					int[] counter = literalCounters.computeIfAbsent(parentNode, n -> new int[1]);
+					appendLiteral(leaf, new LiteralRef(parentNode, counter[0]++));
+			}
+		}
+
+		private void appendList(Object list, Expression listNode) {
+			List<?> values;
+			if (list instanceof List) {
+				values = (List<?>) list;
+			} else if (list instanceof Object[]) {
+				values = Arrays.asList((Object[]) list);
+			} else {
+				supported = false;
+				return;
+			}
+
+			key.add(LIST);
+			key.add(values.size());
+			for (int i = 0; i < values.size(); i++) {
+				appendLiteral(values.get(i), new LiteralRef(listNode, i));
+			}
+		}
+
+		private void appendLiteral(Object value, LiteralRef ref) {
+			if (value == null) {
+				key.add(NULL);
+			} else if (isBindableLiteral(value)) {
+				key.add(value.getClass());
+				literals.add(value);
+				literalRefs.add(ref);
+			} else {
+				// Persistent objects, ObjectIds and any other custom values
+				// are either converted before binding, or their translation
+				// is not known in advance
+				supported = false;
+			}
+		}
+	}
+
+	private static final class Token {
+
+		private final String name;
+
+		Token(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -18,14 +18,18 @@
  ****************************************************************/
 package org.apache.cayenne.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.di.BeforeScopeEnd;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import org.apache.cayenne.util.concurrentlinkedhashmap.EvictionListener;
 
 /**
  * A default implementation of the {@link QueryCache} interface that stores data in a
@@ -41,6 +45,11 @@ public class MapQueryCache implements QueryCache, Serializable {
 
     protected final Map<String, Map<String, List<?>>> cacheGroups;
 
+    /**
+     * @since 4.1
+     */
+    protected final QueryCacheStats stats;
+
     private int maxSize;
 
     public MapQueryCache() {
@@ -50,6 +59,8 @@ public class MapQueryCache implements QueryCache, Serializable {
     public MapQueryCache(int maxSize) {
         this.cacheGroups = new ConcurrentHashMap<>();
         this.maxSize = maxSize;
+        this.stats = new QueryCacheStats();
+        this.stats.setGroupSizeFunction(this::groupSize);
     }
 
     public List get(QueryMetadata metadata) {
@@ -57,10 +68,20 @@ public class MapQueryCache implements QueryCache, Serializable {
         if (key == null) {
             return null;
         }
-        Map<String, List<?>> map = createIfAbsent(metadata);
+
+        String cacheName = cacheName(metadata);
+        Map<String, List<?>> map = createIfAbsent(cacheName);
+        List<?> result;
         synchronized (map) {
-            return map.get(key);
+            result = map.get(key);
         }
+
+        if (result != null) {
+            stats.recordHit(cacheName);
+        } else {
+            stats.recordMiss(cacheName);
+        }
+        return result;
     }
 
     /**
@@ -73,10 +94,12 @@ public class MapQueryCache implements QueryCache, Serializable {
     public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
         List result = get(metadata);
         if (result == null) {
+            long start = System.nanoTime();
             List newObject = factory.createObject();
             if (newObject == null) {
                 throw new CayenneRuntimeException("Null on cache rebuilding: %s", metadata.getCacheKey());
             }
+            stats.recordLoad(cacheName(metadata), System.nanoTime() - start);
 
             result = newObject;
             put(metadata, result);
@@ -91,10 +114,12 @@ public class MapQueryCache implements QueryCache, Serializable {
             return;
         }
 
-        Map<String, List<?>> map = createIfAbsent(metadata);
+        String cacheName = cacheName(metadata);
+        Map<String, List<?>> map = createIfAbsent(cacheName);
         synchronized (map) {
             map.put(key, results);
         }
+        stats.recordPut(cacheName);
     }
 
     public void remove(String key) {
@@ -133,6 +158,40 @@ public class MapQueryCache implements QueryCache, Serializable {
         return size;
     }
 
+    /**
+     * Returns the number of entries in a given cache group.
+     *
+     * @since 4.1
+     */
+    public int groupSize(String groupKey) {
+        Map<String, List<?>> map = getCache(groupKey);
+        if (map == null) {
+            return 0;
+        }
+
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    /**
+     * @since 4.1
+     */
+    @Override
+    public QueryCacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Unregisters cache statistics MBean, if it was registered.
+     *
+     * @since 4.1
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        stats.unregisterMBean();
+    }
+
     protected Map<String, List<?>> createIfAbsent(QueryMetadata metadata) {
         return createIfAbsent(cacheName(metadata));
     }
@@ -153,7 +212,10 @@ public class MapQueryCache implements QueryCache, Serializable {
             return map;
         }
 
-        map = new ConcurrentLinkedHashMap.Builder<String, List<?>>().maximumWeightedCapacity(maxSize).build();
+        map = new ConcurrentLinkedHashMap.Builder<String, List<?>>()
+                .maximumWeightedCapacity(maxSize)
+                .listener(new GroupEvictionListener(cacheName, stats))
+                .build();
         cacheGroups.put(cacheName, map);
         return map;
     }
@@ -172,4 +234,27 @@ public class MapQueryCache implements QueryCache, Serializable {
         // no explicit cache group
         return DEFAULT_CACHE_NAME;
     }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        stats.setGroupSizeFunction(this::groupSize);
+    }
+
+    private static class GroupEvictionListener implements EvictionListener<String, List<?>>, Serializable {
+
+        private static final long serialVersionUID = -2364916290858468297L;
+
+        private final String cacheName;
+        private final QueryCacheStats stats;
+
+        GroupEvictionListener(String cacheName, QueryCacheStats stats) {
+            this.cacheName = cacheName;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onEviction(String key, List<?> value) {
+            stats.recordEviction(cacheName);
+        }
+    }
 }
@@ -18,10 +18,15 @@
  ****************************************************************/
 package org.apache.cayenne.cache;
 
+import java.util.List;
+
 import org.apache.cayenne.ConfigurationException;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.DIRuntimeException;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Key;
 import org.apache.cayenne.di.Provider;
 
 /**
@@ -29,8 +34,18 @@ import org.apache.cayenne.di.Provider;
  */
 public class MapQueryCacheProvider implements Provider<QueryCache> {
 
+    static final String DEFAULT_MBEAN_NAME = "cayenne";
+    static final String PROJECT_PREFIX = "cayenne-";
+    static final String PROJECT_SUFFIX = ".xml";
+
     protected RuntimeProperties properties;
 
+    /**
+     * @since 4.1
+     */
+    @Inject
+    protected Injector injector;
+
     public MapQueryCacheProvider(@Inject RuntimeProperties properties) {
         this.properties = properties;
     }
@@ -40,6 +55,48 @@ public class MapQueryCacheProvider implements Provider<QueryCache> {
         int size = properties.getInt(
                 Constants.QUERY_CACHE_SIZE_PROPERTY,
                 MapQueryCache.DEFAULT_CACHE_SIZE);
-        return new MapQueryCache(size);
+        MapQueryCache cache = new MapQueryCache(size);
+
+        if (properties.getBoolean(Constants.QUERY_CACHE_JMX_PROPERTY, false)) {
+            cache.getStats().registerMBean(mbeanName(properties, injector));
+        }
+
+        return cache;
+    }
+
+    /**
+     * Returns a name of the query cache statistics MBean that stays the same between
+     * restarts of the runtime. This is the DataDomain name if it is set via
+     * {@link Constants#SERVER_DOMAIN_NAME_PROPERTY}, otherwise the name of the last
+     * runtime project, the same that is used as the DataDomain name.
+     *
+     * @since 4.1
+     */
+    public static String mbeanName(RuntimeProperties properties, Injector injector) {
+
+        String domainName = properties.get(Constants.SERVER_DOMAIN_NAME_PROPERTY);
+        if (domainName != null) {
+            return domainName;
+        }
+
+        List<String> locations;
+        try {
+            locations = injector.getInstance(Key.getListOf(String.class, Constants.SERVER_PROJECT_LOCATIONS_LIST));
+        } catch (DIRuntimeException e) {
+            // not a server runtime
+            return DEFAULT_MBEAN_NAME;
+        }
+
+        if (locations.isEmpty()) {
+            return DEFAULT_MBEAN_NAME;
+        }
+
+        String location = locations.get(locations.size() - 1);
+        String fileName = location.substring(location.lastIndexOf('/') + 1);
+        if (!fileName.startsWith(PROJECT_PREFIX) || !fileName.endsWith(PROJECT_SUFFIX)) {
+            return DEFAULT_MBEAN_NAME;
+        }
+
+        return fileName.substring(PROJECT_PREFIX.length(), fileName.length() - PROJECT_SUFFIX.length());
     }
 }
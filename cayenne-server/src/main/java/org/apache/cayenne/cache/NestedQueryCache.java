@@ -114,6 +114,17 @@ public class NestedQueryCache implements QueryCache {
         delegate.removeGroup(groupKey, keyType, valueType);
     }
 
+    /**
+     * Returns statistics of the delegate cache, as nested caches share cache groups with
+     * their parent.
+     *
+     * @since 4.1
+     */
+    @Override
+    public QueryCacheStats getStats() {
+        return delegate.getStats();
+    }
+
     private String qualifiedKey(String key) {
         return key != null ? namespace + key : null;
     }
@@ -82,4 +82,14 @@ public interface QueryCache {
      */
     @Deprecated
     void clear();
+
+    /**
+     * Returns statistics of this cache, or null if the cache does not collect
+     * statistics.
+     *
+     * @since 4.1
+     */
+    default QueryCacheStats getStats() {
+        return null;
+    }
 }
@@ -0,0 +1,308 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per cache group hit, miss, put, eviction and load time statistics of a
+ * {@link QueryCache}. Statistics can be published via JMX with
+ * {@link #registerMBean(String)}.
+ *
+ * @see QueryCache#getStats()
+ * @since 4.1
+ */
+public class QueryCacheStats implements QueryCacheStatsMBean, Serializable {
+
+    private static final long serialVersionUID = -3309420624547620127L;
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCacheStats.class);
+
+    private final ConcurrentMap<String, GroupStats> groups;
+
+    private transient ToIntFunction<String> groupSizeFunction;
+    private transient ObjectName mbeanName;
+
+    public QueryCacheStats() {
+        this.groups = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Sets a function that calculates the number of entries in a given cache group.
+     * Should be set by the caches that can report their size.
+     */
+    public void setGroupSizeFunction(ToIntFunction<String> groupSizeFunction) {
+        this.groupSizeFunction = groupSizeFunction;
+    }
+
+    /**
+     * Returns statistics of a given group, or null if the group was never accessed.
+     */
+    public GroupStats getGroupStats(String group) {
+        return groups.get(group);
+    }
+
+    /**
+     * Returns statistics of a given group, creating it if needed.
+     */
+    public GroupStats group(String group) {
+        GroupStats stats = groups.get(group);
+        return stats != null ? stats : groups.computeIfAbsent(group, g -> new GroupStats());
+    }
+
+    public void recordHit(String group) {
+        group(group).hits.increment();
+    }
+
+    public void recordMiss(String group) {
+        group(group).misses.increment();
+    }
+
+    public void recordPut(String group) {
+        group(group).puts.increment();
+    }
+
+    public void recordEviction(String group) {
+        group(group).evictions.increment();
+    }
+
+    public void recordLoad(String group, long loadTimeNanos) {
+        GroupStats stats = group(group);
+        stats.loads.increment();
+        stats.loadTimeNanos.add(loadTimeNanos);
+    }
+
+    @Override
+    public long getHitCount() {
+        long count = 0;
+        for (GroupStats stats : groups.values()) {
+            count += stats.getHitCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getMissCount() {
+        long count = 0;
+        for (GroupStats stats : groups.values()) {
+            count += stats.getMissCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getHitRatio() {
+        return ratio(getHitCount(), getMissCount());
+    }
+
+    @Override
+    public long getPutCount() {
+        long count = 0;
+        for (GroupStats stats : groups.values()) {
+            count += stats.getPutCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        long count = 0;
+        for (GroupStats stats : groups.values()) {
+            count += stats.getEvictionCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getLoadCount() {
+        long count = 0;
+        for (GroupStats stats : groups.values()) {
+            count += stats.getLoadCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getAverageLoadTimeMillis() {
+        long loads = 0;
+        long nanos = 0;
+        for (GroupStats stats : groups.values()) {
+            loads += stats.getLoadCount();
+            nanos += stats.getTotalLoadTimeNanos();
+        }
+        return averageMillis(nanos, loads);
+    }
+
+    @Override
+    public int getSize() {
+        if (groupSizeFunction == null) {
+            return -1;
+        }
+
+        int size = 0;
+        for (String group : groups.keySet()) {
+            size += Math.max(0, groupSizeFunction.applyAsInt(group));
+        }
+        return size;
+    }
+
+    @Override
+    public String[] getGroupNames() {
+        return groups.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long getGroupHitCount(String group) {
+        GroupStats stats = groups.get(group);
+        return stats != null ? stats.getHitCount() : 0;
+    }
+
+    @Override
+    public long getGroupMissCount(String group) {
+        GroupStats stats = groups.get(group);
+        return stats != null ? stats.getMissCount() : 0;
+    }
+
+    @Override
+    public long getGroupEvictionCount(String group) {
+        GroupStats stats = groups.get(group);
+        return stats != null ? stats.getEvictionCount() : 0;
+    }
+
+    @Override
+    public double getGroupAverageLoadTimeMillis(String group) {
+        GroupStats stats = groups.get(group);
+        return stats != null ? stats.getAverageLoadTimeMillis() : 0.0;
+    }
+
+    @Override
+    public int getGroupSize(String group) {
+        return groupSizeFunction != null ? groupSizeFunction.applyAsInt(group) : -1;
+    }
+
+    @Override
+    public void reset() {
+        groups.clear();
+    }
+
+    /**
+     * Registers these statistics with the platform MBeanServer under
+     * "org.apache.cayenne:type=QueryCache,name=&lt;name&gt;" name. Errors are logged and
+     * otherwise ignored.
+     */
+    public void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("org.apache.cayenne:type=QueryCache,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                logger.warn("QueryCache MBean is already registered: " + objectName);
+                return;
+            }
+
+            server.registerMBean(this, objectName);
+            this.mbeanName = objectName;
+        } catch (Exception ex) {
+            logger.warn("Error registering QueryCache MBean.", ex);
+        }
+    }
+
+    /**
+     * Unregisters these statistics from the platform MBeanServer if they were registered
+     * before.
+     */
+    public void unregisterMBean() {
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (Exception ex) {
+                logger.info("Error unregistering QueryCache MBean.", ex);
+            }
+            mbeanName = null;
+        }
+    }
+
+    static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    static double averageMillis(long nanos, long count) {
+        return count == 0 ? 0.0 : (double) nanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Statistics of a single cache group.
+     */
+    public static class GroupStats implements Serializable {
+
+        private static final long serialVersionUID = 4418346617370287536L;
+
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder puts = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        final LongAdder loads = new LongAdder();
+        final LongAdder loadTimeNanos = new LongAdder();
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        public double getHitRatio() {
+            return ratio(getHitCount(), getMissCount());
+        }
+
+        public long getPutCount() {
+            return puts.sum();
+        }
+
+        public long getEvictionCount() {
+            return evictions.sum();
+        }
+
+        public long getLoadCount() {
+            return loads.sum();
+        }
+
+        public long getTotalLoadTimeNanos() {
+            return loadTimeNanos.sum();
+        }
+
+        public double getAverageLoadTimeMillis() {
+            return averageMillis(getTotalLoadTimeNanos(), getLoadCount());
+        }
+    }
+}
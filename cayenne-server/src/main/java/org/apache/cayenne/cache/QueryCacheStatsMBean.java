@@ -0,0 +1,83 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache;
+
+/**
+ * JMX management interface of {@link QueryCacheStats}.
+ *
+ * @since 4.1
+ */
+public interface QueryCacheStatsMBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    /**
+     * Returns a ratio of hits to the total number of lookups, or zero if there were no
+     * lookups.
+     */
+    double getHitRatio();
+
+    long getPutCount();
+
+    long getEvictionCount();
+
+    /**
+     * Returns the number of entries (re)built via {@link QueryCacheEntryFactory}.
+     */
+    long getLoadCount();
+
+    /**
+     * Returns average time in milliseconds spent building an entry via
+     * {@link QueryCacheEntryFactory}.
+     */
+    double getAverageLoadTimeMillis();
+
+    /**
+     * Returns the total number of cached entries, or -1 if the cache can't report its
+     * size.
+     */
+    int getSize();
+
+    /**
+     * Returns the names of cache groups that were accessed so far.
+     */
+    String[] getGroupNames();
+
+    long getGroupHitCount(String group);
+
+    long getGroupMissCount(String group);
+
+    long getGroupEvictionCount(String group);
+
+    double getGroupAverageLoadTimeMillis(String group);
+
+    /**
+     * Returns the number of entries cached in a given group, or -1 if the cache can't
+     * report group size.
+     */
+    int getGroupSize(String group);
+
+    /**
+     * Resets all counters to zero.
+     */
+    void reset();
+}
@@ -97,6 +97,26 @@ public interface Constants {
      */
     String SERVER_RESOURCE_LOCATOR = "cayenne.server.resource_locator";
 
+    /**
+     * A server-side DI container key for binding {@link java.util.concurrent.Executor} used to run
+     * asynchronous ObjectContext operations.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setAsyncExecutor(Binder, java.util.concurrent.Executor)
+     * @since 4.1
+     */
+    String SERVER_ASYNC_EXECUTOR = "cayenne.server.async_executor";
+
+    /**
+     * An integer property that defines the max number of threads of the default executor
+     * running asynchronous ObjectContext operations. The default is twice the number of
+     * available processors. Ignored if a custom executor is bound under
+     * {@link #SERVER_ASYNC_EXECUTOR} key.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setAsyncThreads(Binder, int)
+     * @since 4.1
+     */
+    String SERVER_ASYNC_THREADS_PROPERTY = "cayenne.server.async_threads";
+
     /**
      * A server-side DI container key for the Map&lt;String, String&gt; storing
      * event bridge properties passed to the ROP client on bootstrap.
@@ -133,6 +153,35 @@ public interface Constants {
      */
     String JDBC_VALIDATION_QUERY_PROPERTY = "cayenne.jdbc.validation_query";
 
+    /**
+     * Defines the maximum number of prepared statements cached per pooled connection.
+     * Zero (the default) disables the statement cache.
+     *
+     * @see org.apache.cayenne.datasource.PoolingDataSourceBuilder#statementCacheSize(int)
+     * @since 4.1
+     */
+    String JDBC_STATEMENT_CACHE_SIZE_PROPERTY = "cayenne.jdbc.statement_cache_size";
+
+    /**
+     * Defines a time in milliseconds after which a connection checked out of
+     * the pool is reported as a possible leak. Zero (the default) disables
+     * leak detection.
+     *
+     * @see org.apache.cayenne.datasource.PoolingDataSourceBuilder#leakDetectionThreshold(long)
+     * @since 4.1
+     */
+    String JDBC_LEAK_DETECTION_THRESHOLD_PROPERTY = "cayenne.jdbc.leak_detection_threshold";
+
+    /**
+     * A boolean property that enables registration of connection pool
+     * statistics with JMX, under the "domain_name.node_name" name. Default is
+     * false.
+     *
+     * @see org.apache.cayenne.datasource.PoolingDataSourceStats
+     * @since 4.1
+     */
+    String JDBC_POOL_JMX_PROPERTY = "cayenne.jdbc.pool_jmx";
+
     /**
      * An integer property defining the maximum number of entries in the query
      * cache. Note that not all QueryCache providers may respect this property.
@@ -161,6 +210,27 @@ public interface Constants {
      */
     String SERVER_OBJECT_RETAIN_STRATEGY_PROPERTY = "cayenne.server.object_retain_strategy";
 
+    /**
+     * A boolean property that defines whether ObjectContexts should use an ObjectStore
+     * allowing concurrent lock-free reads. Useful for read-mostly contexts shared between
+     * threads. Default is "false".
+     *
+     * @see org.apache.cayenne.access.ConcurrentObjectStore
+     * @since 4.1
+     */
+    String SERVER_CONCURRENT_OBJECT_STORE_PROPERTY = "cayenne.server.concurrent_object_store";
+
+    /**
+     * An integer property that defines the number of threads used to flush changes to
+     * independent DataNodes in parallel during commit. Nodes are considered independent
+     * if there are no relationships between entities of the nodes involved in the commit.
+     * A value less than or equal to 1 (the default) disables parallel flush.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setParallelFlushThreads(Binder, int)
+     * @since 4.1
+     */
+    String SERVER_PARALLEL_FLUSH_THREADS_PROPERTY = "cayenne.server.parallel_flush_threads";
+
     /**
      * A boolean property that defines whether runtime should use external
      * transactions. Possible values are "true" or "false".
@@ -219,4 +289,141 @@ public interface Constants {
      */
     String SNAPSHOT_CACHE_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.size";
 
+    /**
+     * A boolean property that enables registration of query cache statistics MBean with
+     * the platform MBeanServer. The MBean is named after the DataDomain. Default is "false".
+     *
+     * @see org.apache.cayenne.cache.QueryCacheStatsMBean
+     * @since 4.1
+     */
+    String QUERY_CACHE_JMX_PROPERTY = "cayenne.querycache.jmx";
+
+    /**
+     * A long property that bounds the snapshot cache by the estimated memory footprint of
+     * the cached DataRows (in bytes) instead of the number of entries. Zero or a negative
+     * value (the default) bounds the cache by {@link #SNAPSHOT_CACHE_SIZE_PROPERTY}.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSnapshotCacheMaxBytes(Binder, long)
+     * @since 4.1
+     */
+    String SNAPSHOT_CACHE_MAX_BYTES_PROPERTY = "cayenne.DataRowStore.snapshot.max_bytes";
+
+    /**
+     * A property that defines how long (in seconds) a snapshot is kept in the snapshot cache
+     * before it is considered expired. A value can be specified for an individual entity by
+     * appending "." and the ObjEntity name to the property name, e.g.
+     * "cayenne.DataRowStore.snapshot.ttl.Artist". Zero or a negative value (the default)
+     * disables expiration.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSnapshotCacheTtl(Binder, long)
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSnapshotCacheTtl(Binder, String, long)
+     * @since 4.1
+     */
+    String SNAPSHOT_CACHE_TTL_PROPERTY = "cayenne.DataRowStore.snapshot.ttl";
+
+    /**
+     * A long property that enables an off-heap tier of the snapshot cache of the specified
+     * size in bytes. Snapshots evicted from the heap are serialized to direct memory and
+     * restored when accessed again. Zero or a negative value (the default) disables the
+     * off-heap tier. Note that direct memory available to the JVM may need to be increased
+     * via "-XX:MaxDirectMemorySize".
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSnapshotCacheOffHeapSize(Binder, long)
+     * @since 4.1
+     */
+    String SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.off_heap.size";
+
+    /**
+     * An integer property that defines the size in bytes of a single direct memory buffer
+     * of the snapshot cache off-heap tier. Snapshots larger than this size are not stored
+     * off-heap. Default is 64MB.
+     *
+     * @since 4.1
+     */
+    String SNAPSHOT_CACHE_OFF_HEAP_SLAB_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.off_heap.slab_size";
+
+    /**
+     * A boolean property that enables registration of snapshot cache statistics MBean with
+     * the platform MBeanServer. Only the DataDomain shared cache is registered, the
+     * per-context caches used when the shared cache is disabled are not. Default is "false".
+     *
+     * @see org.apache.cayenne.access.DataRowStoreStatisticsMBean
+     * @since 4.1
+     */
+    String SNAPSHOT_CACHE_JMX_PROPERTY = "cayenne.DataRowStore.jmx";
+
+    /**
+     * An integer property that defines the maximum number of SELECT query translations
+     * cached by query "shape", i.e. reused by the queries that differ only in parameter
+     * values. Zero (the default) disables the cache.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSelectTranslationCacheSize(Binder, int)
+     * @since 4.1
+     */
+    String SELECT_TRANSLATION_CACHE_SIZE_PROPERTY = "cayenne.server.select_translation_cache_size";
+
+    /**
+     * An integer property that defines the maximum number of rows sent to the database
+     * in a single JDBC batch on commit. Larger batches are split into chunks of this
+     * size. Zero (the default) means no limit.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setBatchSize(Binder, int)
+     * @since 4.1
+     */
+    String BATCH_SIZE_PROPERTY = "cayenne.server.batch_size";
+
+    /**
+     * An integer property that enables rewriting of INSERT batches into multi-row
+     * "INSERT ... VALUES (..), (..)" statements, defining the maximum number of rows
+     * per statement. Only used with the adapters that support multi-row inserts. Zero
+     * (the default) disables multi-row inserts.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setMultiRowInsertSize(Binder, int)
+     * @since 4.1
+     */
+    String MULTI_ROW_INSERT_SIZE_PROPERTY = "cayenne.server.multi_row_insert_size";
+
+    /**
+     * An integer property that defines the minimal number of rows in an INSERT batch
+     * with pre-generated PKs, starting from which the batch is loaded with a database
+     * bulk load protocol (PostgreSQL COPY or MySQL LOAD DATA). Zero (the default)
+     * disables bulk inserts.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setBulkInsertThreshold(Binder, int)
+     * @see org.apache.cayenne.access.jdbc.BulkInsertStrategy
+     * @since 4.1
+     */
+    String BULK_INSERT_THRESHOLD_PROPERTY = "cayenne.server.bulk_insert_threshold";
+
+    /**
+     * An integer property that defines the max number of rows of a select result kept
+     * on heap. Rows past this number are stored in a temporary memory-mapped file and
+     * are read back and converted to objects on access. Zero (the default) disables
+     * spilling of the results to disk.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setResultSpillThreshold(Binder, int)
+     * @see org.apache.cayenne.access.SpilledDataRowList
+     * @since 4.1
+     */
+    String RESULT_SPILL_THRESHOLD_PROPERTY = "cayenne.server.result_spill_threshold";
+
+    /**
+     * An integer property that defines the number of spilled result rows read back
+     * from disk together. The default is 1000.
+     *
+     * @since 4.1
+     */
+    String RESULT_SPILL_PAGE_SIZE_PROPERTY = "cayenne.server.result_spill_page_size";
+
+    /**
+     * An integer property that defines the max number of relationship faults of the
+     * objects fetched by the same query that are resolved together in a single query,
+     * when one of them is accessed. Zero (the default) disables batch faulting.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setBatchFaultingSize(Binder, int)
+     * @see org.apache.cayenne.access.DataContext#setBatchFaultingSize(int)
+     * @since 4.1
+     */
+    String BATCH_FAULTING_SIZE_PROPERTY = "cayenne.server.batch_faulting_size";
+
 }
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.cayenne.configuration;
 
+import org.apache.cayenne.access.ConcurrentObjectStore;
 import org.apache.cayenne.access.DataRowStore;
 import org.apache.cayenne.access.NoSyncObjectStore;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
@@ -27,7 +28,8 @@ import org.apache.cayenne.di.Inject;
 /**
  * A default implementation of {@link ObjectStoreFactory} which makes decision to
  * turn {@link ObjectStore}'s syncing with parent {@link DataRowStore} on or off 
- * basing on {@link RuntimeProperties}.
+ * basing on {@link RuntimeProperties}. Creates a {@link ConcurrentObjectStore} if
+ * {@link Constants#SERVER_CONCURRENT_OBJECT_STORE_PROPERTY} is set to "true".
  * 
  * @since 3.1
  */
@@ -41,7 +43,11 @@ public class DefaultObjectStoreFactory implements ObjectStoreFactory {
     
     public ObjectStore createObjectStore(DataRowStore dataRowCache) {
         boolean sync = runtimeProperties.getBoolean(Constants.SERVER_CONTEXTS_SYNC_PROPERTY, true);
-        
+
+        if (runtimeProperties.getBoolean(Constants.SERVER_CONCURRENT_OBJECT_STORE_PROPERTY, false)) {
+            return new ConcurrentObjectStore(dataRowCache, retainStrategy.createConcurrentObjectMap(), sync);
+        }
+
         return sync ? new ObjectStore(dataRowCache, retainStrategy.createObjectMap()) 
                 : new NoSyncObjectStore(dataRowCache, retainStrategy.createObjectMap());
     }
@@ -27,12 +27,15 @@ import org.apache.cayenne.access.DataRowStoreFactory;
 import org.apache.cayenne.access.ObjectStore;
 import org.apache.cayenne.cache.NestedQueryCache;
 import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.ObjectContextFactory;
 import org.apache.cayenne.configuration.ObjectStoreFactory;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.event.EventManager;
 import org.apache.cayenne.tx.TransactionFactory;
 
+import java.util.concurrent.Executor;
+
 /**
  * @since 3.1
  */
@@ -56,6 +59,12 @@ public class DataContextFactory implements ObjectContextFactory {
     @Inject
     protected TransactionFactory transactionFactory;
 
+    /**
+     * @since 4.1
+     */
+    @Inject(Constants.SERVER_ASYNC_EXECUTOR)
+    protected Executor asyncExecutor;
+
     @Override
     public ObjectContext createContext() {
         return createdFromDataDomain(dataDomain);
@@ -87,7 +96,9 @@ public class DataContextFactory implements ObjectContextFactory {
         DataContext context = newInstance(
                 parent, objectStoreFactory.createObjectStore(snapshotCache));
         context.setValidatingObjectsOnCommit(dataDomain.isValidatingObjectsOnCommit());
+        context.setBatchFaultingSize(dataDomain.getBatchFaultingSize());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncExecutor(asyncExecutor);
         return context;
     }
 
@@ -99,8 +110,10 @@ public class DataContextFactory implements ObjectContextFactory {
         DataContext context = newInstance(parent, objectStore);
 
         context.setValidatingObjectsOnCommit(parent.isValidatingObjectsOnCommit());
+        context.setBatchFaultingSize(parent.getBatchFaultingSize());
         context.setUsingSharedSnapshotCache(parent.isUsingSharedSnapshotCache());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncExecutor(asyncExecutor);
         context.setTransactionFactory(transactionFactory);
 
         return context;
@@ -117,7 +130,9 @@ public class DataContextFactory implements ObjectContextFactory {
         DataContext context = newInstance(
                 parent, objectStoreFactory.createObjectStore(snapshotCache));
         context.setValidatingObjectsOnCommit(parent.isValidatingObjectsOnCommit());
+        context.setBatchFaultingSize(parent.getBatchFaultingSize());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncExecutor(asyncExecutor);
         context.setTransactionFactory(transactionFactory);
         return context;
     }
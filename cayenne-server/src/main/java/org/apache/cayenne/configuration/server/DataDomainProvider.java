@@ -49,6 +49,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link DataChannel} provider that provides a single instance of DataDomain
@@ -136,6 +139,12 @@ public class DataDomainProvider implements Provider<DataDomain> {
 		DataDomain dataDomain = createDataDomain(descriptor.getName());
 
 		dataDomain.setMaxIdQualifierSize(runtimeProperties.getInt(Constants.SERVER_MAX_ID_QUALIFIER_SIZE_PROPERTY, -1));
+		dataDomain.setBatchFaultingSize(runtimeProperties.getInt(Constants.BATCH_FAULTING_SIZE_PROPERTY, 0));
+
+		int flushThreads = runtimeProperties.getInt(Constants.SERVER_PARALLEL_FLUSH_THREADS_PROPERTY, 0);
+		if (flushThreads > 1) {
+			dataDomain.setFlushExecutor(createFlushExecutor(dataDomain.getName(), flushThreads));
+		}
 
 		dataDomain.setQueryCache(new NestedQueryCache(queryCache));
 		dataDomain.setEntitySorter(injector.getInstance(EntitySorter.class));
@@ -209,6 +218,21 @@ public class DataDomainProvider implements Provider<DataDomain> {
 		return descriptor;
 	}
 
+	/**
+	 * Creates an executor used by the DataDomain to flush commit batches to independent
+	 * DataNodes in parallel.
+	 *
+	 * @since 4.1
+	 */
+	protected ExecutorService createFlushExecutor(String domainName, int threads) {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "cayenne-flush-" + domainName + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	/**
 	 * @since 4.0
 	 */
@@ -0,0 +1,94 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.configuration.server;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.ConfigurationException;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.di.Provider;
+
+/**
+ * Provides a default {@link Executor} for asynchronous ObjectContext operations, such as
+ * {@link org.apache.cayenne.ObjectContext#selectAsync(org.apache.cayenne.query.Select)}. It
+ * is a bounded pool of daemon threads, with the size defined by
+ * {@link Constants#SERVER_ASYNC_THREADS_PROPERTY}. Operations submitted when all threads
+ * are busy are queued, idle threads are released after a timeout, and the pool is shut
+ * down together with the runtime. Custom executors (e.g. a virtual thread per task
+ * executor) can be installed via
+ * {@link ServerModule#setAsyncExecutor(org.apache.cayenne.di.Binder, Executor)}.
+ *
+ * @since 4.1
+ */
+public class DefaultAsyncExecutorProvider implements Provider<Executor> {
+
+    static final long KEEP_ALIVE_SECONDS = 60;
+
+    @Inject
+    protected RuntimeProperties runtimeProperties;
+
+    @Override
+    public Executor get() throws ConfigurationException {
+        int threads = runtimeProperties.getInt(Constants.SERVER_ASYNC_THREADS_PROPERTY,
+                Runtime.getRuntime().availableProcessors() * 2);
+        if (threads < 1) {
+            throw new ConfigurationException("Invalid number of async threads: %d", threads);
+        }
+
+        return new AsyncExecutor(threads);
+    }
+
+    /**
+     * A fixed size thread pool that is shut down when the runtime DI scope ends.
+     */
+    public static class AsyncExecutor extends ThreadPoolExecutor {
+
+        public AsyncExecutor(int threads) {
+            super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new DaemonThreadFactory());
+            allowCoreThreadTimeOut(true);
+        }
+
+        @BeforeScopeEnd
+        @Override
+        public void shutdown() {
+            super.shutdown();
+        }
+    }
+
+    static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cayenne-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -24,7 +24,9 @@ import org.apache.cayenne.access.jdbc.SQLTemplateProcessor;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
 import org.apache.cayenne.access.translator.batch.BatchTranslatorFactory;
 import org.apache.cayenne.access.translator.select.SelectTranslatorFactory;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DataNodeDescriptor;
+import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.log.JdbcEventLogger;
@@ -63,6 +65,12 @@ public class DefaultDataNodeFactory implements DataNodeFactory {
     @Inject
     protected SQLTemplateProcessor sqlTemplateProcessor;
 
+    /**
+     * @since 4.1
+     */
+    @Inject
+    protected RuntimeProperties runtimeProperties;
+
     @Override
     public DataNode createDataNode(DataNodeDescriptor nodeDescriptor) throws Exception {
 
@@ -73,6 +81,12 @@ public class DefaultDataNodeFactory implements DataNodeFactory {
         dataNode.setBatchTranslatorFactory(batchTranslatorFactory);
         dataNode.setSelectTranslatorFactory(selectTranslatorFactory);
         dataNode.setSqlTemplateProcessor(sqlTemplateProcessor);
+        dataNode.setBatchSize(runtimeProperties.getInt(Constants.BATCH_SIZE_PROPERTY, 0));
+        dataNode.setMultiRowInsertSize(runtimeProperties.getInt(Constants.MULTI_ROW_INSERT_SIZE_PROPERTY, 0));
+        dataNode.setBulkInsertThreshold(runtimeProperties.getInt(Constants.BULK_INSERT_THRESHOLD_PROPERTY, 0));
+        dataNode.setResultSpillThreshold(runtimeProperties.getInt(Constants.RESULT_SPILL_THRESHOLD_PROPERTY, 0));
+        dataNode.setResultSpillPageSize(runtimeProperties.getInt(Constants.RESULT_SPILL_PAGE_SIZE_PROPERTY,
+                DataNode.DEFAULT_RESULT_SPILL_PAGE_SIZE));
 
         DataSource dataSource = dataSourceFactory.getDataSource(nodeDescriptor);
 
@@ -70,11 +70,16 @@ public class PropertyDataSourceFactory implements DataSourceFactory {
 		long maxQueueWaitTime = properties.getLong(Constants.JDBC_MAX_QUEUE_WAIT_TIME,
 				UnmanagedPoolingDataSource.MAX_QUEUE_WAIT_DEFAULT);
 		String validationQuery = properties.get(Constants.JDBC_VALIDATION_QUERY_PROPERTY);
+		int statementCacheSize = properties.getInt(Constants.JDBC_STATEMENT_CACHE_SIZE_PROPERTY, 0);
+		long leakDetectionThreshold = properties.getLong(Constants.JDBC_LEAK_DETECTION_THRESHOLD_PROPERTY, 0);
+		String mbeanName = properties.getBoolean(Constants.JDBC_POOL_JMX_PROPERTY, false) ? suffix.substring(1)
+				: null;
 
 		Driver driver = objectFactory.newInstance(Driver.class, driverClass);
 		return DataSourceBuilder.url(url).driver(driver).userName(username).password(password)
 				.pool(minConnections, maxConnections).maxQueueWaitTime(maxQueueWaitTime)
-				.validationQuery(validationQuery).build();
+				.validationQuery(validationQuery).statementCacheSize(statementCacheSize)
+				.leakDetectionThreshold(leakDetectionThreshold).mbeanName(mbeanName).build();
 	}
 
 	protected int getIntProperty(String propertyName, String suffix, int defaultValue) {
@@ -34,7 +34,7 @@ import org.apache.cayenne.access.jdbc.reader.DefaultRowReaderFactory;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
 import org.apache.cayenne.access.translator.batch.BatchTranslatorFactory;
 import org.apache.cayenne.access.translator.batch.DefaultBatchTranslatorFactory;
-import org.apache.cayenne.access.translator.select.DefaultSelectTranslatorFactory;
+import org.apache.cayenne.access.translator.select.CachingSelectTranslatorFactory;
 import org.apache.cayenne.access.translator.select.SelectTranslatorFactory;
 import org.apache.cayenne.access.types.BigDecimalType;
 import org.apache.cayenne.access.types.BigIntegerValueType;
@@ -153,6 +153,7 @@ import org.xml.sax.XMLReader;
 
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.concurrent.Executor;
 
 /**
  * A DI module containing all Cayenne server runtime configuration.
@@ -185,6 +186,160 @@ public class ServerModule implements Module {
         contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, Integer.toString(size));
     }
 
+    /**
+     * Bounds snapshot cache by the estimated memory size of the cached snapshots instead of their count.
+     *
+     * @param binder   DI binder passed to the module during injector startup.
+     * @param maxBytes max estimated size of snapshot cache in bytes
+     * @since 4.1
+     */
+    public static void setSnapshotCacheMaxBytes(Binder binder, long maxBytes) {
+        contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_MAX_BYTES_PROPERTY, Long.toString(maxBytes));
+    }
+
+    /**
+     * Enables off-heap tier of snapshot cache, that keeps snapshots evicted from the heap in direct memory.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   size of the off-heap tier in bytes
+     * @since 4.1
+     */
+    public static void setSnapshotCacheOffHeapSize(Binder binder, long size) {
+        contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY, Long.toString(size));
+    }
+
+    /**
+     * Enables caching of SELECT query translations, so that SQL of the queries that differ
+     * only in parameter values is generated once.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of cached translations
+     * @since 4.1
+     */
+    public static void setSelectTranslationCacheSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.SELECT_TRANSLATION_CACHE_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Sets the maximum number of rows sent to the database in a single JDBC batch.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of rows per batch
+     * @since 4.1
+     */
+    public static void setBatchSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.BATCH_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Enables rewriting of INSERT batches into multi-row INSERT statements, for the adapters that support them.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of rows per INSERT statement
+     * @since 4.1
+     */
+    public static void setMultiRowInsertSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.MULTI_ROW_INSERT_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Enables bulk loading of large INSERT batches (PostgreSQL COPY, MySQL LOAD DATA), for the adapters that
+     * support it.
+     *
+     * @param binder    DI binder passed to the module during injector startup.
+     * @param threshold min number of rows in a batch to use bulk loading
+     * @since 4.1
+     */
+    public static void setBulkInsertThreshold(Binder binder, int threshold) {
+        contributeProperties(binder).put(Constants.BULK_INSERT_THRESHOLD_PROPERTY, Integer.toString(threshold));
+    }
+
+    /**
+     * Enables spilling of large select results to disk. Rows past the threshold are stored in a temporary file
+     * and are converted to objects on access.
+     *
+     * @param binder    DI binder passed to the module during injector startup.
+     * @param threshold max number of result rows kept on heap
+     * @since 4.1
+     */
+    public static void setResultSpillThreshold(Binder binder, int threshold) {
+        contributeProperties(binder).put(Constants.RESULT_SPILL_THRESHOLD_PROPERTY, Integer.toString(threshold));
+    }
+
+    /**
+     * Enables batch faulting of relationships. When a relationship of an object is accessed, the same relationship
+     * of up to "size" objects fetched by the same query is resolved in a single query.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of objects whose relationship is resolved together
+     * @since 4.1
+     */
+    public static void setBatchFaultingSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.BATCH_FAULTING_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Sets default time-to-live of snapshot cache entries.
+     *
+     * @param binder     DI binder passed to the module during injector startup.
+     * @param ttlSeconds time in seconds after which a cached snapshot expires
+     * @since 4.1
+     */
+    public static void setSnapshotCacheTtl(Binder binder, long ttlSeconds) {
+        contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_TTL_PROPERTY, Long.toString(ttlSeconds));
+    }
+
+    /**
+     * Sets time-to-live of snapshot cache entries for a given entity, overriding the default value.
+     *
+     * @param binder     DI binder passed to the module during injector startup.
+     * @param entityName ObjEntity name
+     * @param ttlSeconds time in seconds after which a cached snapshot of the entity expires
+     * @since 4.1
+     */
+    public static void setSnapshotCacheTtl(Binder binder, String entityName, long ttlSeconds) {
+        contributeProperties(binder)
+                .put(Constants.SNAPSHOT_CACHE_TTL_PROPERTY + "." + entityName, Long.toString(ttlSeconds));
+    }
+
+    /**
+     * Enables parallel flush of commit batches to independent DataNodes using the specified number of
+     * threads. A value less than or equal to 1 keeps the default sequential flush.
+     *
+     * @param binder  DI binder passed to the module during injector startup.
+     * @param threads number of threads used to flush independent DataNodes
+     * @since 4.1
+     */
+    public static void setParallelFlushThreads(Binder binder, int threads) {
+        contributeProperties(binder).put(Constants.SERVER_PARALLEL_FLUSH_THREADS_PROPERTY, Integer.toString(threads));
+    }
+
+    /**
+     * Sets the max number of threads of the default executor running asynchronous
+     * ObjectContext operations. Operations submitted when all the threads are busy are queued.
+     *
+     * @param binder  DI binder passed to the module during injector startup.
+     * @param threads max number of threads running asynchronous operations
+     * @since 4.1
+     */
+    public static void setAsyncThreads(Binder binder, int threads) {
+        contributeProperties(binder).put(Constants.SERVER_ASYNC_THREADS_PROPERTY, Integer.toString(threads));
+    }
+
+    /**
+     * Sets an executor used to run asynchronous ObjectContext operations, such as
+     * {@link org.apache.cayenne.ObjectContext#selectAsync(org.apache.cayenne.query.Select)} or
+     * {@link org.apache.cayenne.ObjectContext#commitChangesAsync()}. E.g. on Java 21 and newer this
+     * can be a virtual thread per task executor. Cayenne will not shut down the executor.
+     *
+     * @param binder   DI binder passed to the module during injector startup.
+     * @param executor executor for asynchronous operations
+     * @since 4.1
+     */
+    public static void setAsyncExecutor(Binder binder, Executor executor) {
+        binder.bind(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR)).toInstance(executor);
+    }
+
     /**
      * Provides access to a DI collection builder for String locations that allows downstream modules to
      * "contribute" their own Cayenne project locations.
@@ -448,6 +603,8 @@ public class ServerModule implements Module {
 
         binder.bind(ObjectContextFactory.class).to(DataContextFactory.class);
 
+        binder.bind(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR)).toProvider(DefaultAsyncExecutorProvider.class);
+
         binder.bind(TransactionFactory.class).to(DefaultTransactionFactory.class);
 
         // a service to load project XML descriptors
@@ -481,7 +638,7 @@ public class ServerModule implements Module {
         binder.bind(EntitySorter.class).to(AshwoodEntitySorter.class).withoutScope();
 
         binder.bind(BatchTranslatorFactory.class).to(DefaultBatchTranslatorFactory.class);
-        binder.bind(SelectTranslatorFactory.class).to(DefaultSelectTranslatorFactory.class);
+        binder.bind(SelectTranslatorFactory.class).to(CachingSelectTranslatorFactory.class);
 
         // a default ObjectMapRetainStrategy used to create objects map for
         // ObjectStore
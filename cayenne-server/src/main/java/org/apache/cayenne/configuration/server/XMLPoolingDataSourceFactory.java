@@ -66,13 +66,19 @@ public class XMLPoolingDataSourceFactory implements DataSourceFactory {
 
 		long maxQueueWaitTime = properties.getLong(Constants.JDBC_MAX_QUEUE_WAIT_TIME,
 				UnmanagedPoolingDataSource.MAX_QUEUE_WAIT_DEFAULT);
+		int statementCacheSize = properties.getInt(Constants.JDBC_STATEMENT_CACHE_SIZE_PROPERTY, 0);
+		long leakDetectionThreshold = properties.getLong(Constants.JDBC_LEAK_DETECTION_THRESHOLD_PROPERTY, 0);
+		String mbeanName = properties.getBoolean(Constants.JDBC_POOL_JMX_PROPERTY, false)
+				? nodeDescriptor.getDataChannelDescriptor().getName() + "." + nodeDescriptor.getName()
+				: null;
 
 		Driver driver = objectFactory.newInstance(Driver.class, descriptor.getJdbcDriver());
 
 		return DataSourceBuilder.url(descriptor.getDataSourceUrl()).driver(driver).userName(descriptor.getUserName())
 				.password(descriptor.getPassword())
 				.pool(descriptor.getMinConnections(), descriptor.getMaxConnections())
-				.maxQueueWaitTime(maxQueueWaitTime).build();
+				.maxQueueWaitTime(maxQueueWaitTime).statementCacheSize(statementCacheSize)
+				.leakDetectionThreshold(leakDetectionThreshold).mbeanName(mbeanName).build();
 	}
 
 }
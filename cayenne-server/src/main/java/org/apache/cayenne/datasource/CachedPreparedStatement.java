@@ -0,0 +1,746 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A {@link PreparedStatement} wrapper returned by {@link PoolAwareConnection}
+ * when statement caching is enabled. Instead of closing the underlying
+ * statement, {@link #close()} resets its state and returns it to the
+ * connection statement cache.
+ * 
+ * @since 4.1
+ */
+class CachedPreparedStatement implements PreparedStatement {
+
+	private PoolAwareConnection parent;
+	private StatementCache.Key key;
+	private PreparedStatement statement;
+	private int connectionGeneration;
+	private boolean closed;
+	private boolean reusable;
+
+	private ResultSet resultSet;
+	private ResultSet generatedKeys;
+	private boolean batched;
+
+	// original values of the statement settings altered by the caller
+	private Integer maxRows;
+	private Long largeMaxRows;
+	private Integer fetchSize;
+	private Integer queryTimeout;
+	private Integer fetchDirection;
+	private Integer maxFieldSize;
+
+	CachedPreparedStatement(PoolAwareConnection parent, StatementCache.Key key, PreparedStatement statement,
+			int connectionGeneration) {
+		this.parent = parent;
+		this.key = key;
+		this.statement = statement;
+		this.connectionGeneration = connectionGeneration;
+		this.reusable = true;
+	}
+
+	PreparedStatement getStatement() {
+		return statement;
+	}
+
+	private PreparedStatement statement() throws SQLException {
+		if (closed) {
+			throw new SQLException("Statement is closed");
+		}
+
+		return statement;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		if (reusable) {
+			try {
+				resetState();
+			} catch (SQLException e) {
+				reusable = false;
+			}
+		}
+
+		if (reusable) {
+			parent.checkinStatement(key, statement, connectionGeneration);
+		} else {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Restores the statement to the state it was in when it was checked out of
+	 * the cache.
+	 */
+	private void resetState() throws SQLException {
+
+		if (resultSet != null) {
+			resultSet.close();
+		}
+
+		if (generatedKeys != null) {
+			generatedKeys.close();
+		}
+
+		statement.clearParameters();
+
+		if (batched) {
+			statement.clearBatch();
+		}
+
+		if (maxRows != null) {
+			statement.setMaxRows(maxRows);
+		}
+
+		if (largeMaxRows != null) {
+			statement.setLargeMaxRows(largeMaxRows);
+		}
+
+		if (fetchSize != null) {
+			statement.setFetchSize(fetchSize);
+		}
+
+		if (queryTimeout != null) {
+			statement.setQueryTimeout(queryTimeout);
+		}
+
+		if (fetchDirection != null) {
+			statement.setFetchDirection(fetchDirection);
+		}
+
+		if (maxFieldSize != null) {
+			statement.setMaxFieldSize(maxFieldSize);
+		}
+
+		statement.clearWarnings();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || statement.isClosed();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		statement();
+		return parent;
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		return resultSet = statement().executeQuery();
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		return resultSet = statement().executeQuery(sql);
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return resultSet = statement().getResultSet();
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return generatedKeys = statement().getGeneratedKeys();
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		statement().addBatch();
+		batched = true;
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		statement().addBatch(sql);
+		batched = true;
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		statement().clearBatch();
+		batched = false;
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		// per JDBC spec the batch is reset after execution
+		batched = false;
+		return statement().executeBatch();
+	}
+
+	@Override
+	public long[] executeLargeBatch() throws SQLException {
+		batched = false;
+		return statement().executeLargeBatch();
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		statement().clearParameters();
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		if (maxRows == null) {
+			maxRows = statement().getMaxRows();
+		}
+		statement().setMaxRows(max);
+	}
+
+	@Override
+	public void setLargeMaxRows(long max) throws SQLException {
+		if (largeMaxRows == null) {
+			largeMaxRows = statement().getLargeMaxRows();
+		}
+		statement().setLargeMaxRows(max);
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		if (fetchSize == null) {
+			fetchSize = statement().getFetchSize();
+		}
+		statement().setFetchSize(rows);
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		if (queryTimeout == null) {
+			queryTimeout = statement().getQueryTimeout();
+		}
+		statement().setQueryTimeout(seconds);
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		if (fetchDirection == null) {
+			fetchDirection = statement().getFetchDirection();
+		}
+		statement().setFetchDirection(direction);
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		if (maxFieldSize == null) {
+			maxFieldSize = statement().getMaxFieldSize();
+		}
+		statement().setMaxFieldSize(max);
+	}
+
+	// the following settings can't be reliably restored, so the statement is
+	// closed instead of being returned to the cache
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		statement().closeOnCompletion();
+		reusable = false;
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		statement().setPoolable(poolable);
+		if (!poolable) {
+			reusable = false;
+		}
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		statement().setCursorName(name);
+		reusable = false;
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		statement().setEscapeProcessing(enable);
+		reusable = false;
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return CachedPreparedStatement.class.equals(iface) ? true : statement().isWrapperFor(iface);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return CachedPreparedStatement.class.equals(iface) ? (T) this : statement().unwrap(iface);
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		return statement().execute();
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		return statement().execute(sql);
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		return statement().execute(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		return statement().execute(sql, columnIndexes);
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		return statement().execute(sql, columnNames);
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return statement().getMoreResults();
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return statement().getMoreResults(current);
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return statement().isCloseOnCompletion();
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return statement().isPoolable();
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		return statement().executeUpdate();
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		return statement().executeUpdate(sql);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return statement().executeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return statement().executeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		return statement().executeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return statement().getFetchDirection();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return statement().getFetchSize();
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return statement().getMaxFieldSize();
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return statement().getMaxRows();
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return statement().getQueryTimeout();
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return statement().getResultSetConcurrency();
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return statement().getResultSetHoldability();
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return statement().getResultSetType();
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return statement().getUpdateCount();
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		return statement().getParameterMetaData();
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return statement().getMetaData();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return statement().getWarnings();
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		statement().cancel();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		statement().clearWarnings();
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		statement().setArray(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream inputStream) throws SQLException {
+		statement().setAsciiStream(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+		statement().setAsciiStream(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		statement().setAsciiStream(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		statement().setBigDecimal(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream inputStream) throws SQLException {
+		statement().setBinaryStream(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+		statement().setBinaryStream(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		statement().setBinaryStream(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		statement().setBlob(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		statement().setBlob(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		statement().setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		statement().setBoolean(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		statement().setByte(parameterIndex, x);
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		statement().setBytes(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		statement().setCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		statement().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		statement().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		statement().setClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		statement().setClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		statement().setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		statement().setDate(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		statement().setDate(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		statement().setDouble(parameterIndex, x);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		statement().setFloat(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		statement().setInt(parameterIndex, x);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		statement().setLong(parameterIndex, x);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		statement().setNCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		statement().setNCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		statement().setNClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		statement().setNClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob x) throws SQLException {
+		statement().setNClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String x) throws SQLException {
+		statement().setNString(parameterIndex, x);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		statement().setNull(parameterIndex, sqlType);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		statement().setNull(parameterIndex, sqlType, typeName);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		statement().setObject(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		statement().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		statement().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		statement().setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		statement().setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+		statement().setSQLXML(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		statement().setShort(parameterIndex, x);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		statement().setString(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		statement().setTime(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		statement().setTime(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		statement().setTimestamp(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		statement().setTimestamp(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		statement().setURL(parameterIndex, x);
+	}
+
+	@Deprecated
+	@Override
+	@SuppressWarnings("deprecation")
+	public void setUnicodeStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+		statement().setUnicodeStream(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public long executeLargeUpdate() throws SQLException {
+		return statement().executeLargeUpdate();
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql) throws SQLException {
+		return statement().executeLargeUpdate(sql);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return statement().executeLargeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return statement().executeLargeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+		return statement().executeLargeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public long getLargeMaxRows() throws SQLException {
+		return statement().getLargeMaxRows();
+	}
+
+	@Override
+	public long getLargeUpdateCount() throws SQLException {
+		return statement().getLargeUpdateCount();
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+		statement().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+		statement().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+}
@@ -0,0 +1,243 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free collection of pooled connections used by
+ * {@link LockFreePoolingDataSource}. Each connection entry has an atomic state
+ * that is flipped with CAS when the connection is borrowed or returned, so
+ * there's no shared lock on the hot path. Connections recently returned by a
+ * thread are remembered in a thread-local list and are tried first by the
+ * same thread, which usually succeeds without touching the shared list at
+ * all. Thread-local lists only weakly reference the entries, so that
+ * long-lived threads don't keep the connections of a closed pool (and its
+ * class loader) from being garbage collected. Threads waiting for a
+ * connection get it directly from a returning thread via a hand-off queue.
+ * 
+ * @since 4.1
+ */
+class ConnectionBag {
+
+	static final int STATE_NOT_IN_USE = 0;
+	static final int STATE_IN_USE = 1;
+	static final int STATE_RESERVED = 2;
+	static final int STATE_REMOVED = 3;
+
+	// max number of connections remembered per thread
+	private static final int THREAD_LIST_SIZE = 16;
+
+	private final CopyOnWriteArrayList<Entry> entries;
+	private final ThreadLocal<List<WeakReference<Entry>>> threadEntries;
+	private final SynchronousQueue<Entry> handoffQueue;
+	private final AtomicInteger waiters;
+
+	ConnectionBag() {
+		this.entries = new CopyOnWriteArrayList<>();
+		this.threadEntries = ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LIST_SIZE));
+		this.handoffQueue = new SynchronousQueue<>(true);
+		this.waiters = new AtomicInteger();
+	}
+
+	/**
+	 * Returns an available entry switching it to the "in use" state, or null
+	 * if all entries are in use.
+	 */
+	Entry borrow() {
+
+		// 1. connections previously used by this thread
+		List<WeakReference<Entry>> list = threadEntries.get();
+		for (int i = list.size() - 1; i >= 0; i--) {
+			Entry entry = list.remove(i).get();
+
+			// skip collected and removed entries
+			if (entry != null && entry.getState() != STATE_REMOVED
+					&& entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+				return entry;
+			}
+		}
+
+		// 2. any available connection
+		for (Entry entry : entries) {
+			if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+				return entry;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Waits up to "timeout" milliseconds for an entry to become available.
+	 * Returns null if the wait timed out.
+	 */
+	Entry borrow(long timeout) throws InterruptedException {
+		waiters.incrementAndGet();
+		try {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+			while (true) {
+
+				// an entry could've been returned before we started waiting
+				Entry entry = borrow();
+				if (entry != null) {
+					return entry;
+				}
+
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+
+				entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+				if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+					return entry;
+				}
+			}
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns a borrowed entry to the bag, handing it to a waiting thread if
+	 * there is one.
+	 */
+	void requite(Entry entry) {
+		entry.lastAccessTime = System.currentTimeMillis();
+		entry.state.set(STATE_NOT_IN_USE);
+
+		for (int i = 0; waiters.get() > 0; i++) {
+
+			// the entry was grabbed by someone scanning the bag, or handed off
+			if (entry.state.get() != STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+				return;
+			}
+
+			if ((i & 0xff) == 0xff) {
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+			} else {
+				Thread.yield();
+			}
+		}
+
+		List<WeakReference<Entry>> list = threadEntries.get();
+		if (list.size() < THREAD_LIST_SIZE) {
+			list.add(new WeakReference<>(entry));
+		}
+	}
+
+	/**
+	 * Adds a new entry in "in use" state.
+	 */
+	void add(Entry entry) {
+		entries.add(entry);
+	}
+
+	/**
+	 * Removes an entry from the bag. The entry must not be available to the
+	 * other threads, i.e. it must be either in use or reserved by the caller.
+	 */
+	void remove(Entry entry) {
+		entry.state.set(STATE_REMOVED);
+		entries.remove(entry);
+	}
+
+	/**
+	 * Marks an available entry as reserved, so that it can be inspected
+	 * without being borrowed by anyone.
+	 */
+	boolean reserve(Entry entry) {
+		return entry.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED);
+	}
+
+	/**
+	 * Makes a reserved entry available again.
+	 */
+	void unreserve(Entry entry) {
+		if (entry.compareAndSet(STATE_RESERVED, STATE_IN_USE)) {
+			requite(entry);
+		}
+	}
+
+	List<Entry> values() {
+		return new ArrayList<>(entries);
+	}
+
+	List<Entry> values(int state) {
+		List<Entry> result = new ArrayList<>();
+		for (Entry entry : entries) {
+			if (entry.state.get() == state) {
+				result.add(entry);
+			}
+		}
+		return result;
+	}
+
+	int count(int state) {
+		int count = 0;
+		for (Entry entry : entries) {
+			if (entry.state.get() == state) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	int getWaitingThreads() {
+		return waiters.get();
+	}
+
+	/**
+	 * A pooled connection with its pool state.
+	 */
+	static final class Entry {
+
+		final PoolAwareConnection connection;
+		final AtomicInteger state;
+
+		volatile long lastAccessTime;
+
+		Entry(PoolAwareConnection connection) {
+			this.connection = connection;
+			this.state = new AtomicInteger(STATE_IN_USE);
+			this.lastAccessTime = System.currentTimeMillis();
+		}
+
+		boolean compareAndSet(int expect, int update) {
+			return state.compareAndSet(expect, update);
+		}
+
+		int getState() {
+			return state.get();
+		}
+	}
+}
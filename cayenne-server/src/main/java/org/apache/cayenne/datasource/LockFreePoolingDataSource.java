@@ -0,0 +1,308 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection pool that is an alternative to the queue-based
+ * {@link UnmanagedPoolingDataSource}, optimized for a large number of
+ * concurrent threads. Connections are kept in a lock-free
+ * {@link ConnectionBag}, with each thread preferring the connections it used
+ * before. Idle connections are validated and evicted by the pool manager in
+ * the background, and connections recently returned to the pool are not
+ * validated on checkout. If leak detection threshold is set, connections held
+ * longer than the threshold are reported together with the stack trace of the
+ * code that checked them out.
+ * 
+ * @since 4.1
+ */
+public class LockFreePoolingDataSource extends UnmanagedPoolingDataSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LockFreePoolingDataSource.class);
+
+	/**
+	 * Connections that were returned to the pool less than this number of
+	 * milliseconds ago are not validated on checkout.
+	 */
+	static final long VALIDATION_BYPASS_TIME = 500;
+
+	private ConnectionBag bag;
+	private Map<PoolAwareConnection, ConnectionBag.Entry> entries;
+	private AtomicInteger totalConnections;
+	private volatile boolean closed;
+
+	public LockFreePoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+		super(nonPoolingDataSource, parameters, false);
+
+		this.bag = new ConnectionBag();
+		this.entries = new ConcurrentHashMap<>();
+		this.totalConnections = new AtomicInteger();
+
+		startPool();
+	}
+
+	@Override
+	int poolSize() {
+		return bag.size();
+	}
+
+	@Override
+	int availableSize() {
+		return bag.count(ConnectionBag.STATE_NOT_IN_USE);
+	}
+
+	@Override
+	int canExpandSize() {
+		return getMaxConnections() - totalConnections.get();
+	}
+
+	ConnectionBag getBag() {
+		return bag;
+	}
+
+	@Override
+	int waitingSize() {
+		return bag.getWaitingThreads();
+	}
+
+	@Override
+	Collection<PoolAwareConnection> checkedOutConnections() {
+		Collection<PoolAwareConnection> checkedOut = new ArrayList<>();
+		for (ConnectionBag.Entry entry : bag.values(ConnectionBag.STATE_IN_USE)) {
+			checkedOut.add(entry.connection);
+		}
+		return checkedOut;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+
+		for (ConnectionBag.Entry entry : bag.values()) {
+			retire(entry.connection);
+		}
+
+		getStats().unregisterMBean();
+	}
+
+	/**
+	 * Reports leaked connections, validates idle connections, evicting invalid
+	 * ones and those above max idle count, and grows the pool to min
+	 * connections.
+	 */
+	@Override
+	void managePool() {
+
+		if (closed) {
+			return;
+		}
+
+		if (getLeakDetectionThreshold() > 0) {
+			detectLeaks();
+		}
+
+		int idle = availableSize();
+		for (ConnectionBag.Entry entry : bag.values(ConnectionBag.STATE_NOT_IN_USE)) {
+
+			if (!bag.reserve(entry)) {
+				continue;
+			}
+
+			if (idle > getMaxIdleConnections()) {
+				idle--;
+				retire(entry.connection);
+			} else if (!entry.connection.validate()) {
+				idle--;
+				fireValidationFailed();
+				retire(entry.connection);
+			} else {
+				bag.unreserve(entry);
+			}
+		}
+
+		try {
+			while (poolSize() < getMinConnections()) {
+				PoolAwareConnection c = createUnchecked();
+				if (c == null) {
+					break;
+				}
+
+				reclaim(c);
+			}
+		} catch (SQLException e) {
+			LOGGER.info("Error creating new connection when managing connection pool, ignoring", e);
+		}
+	}
+
+	@Override
+	void retire(PoolAwareConnection connection) {
+		ConnectionBag.Entry entry = entries.remove(connection);
+		if (entry == null) {
+			return;
+		}
+
+		checkin(connection);
+		bag.remove(entry);
+		totalConnections.decrementAndGet();
+		closeWrapped(connection);
+	}
+
+	@Override
+	void reclaim(PoolAwareConnection connection) {
+		ConnectionBag.Entry entry = entries.get(connection);
+
+		// ignore connections already retired or returned to the pool
+		if (entry == null || entry.getState() != ConnectionBag.STATE_IN_USE) {
+			return;
+		}
+
+		if (closed) {
+			retire(connection);
+			return;
+		}
+
+		checkin(connection);
+		bag.requite(entry);
+	}
+
+	@Override
+	PoolAwareConnection createUnchecked() throws SQLException {
+
+		// reserve a slot in the pool
+		while (true) {
+			int total = totalConnections.get();
+			if (total >= getMaxConnections()) {
+				return null;
+			}
+
+			if (totalConnections.compareAndSet(total, total + 1)) {
+				break;
+			}
+		}
+
+		PoolAwareConnection c;
+		try {
+			c = createWrapped();
+		} catch (SQLException e) {
+			totalConnections.decrementAndGet();
+			throw e;
+		}
+
+		ConnectionBag.Entry entry = new ConnectionBag.Entry(c);
+		entries.put(c, entry);
+		bag.add(entry);
+
+		// even though we got a fresh connection, let's still validate it...
+		if (!c.validate()) {
+			retire(c);
+			throw new BadValidationQueryException(
+					"Can't validate a fresh connection. Likely validation query is wrong: " + getValidationQuery());
+		}
+
+		return c;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		// strategy for getting a connection -
+		// 1. quick check of the available connections, preferring the ones
+		// used by this thread before
+		// 2. create new one
+		// 3. wait for a user to return connection
+
+		long start = System.nanoTime();
+		long deadline = System.currentTimeMillis() + getMaxQueueWaitTime();
+
+		while (true) {
+
+			ConnectionBag.Entry entry = bag.borrow();
+			if (entry == null) {
+
+				PoolAwareConnection c = createUnchecked();
+				if (c != null) {
+					return checkout(entries.get(c), start);
+				}
+
+				try {
+					entry = bag.borrow(Math.max(0, deadline - System.currentTimeMillis()));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+
+				if (entry == null) {
+					break;
+				}
+			}
+
+			if (isValid(entry)) {
+				return checkout(entry, start);
+			}
+
+			fireValidationFailed();
+			retire(entry.connection);
+		}
+
+		fireCheckoutFailed(start);
+
+		throw new ConnectionUnavailableException("Can't obtain connection. Request to pool timed out. Total pool size: "
+				+ poolSize() + ", can expand by: " + canExpandSize());
+	}
+
+	private boolean isValid(ConnectionBag.Entry entry) {
+		if (getValidationQuery() == null
+				|| System.currentTimeMillis() - entry.lastAccessTime < VALIDATION_BYPASS_TIME) {
+			return true;
+		}
+
+		return entry.connection.validate();
+	}
+
+	private Connection checkout(ConnectionBag.Entry entry, long start) throws SQLException {
+		try {
+			return checkout(entry.connection, start);
+		} catch (SQLException e) {
+			retire(entry.connection);
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return LockFreePoolingDataSource.class.equals(iface) ? true : super.isWrapperFor(iface);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return LockFreePoolingDataSource.class.equals(iface) ? (T) this : super.unwrap(iface);
+	}
+}
@@ -67,6 +67,31 @@ public class ManagedPoolingDataSource implements PoolingDataSource, ScopeEventLi
 		return dataSourceManager.getDataSource().canExpandSize();
 	}
 
+	/**
+	 * Returns statistics of the underlying pool.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceStats getStats() {
+		return dataSourceManager.getDataSource().getStats();
+	}
+
+	/**
+	 * Registers a listener of the underlying pool events.
+	 * 
+	 * @since 4.1
+	 */
+	public void addListener(PoolingDataSourceListener listener) {
+		dataSourceManager.getDataSource().addListener(listener);
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void removeListener(PoolingDataSourceListener listener) {
+		dataSourceManager.getDataSource().removeListener(listener);
+	}
+
 	/**
 	 * Calls {@link #shutdown()} to drain the underlying pool, close open
 	 * connections and block the DataSource from creating any new connections.
@@ -50,17 +50,98 @@ public class PoolAwareConnection implements Connection {
 	private UnmanagedPoolingDataSource parent;
 	private Connection connection;
 	private String validationQuery;
+	private StatementCache statementCache;
+
+	// incremented each time the underlying connection is replaced, so that the
+	// statements of the old connection are not returned to the cache
+	private int connectionGeneration;
+
+	// checkout tracking, used by pool statistics and leak detection. Zero
+	// checkout time means that the connection is in the pool
+	volatile long checkoutTime;
+	volatile Throwable checkoutStack;
+	volatile boolean heldTooLongReported;
 
 	public PoolAwareConnection(UnmanagedPoolingDataSource parent, Connection connection, String validationQuery) {
+		this(parent, connection, validationQuery, 0);
+	}
+
+	/**
+	 * Creates a connection wrapper that caches up to "statementCacheSize"
+	 * prepared statements. Zero or negative cache size disables caching.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolAwareConnection(UnmanagedPoolingDataSource parent, Connection connection, String validationQuery,
+			int statementCacheSize) {
 		this.parent = parent;
 		this.connection = connection;
 		this.validationQuery = validationQuery;
+
+		if (statementCacheSize > 0) {
+			this.statementCache = new StatementCache(statementCacheSize);
+		}
 	}
 
 	Connection getConnection() {
 		return connection;
 	}
 
+	StatementCache getStatementCache() {
+		return statementCache;
+	}
+
+	/**
+	 * Closes all cached statements.
+	 * 
+	 * @since 4.1
+	 */
+	void clearStatementCache() {
+		if (statementCache != null) {
+			statementCache.clear();
+		}
+	}
+
+	/**
+	 * Returns a statement released by the caller back to the cache.
+	 * 
+	 * @since 4.1
+	 */
+	void checkinStatement(StatementCache.Key key, PreparedStatement statement, int generation) throws SQLException {
+		if (statementCache != null && generation == connectionGeneration) {
+			statementCache.checkin(key, statement);
+		} else {
+			statement.close();
+		}
+	}
+
+	private PreparedStatement prepareCached(StatementCache.Key key) throws SQLException {
+		PreparedStatement statement = statementCache.checkout(key);
+		if (statement == null) {
+			try {
+				statement = prepareUncached(key);
+			} catch (SQLException sqlEx) {
+				recover(sqlEx);
+				statement = prepareUncached(key);
+			}
+		}
+
+		return new CachedPreparedStatement(this, key, statement, connectionGeneration);
+	}
+
+	private PreparedStatement prepareUncached(StatementCache.Key key) throws SQLException {
+		if (key.getAutoGeneratedKeys() != Statement.NO_GENERATED_KEYS) {
+			return connection.prepareStatement(key.getSql(), key.getAutoGeneratedKeys());
+		}
+
+		if (key.getResultSetType() == ResultSet.TYPE_FORWARD_ONLY
+				&& key.getResultSetConcurrency() == ResultSet.CONCUR_READ_ONLY) {
+			return connection.prepareStatement(key.getSql());
+		}
+
+		return connection.prepareStatement(key.getSql(), key.getResultSetType(), key.getResultSetConcurrency());
+	}
+
 	boolean validate() {
 
 		if (validationQuery == null) {
@@ -87,6 +168,10 @@ public class PoolAwareConnection implements Connection {
 
 	void recover(SQLException reconnectCause) throws SQLException {
 
+		// cached statements belong to the old connection
+		clearStatementCache();
+		connectionGeneration++;
+
 		try {
 			connection.close();
 		} catch (SQLException e) {
@@ -253,6 +338,11 @@ public class PoolAwareConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		if (statementCache != null) {
+			return prepareCached(new StatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+					Statement.NO_GENERATED_KEYS));
+		}
+
 		try {
 			return connection.prepareStatement(sql);
 		} catch (SQLException sqlEx) {
@@ -264,6 +354,11 @@ public class PoolAwareConnection implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
 			throws SQLException {
+		if (statementCache != null) {
+			return prepareCached(
+					new StatementCache.Key(sql, resultSetType, resultSetConcurrency, Statement.NO_GENERATED_KEYS));
+		}
+
 		try {
 			return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
 		} catch (SQLException sqlEx) {
@@ -404,6 +499,10 @@ public class PoolAwareConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		if (statementCache != null) {
+			return prepareCached(new StatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+					autoGeneratedKeys));
+		}
 
 		try {
 			return connection.prepareStatement(sql, autoGeneratedKeys);
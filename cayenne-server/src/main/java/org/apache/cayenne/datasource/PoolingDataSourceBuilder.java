@@ -31,6 +31,9 @@ import org.apache.cayenne.CayenneRuntimeException;
  */
 public class PoolingDataSourceBuilder {
 
+	private static final long MANAGER_WAKE_TIME = 120000;
+	private static final long MIN_MANAGER_WAKE_TIME = 1000;
+
 	private DataSourceBuilder nonPoolingBuilder;
 	private PoolingDataSourceParameters poolParameters;
 
@@ -63,6 +66,66 @@ public class PoolingDataSourceBuilder {
 		return this;
 	}
 
+	/**
+	 * Enables caching of up to "statementCacheSize" prepared statements per
+	 * pooled connection, so that the statements with the same SQL are reused
+	 * instead of being prepared again. Useful with the drivers that do not
+	 * cache statements themselves. Zero (the default) disables the cache.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceBuilder statementCacheSize(int statementCacheSize) {
+		poolParameters.setStatementCacheSize(statementCacheSize);
+		return this;
+	}
+
+	/**
+	 * Switches to a {@link LockFreePoolingDataSource} pool implementation that
+	 * scales better than the default one with a large number of concurrent
+	 * threads.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceBuilder lockFree(boolean lockFree) {
+		poolParameters.setLockFree(lockFree);
+		return this;
+	}
+
+	/**
+	 * Enables reporting of the connections that were checked out of the pool
+	 * for longer than the specified number of milliseconds, together with the
+	 * stack trace of the code that checked them out. Zero (the default)
+	 * disables leak detection.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceBuilder leakDetectionThreshold(long leakDetectionThreshold) {
+		poolParameters.setLeakDetectionThreshold(leakDetectionThreshold);
+		return this;
+	}
+
+	/**
+	 * Registers pool statistics with the platform MBeanServer under
+	 * "org.apache.cayenne:type=DataSource,name=&lt;mbeanName&gt;" name.
+	 * 
+	 * @see PoolingDataSourceStats
+	 * @since 4.1
+	 */
+	public PoolingDataSourceBuilder mbeanName(String mbeanName) {
+		poolParameters.setMBeanName(mbeanName);
+		return this;
+	}
+
+	/**
+	 * Adds a listener of the pool events.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceBuilder listener(PoolingDataSourceListener listener) {
+		poolParameters.addListener(listener);
+		return this;
+	}
+
 	/**
 	 * Builds a pooling DataSource that needs to be explicitly closed by the
 	 * caller when no longer in use.
@@ -84,15 +147,36 @@ public class PoolingDataSourceBuilder {
 			throw new CayenneRuntimeException("Minimum number of connections can not be bigger then maximum.");
 		}
 
+		if (poolParameters.getLeakDetectionThreshold() < 0) {
+			throw new CayenneRuntimeException("Leak detection threshold can not be negative (%d)."
+					, poolParameters.getLeakDetectionThreshold());
+		}
+
+		if (poolParameters.getStatementCacheSize() < 0) {
+			throw new CayenneRuntimeException("Statement cache size can not be negative (%d)."
+					, poolParameters.getStatementCacheSize());
+		}
+
 		DataSource nonPooling = nonPoolingBuilder.build();
 		return buildManaged(buildPooling(nonPooling));
 	}
 
 	private UnmanagedPoolingDataSource buildPooling(DataSource nonPoolingDataSource) {
-		return new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
+		return poolParameters.isLockFree()
+				? new LockFreePoolingDataSource(nonPoolingDataSource, poolParameters)
+				: new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
 	}
 
 	private PoolingDataSource buildManaged(UnmanagedPoolingDataSource dataSource) {
+
+		// leaks must be reported in a timely manner, so the pool manager needs
+		// to wake more often than usual
+		long leakDetectionThreshold = poolParameters.getLeakDetectionThreshold();
+		if (leakDetectionThreshold > 0) {
+			long wakeTime = Math.min(MANAGER_WAKE_TIME, Math.max(MIN_MANAGER_WAKE_TIME, leakDetectionThreshold / 2));
+			return new ManagedPoolingDataSource(dataSource, wakeTime);
+		}
+
 		return new ManagedPoolingDataSource(dataSource);
 	}
 
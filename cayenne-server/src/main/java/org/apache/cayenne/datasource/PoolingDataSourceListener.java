@@ -0,0 +1,72 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * A listener of {@link UnmanagedPoolingDataSource} events that can be used to
+ * collect pool metrics or diagnose pool exhaustion. Listener methods are
+ * invoked synchronously by the threads working with the pool, so they must be
+ * thread-safe and fast. All times are in nanoseconds.
+ * 
+ * @see UnmanagedPoolingDataSource#addListener(PoolingDataSourceListener)
+ * @see PoolingDataSourceStats
+ * @since 4.1
+ */
+public interface PoolingDataSourceListener {
+
+	/**
+	 * Called when a new JDBC connection is opened by the pool.
+	 */
+	void connectionOpened();
+
+	/**
+	 * Called when a JDBC connection is closed and removed from the pool.
+	 */
+	void connectionClosed();
+
+	/**
+	 * Called when a connection is checked out of the pool, with the time the
+	 * caller had to wait for it.
+	 */
+	void connectionCheckedOut(long waitTime);
+
+	/**
+	 * Called when the pool failed to provide a connection within the maximum
+	 * queue wait time.
+	 */
+	void connectionCheckoutFailed(long waitTime);
+
+	/**
+	 * Called when a checked out connection is returned to the pool or discarded
+	 * after an error, with the time it was held by the caller.
+	 */
+	void connectionCheckedIn(long heldTime);
+
+	/**
+	 * Called when an idle connection fails validation and is discarded.
+	 */
+	void connectionValidationFailed();
+
+	/**
+	 * Called when a connection is detected to be checked out for longer than
+	 * the pool leak detection threshold. Called once per checkout. "stack" is
+	 * the stack trace of the code that checked out the connection.
+	 */
+	void connectionHeldTooLong(long heldTime, Throwable stack);
+}
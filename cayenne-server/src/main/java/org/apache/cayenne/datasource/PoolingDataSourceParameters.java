@@ -18,6 +18,9 @@
  ****************************************************************/
 package org.apache.cayenne.datasource;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A collection of pooling parameters used by {@link UnmanagedPoolingDataSource}.
  * 
@@ -29,6 +32,11 @@ public class PoolingDataSourceParameters {
 	private int minConnections;
 	private int maxConnections;
 	private long maxQueueWaitTime;
+	private int statementCacheSize;
+	private boolean lockFree;
+	private long leakDetectionThreshold;
+	private String mbeanName;
+	private List<PoolingDataSourceListener> listeners = new ArrayList<>();
 
 	public int getMinConnections() {
 		return minConnections;
@@ -61,4 +69,77 @@ public class PoolingDataSourceParameters {
 	public void setValidationQuery(String validationQuery) {
 		this.validationQuery = validationQuery;
 	}
+
+	/**
+	 * @since 4.1
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public boolean isLockFree() {
+		return lockFree;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setLockFree(boolean lockFree) {
+		this.lockFree = lockFree;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * Returns a name under which pool statistics are registered with JMX, or
+	 * null if the statistics should not be registered.
+	 * 
+	 * @since 4.1
+	 */
+	public String getMBeanName() {
+		return mbeanName;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void setMBeanName(String mbeanName) {
+		this.mbeanName = mbeanName;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public List<PoolingDataSourceListener> getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void addListener(PoolingDataSourceListener listener) {
+		listeners.add(listener);
+	}
 }
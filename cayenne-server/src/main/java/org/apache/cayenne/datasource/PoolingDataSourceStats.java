@@ -0,0 +1,327 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection pool statistics: current active, idle and waiting counts, a
+ * histogram of connection wait times, hold times, validation failures and
+ * connections held longer than the leak detection threshold. Each pool
+ * maintains its own instance, available via
+ * {@link UnmanagedPoolingDataSource#getStats()}. Statistics can be published
+ * via JMX with {@link #registerMBean(String)}.
+ * 
+ * @since 4.1
+ */
+public class PoolingDataSourceStats implements PoolingDataSourceStatsMBean, PoolingDataSourceListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PoolingDataSourceStats.class);
+
+	static final long[] WAIT_TIME_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000,
+			Long.MAX_VALUE };
+
+	private final UnmanagedPoolingDataSource dataSource;
+
+	private final LongAdder openedCount;
+	private final LongAdder closedCount;
+	private final LongAdder checkoutCount;
+	private final LongAdder checkoutFailureCount;
+	private final LongAdder validationFailureCount;
+	private final LongAdder heldTooLongCount;
+	private final LongAdder checkinCount;
+
+	private final LongAdder totalWaitTime;
+	private final AtomicLong maxWaitTime;
+	private final AtomicLongArray waitTimeHistogram;
+	private final LongAdder totalHoldTime;
+	private final AtomicLong maxHoldTime;
+
+	private ObjectName mbeanName;
+
+	PoolingDataSourceStats(UnmanagedPoolingDataSource dataSource) {
+		this.dataSource = dataSource;
+
+		this.openedCount = new LongAdder();
+		this.closedCount = new LongAdder();
+		this.checkoutCount = new LongAdder();
+		this.checkoutFailureCount = new LongAdder();
+		this.validationFailureCount = new LongAdder();
+		this.heldTooLongCount = new LongAdder();
+		this.checkinCount = new LongAdder();
+		this.totalWaitTime = new LongAdder();
+		this.maxWaitTime = new AtomicLong();
+		this.waitTimeHistogram = new AtomicLongArray(WAIT_TIME_BOUNDS.length);
+		this.totalHoldTime = new LongAdder();
+		this.maxHoldTime = new AtomicLong();
+	}
+
+	@Override
+	public void connectionOpened() {
+		openedCount.increment();
+	}
+
+	@Override
+	public void connectionClosed() {
+		closedCount.increment();
+	}
+
+	@Override
+	public void connectionCheckedOut(long waitTime) {
+		checkoutCount.increment();
+		recordWaitTime(waitTime);
+	}
+
+	@Override
+	public void connectionCheckoutFailed(long waitTime) {
+		checkoutFailureCount.increment();
+		recordWaitTime(waitTime);
+	}
+
+	@Override
+	public void connectionCheckedIn(long heldTime) {
+		checkinCount.increment();
+		totalHoldTime.add(heldTime);
+		maxHoldTime.accumulateAndGet(heldTime, Math::max);
+	}
+
+	@Override
+	public void connectionValidationFailed() {
+		validationFailureCount.increment();
+	}
+
+	@Override
+	public void connectionHeldTooLong(long heldTime, Throwable stack) {
+		heldTooLongCount.increment();
+	}
+
+	private void recordWaitTime(long waitTime) {
+		totalWaitTime.add(waitTime);
+		maxWaitTime.accumulateAndGet(waitTime, Math::max);
+		waitTimeHistogram.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMillis(waitTime)));
+	}
+
+	static int bucket(long millis) {
+		for (int i = 0; i < WAIT_TIME_BOUNDS.length - 1; i++) {
+			if (millis < WAIT_TIME_BOUNDS[i]) {
+				return i;
+			}
+		}
+
+		return WAIT_TIME_BOUNDS.length - 1;
+	}
+
+	@Override
+	public int getPoolSize() {
+		return dataSource.poolSize();
+	}
+
+	@Override
+	public int getMinConnections() {
+		return dataSource.getMinConnections();
+	}
+
+	@Override
+	public int getMaxConnections() {
+		return dataSource.getMaxConnections();
+	}
+
+	@Override
+	public int getActiveConnections() {
+		return Math.max(0, dataSource.poolSize() - dataSource.availableSize());
+	}
+
+	@Override
+	public int getIdleConnections() {
+		return dataSource.availableSize();
+	}
+
+	@Override
+	public int getWaitingThreads() {
+		return dataSource.waitingSize();
+	}
+
+	@Override
+	public long getOpenedCount() {
+		return openedCount.sum();
+	}
+
+	@Override
+	public long getClosedCount() {
+		return closedCount.sum();
+	}
+
+	@Override
+	public long getCheckoutCount() {
+		return checkoutCount.sum();
+	}
+
+	@Override
+	public long getCheckoutFailureCount() {
+		return checkoutFailureCount.sum();
+	}
+
+	@Override
+	public long getValidationFailureCount() {
+		return validationFailureCount.sum();
+	}
+
+	@Override
+	public long getHeldTooLongCount() {
+		return heldTooLongCount.sum();
+	}
+
+	@Override
+	public double getAverageWaitTimeMillis() {
+		return averageMillis(totalWaitTime.sum(), checkoutCount.sum() + checkoutFailureCount.sum());
+	}
+
+	@Override
+	public double getMaxWaitTimeMillis() {
+		return toMillis(maxWaitTime.get());
+	}
+
+	@Override
+	public long getWaitTimePercentileMillis(double percentile) {
+		long[] histogram = getWaitTimeHistogram();
+
+		long total = 0;
+		for (long count : histogram) {
+			total += count;
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long threshold = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+		long count = 0;
+		for (int i = 0; i < histogram.length - 1; i++) {
+			count += histogram[i];
+			if (count >= threshold) {
+				return WAIT_TIME_BOUNDS[i];
+			}
+		}
+
+		// the last bucket is unbounded, use the max wait time instead
+		return (long) Math.ceil(getMaxWaitTimeMillis());
+	}
+
+	@Override
+	public long getWaitTime99PercentileMillis() {
+		return getWaitTimePercentileMillis(99.0);
+	}
+
+	@Override
+	public long[] getWaitTimeHistogramBounds() {
+		return WAIT_TIME_BOUNDS.clone();
+	}
+
+	@Override
+	public long[] getWaitTimeHistogram() {
+		long[] histogram = new long[waitTimeHistogram.length()];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = waitTimeHistogram.get(i);
+		}
+		return histogram;
+	}
+
+	@Override
+	public double getAverageHoldTimeMillis() {
+		return averageMillis(totalHoldTime.sum(), checkinCount.sum());
+	}
+
+	@Override
+	public double getMaxHoldTimeMillis() {
+		return toMillis(maxHoldTime.get());
+	}
+
+	@Override
+	public void reset() {
+		openedCount.reset();
+		closedCount.reset();
+		checkoutCount.reset();
+		checkoutFailureCount.reset();
+		validationFailureCount.reset();
+		heldTooLongCount.reset();
+		checkinCount.reset();
+		totalWaitTime.reset();
+		maxWaitTime.set(0);
+		totalHoldTime.reset();
+		maxHoldTime.set(0);
+
+		for (int i = 0; i < waitTimeHistogram.length(); i++) {
+			waitTimeHistogram.set(i, 0);
+		}
+	}
+
+	/**
+	 * Registers these statistics with the platform MBeanServer under
+	 * "org.apache.cayenne:type=DataSource,name=&lt;name&gt;" name. Errors are
+	 * logged and otherwise ignored.
+	 */
+	public void registerMBean(String name) {
+		try {
+			ObjectName objectName = new ObjectName("org.apache.cayenne:type=DataSource,name=" + ObjectName.quote(name));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				LOGGER.warn("DataSource MBean is already registered: " + objectName);
+				return;
+			}
+
+			server.registerMBean(this, objectName);
+			this.mbeanName = objectName;
+		} catch (Exception ex) {
+			LOGGER.warn("Error registering DataSource MBean.", ex);
+		}
+	}
+
+	/**
+	 * Unregisters these statistics from the platform MBeanServer if they were
+	 * registered before.
+	 */
+	public void unregisterMBean() {
+		if (mbeanName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+			} catch (Exception ex) {
+				LOGGER.info("Error unregistering DataSource MBean.", ex);
+			}
+			mbeanName = null;
+		}
+	}
+
+	static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	static double averageMillis(long nanos, long count) {
+		return count == 0 ? 0.0 : toMillis(nanos) / count;
+	}
+}
@@ -0,0 +1,104 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+/**
+ * JMX management interface of {@link PoolingDataSourceStats}.
+ * 
+ * @since 4.1
+ */
+public interface PoolingDataSourceStatsMBean {
+
+	/**
+	 * Returns the number of open connections, both checked out and idle.
+	 */
+	int getPoolSize();
+
+	int getMinConnections();
+
+	int getMaxConnections();
+
+	/**
+	 * Returns the number of connections currently checked out of the pool.
+	 */
+	int getActiveConnections();
+
+	/**
+	 * Returns the number of connections currently available in the pool.
+	 */
+	int getIdleConnections();
+
+	/**
+	 * Returns the number of threads currently waiting for a connection.
+	 */
+	int getWaitingThreads();
+
+	long getOpenedCount();
+
+	long getClosedCount();
+
+	long getCheckoutCount();
+
+	/**
+	 * Returns the number of requests for a connection that timed out.
+	 */
+	long getCheckoutFailureCount();
+
+	long getValidationFailureCount();
+
+	/**
+	 * Returns the number of checkouts that exceeded the leak detection
+	 * threshold.
+	 */
+	long getHeldTooLongCount();
+
+	double getAverageWaitTimeMillis();
+
+	double getMaxWaitTimeMillis();
+
+	/**
+	 * Returns an approximate wait time in milliseconds that the given
+	 * percentage (0..100) of checkouts did not exceed, based on the wait time
+	 * histogram.
+	 */
+	long getWaitTimePercentileMillis(double percentile);
+
+	long getWaitTime99PercentileMillis();
+
+	/**
+	 * Returns upper bounds in milliseconds of the wait time histogram buckets.
+	 * The last bucket is unbounded and is reported as Long.MAX_VALUE.
+	 */
+	long[] getWaitTimeHistogramBounds();
+
+	/**
+	 * Returns the number of checkouts and failed checkout attempts in each of
+	 * the wait time histogram buckets.
+	 */
+	long[] getWaitTimeHistogram();
+
+	double getAverageHoldTimeMillis();
+
+	double getMaxHoldTimeMillis();
+
+	/**
+	 * Resets all counters to zero. Current pool state is not affected.
+	 */
+	void reset();
+}
@@ -0,0 +1,187 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An LRU cache of idle prepared statements of a single pooled connection.
+ * Statements are removed from the cache while in use, so two callers never
+ * share a statement. When the cache is full, the least recently used idle
+ * statement is closed. Not thread-safe, as it is accessed only by the thread
+ * that currently owns the connection.
+ * 
+ * @since 4.1
+ */
+class StatementCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatementCache.class);
+
+	private final int capacity;
+	private final LinkedHashMap<Key, PreparedStatement> statements;
+
+	StatementCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid statement cache size: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.statements = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+	int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Removes an idle statement matching the key from the cache, returning
+	 * null if there's no such statement.
+	 */
+	PreparedStatement checkout(Key key) {
+		PreparedStatement statement = statements.remove(key);
+		if (statement == null) {
+			return null;
+		}
+
+		// statement could have been closed by the driver or via its ResultSet
+		try {
+			if (statement.isClosed()) {
+				return null;
+			}
+		} catch (SQLException e) {
+			close(statement);
+			return null;
+		}
+
+		return statement;
+	}
+
+	/**
+	 * Puts a statement back to the cache. If there's already an idle
+	 * statement for the same key, the statement is closed.
+	 */
+	void checkin(Key key, PreparedStatement statement) {
+		if (statements.containsKey(key)) {
+			close(statement);
+			return;
+		}
+
+		statements.put(key, statement);
+
+		if (statements.size() > capacity) {
+			Iterator<PreparedStatement> it = statements.values().iterator();
+			close(it.next());
+			it.remove();
+		}
+	}
+
+	/**
+	 * Closes and removes all cached statements.
+	 */
+	void clear() {
+		List<PreparedStatement> toClose = new ArrayList<>(statements.values());
+		statements.clear();
+
+		for (PreparedStatement statement : toClose) {
+			close(statement);
+		}
+	}
+
+	private void close(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			LOGGER.debug("Error closing cached statement, ignoring", e);
+		}
+	}
+
+	/**
+	 * Identifies a statement by its SQL and the arguments passed to
+	 * {@link java.sql.Connection#prepareStatement(String, int, int)} or
+	 * {@link java.sql.Connection#prepareStatement(String, int)}.
+	 */
+	static final class Key {
+
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int autoGeneratedKeys;
+
+		Key(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+		}
+
+		String getSql() {
+			return sql;
+		}
+
+		int getResultSetType() {
+			return resultSetType;
+		}
+
+		int getResultSetConcurrency() {
+			return resultSetConcurrency;
+		}
+
+		int getAutoGeneratedKeys() {
+			return autoGeneratedKeys;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) o;
+			return resultSetType == key.resultSetType
+					&& resultSetConcurrency == key.resultSetConcurrency
+					&& autoGeneratedKeys == key.autoGeneratedKeys
+					&& sql.equals(key.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = sql.hashCode();
+			result = 31 * result + resultSetType;
+			result = 31 * result + resultSetConcurrency;
+			result = 31 * result + autoGeneratedKeys;
+			return result;
+		}
+	}
+}
@@ -22,13 +22,18 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
@@ -101,12 +106,29 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 	private int minConnections;
 	private int maxConnections;
 	private String validationQuery;
+	private int statementCacheSize;
+	private long leakDetectionThreshold;
+
+	private AtomicInteger waiting;
+	private PoolingDataSourceStats stats;
+	private List<PoolingDataSourceListener> listeners;
 
 	static int maxIdleConnections(int min, int max) {
 		return min == max ? min : min + (int) Math.ceil((max - min) / 2d);
 	}
 
 	public UnmanagedPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+		this(nonPoolingDataSource, parameters, true);
+	}
+
+	/**
+	 * A constructor for subclasses that maintain their own pool structures and
+	 * need to initialize them before the pool is started.
+	 * 
+	 * @since 4.1
+	 */
+	UnmanagedPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters,
+			boolean startPool) {
 
 		int minConnections = parameters.getMinConnections();
 		int maxConnections = parameters.getMaxConnections();
@@ -128,14 +150,36 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 		this.nonPoolingDataSource = nonPoolingDataSource;
 		this.maxQueueWaitTime = parameters.getMaxQueueWaitTime();
 		this.validationQuery = parameters.getValidationQuery();
+		this.statementCacheSize = parameters.getStatementCacheSize();
 		this.minConnections = minConnections;
 		this.maxConnections = maxConnections;
 		this.pool = new ConcurrentHashMap<PoolAwareConnection, Object>((int) (maxConnections / 0.75));
 		this.available = new ArrayBlockingQueue<PoolAwareConnection>(maxConnections);
 		this.poolCap = new Semaphore(maxConnections);
 		this.maxIdleConnections = maxIdleConnections(minConnections, maxConnections);
+		this.leakDetectionThreshold = parameters.getLeakDetectionThreshold();
+		this.waiting = new AtomicInteger();
+		this.stats = new PoolingDataSourceStats(this);
+		this.listeners = new CopyOnWriteArrayList<>();
+
+		listeners.add(stats);
+		listeners.addAll(parameters.getListeners());
+
+		if (parameters.getMBeanName() != null) {
+			stats.registerMBean(parameters.getMBeanName());
+		}
+
+		if (startPool) {
+			startPool();
+		}
+	}
 
-		// grow pool to min connections
+	/**
+	 * Grows the pool to min connections.
+	 * 
+	 * @since 4.1
+	 */
+	void startPool() {
 		try {
 			for (int i = 0; i < minConnections; i++) {
 				PoolAwareConnection c = createUnchecked();
@@ -160,6 +204,50 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 		return poolCap.availablePermits();
 	}
 
+	int waitingSize() {
+		return waiting.get();
+	}
+
+	/**
+	 * Returns the connections currently checked out of the pool.
+	 * 
+	 * @since 4.1
+	 */
+	Collection<PoolAwareConnection> checkedOutConnections() {
+		Collection<PoolAwareConnection> checkedOut = new ArrayList<>();
+		for (PoolAwareConnection c : pool.keySet()) {
+			if (c.checkoutTime != 0) {
+				checkedOut.add(c);
+			}
+		}
+		return checkedOut;
+	}
+
+	/**
+	 * Returns statistics of this pool.
+	 * 
+	 * @since 4.1
+	 */
+	public PoolingDataSourceStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Registers a listener of the pool events.
+	 * 
+	 * @since 4.1
+	 */
+	public void addListener(PoolingDataSourceListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public void removeListener(PoolingDataSourceListener listener) {
+		listeners.remove(listener);
+	}
+
 	@Override
 	public void close() {
 
@@ -174,10 +262,15 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 
 		available.clear();
 		pool = Collections.emptyMap();
+		stats.unregisterMBean();
 	}
 
 	void managePool() {
 
+		if (leakDetectionThreshold > 0) {
+			detectLeaks();
+		}
+
 		// do not grow or shrink abruptly ... open or close 1 connection on
 		// each call
 
@@ -202,20 +295,62 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 
 	}
 
+	/**
+	 * Reports connections checked out for longer than the leak detection
+	 * threshold.
+	 * 
+	 * @since 4.1
+	 */
+	void detectLeaks() {
+		long now = System.nanoTime();
+		long threshold = TimeUnit.MILLISECONDS.toNanos(leakDetectionThreshold);
+
+		for (PoolAwareConnection c : checkedOutConnections()) {
+			long checkoutTime = c.checkoutTime;
+			if (checkoutTime != 0 && !c.heldTooLongReported && now - checkoutTime > threshold) {
+				c.heldTooLongReported = true;
+
+				long heldTime = now - checkoutTime;
+				LOGGER.warn("Possible connection leak: connection was checked out "
+						+ TimeUnit.NANOSECONDS.toMillis(heldTime) + " ms ago and was not returned to the pool",
+						c.checkoutStack);
+
+				for (PoolingDataSourceListener listener : listeners) {
+					listener.connectionHeldTooLong(heldTime, c.checkoutStack);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Closes the connection and removes it from the pool. The connection must
 	 * be an unchecked connection.
 	 */
 	void retire(PoolAwareConnection connection) {
+		checkin(connection);
 		pool.remove(connection);
 
 		poolCap.release();
+		closeWrapped(connection);
+	}
+
+	/**
+	 * Closes the underlying connection of a connection removed from the pool.
+	 * 
+	 * @since 4.1
+	 */
+	void closeWrapped(PoolAwareConnection connection) {
+		connection.clearStatementCache();
 
 		try {
 			connection.getConnection().close();
 		} catch (SQLException e) {
 			// ignore?
 		}
+
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionClosed();
+		}
 	}
 
 	/**
@@ -226,6 +361,8 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 
 		// TODO: rollback any in-process tx?
 
+		checkin(connection);
+
 		// the queue may overflow potentially and we won't be able to add the
 		// object
 		if (!available.offer(connection)) {
@@ -255,6 +392,8 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 			return c;
 		}
 
+		fireValidationFailed();
+
 		// this will recursively validate all connections that exist in the pool
 		// until a valid one is found or a pool is exhausted
 		retire(c);
@@ -289,7 +428,13 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 	}
 
 	PoolAwareConnection createWrapped() throws SQLException {
-		return new PoolAwareConnection(this, createUnwrapped(), validationQuery);
+		PoolAwareConnection c = new PoolAwareConnection(this, createUnwrapped(), validationQuery, statementCacheSize);
+
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionOpened();
+		}
+
+		return c;
 	}
 
 	/**
@@ -327,30 +472,98 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 		// 2. create new one
 		// 3. wait for a user to return connection
 
+		long start = System.nanoTime();
 		PoolAwareConnection c;
 
 		c = uncheckNonBlocking(true);
 		if (c != null) {
-			return resetState(c);
+			return checkout(c, start);
 		}
 
 		c = createUnchecked();
 		if (c != null) {
-			return resetState(c);
+			return checkout(c, start);
+		}
+
+		waiting.incrementAndGet();
+		try {
+			c = uncheckBlocking(true);
+		} finally {
+			waiting.decrementAndGet();
 		}
 
-		c = uncheckBlocking(true);
 		if (c != null) {
-			return resetState(c);
+			return checkout(c, start);
 		}
 
 		int poolSize = poolSize();
 		int canGrow = poolCap.availablePermits();
 
+		fireCheckoutFailed(start);
 		throw new ConnectionUnavailableException("Can't obtain connection. Request to pool timed out. Total pool size: "
 				+ poolSize + ", can expand by: " + canGrow);
 	}
 
+	/**
+	 * Marks an unchecked connection as checked out and resets its state.
+	 * "start" is the time in nanoseconds when the caller requested the
+	 * connection.
+	 * 
+	 * @since 4.1
+	 */
+	Connection checkout(PoolAwareConnection c, long start) throws SQLException {
+		long now = System.nanoTime();
+
+		// zero is reserved for connections that are not checked out
+		c.checkoutTime = now != 0 ? now : 1;
+		c.heldTooLongReported = false;
+		c.checkoutStack = leakDetectionThreshold > 0 ? new Exception("Connection checkout stack trace") : null;
+
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionCheckedOut(now - start);
+		}
+
+		return resetState(c);
+	}
+
+	/**
+	 * Marks a connection as returned to the pool, if it was checked out.
+	 * 
+	 * @since 4.1
+	 */
+	void checkin(PoolAwareConnection c) {
+		long checkoutTime = c.checkoutTime;
+		if (checkoutTime == 0) {
+			return;
+		}
+
+		c.checkoutTime = 0;
+		c.checkoutStack = null;
+
+		long heldTime = System.nanoTime() - checkoutTime;
+		if (c.heldTooLongReported) {
+			LOGGER.info("Previously reported leaked connection returned to the pool after "
+					+ TimeUnit.NANOSECONDS.toMillis(heldTime) + " ms");
+		}
+
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionCheckedIn(heldTime);
+		}
+	}
+
+	void fireCheckoutFailed(long start) {
+		long waitTime = System.nanoTime() - start;
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionCheckoutFailed(waitTime);
+		}
+	}
+
+	void fireValidationFailed() {
+		for (PoolingDataSourceListener listener : listeners) {
+			listener.connectionValidationFailed();
+		}
+	}
+
 	@Override
 	public Connection getConnection(String userName, String password) throws SQLException {
 		throw new UnsupportedOperationException(
@@ -412,4 +625,8 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 	int getMaxConnections() {
 		return maxConnections;
 	}
+
+	long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
 }
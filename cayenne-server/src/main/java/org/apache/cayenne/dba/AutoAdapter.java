@@ -140,6 +140,22 @@ public class AutoAdapter implements DbAdapter {
 		return getAdapter().supportsBatchUpdates();
 	}
 
+	/**
+	 * @since 4.1
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return getAdapter().supportsMultiRowInsert();
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	@Override
+	public boolean supportsBatchGeneratedKeys() {
+		return getAdapter().supportsBatchGeneratedKeys();
+	}
+
 	@Override
 	public boolean typeSupportsLength(int type) {
 		return getAdapter().typeSupportsLength(type);
@@ -97,6 +97,24 @@ public interface DbAdapter {
 	 */
 	boolean supportsBatchUpdates();
 
+	/**
+	 * Returns true if the target database supports INSERT statements with
+	 * multiple rows in the VALUES clause.
+	 * 
+	 * @since 4.1
+	 */
+	boolean supportsMultiRowInsert();
+
+	/**
+	 * Returns true if the JDBC driver returns generated keys for all rows of a
+	 * batch executed with "Statement.RETURN_GENERATED_KEYS", in the order of
+	 * the rows. Such INSERT batches are executed as JDBC batches, even if the
+	 * adapter does not support batch updates in general.
+	 * 
+	 * @since 4.1
+	 */
+	boolean supportsBatchGeneratedKeys();
+
 	boolean typeSupportsLength(int type);
 
 	/**
@@ -73,6 +73,16 @@ public class JdbcAdapter implements DbAdapter {
     protected boolean supportsBatchUpdates;
     protected boolean supportsUniqueConstraints;
     protected boolean supportsGeneratedKeys;
+
+    /**
+     * @since 4.1
+     */
+    protected boolean supportsMultiRowInsert;
+
+    /**
+     * @since 4.1
+     */
+    protected boolean supportsBatchGeneratedKeys;
     protected EJBQLTranslatorFactory ejbqlTranslatorFactory;
 
     protected ResourceLocator resourceLocator;
@@ -565,6 +575,36 @@ public class JdbcAdapter implements DbAdapter {
         this.supportsBatchUpdates = flag;
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return supportsMultiRowInsert;
+    }
+
+    /**
+     * @since 4.1
+     */
+    public void setSupportsMultiRowInsert(boolean flag) {
+        this.supportsMultiRowInsert = flag;
+    }
+
+    /**
+     * @since 4.1
+     */
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return supportsBatchGeneratedKeys;
+    }
+
+    /**
+     * @since 4.1
+     */
+    public void setSupportsBatchGeneratedKeys(boolean flag) {
+        this.supportsBatchGeneratedKeys = flag;
+    }
+
     /**
      * @since 1.2
      */
@@ -39,6 +39,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,13 +53,38 @@ import java.util.concurrent.ConcurrentMap;
 public class JdbcPkGenerator implements PkGenerator {
 
     public static final int DEFAULT_PK_CACHE_SIZE = 20;
+
+    /**
+     * @since 4.1
+     */
+    public static final int DEFAULT_MAX_PK_CACHE_SIZE = 1000;
+
     static final long DEFAULT_PK_START_VALUE = 200;
 
+    /**
+     * If a block of cached keys is exhausted faster than this number of milliseconds, the next block is made twice
+     * as big.
+     */
+    static final long PK_BLOCK_GROW_INTERVAL = 1000;
+
+    /**
+     * If a block of cached keys lasted longer than this number of milliseconds, the next block is made twice as
+     * small.
+     */
+    static final long PK_BLOCK_SHRINK_INTERVAL = 60000;
+
     protected JdbcAdapter adapter;
     protected ConcurrentMap<String, Queue<Long>> pkCache = new ConcurrentHashMap<>();
     protected int pkCacheSize = DEFAULT_PK_CACHE_SIZE;
     protected long pkStartValue = DEFAULT_PK_START_VALUE;
 
+    /**
+     * @since 4.1
+     */
+    protected int maxPkCacheSize = DEFAULT_MAX_PK_CACHE_SIZE;
+
+    private ConcurrentMap<String, PkBlockSize> pkBlockSizes = new ConcurrentHashMap<>();
+
     /**
      * @since 4.1
      */
@@ -149,7 +175,16 @@ public class JdbcPkGenerator implements PkGenerator {
     }
 
     protected String pkUpdateString(String entName) {
-        return "UPDATE AUTO_PK_SUPPORT SET NEXT_ID = NEXT_ID + " + pkCacheSize + " WHERE TABLE_NAME = '" + entName + '\'';
+        return pkUpdateString(entName, pkCacheSize);
+    }
+
+    /**
+     * Returns SQL that reserves a range of "size" keys for the entity.
+     *
+     * @since 4.1
+     */
+    protected String pkUpdateString(String entName, int size) {
+        return "UPDATE AUTO_PK_SUPPORT SET NEXT_ID = NEXT_ID + " + size + " WHERE TABLE_NAME = '" + entName + '\'';
     }
 
     protected String dropAutoPkString() {
@@ -205,13 +240,7 @@ public class JdbcPkGenerator implements PkGenerator {
                 return IDUtil.pseudoUniqueSecureByteSequence(pk.getMaxLength());
         }
 
-        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
-        long cacheSize;
-        if (pkGenerator != null && pkGenerator.getKeyCacheSize() != null) {
-            cacheSize = pkGenerator.getKeyCacheSize();
-        } else {
-            cacheSize = getPkCacheSize();
-        }
+        int cacheSize = cacheSize(entity);
 
         Long value;
 
@@ -219,34 +248,134 @@ public class JdbcPkGenerator implements PkGenerator {
         if (cacheSize <= 1) {
             value = longPkFromDatabase(node, entity);
         } else {
-            Queue<Long> pks = pkCache.get(entity.getName());
-
-            if (pks == null) {
-                // created exhausted LongPkRange
-                pks = new ConcurrentLinkedQueue<>();
-                Queue<Long> previousPks = pkCache.putIfAbsent(entity.getName(), pks);
-                if (previousPks != null) {
-                    pks = previousPks;
-                }
-            }
+            Queue<Long> pks = cachedPks(entity);
 
             value = pks.poll();
             if (value == null) {
-                value = longPkFromDatabase(node, entity);
-                for (long i = value + 1; i < value + cacheSize; i++) {
-                    pks.add(i);
+                int blockSize = nextPkBlockSize(entity, cacheSize);
+                if (blockSize > cacheSize) {
+                    long[] values = longPksFromDatabase(node, entity, blockSize, cacheSize);
+                    value = values[0];
+                    for (int i = 1; i < values.length; i++) {
+                        pks.add(values[i]);
+                    }
+                } else {
+                    value = longPkFromDatabase(node, entity);
+                    for (long i = value + 1; i < value + cacheSize; i++) {
+                        pks.add(i);
+                    }
                 }
             }
         }
 
+        return toPkValue(pk, value);
+    }
+
+    /**
+     * Generates "count" unique and non-repeating primary keys for the PK
+     * attribute. Cached keys are used first, and the rest are reserved in the
+     * database at once, instead of going to the database for every
+     * "pkCacheSize" keys.
+     *
+     * @since 4.1
+     */
+    @Override
+    public List<Object> generatePks(DataNode node, DbAttribute pk, int count) throws Exception {
+
+        if (count == 1) {
+            return Collections.singletonList(generatePk(node, pk));
+        }
+
+        DbEntity entity = pk.getEntity();
+        int cacheSize = cacheSize(entity);
+        List<Object> values = new ArrayList<>(count);
+
+        // keys of non-numeric types and non-cached keys are generated one by one
+        if (cacheSize <= 1 || !TypesMapping.isNumeric(pk.getType())) {
+            for (int i = 0; i < count; i++) {
+                values.add(generatePk(node, pk));
+            }
+            return values;
+        }
+
+        Queue<Long> pks = cachedPks(entity);
+
+        Long cached;
+        while (values.size() < count && (cached = pks.poll()) != null) {
+            values.add(toPkValue(pk, cached));
+        }
+
+        int remaining = count - values.size();
+        if (remaining > 0) {
+            long[] fetched = longPksFromDatabase(node, entity, remaining, cacheSize);
+            for (int i = 0; i < fetched.length; i++) {
+                if (i < remaining) {
+                    values.add(toPkValue(pk, fetched[i]));
+                } else {
+                    pks.add(fetched[i]);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private int cacheSize(DbEntity entity) {
+        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
+        if (pkGenerator != null && pkGenerator.getKeyCacheSize() != null) {
+            return pkGenerator.getKeyCacheSize();
+        } else {
+            return getPkCacheSize();
+        }
+    }
+
+    private Queue<Long> cachedPks(DbEntity entity) {
+        Queue<Long> pks = pkCache.get(entity.getName());
+
+        if (pks == null) {
+            // created exhausted LongPkRange
+            pks = new ConcurrentLinkedQueue<>();
+            Queue<Long> previousPks = pkCache.putIfAbsent(entity.getName(), pks);
+            if (previousPks != null) {
+                pks = previousPks;
+            }
+        }
+
+        return pks;
+    }
+
+    private Object toPkValue(DbAttribute pk, long value) {
         if (pk.getType() == Types.BIGINT) {
             return value;
         } else {
             // leaving it up to the user to ensure that PK does not exceed max int...
-            return value.intValue();
+            return (int) value;
         }
     }
 
+    /**
+     * Returns the number of keys to fetch when the entity key cache is
+     * exhausted. Starts with "cacheSize", doubling the block when the previous
+     * one was used up quickly, up to "maxPkCacheSize", and shrinking it back
+     * when the demand goes down.
+     */
+    int nextPkBlockSize(DbEntity entity, int cacheSize) {
+        if (maxPkCacheSize <= cacheSize) {
+            return cacheSize;
+        }
+
+        PkBlockSize blockSize = pkBlockSizes.get(entity.getName());
+        if (blockSize == null) {
+            blockSize = new PkBlockSize();
+            PkBlockSize previous = pkBlockSizes.putIfAbsent(entity.getName(), blockSize);
+            if (previous != null) {
+                blockSize = previous;
+            }
+        }
+
+        return blockSize.next(cacheSize, maxPkCacheSize);
+    }
+
     @Override
     public void setAdapter(DbAdapter adapter) {
         this.adapter = (JdbcAdapter) adapter;
@@ -278,6 +407,44 @@ public class JdbcPkGenerator implements PkGenerator {
         return observer.getId();
     }
 
+    /**
+     * Reserves at least "count" primary keys for the entity in as few database
+     * round trips as possible, returning all the reserved keys. "cacheSize" is
+     * the number of keys reserved by each key returned from
+     * {@link #longPkFromDatabase(DataNode, DbEntity)}. This implementation
+     * reserves a single range of "count" keys in the AUTO_PK_SUPPORT table.
+     * Subclasses that override "longPkFromDatabase" should override this
+     * method as well.
+     *
+     * @since 4.1
+     */
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+        String select = "SELECT #result('NEXT_ID' 'long' 'NEXT_ID') FROM AUTO_PK_SUPPORT "
+                + "WHERE TABLE_NAME = '" + entity.getName() + '\'';
+
+        // run queries via DataNode to utilize its transactional behavior
+        List<Query> queries = new ArrayList<>(2);
+        queries.add(new SQLTemplate(entity, select));
+        queries.add(new SQLTemplate(entity, pkUpdateString(entity.getName(), count)));
+
+        PkRetrieveProcessor observer = new PkRetrieveProcessor(entity.getName());
+        node.performQueries(queries, observer);
+        return range(observer.getId(), count);
+    }
+
+    /**
+     * Returns an array of "count" consecutive keys starting from "start".
+     *
+     * @since 4.1
+     */
+    protected static long[] range(long start, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = start + i;
+        }
+        return values;
+    }
+
     /**
      * Returns a size of the entity primary key cache. Default value is 20. If
      * cache size is set to a value less or equals than "one", no primary key
@@ -303,6 +470,27 @@ public class JdbcPkGenerator implements PkGenerator {
         this.pkCacheSize = (pkCacheSize < 1) ? 1 : pkCacheSize;
     }
 
+    /**
+     * Returns the max number of keys that can be fetched at once when the
+     * demand for keys grows. Default value is 1000. If it is not bigger than
+     * "pkCacheSize", the number of cached keys is not adjusted to the demand.
+     *
+     * @since 4.1
+     */
+    public int getMaxPkCacheSize() {
+        return maxPkCacheSize;
+    }
+
+    /**
+     * Sets the max number of keys that can be fetched at once when the demand
+     * for keys grows.
+     *
+     * @since 4.1
+     */
+    public void setMaxPkCacheSize(int maxPkCacheSize) {
+        this.maxPkCacheSize = maxPkCacheSize;
+    }
+
     long getPkStartValue() {
         return pkStartValue;
     }
@@ -313,6 +501,33 @@ public class JdbcPkGenerator implements PkGenerator {
 
     public void reset() {
         pkCache.clear();
+        pkBlockSizes.clear();
+    }
+
+    /**
+     * Adaptive size of the block of keys fetched for an entity. Updated without
+     * locking, as the races may only affect the size of the next block.
+     */
+    static final class PkBlockSize {
+
+        private volatile int size;
+        private volatile long lastFetchTime;
+
+        int next(int minSize, int maxSize) {
+            long now = System.currentTimeMillis();
+            long sinceLastFetch = now - lastFetchTime;
+            lastFetchTime = now;
+
+            int next = Math.max(size, minSize);
+            if (sinceLastFetch < PK_BLOCK_GROW_INTERVAL) {
+                next = (int) Math.min((long) next * 2, maxSize);
+            } else if (sinceLastFetch > PK_BLOCK_SHRINK_INTERVAL) {
+                next = Math.max(next / 2, minSize);
+            }
+
+            size = next;
+            return next;
+        }
     }
 
     /**
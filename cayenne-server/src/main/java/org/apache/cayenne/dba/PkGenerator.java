@@ -70,6 +70,15 @@ public interface PkGenerator {
      */
     Object generatePk(DataNode dataNode, DbAttribute pk) throws Exception;
 
+    /**
+     * Generates "count" unique and non-repeating primary keys for specified PK attribute,
+     * possibly in fewer database operations than "count" calls to
+     * {@link #generatePk(DataNode, DbAttribute)} would take.
+     *
+     * @since 4.1
+     */
+    List<Object> generatePks(DataNode dataNode, DbAttribute pk, int count) throws Exception;
+
     /**
      * Install the adapter associated with current PkGenerator
      *
@@ -56,6 +56,16 @@ public class DB2PkGenerator extends OraclePkGenerator {
         return "SELECT NEXTVAL FOR " + pkGeneratingSequenceName + " FROM SYSIBM.SYSDUMMY1";
     }
 
+    /**
+     * Returns null, so that sequence values are selected one by one.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT SEQNAME FROM SYSCAT.SEQUENCES WHERE SEQNAME LIKE '" + _SEQUENCE_PREFIX + "%'";
@@ -52,6 +52,16 @@ public class DerbyPkGenerator extends OraclePkGenerator {
         return "VALUES (NEXT VALUE FOR " + pkGeneratingSequenceName + ")";
     }
 
+    /**
+     * Returns null, so that sequence values are selected one by one.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT SEQUENCENAME FROM SYS.SYSSEQUENCES";
@@ -143,4 +143,18 @@ public class FrontBasePkGenerator extends JdbcPkGenerator {
         node.performQueries(Collections.singleton((Query) query), observer);
         return pkHolder[0];
     }
+
+    /**
+     * Selects keys one by one, as each "SELECT UNIQUE" returns a single key.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = longPkFromDatabase(node, entity);
+        }
+        return values;
+    }
 }
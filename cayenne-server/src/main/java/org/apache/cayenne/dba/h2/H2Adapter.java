@@ -55,6 +55,10 @@ public class H2Adapter extends JdbcAdapter {
             @Inject ValueObjectTypeRegistry valueObjectTypeRegistry) {
         super(runtimeProperties, defaultExtendedTypes, userExtendedTypes, extendedTypeFactories, resourceLocator, valueObjectTypeRegistry);
         setSupportsGeneratedKeys(true);
+        setSupportsMultiRowInsert(true);
+
+        // not enabling batch generated keys: H2 1.4 driver returns only the last
+        // generated key after "executeBatch"
     }
 
     @Override
@@ -53,6 +53,14 @@ public class H2PkGenerator extends OraclePkGenerator {
         return "SELECT NEXT VALUE FOR " + sequenceName;
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return "SELECT NEXT VALUE FOR " + sequenceName + " FROM SYSTEM_RANGE(1, " + count + ")";
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT LOWER(sequence_name) FROM Information_Schema.Sequences";
@@ -46,6 +46,16 @@ public class IngresPkGenerator extends OraclePkGenerator {
         return "SELECT " + sequenceName + ".nextval";
     }
 
+    /**
+     * Returns null, so that sequence values are selected one by one.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT seq_name FROM iisequences WHERE seq_owner != 'DBA'";
@@ -21,6 +21,7 @@ package org.apache.cayenne.dba.mysql;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.dba.JdbcActionBuilder;
+import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.ProcedureQuery;
 import org.apache.cayenne.query.SQLAction;
 import org.apache.cayenne.query.SelectQuery;
@@ -39,6 +40,19 @@ class MySQLActionBuilder extends JdbcActionBuilder {
         return new MySQLSelectAction(query, dataNode);
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    public SQLAction batchAction(BatchQuery query) {
+
+        // optimistic locking is not supported in batches due to JDBC driver limitations
+        boolean useOptimisticLock = query.isUsingOptimisticLocking();
+
+        boolean runningAsBatch = !useOptimisticLock && dataNode.getAdapter().supportsBatchUpdates();
+        return new MySQLBatchAction(query, dataNode, runningAsBatch);
+    }
+
     @Override
     public SQLAction procedureAction(ProcedureQuery query) {
         return new MySQLProcedureAction(query, dataNode);
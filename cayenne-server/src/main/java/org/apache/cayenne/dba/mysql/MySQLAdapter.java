@@ -102,6 +102,8 @@ public class MySQLAdapter extends JdbcAdapter {
 		setSupportsBatchUpdates(true);
 		setSupportsUniqueConstraints(true);
 		setSupportsGeneratedKeys(true);
+		setSupportsMultiRowInsert(true);
+		setSupportsBatchGeneratedKeys(true);
 	}
 
 	@Override
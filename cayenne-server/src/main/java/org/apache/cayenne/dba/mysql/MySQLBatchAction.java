@@ -0,0 +1,41 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.dba.mysql;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.jdbc.BatchAction;
+import org.apache.cayenne.access.jdbc.BulkInsertStrategy;
+import org.apache.cayenne.query.BatchQuery;
+
+/**
+ * MySQL batch action that loads large INSERT batches with LOAD DATA.
+ *
+ * @since 4.1
+ */
+public class MySQLBatchAction extends BatchAction {
+
+    public MySQLBatchAction(BatchQuery query, DataNode dataNode, boolean runningAsBatch) {
+        super(query, dataNode, runningAsBatch);
+    }
+
+    @Override
+    protected BulkInsertStrategy createBulkInsertStrategy() {
+        return new MySQLLoadDataInsertStrategy();
+    }
+}
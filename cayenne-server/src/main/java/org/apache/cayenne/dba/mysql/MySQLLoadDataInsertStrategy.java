@@ -0,0 +1,193 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.dba.mysql;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.cayenne.access.jdbc.BaseBulkInsertStrategy;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * Bulk inserts rows with MySQL "LOAD DATA LOCAL INFILE" command, streaming them
+ * from memory in tab-separated format. Requires "allowLoadLocalInfile=true"
+ * connection property and "local_infile" enabled on the server, otherwise the
+ * batch falls back to regular JDBC batching. The driver is accessed reflectively, so there's no
+ * compile-time dependency on it. Binary values are not supported.
+ * 
+ * @since 4.1
+ */
+public class MySQLLoadDataInsertStrategy extends BaseBulkInsertStrategy {
+
+	// Connector/J 8.x and 5.x statement interfaces
+	static final String[] STATEMENT_CLASSES = { "com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement" };
+
+	static final String CJ_CONNECTION_CLASS = "com.mysql.cj.jdbc.JdbcConnection";
+	static final String LEGACY_CONNECTION_CLASS = "com.mysql.jdbc.ConnectionProperties";
+
+	// ER_NOT_ALLOWED_COMMAND and ER_CLIENT_LOCAL_FILES_DISABLED, returned
+	// when local infile is disabled on the server or on the client
+	static final int[] LOCAL_INFILE_DISABLED_ERRORS = { 1148, 3948 };
+
+	@Override
+	protected char getFieldSeparator() {
+		return '\t';
+	}
+
+	@Override
+	protected boolean supportsBinary() {
+		return false;
+	}
+
+	@Override
+	protected void appendValue(StringBuilder data, Object value) {
+
+		if (value == null) {
+			data.append("\\N");
+			return;
+		}
+
+		if (value instanceof Boolean) {
+			data.append(((Boolean) value) ? '1' : '0');
+			return;
+		}
+
+		String string = (String) value;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			switch (c) {
+			case '\\':
+				data.append("\\\\");
+				break;
+			case '\t':
+				data.append("\\t");
+				break;
+			case '\n':
+				data.append("\\n");
+				break;
+			case '\r':
+				data.append("\\r");
+				break;
+			case '\0':
+				data.append("\\0");
+				break;
+			default:
+				data.append(c);
+			}
+		}
+	}
+
+	@Override
+	protected boolean isSupported(Connection connection) throws Exception {
+		return findStatementClass() != null && isLocalInfileAllowed(connection);
+	}
+
+	/**
+	 * Checks "allowLoadLocalInfile" property of the connection. Returns false
+	 * if the property can't be read, so that unknown driver versions fall
+	 * back to JDBC batching.
+	 */
+	boolean isLocalInfileAllowed(Connection connection) throws Exception {
+
+		Class<?> cjConnectionClass = loadDriverClass(CJ_CONNECTION_CLASS);
+		if (cjConnectionClass != null && connection.isWrapperFor(cjConnectionClass)) {
+			Object cjConnection = connection.unwrap(cjConnectionClass);
+			Object propertySet = cjConnectionClass.getMethod("getPropertySet").invoke(cjConnection);
+			Object property = propertySet.getClass().getMethod("getBooleanProperty", String.class)
+					.invoke(propertySet, "allowLoadLocalInfile");
+			Object value = property.getClass().getMethod("getValue").invoke(property);
+			return Boolean.TRUE.equals(value);
+		}
+
+		Class<?> legacyConnectionClass = loadDriverClass(LEGACY_CONNECTION_CLASS);
+		if (legacyConnectionClass != null && connection.isWrapperFor(legacyConnectionClass)) {
+			Object legacyConnection = connection.unwrap(legacyConnectionClass);
+			Object value = legacyConnectionClass.getMethod("getAllowLoadLocalInfile").invoke(legacyConnection);
+			return Boolean.TRUE.equals(value);
+		}
+
+		return false;
+	}
+
+	@Override
+	protected String createSql(QuotingStrategy strategy, DbEntity entity, List<DbAttribute> columns) {
+		StringBuilder sql = new StringBuilder("LOAD DATA LOCAL INFILE 'cayenne_bulk_insert' INTO TABLE ");
+		sql.append(strategy.quotedFullyQualifiedName(entity));
+		sql.append(" CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (");
+
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(strategy.quotedName(columns.get(i)));
+		}
+
+		return sql.append(')').toString();
+	}
+
+	@Override
+	protected long load(Connection connection, String sql, String data) throws Exception {
+		Class<?> statementClass = findStatementClass();
+
+		try (Statement statement = connection.createStatement()) {
+			Object mysqlStatement = statement.unwrap(statementClass);
+			statementClass.getMethod("setLocalInfileInputStream", InputStream.class).invoke(mysqlStatement,
+					new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+			try {
+				return statement.executeUpdate(sql);
+			} catch (SQLException e) {
+				if (isLocalInfileDisabled(e)) {
+					// nothing was loaded, fall back to JDBC batch
+					return -1;
+				}
+
+				throw e;
+			}
+		}
+	}
+
+	private boolean isLocalInfileDisabled(SQLException e) {
+		for (int errorCode : LOCAL_INFILE_DISABLED_ERRORS) {
+			if (e.getErrorCode() == errorCode) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private Class<?> findStatementClass() {
+		for (String className : STATEMENT_CLASSES) {
+			Class<?> statementClass = loadDriverClass(className);
+			if (statementClass != null) {
+				return statementClass;
+			}
+		}
+
+		return null;
+	}
+}
@@ -60,6 +60,21 @@ public class MySQLPkGenerator extends JdbcPkGenerator {
      */
     @Override
     protected long longPkFromDatabase(DataNode node, DbEntity entity) throws Exception {
+        return longPkFromDatabase(node, entity, pkCacheSize);
+    }
+
+    /**
+     * Reserves a range of "count" keys in a single locked update of the primary
+     * key lookup table.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+        return range(longPkFromDatabase(node, entity, count), count);
+    }
+
+    private long longPkFromDatabase(DataNode node, DbEntity entity, int size) throws Exception {
 
         // must work directly with JDBC connection, since we
         // must unlock the AUTO_PK_SUPPORT table in case of
@@ -86,7 +101,7 @@ public class MySQLPkGenerator extends JdbcPkGenerator {
 
             try (Statement st = con.createStatement()) {
                 try {
-                    pk = getLongPrimaryKey(st, entity.getName());
+                    pk = getLongPrimaryKey(st, entity.getName(), size);
                     con.commit();
                 } catch (SQLException pkEx) {
                     try {
@@ -151,6 +166,15 @@ public class MySQLPkGenerator extends JdbcPkGenerator {
      * @since 3.0
      */
     protected long getLongPrimaryKey(Statement statement, String entityName) throws SQLException {
+        return getLongPrimaryKey(statement, entityName, pkCacheSize);
+    }
+
+    /**
+     * Selects the next key for the entity, reserving "size" keys.
+     *
+     * @since 4.1
+     */
+    protected long getLongPrimaryKey(Statement statement, String entityName, int size) throws SQLException {
         // lock
         String lockString = "LOCK TABLES AUTO_PK_SUPPORT WRITE";
         adapter.getJdbcEventLogger().log(lockString);
@@ -172,7 +196,7 @@ public class MySQLPkGenerator extends JdbcPkGenerator {
         }
 
         // update
-        String updateString = super.pkUpdateString(entityName) + " AND NEXT_ID = " + pk;
+        String updateString = super.pkUpdateString(entityName, size) + " AND NEXT_ID = " + pk;
         adapter.getJdbcEventLogger().log(updateString);
         int updated = statement.executeUpdate(updateString);
         // optimistic lock failure...
@@ -115,6 +115,20 @@ public class OpenBasePkGenerator extends JdbcPkGenerator {
         }
     }
 
+    /**
+     * Generates keys one by one, as key caching is not supported.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = longPkFromDatabase(node, entity);
+        }
+        return values;
+    }
+
     /**
      * Returns SQL string that can generate new (unique and non-repeating)
      * primary key for specified DbEntity. No actual database operations are
@@ -145,6 +145,17 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL";
     }
 
+    /**
+     * Returns a query that selects "count" next values of the sequence in one
+     * statement, or null if the database has no way to do it, in which case
+     * the values are selected one by one.
+     *
+     * @since 4.1
+     */
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL CONNECT BY LEVEL <= " + count;
+    }
+
     protected String selectAllSequencesQuery() {
         return "SELECT LOWER(SEQUENCE_NAME) FROM ALL_SEQUENCES";
     }
@@ -162,14 +173,7 @@ public class OraclePkGenerator extends JdbcPkGenerator {
     @Override
     protected long longPkFromDatabase(DataNode node, DbEntity entity) throws Exception {
 
-        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
-        String pkGeneratingSequenceName;
-        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
-                && pkGenerator.getGeneratorName() != null) {
-            pkGeneratingSequenceName = pkGenerator.getGeneratorName();
-        } else {
-            pkGeneratingSequenceName = sequenceName(entity);
-        }
+        String pkGeneratingSequenceName = pkGeneratingSequenceName(entity);
 
         try (Connection con = node.getDataSource().getConnection()) {
             try (Statement st = con.createStatement()) {
@@ -186,6 +190,70 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         }
     }
 
+    /**
+     * Reserves keys by selecting as many sequence values as needed in a single
+     * statement. Each sequence value reserves "cacheSize" keys, as sequences
+     * are incremented by the cache size.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+
+        String pkGeneratingSequenceName = pkGeneratingSequenceName(entity);
+        int blocks = (count + cacheSize - 1) / cacheSize;
+        long[] values = new long[blocks * cacheSize];
+
+        try (Connection con = node.getDataSource().getConnection()) {
+            try (Statement st = con.createStatement()) {
+
+                String sql = selectNextValsQuery(pkGeneratingSequenceName, blocks);
+                if (sql != null) {
+                    adapter.getJdbcEventLogger().log(sql);
+
+                    try (ResultSet rs = st.executeQuery(sql)) {
+                        for (int i = 0; i < blocks; i++) {
+                            if (!rs.next()) {
+                                throw new CayenneRuntimeException("Error generating pk for DbEntity %s", entity.getName());
+                            }
+                            appendBlock(values, i, rs.getLong(1), cacheSize);
+                        }
+                    }
+                } else {
+                    sql = selectNextValQuery(pkGeneratingSequenceName);
+                    for (int i = 0; i < blocks; i++) {
+                        adapter.getJdbcEventLogger().log(sql);
+
+                        try (ResultSet rs = st.executeQuery(sql)) {
+                            if (!rs.next()) {
+                                throw new CayenneRuntimeException("Error generating pk for DbEntity %s", entity.getName());
+                            }
+                            appendBlock(values, i, rs.getLong(1), cacheSize);
+                        }
+                    }
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private static void appendBlock(long[] values, int block, long start, int cacheSize) {
+        for (int i = 0, j = block * cacheSize; i < cacheSize; i++, j++) {
+            values[j] = start + i;
+        }
+    }
+
+    private String pkGeneratingSequenceName(DbEntity entity) {
+        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
+        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
+                && pkGenerator.getGeneratorName() != null) {
+            return pkGenerator.getGeneratorName();
+        } else {
+            return sequenceName(entity);
+        }
+    }
+
     protected int pkCacheSize(DbEntity entity) {
         // use custom generator if possible
         DbKeyGenerator keyGenerator = entity.getPrimaryKeyGenerator();
@@ -78,6 +78,8 @@ public class PostgresAdapter extends JdbcAdapter {
 		super(runtimeProperties, defaultExtendedTypes, userExtendedTypes, extendedTypeFactories, resourceLocator, valueObjectTypeRegistry);
 		setSupportsBatchUpdates(true);
 		setSupportsGeneratedKeys(true);
+		setSupportsMultiRowInsert(true);
+		setSupportsBatchGeneratedKeys(true);
 	}
 
 	/**
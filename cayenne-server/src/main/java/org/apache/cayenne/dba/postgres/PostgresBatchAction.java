@@ -21,6 +21,7 @@ package org.apache.cayenne.dba.postgres;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.jdbc.BatchAction;
+import org.apache.cayenne.access.jdbc.BulkInsertStrategy;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.query.BatchQuery;
@@ -60,4 +61,12 @@ public class PostgresBatchAction extends BatchAction {
         return connection.prepareStatement(queryStr);
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    protected BulkInsertStrategy createBulkInsertStrategy() {
+        return new PostgresCopyInsertStrategy();
+    }
+
 }
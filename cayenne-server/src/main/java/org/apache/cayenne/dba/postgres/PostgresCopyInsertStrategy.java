@@ -0,0 +1,124 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.dba.postgres;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.cayenne.access.jdbc.BaseBulkInsertStrategy;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * Bulk inserts rows with PostgreSQL "COPY ... FROM STDIN" command, streaming
+ * them in CSV format via the driver CopyManager API. The driver is accessed
+ * reflectively, so there's no compile-time dependency on it.
+ * 
+ * @since 4.1
+ */
+public class PostgresCopyInsertStrategy extends BaseBulkInsertStrategy {
+
+	static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+	static final String COPY_MANAGER_CLASS = "org.postgresql.copy.CopyManager";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	@Override
+	protected char getFieldSeparator() {
+		return ',';
+	}
+
+	@Override
+	protected boolean supportsBinary() {
+		return true;
+	}
+
+	@Override
+	protected void appendValue(StringBuilder data, Object value) {
+
+		// in CSV format unquoted empty value is NULL, while quoted one is an
+		// empty string
+		if (value == null) {
+			return;
+		}
+
+		if (value instanceof Boolean) {
+			data.append(((Boolean) value) ? "true" : "false");
+			return;
+		}
+
+		data.append('"');
+
+		if (value instanceof byte[]) {
+			data.append("\\x");
+			for (byte b : (byte[]) value) {
+				data.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+			}
+		} else {
+			String string = (String) value;
+			for (int i = 0; i < string.length(); i++) {
+				char c = string.charAt(i);
+				if (c == '"') {
+					data.append('"');
+				}
+				data.append(c);
+			}
+		}
+
+		data.append('"');
+	}
+
+	@Override
+	protected boolean isSupported(Connection connection) throws Exception {
+		Class<?> pgConnectionClass = loadDriverClass(PG_CONNECTION_CLASS);
+		return pgConnectionClass != null && loadDriverClass(COPY_MANAGER_CLASS) != null
+				&& connection.isWrapperFor(pgConnectionClass);
+	}
+
+	@Override
+	protected String createSql(QuotingStrategy strategy, DbEntity entity, List<DbAttribute> columns) {
+		StringBuilder sql = new StringBuilder("COPY ");
+		sql.append(strategy.quotedFullyQualifiedName(entity)).append(" (");
+
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(strategy.quotedName(columns.get(i)));
+		}
+
+		return sql.append(") FROM STDIN WITH CSV").toString();
+	}
+
+	@Override
+	protected long load(Connection connection, String sql, String data) throws Exception {
+		Class<?> pgConnectionClass = loadDriverClass(PG_CONNECTION_CLASS);
+		Class<?> copyManagerClass = loadDriverClass(COPY_MANAGER_CLASS);
+
+		Object pgConnection = connection.unwrap(pgConnectionClass);
+		Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+
+		Object count = copyManagerClass.getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql,
+				new StringReader(data));
+		return ((Number) count).longValue();
+	}
+}
@@ -76,6 +76,16 @@ public class SQLServerPkGenerator extends OraclePkGenerator {
         return "SELECT NEXT VALUE FOR " + sequenceName;
     }
 
+    /**
+     * Returns null, so that sequence values are selected one by one.
+     *
+     * @since 4.1
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     public List<String> createAutoPkStatements(List<DbEntity> dbEntities) {
         List<String> list = new ArrayList<>(dbEntities.size());
@@ -156,6 +156,20 @@ public class SybasePkGenerator extends JdbcPkGenerator {
 	 */
 	@Override
 	protected long longPkFromDatabase(DataNode node, DbEntity entity) throws Exception {
+		return longPkFromDatabase(node, entity, super.getPkCacheSize());
+	}
+
+	/**
+	 * Reserves a range of "count" keys with a single stored procedure call.
+	 * 
+	 * @since 4.1
+	 */
+	@Override
+	protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count, int cacheSize) throws Exception {
+		return range(longPkFromDatabase(node, entity, count), count);
+	}
+
+	private long longPkFromDatabase(DataNode node, DbEntity entity, int size) throws Exception {
 		// handle CAY-588 - get connection that is separate from the connection
 		// in the current transaction.
 
@@ -170,7 +184,7 @@ public class SybasePkGenerator extends JdbcPkGenerator {
 		try (Connection connection = node.getDataSource().getConnection()) {
 			try (CallableStatement statement = connection.prepareCall("{call auto_pk_for_table(?, ?)}")) {
 				statement.setString(1, entity.getName());
-				statement.setInt(2, super.getPkCacheSize());
+				statement.setInt(2, size);
 
 				// can't use "executeQuery" per http://jtds.sourceforge.net/faq.html#expectingResultSet
 				statement.execute();
@@ -0,0 +1,112 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.exp;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.cayenne.util.ConversionUtil;
+
+/**
+ * An {@link Expression} prepared for repeated in-memory evaluation. Property
+ * paths are resolved and the node tree is flattened into a chain of
+ * evaluators once, so that evaluating the same expression against many objects
+ * (Persistent objects, DataRows or regular beans) doesn't repeat this work per
+ * object. A compiled expression is immutable and can be reused across calls
+ * and threads. The results are the same as those of the corresponding
+ * {@link Expression} methods.
+ *
+ * @see Expression#compile()
+ * @since 4.1
+ */
+public abstract class CompiledExpression {
+
+	protected final Expression expression;
+
+	protected CompiledExpression(Expression expression) {
+		this.expression = expression;
+	}
+
+	/**
+	 * Returns the expression this object was compiled from.
+	 */
+	public Expression getExpression() {
+		return expression;
+	}
+
+	/**
+	 * Calculates expression value with object as a context for path
+	 * expressions.
+	 */
+	public abstract Object evaluate(Object o);
+
+	/**
+	 * Calculates expression boolean value with object as a context for path
+	 * expressions.
+	 */
+	public boolean match(Object o) {
+		return ConversionUtil.toBoolean(evaluate(o));
+	}
+
+	/**
+	 * Returns the first object in the list that matches the expression.
+	 */
+	public <T> T first(List<T> objects) {
+		for (T o : objects) {
+			if (match(o)) {
+				return o;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns a list of objects that match the expression.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> filterObjects(Collection<T> objects) {
+		if (objects == null || objects.size() == 0) {
+			return new LinkedList<>();
+		}
+
+		return (List<T>) filter(objects, new LinkedList<>());
+	}
+
+	/**
+	 * Adds objects matching this expression from the source collection to the
+	 * target collection.
+	 */
+	public <T> Collection<?> filter(Collection<T> source, Collection<T> target) {
+		for (T o : source) {
+			if (match(o)) {
+				target.add(o);
+			}
+		}
+
+		return target;
+	}
+
+	@Override
+	public String toString() {
+		return expression.toString();
+	}
+}
@@ -34,6 +34,7 @@ import java.util.function.Function;
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.configuration.ConfigurationNodeVisitor;
 import org.apache.cayenne.exp.parser.ASTScalar;
+import org.apache.cayenne.exp.parser.ExpressionCompiler;
 import org.apache.cayenne.util.ConversionUtil;
 import org.apache.cayenne.util.HashCodeBuilder;
 import org.apache.cayenne.util.Util;
@@ -483,6 +484,19 @@ public abstract class Expression implements Serializable, XMLSerializable {
 		return target;
 	}
 
+	/**
+	 * Compiles this expression for repeated in-memory evaluation. The returned
+	 * object evaluates to the same results as this expression, but resolves
+	 * property paths and tree structure only once, which makes it faster for
+	 * matching or filtering large numbers of objects. The expression must not
+	 * be modified after it was compiled.
+	 * 
+	 * @since 4.1
+	 */
+	public CompiledExpression compile() {
+		return ExpressionCompiler.compile(this);
+	}
+
 	/**
 	 * Clones this expression.
 	 * 
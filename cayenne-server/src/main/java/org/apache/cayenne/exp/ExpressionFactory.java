@@ -59,8 +59,10 @@ import org.apache.cayenne.exp.parser.ASTTrue;
 import org.apache.cayenne.exp.parser.ExpressionParser;
 import org.apache.cayenne.exp.parser.ExpressionParserTokenManager;
 import org.apache.cayenne.exp.parser.JavaCharStream;
+import org.apache.cayenne.exp.parser.Node;
 import org.apache.cayenne.exp.parser.SimpleNode;
 import org.apache.cayenne.map.Entity;
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 
 import java.io.Reader;
 import java.io.StringReader;
@@ -90,6 +92,17 @@ public class ExpressionFactory {
 
 	private static final int PARSE_BUFFER_MAX_SIZE = 4096;
 
+	/**
+	 * Max number of parsed expressions cached by {@link #exp(String, Object...)}.
+	 */
+	private static final int PARSED_EXPRESSION_CACHE_SIZE = 1000;
+
+	// parsed expression templates, keyed by expression string; these are never
+	// exposed to the callers, so that they stay immutable
+	private static final Map<String, Expression> parsedExpressions = new ConcurrentLinkedHashMap.Builder<String, Expression>()
+			.maximumWeightedCapacity(PARSED_EXPRESSION_CACHE_SIZE)
+			.build();
+
 	static {
 		// make sure all types are small integers, then we can use them as indexes in lookup array
 		int[] allTypes = new int[] { Expression.AND, Expression.OR, Expression.NOT, Expression.EQUAL_TO,
@@ -1291,15 +1304,18 @@ public class ExpressionFactory {
 	 * <p>
 	 * Binding of parameters by name (as opposed to binding by position) can be
 	 * achieved by chaining this call with {@link Expression#params(Map)}.
+	 * <p>
+	 * Parsed expressions are cached by the expression string, so repeated calls
+	 * with the same string only copy a cached expression tree instead of parsing.
 	 * 
 	 * @since 4.0
 	 */
 	public static Expression exp(String expressionString, Object... parameters) {
-		Expression e = fromString(expressionString);
+		Expression e = copyParsedExpression(parsedExpression(expressionString));
 
 		if (parameters != null && parameters.length > 0) {
 			// apply parameters in-place... it is wasteful to clone the
-			// expression that hasn't been exposed to the callers
+			// copy that hasn't been exposed to the callers
 			e.inPlaceParamsArray(parameters);
 		}
 
@@ -1314,6 +1330,57 @@ public class ExpressionFactory {
 		return new ASTScalar(value);
 	}
 
+	/**
+	 * Returns a cached parsed expression for a given string, parsing and caching
+	 * it if needed. The returned expression must not be modified.
+	 */
+	private static Expression parsedExpression(String expressionString) {
+
+		if (expressionString == null) {
+			throw new NullPointerException("Null expression string.");
+		}
+
+		Expression template = parsedExpressions.get(expressionString);
+		if (template == null) {
+			template = fromString(expressionString);
+
+			// don't let a few huge expressions occupy the cache
+			if (expressionString.length() <= PARSE_BUFFER_MAX_SIZE) {
+				parsedExpressions.put(expressionString, template);
+			}
+		}
+
+		return template;
+	}
+
+	/**
+	 * Copies a parsed expression tree node by node. Unlike
+	 * {@link Expression#deepCopy()}, this doesn't apply any transformations, so
+	 * the copy is identical to the tree produced by the parser.
+	 */
+	private static Expression copyParsedExpression(Expression expression) {
+
+		Expression copy = expression.shallowCopy();
+
+		// list values are not stored as children
+		if (expression instanceof ASTList) {
+			copy.setOperand(0, expression.getOperand(0));
+		}
+
+		if (expression instanceof SimpleNode) {
+			SimpleNode node = (SimpleNode) expression;
+			SimpleNode nodeCopy = (SimpleNode) copy;
+
+			for (int i = node.jjtGetNumChildren() - 1; i >= 0; i--) {
+				Node childCopy = (Node) copyParsedExpression((Expression) node.jjtGetChild(i));
+				nodeCopy.jjtAddChild(childCopy, i);
+				childCopy.jjtSetParent(nodeCopy);
+			}
+		}
+
+		return copy;
+	}
+
 	/**
 	 * Parses string, converting it to Expression. If string does not represent
 	 * a semantically correct expression, an ExpressionException is thrown.
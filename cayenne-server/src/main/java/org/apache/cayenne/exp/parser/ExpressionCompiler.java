@@ -0,0 +1,401 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.exp.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.DataObject;
+import org.apache.cayenne.exp.CompiledExpression;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionException;
+import org.apache.cayenne.map.Entity;
+import org.apache.cayenne.reflect.Accessor;
+import org.apache.cayenne.reflect.PropertyUtils;
+import org.apache.cayenne.util.ConversionUtil;
+import org.apache.cayenne.util.Util;
+
+/**
+ * Compiles expression trees into {@link CompiledExpression} objects. Each node
+ * is converted into a small evaluator closure that has everything that doesn't
+ * depend on the evaluated object (path segments, property accessors, node
+ * structure checks) resolved upfront. Evaluation semantics of the nodes are
+ * preserved, and the nodes that can't be compiled are evaluated as is.
+ * 
+ * @since 4.1
+ */
+public class ExpressionCompiler {
+
+	public static CompiledExpression compile(Expression expression) {
+
+		if (expression == null) {
+			throw new NullPointerException("Null expression.");
+		}
+
+		if (!(expression instanceof SimpleNode)) {
+			return new CompiledExpression(expression) {
+
+				@Override
+				public Object evaluate(Object o) {
+					return expression.evaluate(o);
+				}
+			};
+		}
+
+		return new CompiledSimpleNode((SimpleNode) expression, compileNode((SimpleNode) expression));
+	}
+
+	static CompiledNode compileNode(SimpleNode node) {
+
+		if (node == null) {
+			return o -> null;
+		}
+
+		if (node instanceof ASTEnum) {
+			// enum is resolved lazily, keep it this way
+			return node::evaluateNode;
+		}
+
+		if (node instanceof ASTScalar) {
+			Object value = ((ASTScalar) node).value;
+			return o -> value;
+		}
+
+		if (node instanceof ASTObjPath && node.getClass() == ASTObjPath.class) {
+			return compileObjPath((ASTObjPath) node);
+		}
+
+		if (node instanceof ASTAnd && !overridesEvaluateNode(node.getClass(), ASTAnd.class)) {
+			return compileAnd(node);
+		}
+
+		if (node instanceof ASTOr && !overridesEvaluateNode(node.getClass(), ASTOr.class)) {
+			return compileOr(node);
+		}
+
+		if (node instanceof ASTNot && !overridesEvaluateNode(node.getClass(), ASTNot.class)) {
+			return compileNot(node);
+		}
+
+		if (node instanceof ConditionNode && !overridesEvaluateNode(node.getClass(), ConditionNode.class)) {
+			return compileCondition((ConditionNode) node);
+		}
+
+		if (node instanceof EvaluatedNode && !overridesEvaluateNode(node.getClass(), EvaluatedNode.class)) {
+			return compileEvaluated((EvaluatedNode) node);
+		}
+
+		return node::evaluateNode;
+	}
+
+	static CompiledNode[] compileChildren(SimpleNode node, int len) {
+		CompiledNode[] children = new CompiledNode[len];
+		for (int i = 0; i < len; i++) {
+			children[i] = compileNode((SimpleNode) node.jjtGetChild(i));
+		}
+
+		return children;
+	}
+
+	static Object[] evaluateChildren(CompiledNode[] children, Object o) throws Exception {
+		Object[] evaluated = new Object[children.length];
+		for (int i = 0; i < children.length; i++) {
+			evaluated[i] = children[i].evaluate(o);
+		}
+
+		return evaluated;
+	}
+
+	static CompiledNode compileAnd(SimpleNode node) {
+
+		int len = node.jjtGetNumChildren();
+		if (len == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		CompiledNode[] children = compileChildren(node, len);
+		return o -> {
+			boolean unknown = false;
+			for (CompiledNode child : children) {
+				Object value = child.evaluate(o);
+				if (value == null) {
+					unknown = true;
+				} else if (!ConversionUtil.toBoolean(value)) {
+					return Boolean.FALSE;
+				}
+			}
+
+			return unknown ? null : Boolean.TRUE;
+		};
+	}
+
+	static CompiledNode compileOr(SimpleNode node) {
+
+		int len = node.jjtGetNumChildren();
+		if (len == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		CompiledNode[] children = compileChildren(node, len);
+		return o -> {
+			boolean unknown = false;
+			for (CompiledNode child : children) {
+				Object value = child.evaluate(o);
+				if (value == null) {
+					unknown = true;
+				} else if (ConversionUtil.toBoolean(value)) {
+					return Boolean.TRUE;
+				}
+			}
+
+			return unknown ? null : Boolean.FALSE;
+		};
+	}
+
+	static CompiledNode compileNot(SimpleNode node) {
+
+		if (node.jjtGetNumChildren() == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		CompiledNode child = compileNode((SimpleNode) node.jjtGetChild(0));
+		return o -> {
+			Object value = child.evaluate(o);
+			if (value == null) {
+				return null;
+			}
+
+			return ConversionUtil.toBoolean(value) ? Boolean.FALSE : Boolean.TRUE;
+		};
+	}
+
+	/**
+	 * Compiled version of {@link ConditionNode#evaluateNode(Object)}.
+	 */
+	static CompiledNode compileCondition(ConditionNode node) {
+
+		int requiredLen = node.getRequiredChildrenCount();
+		if (node.jjtGetNumChildren() != requiredLen) {
+			return o -> Boolean.FALSE;
+		}
+
+		if (requiredLen == 0) {
+			return o -> node.evaluateSubNode(null, null);
+		}
+
+		CompiledNode[] children = compileChildren(node, requiredLen);
+		return o -> {
+			Object[] evaluatedChildren = evaluateChildren(children, o);
+
+			Object firstChild = evaluatedChildren[0];
+			if (firstChild instanceof Map) {
+				firstChild = ((Map<?, ?>) firstChild).values();
+			}
+
+			if (firstChild instanceof Collection) {
+				for (Object c : (Collection<?>) firstChild) {
+					if (node.evaluateSubNode(c, evaluatedChildren) == Boolean.TRUE) {
+						return Boolean.TRUE;
+					}
+				}
+				return Boolean.FALSE;
+			}
+
+			return node.evaluateSubNode(firstChild, evaluatedChildren);
+		};
+	}
+
+	/**
+	 * Compiled version of {@link EvaluatedNode#evaluateNode(Object)}.
+	 */
+	static CompiledNode compileEvaluated(EvaluatedNode node) {
+
+		int len = node.jjtGetNumChildren();
+		int requiredLen = node.getRequiredChildrenCount();
+		if (len < requiredLen) {
+			return o -> null;
+		}
+
+		if (requiredLen == 0) {
+			return o -> node.evaluateSubNode(null, null);
+		}
+
+		CompiledNode[] children = compileChildren(node, len);
+		return o -> {
+			Object[] evaluatedChildren = evaluateChildren(children, o);
+
+			Object firstChild = evaluatedChildren[0];
+
+			// convert Map, keep Map keys
+			if (firstChild instanceof Map) {
+				Map<?, ?> child = (Map<?, ?>) firstChild;
+				Map<Object, Object> result = new HashMap<>(child.size());
+				for (Map.Entry<?, ?> entry : child.entrySet()) {
+					result.put(entry.getKey(), node.evaluateSubNode(entry.getValue(), evaluatedChildren));
+				}
+				return result;
+			}
+
+			// convert collection
+			if (firstChild instanceof Collection) {
+				Collection<?> child = (Collection<?>) firstChild;
+				Collection<Object> result = new ArrayList<>(child.size());
+				for (Object c : child) {
+					result.add(node.evaluateSubNode(c, evaluatedChildren));
+				}
+				return result;
+			}
+
+			return node.evaluateSubNode(firstChild, evaluatedChildren);
+		};
+	}
+
+	/**
+	 * Compiled version of {@link ASTObjPath#evaluateNode(Object)}.
+	 */
+	static CompiledNode compileObjPath(ASTObjPath node) {
+
+		String path = node.getPath();
+
+		// leave invalid paths to the node, so that it throws the usual exception
+		if (path == null || path.isEmpty() || path.startsWith(".") || path.endsWith(".") || path.contains("..")) {
+			return node::evaluateNode;
+		}
+
+		DataObjectPath dataObjectPath = new DataObjectPath(path);
+		Accessor accessor = PropertyUtils.accessor(path);
+		// same as PropertyUtils map access, the key keeps a trailing outer join "+"
+		String mapKey = path.indexOf(Entity.PATH_SEPARATOR) < 0 ? path : null;
+
+		return o -> {
+			if (o instanceof BaseDataObject) {
+				return dataObjectPath.read((BaseDataObject) o);
+			} else if (o instanceof DataObject) {
+				return ((DataObject) o).readNestedProperty(path);
+			} else if (o instanceof Entity) {
+				return node.evaluateNode(o);
+			} else if (mapKey != null && o instanceof Map) {
+				return ((Map<?, ?>) o).get(mapKey);
+			} else {
+				return accessor.getValue(o);
+			}
+		};
+	}
+
+	static String trimOuterJoin(String segment) {
+		return segment.endsWith(Entity.OUTER_JOIN_INDICATOR)
+				? segment.substring(0, segment.length() - 1)
+				: segment;
+	}
+
+	static boolean overridesEvaluateNode(Class<?> type, Class<?> superclass) {
+		for (Class<?> c = type; c != superclass; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("evaluateNode", Object.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// continue to the superclass
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A node evaluator with the object-independent work already done.
+	 */
+	@FunctionalInterface
+	interface CompiledNode {
+
+		Object evaluate(Object o) throws Exception;
+	}
+
+	/**
+	 * A pre-split path that reads properties of a {@link BaseDataObject} the
+	 * same way as {@link BaseDataObject#readNestedProperty(String)}.
+	 */
+	static final class DataObjectPath {
+
+		private final String segment;
+		private final String remainder;
+		private final DataObjectPath next;
+
+		DataObjectPath(String path) {
+			int dot = path.indexOf(Entity.PATH_SEPARATOR);
+			if (dot < 0) {
+				this.segment = path;
+				this.remainder = null;
+				this.next = null;
+			} else {
+				this.segment = trimOuterJoin(path.substring(0, dot));
+				this.remainder = path.substring(dot + 1);
+				this.next = new DataObjectPath(remainder);
+			}
+		}
+
+		Object read(BaseDataObject object) {
+
+			// side effect - resolves HOLLOW object
+			Object value = object.readProperty(segment);
+
+			// if a null value is returned, there is still a chance to
+			// find a non-persistent property via reflection
+			if (value == null) {
+				value = PropertyUtils.getProperty(object, segment);
+			}
+
+			if (next == null || value == null) {
+				return value;
+			} else if (value instanceof BaseDataObject) {
+				return next.read((BaseDataObject) value);
+			} else if (value instanceof DataObject) {
+				return ((DataObject) value).readNestedProperty(remainder);
+			} else {
+				return Cayenne.readNestedProperty(value, remainder);
+			}
+		}
+	}
+
+	static final class CompiledSimpleNode extends CompiledExpression {
+
+		private final CompiledNode root;
+
+		CompiledSimpleNode(SimpleNode expression, CompiledNode root) {
+			super(expression);
+			this.root = root;
+		}
+
+		@Override
+		public Object evaluate(Object o) {
+			// same exception processing as in SimpleNode.evaluate(..)
+			try {
+				return root.evaluate(o);
+			} catch (Throwable th) {
+				String string = expression.toString();
+				throw new ExpressionException("Error evaluating expression '%s'", string,
+						Util.unwindException(th), string);
+			}
+		}
+	}
+}
@@ -50,6 +50,7 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 	int fetchOffset = QueryMetadata.FETCH_OFFSET_DEFAULT;
 
 	int statementFetchSize = QueryMetadata.FETCH_OFFSET_DEFAULT;
+	long statementTimeout = QueryMetadata.STATEMENT_TIMEOUT_DEFAULT;
 
 	int pageSize = QueryMetadata.PAGE_SIZE_DEFAULT;
 	boolean fetchingDataRows = QueryMetadata.FETCHING_DATA_ROWS_DEFAULT;
@@ -63,6 +64,7 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 	 */
 	String cacheGroup;
 
+	transient QueryCancellationHandle cancellationHandle;
 	transient List<Object> resultSetMapping;
 	transient DbEntity dbEntity;
 	transient DataMap dataMap;
@@ -87,6 +89,8 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 		this.cacheKey = info.getCacheKey();
 		this.cacheGroup = info.getCacheGroup();
 		this.resultSetMapping = info.getResultSetMapping();
+		this.statementTimeout = info.getStatementTimeout();
+		this.cancellationHandle = info.getCancellationHandle();
 
 		setPrefetchTree(info.getPrefetchTree());
 	}
@@ -155,6 +159,7 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 		Object fetchLimit = properties.get(QueryMetadata.FETCH_LIMIT_PROPERTY);
 		Object pageSize = properties.get(QueryMetadata.PAGE_SIZE_PROPERTY);
 		Object statementFetchSize = properties.get(QueryMetadata.STATEMENT_FETCH_SIZE_PROPERTY);
+		Object statementTimeout = properties.get(QueryMetadata.STATEMENT_TIMEOUT_PROPERTY);
 		Object fetchingDataRows = properties.get(QueryMetadata.FETCHING_DATA_ROWS_PROPERTY);
 
 		Object cacheStrategy = properties.get(QueryMetadata.CACHE_STRATEGY_PROPERTY);
@@ -173,6 +178,9 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 		this.statementFetchSize = (statementFetchSize != null) ? Integer.parseInt(statementFetchSize.toString())
 				: QueryMetadata.STATEMENT_FETCH_SIZE_DEFAULT;
 
+		this.statementTimeout = (statementTimeout != null) ? Long.parseLong(statementTimeout.toString())
+				: QueryMetadata.STATEMENT_TIMEOUT_DEFAULT;
+
 		this.fetchingDataRows = (fetchingDataRows != null) ? "true".equalsIgnoreCase(fetchingDataRows.toString())
 				: QueryMetadata.FETCHING_DATA_ROWS_DEFAULT;
 
@@ -376,6 +384,39 @@ class BaseQueryMetadata implements QueryMetadata, Serializable {
 		return statementFetchSize;
 	}
 
+	/**
+	 * Sets statement timeout in milliseconds (0 for no timeout)
+	 * 
+	 * @since 4.1
+	 */
+	void setStatementTimeout(long timeout) {
+		this.statementTimeout = timeout;
+	}
+
+	/**
+	 * @return statement timeout in milliseconds
+	 * @since 4.1
+	 */
+	@Override
+	public long getStatementTimeout() {
+		return statementTimeout;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	void setCancellationHandle(QueryCancellationHandle cancellationHandle) {
+		this.cancellationHandle = cancellationHandle;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	@Override
+	public QueryCancellationHandle getCancellationHandle() {
+		return cancellationHandle;
+	}
+
 	/**
 	 * Adds a joint prefetch.
 	 * 
@@ -48,6 +48,16 @@ public abstract class BatchQuery implements Query {
 
     protected List<DbAttribute> dbAttributes;
 
+    /**
+     * @since 4.1
+     */
+    protected long statementTimeout;
+
+    /**
+     * @since 4.1
+     */
+    protected QueryCancellationHandle cancellationHandle;
+
     /**
      * @since 4.0
      */
@@ -77,9 +87,53 @@ public abstract class BatchQuery implements Query {
             public DbEntity getDbEntity() {
                 return dbEntity;
             }
+
+            @Override
+            public long getStatementTimeout() {
+                return statementTimeout;
+            }
+
+            @Override
+            public QueryCancellationHandle getCancellationHandle() {
+                return cancellationHandle;
+            }
         };
     }
 
+    /**
+     * Sets a timeout in milliseconds for the statements executed by this batch
+     * (0 for no timeout).
+     * 
+     * @since 4.1
+     */
+    public void setStatementTimeout(long statementTimeout) {
+        this.statementTimeout = statementTimeout;
+    }
+
+    /**
+     * @since 4.1
+     */
+    public long getStatementTimeout() {
+        return statementTimeout;
+    }
+
+    /**
+     * Sets a handle that can be used to cancel the statements executed by this
+     * batch from another thread.
+     * 
+     * @since 4.1
+     */
+    public void setCancellationHandle(QueryCancellationHandle cancellationHandle) {
+        this.cancellationHandle = cancellationHandle;
+    }
+
+    /**
+     * @since 4.1
+     */
+    public QueryCancellationHandle getCancellationHandle() {
+        return cancellationHandle;
+    }
+
     /**
      * @since 1.2
      */
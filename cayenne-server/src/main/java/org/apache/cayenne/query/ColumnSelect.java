@@ -20,6 +20,7 @@
 package org.apache.cayenne.query;
 
 import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -90,6 +91,8 @@ public class ColumnSelect<T> extends FluentSelect<T> {
         this.offset = select.offset;
         this.pageSize = select.pageSize;
         this.statementFetchSize = select.statementFetchSize;
+        this.statementTimeout = select.statementTimeout;
+        this.cancellationHandle = select.cancellationHandle;
         this.cacheStrategy = select.cacheStrategy;
         this.cacheGroup = select.cacheGroup;
     }
@@ -353,6 +356,40 @@ public class ColumnSelect<T> extends FluentSelect<T> {
         return this;
     }
 
+    /**
+     * Sets a timeout for the JDBC statements executed by this query. Statements running
+     * longer than the timeout are cancelled by the driver. Timeout is rounded up to whole
+     * seconds, as required by JDBC.
+     *
+     * @see Statement#setQueryTimeout(int)
+     * @since 4.1
+     */
+    public ColumnSelect<T> statementTimeout(Duration timeout) {
+        long millis = timeout != null ? timeout.toMillis() : 0;
+        if (this.statementTimeout != millis) {
+            this.statementTimeout = millis;
+            this.replacementQuery = null;
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets a handle that allows to cancel this query from another thread while it is
+     * running.
+     *
+     * @see QueryCancellationHandle#cancel()
+     * @since 4.1
+     */
+    public ColumnSelect<T> cancellationHandle(QueryCancellationHandle handle) {
+        if (this.cancellationHandle != handle) {
+            this.cancellationHandle = handle;
+            this.replacementQuery = null;
+        }
+
+        return this;
+    }
+
     public ColumnSelect<T> cacheStrategy(QueryCacheStrategy strategy) {
         if (this.cacheStrategy != strategy) {
             this.cacheStrategy = strategy;
@@ -147,6 +147,22 @@ class DefaultQueryMetadata implements QueryMetadata {
         return QueryMetadata.STATEMENT_FETCH_SIZE_DEFAULT;
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    public long getStatementTimeout() {
+        return QueryMetadata.STATEMENT_TIMEOUT_DEFAULT;
+    }
+
+    /**
+     * @since 4.1
+     */
+    @Override
+    public QueryCancellationHandle getCancellationHandle() {
+        return null;
+    }
+
     /**
      * @since 4.0
      */
@@ -49,6 +49,8 @@ public abstract class FluentSelect<T> extends IndirectQuery implements Select<T>
     protected int offset;
     protected int pageSize;
     protected int statementFetchSize;
+    protected long statementTimeout;
+    protected QueryCancellationHandle cancellationHandle;
     protected QueryCacheStrategy cacheStrategy;
     protected String cacheGroup;
 
@@ -96,6 +98,8 @@ public abstract class FluentSelect<T> extends IndirectQuery implements Select<T>
         replacement.setFetchOffset(offset);
         replacement.setPageSize(pageSize);
         replacement.setStatementFetchSize(statementFetchSize);
+        replacement.setStatementTimeout(statementTimeout);
+        replacement.setCancellationHandle(cancellationHandle);
 
         return replacement;
     }
@@ -112,6 +116,21 @@ public abstract class FluentSelect<T> extends IndirectQuery implements Select<T>
         return statementFetchSize;
     }
 
+    /**
+     * @return statement timeout in milliseconds
+     * @since 4.1
+     */
+    public long getStatementTimeout() {
+        return statementTimeout;
+    }
+
+    /**
+     * @since 4.1
+     */
+    public QueryCancellationHandle getCancellationHandle() {
+        return cancellationHandle;
+    }
+
     public int getPageSize() {
         return pageSize;
     }
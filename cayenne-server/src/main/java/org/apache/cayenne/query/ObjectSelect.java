@@ -28,6 +28,7 @@ import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.map.ObjEntity;
 
 import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -459,6 +460,40 @@ public class ObjectSelect<T> extends FluentSelect<T> {
         return this;
     }
 
+    /**
+     * Sets a timeout for the JDBC statements executed by this query. Statements running
+     * longer than the timeout are cancelled by the driver. Timeout is rounded up to whole
+     * seconds, as required by JDBC.
+     *
+     * @see Statement#setQueryTimeout(int)
+     * @since 4.1
+     */
+    public ObjectSelect<T> statementTimeout(Duration timeout) {
+        long millis = timeout != null ? timeout.toMillis() : 0;
+        if (this.statementTimeout != millis) {
+            this.statementTimeout = millis;
+            this.replacementQuery = null;
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets a handle that allows to cancel this query from another thread while it is
+     * running.
+     *
+     * @see QueryCancellationHandle#cancel()
+     * @since 4.1
+     */
+    public ObjectSelect<T> cancellationHandle(QueryCancellationHandle handle) {
+        if (this.cancellationHandle != handle) {
+            this.cancellationHandle = handle;
+            this.replacementQuery = null;
+        }
+
+        return this;
+    }
+
     public ObjectSelect<T> cacheStrategy(QueryCacheStrategy strategy) {
         if (this.cacheStrategy != strategy) {
             this.cacheStrategy = strategy;
@@ -0,0 +1,94 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A handle that allows to cancel JDBC statements of a running query from another thread,
+ * e.g. the one that started an asynchronous select. An instance is attached to a query via
+ * its "cancellationHandle" property. While a query is executed, its statements are
+ * registered with the handle, and {@link #cancel()} calls {@link Statement#cancel()} on
+ * each one of them. Once cancelled, a handle stays cancelled and any statement that is
+ * about to be executed with it fails without running.
+ * 
+ * @since 4.1
+ */
+public class QueryCancellationHandle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryCancellationHandle.class);
+
+    private final Set<Statement> statements;
+    private volatile boolean cancelled;
+
+    public QueryCancellationHandle() {
+        this.statements = Collections.newSetFromMap(new ConcurrentHashMap<Statement, Boolean>());
+    }
+
+    /**
+     * Cancels all statements currently registered with this handle, and marks the handle
+     * as cancelled, preventing execution of any further statements.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                LOGGER.info("Error cancelling statement, ignoring", e);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a statement that is about to be executed.
+     * 
+     * @throws CayenneRuntimeException if the handle is already cancelled.
+     */
+    public void register(Statement statement) {
+        statements.add(statement);
+
+        // check after adding the statement, so that it is either seen by a concurrent
+        // cancel() or fails here
+        if (cancelled) {
+            statements.remove(statement);
+            throw new CayenneRuntimeException("Query was cancelled");
+        }
+    }
+
+    /**
+     * Unregisters a statement that is no longer executed.
+     */
+    public void unregister(Statement statement) {
+        statements.remove(statement);
+    }
+}
@@ -95,6 +95,14 @@ public interface QueryMetadata {
      */
     String STATEMENT_FETCH_SIZE_PROPERTY = "cayenne.GenericSelectQuery.statementFetchSize";
 
+    /**
+     * Defines the name of the property for the query {@link #getStatementTimeout() statement
+     * timeout} in milliseconds.
+     * 
+     * @since 4.1
+     */
+    String STATEMENT_TIMEOUT_PROPERTY = "cayenne.GenericSelectQuery.statementTimeout";
+
     /**
      * Defines default query fetch start index, which is 0, meaning that matching rows
      * selected starting from the first.
@@ -103,6 +111,14 @@ public interface QueryMetadata {
      */
     int STATEMENT_FETCH_SIZE_DEFAULT = 0;
 
+    /**
+     * Defines default statement timeout, which is 0, meaning that statements are not
+     * timed out.
+     * 
+     * @since 4.1
+     */
+    long STATEMENT_TIMEOUT_DEFAULT = 0;
+
     /**
      * @since 3.0
      */
@@ -238,6 +254,22 @@ public interface QueryMetadata {
      */
     int getStatementFetchSize();
 
+    /**
+     * Returns a timeout in milliseconds for the JDBC statements executed by this query.
+     * Zero means no timeout.
+     * 
+     * @since 4.1
+     */
+    long getStatementTimeout();
+
+    /**
+     * Returns a handle that can be used to cancel the JDBC statements executed by this
+     * query from another thread, or null if the query is not cancellable.
+     * 
+     * @since 4.1
+     */
+    QueryCancellationHandle getCancellationHandle();
+
     /**
      * @since 4.0
      */
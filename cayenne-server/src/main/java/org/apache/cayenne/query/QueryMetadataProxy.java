@@ -132,6 +132,22 @@ public class QueryMetadataProxy implements QueryMetadata {
         return mdDelegate.getStatementFetchSize();
     }
 
+    /**
+     * @since 4.1
+     */
+    @Override
+    public long getStatementTimeout() {
+        return mdDelegate.getStatementTimeout();
+    }
+
+    /**
+     * @since 4.1
+     */
+    @Override
+    public QueryCancellationHandle getCancellationHandle() {
+        return mdDelegate.getCancellationHandle();
+    }
+
     @Override
     public boolean isSuppressingDistinct() {
         return mdDelegate.isSuppressingDistinct();
@@ -27,6 +27,7 @@ import org.apache.cayenne.ResultIteratorCallback;
 import org.apache.cayenne.map.DataMap;
 import org.apache.cayenne.map.EntityResolver;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -140,6 +141,8 @@ public class SQLSelect<T> extends IndirectQuery implements Select<T> {
 	protected int offset;
 	protected int pageSize;
 	protected int statementFetchSize;
+	protected long statementTimeout;
+	protected QueryCancellationHandle cancellationHandle;
 	protected PrefetchTreeNode prefetches;
 
 	public SQLSelect(String sql) {
@@ -312,6 +315,8 @@ public class SQLSelect<T> extends IndirectQuery implements Select<T> {
 		template.setFetchOffset(offset);
 		template.setPageSize(pageSize);
 		template.setStatementFetchSize(statementFetchSize);
+		template.setStatementTimeout(statementTimeout);
+		template.setCancellationHandle(cancellationHandle);
 
 		return template;
 	}
@@ -500,6 +505,52 @@ public class SQLSelect<T> extends IndirectQuery implements Select<T> {
 		return statementFetchSize;
 	}
 
+	/**
+	 * Sets a timeout for the JDBC statements executed by this query. Timeout
+	 * is rounded up to whole seconds, as required by JDBC.
+	 *
+	 * @since 4.1
+	 */
+	public SQLSelect<T> statementTimeout(Duration timeout) {
+		long millis = timeout != null ? timeout.toMillis() : 0;
+		if (this.statementTimeout != millis) {
+			this.statementTimeout = millis;
+			this.replacementQuery = null;
+		}
+
+		return this;
+	}
+
+	/**
+	 * @return JDBC statement timeout in milliseconds
+	 * @since 4.1
+	 */
+	public long getStatementTimeout() {
+		return statementTimeout;
+	}
+
+	/**
+	 * Sets a handle that allows to cancel this query from another thread while
+	 * it is running.
+	 *
+	 * @since 4.1
+	 */
+	public SQLSelect<T> cancellationHandle(QueryCancellationHandle handle) {
+		if (this.cancellationHandle != handle) {
+			this.cancellationHandle = handle;
+			this.replacementQuery = null;
+		}
+
+		return this;
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public QueryCancellationHandle getCancellationHandle() {
+		return cancellationHandle;
+	}
+
 	/**
 	 * Merges a prefetch path with specified semantics into the query prefetch tree.
 	 * @param path Path expression
@@ -624,6 +624,41 @@ public class SQLTemplate extends AbstractQuery implements ParameterizedQuery {
 		return metaData.getStatementFetchSize();
 	}
 
+	/**
+	 * Sets a timeout in milliseconds for the statements executed by this query
+	 * (0 for no timeout).
+	 * 
+	 * @since 4.1
+	 */
+	public void setStatementTimeout(long timeout) {
+		metaData.setStatementTimeout(timeout);
+	}
+
+	/**
+	 * @return statement timeout in milliseconds
+	 * @since 4.1
+	 */
+	public long getStatementTimeout() {
+		return metaData.getStatementTimeout();
+	}
+
+	/**
+	 * Sets a handle that can be used to cancel the statements executed by this
+	 * query from another thread.
+	 * 
+	 * @since 4.1
+	 */
+	public void setCancellationHandle(QueryCancellationHandle cancellationHandle) {
+		metaData.setCancellationHandle(cancellationHandle);
+	}
+
+	/**
+	 * @since 4.1
+	 */
+	public QueryCancellationHandle getCancellationHandle() {
+		return metaData.getCancellationHandle();
+	}
+
 	/**
 	 * Returns a name of the DataNode to use with this SQLTemplate. This
 	 * information will be used during query execution if no other routing
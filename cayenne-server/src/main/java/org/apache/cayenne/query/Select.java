@@ -23,8 +23,12 @@ import org.apache.cayenne.ObjectContext;
 import org.apache.cayenne.ResultBatchIterator;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.ResultIteratorCallback;
+import org.apache.cayenne.ResultPublisher;
+import org.apache.cayenne.util.ResultIteratorPublisher;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * A common interface for grouping together different kinds of queries that
@@ -110,4 +114,68 @@ public interface Select<T> extends Query {
 	 * @since 4.0
 	 */
 	ResultBatchIterator<T> batchIterator(ObjectContext context, int size);
+
+	/**
+	 * Selects objects asynchronously using provided context.
+	 * <p>
+	 * Essentially the inversion of "ObjectContext.selectAsync(Select)".
+	 *
+	 * @since 4.1
+	 */
+	default CompletableFuture<List<T>> selectAsync(ObjectContext context) {
+		return CompletableFuture.supplyAsync(() -> select(context), context.getAsyncExecutor());
+	}
+
+	/**
+	 * Asynchronous version of {@link #selectOne(ObjectContext)}.
+	 *
+	 * @since 4.1
+	 */
+	default CompletableFuture<T> selectOneAsync(ObjectContext context) {
+		return CompletableFuture.supplyAsync(() -> selectOne(context), context.getAsyncExecutor());
+	}
+
+	/**
+	 * Asynchronous version of {@link #selectFirst(ObjectContext)}.
+	 *
+	 * @since 4.1
+	 */
+	default CompletableFuture<T> selectFirstAsync(ObjectContext context) {
+		return CompletableFuture.supplyAsync(() -> selectFirst(context), context.getAsyncExecutor());
+	}
+
+	/**
+	 * Asynchronous version of {@link #iterate(ObjectContext, ResultIteratorCallback)}. The
+	 * callback is invoked on the executor thread.
+	 *
+	 * @since 4.1
+	 */
+	default CompletableFuture<Void> iterateAsync(ObjectContext context, ResultIteratorCallback<T> callback) {
+		return CompletableFuture.runAsync(() -> iterate(context, callback), context.getAsyncExecutor());
+	}
+
+	/**
+	 * Creates a {@link ResultPublisher} that streams query results to subscribers with
+	 * backpressure. Each subscription runs the query on the context async executor, reading
+	 * only as many rows as the subscriber requested, and closes the underlying ResultIterator
+	 * (releasing the connection) on completion, error or cancellation. Use "statementFetchSize"
+	 * of the query to align JDBC fetch size with the expected demand.
+	 *
+	 * @since 4.1
+	 */
+	default ResultPublisher<T> publisher(ObjectContext context) {
+		return new ResultIteratorPublisher<>(() -> iterator(context), context.getAsyncExecutor());
+	}
+
+	/**
+	 * Returns a Stream backed by an open ResultIterator, preserving a constant memory
+	 * footprint while processing large results. The caller must close the stream explicitly
+	 * (e.g. with try-with-resources) to release the underlying connection.
+	 *
+	 * @see ResultIterator#stream()
+	 * @since 4.1
+	 */
+	default Stream<T> stream(ObjectContext context) {
+		return iterator(context).stream();
+	}
 }
@@ -97,6 +97,8 @@ class SelectQueryPrefetchRouterAction implements PrefetchProcessor {
         // create and configure PrefetchSelectQuery
         PrefetchSelectQuery<?> prefetchQuery = new PrefetchSelectQuery<>(prefetchPath, relationship);
         prefetchQuery.setStatementFetchSize(query.getStatementFetchSize());
+        prefetchQuery.setStatementTimeout(query.getStatementTimeout());
+        prefetchQuery.setCancellationHandle(query.getCancellationHandle());
 
         prefetchQuery.setQualifier(classDescriptor.getEntity()
                 .translateToRelatedEntity(queryQualifier, prefetchPath));
@@ -19,11 +19,16 @@
 
 package org.apache.cayenne.reflect;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Method;
 
 /**
  * A property accessor that uses set/get methods following JavaBean naming
- * conventions.
+ * conventions. The methods are invoked via method handles that are resolved
+ * once when the accessor is created.
  * 
  * @since 1.2
  */
@@ -36,6 +41,24 @@ public class BeanAccessor implements Accessor {
 	protected Method writeMethod;
 	protected Object nullValue;
 
+	/**
+	 * @since 4.1
+	 */
+	protected MethodHandle readHandle;
+
+	/**
+	 * @since 4.1
+	 */
+	protected MethodHandle writeHandle;
+
+	/**
+	 * Setter parameter type, with primitives replaced by their wrapper types.
+	 * Values of other types are passed to the setter via reflection.
+	 * 
+	 * @since 4.1
+	 */
+	protected Class<?> writeValueType;
+
 	public BeanAccessor(Class<?> objectClass, String propertyName, Class<?> propertyType) {
 		if (objectClass == null) {
 			throw new IllegalArgumentException("Null objectClass");
@@ -109,6 +132,28 @@ public class BeanAccessor implements Accessor {
 				break;
 			}
 		}
+
+		this.readHandle = prepareHandle(readMethod, MethodType.methodType(Object.class, Object.class));
+		this.writeHandle = writeMethod != null
+				? prepareHandle(writeMethod, MethodType.methodType(void.class, Object.class, Object.class))
+				: null;
+		this.writeValueType = writeMethod != null
+				? MethodType.methodType(writeMethod.getParameterTypes()[0]).wrap().returnType()
+				: null;
+	}
+
+	/**
+	 * Creates a method handle of a given generic type for the method, or null if
+	 * the method can't be accessed this way.
+	 * 
+	 * @since 4.1
+	 */
+	protected MethodHandle prepareHandle(Method method, MethodType type) {
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(type);
+		} catch (IllegalAccessException | WrongMethodTypeException e) {
+			return null;
+		}
 	}
 
 	public String getName() {
@@ -121,7 +166,7 @@ public class BeanAccessor implements Accessor {
 	public Object getValue(Object object) throws PropertyException {
 
 		try {
-			return readMethod.invoke(object, (Object[]) null);
+			return readHandle != null ? (Object) readHandle.invokeExact(object) : readMethod.invoke(object, (Object[]) null);
 		} catch (Throwable th) {
 			throw new PropertyException("Error reading property: " + propertyName, this, object, th);
 		}
@@ -147,7 +192,15 @@ public class BeanAccessor implements Accessor {
 				newValue = this.nullValue;
 			}
 
-			writeMethod.invoke(object, newValue);
+			// unlike method handles, reflection performs widening conversions of
+			// primitives (e.g. Integer to long), so only use the handle when the value
+			// matches the parameter type. Deciding this before the call ensures that
+			// the setter is never invoked twice.
+			if (writeHandle != null && (newValue == null || writeValueType.isInstance(newValue))) {
+				writeHandle.invokeExact(object, newValue);
+			} else {
+				writeMethod.invoke(object, newValue);
+			}
 		} catch (Throwable th) {
 			throw new PropertyException("Error writing property: " + propertyName, this, object, th);
 		}
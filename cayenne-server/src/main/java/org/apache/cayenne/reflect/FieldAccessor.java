@@ -19,13 +19,19 @@
 
 package org.apache.cayenne.reflect;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Field;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.util.Util;
 
 /**
- * A PropertyAccessor that performs direct Field access.
+ * A PropertyAccessor that performs direct Field access. Field is read and
+ * written via method handles that are resolved once when the accessor is
+ * created.
  * 
  * @since 1.2
  */
@@ -35,6 +41,16 @@ public class FieldAccessor implements Accessor {
     protected Field field;
     protected Object nullValue;
 
+    /**
+     * @since 4.1
+     */
+    protected MethodHandle getter;
+
+    /**
+     * @since 4.1
+     */
+    protected MethodHandle setter;
+
     public FieldAccessor(Class<?> objectClass, String propertyName, Class<?> propertyType) {
         // sanity check
         if (objectClass == null) {
@@ -48,6 +64,8 @@ public class FieldAccessor implements Accessor {
         this.propertyName = propertyName;
         this.field = prepareField(objectClass, propertyName, propertyType);
         this.nullValue = PropertyUtils.defaultNullValueForType(field.getType());
+        this.getter = prepareGetter(field);
+        this.setter = prepareSetter(field);
     }
 
     public String getName() {
@@ -56,7 +74,7 @@ public class FieldAccessor implements Accessor {
 
     public Object getValue(Object object) throws PropertyException {
         try {
-            return field.get(object);
+            return getter != null ? (Object) getter.invokeExact(object) : field.get(object);
         }
         catch (Throwable th) {
             throw new PropertyException(
@@ -77,6 +95,19 @@ public class FieldAccessor implements Accessor {
         }
 
         try {
+            if (setter != null) {
+                try {
+                    setter.invokeExact(object, newValue);
+                    return;
+                } catch (ClassCastException e) {
+                    // unlike method handles, reflection performs widening conversions of
+                    // primitives (e.g. Integer to long), so give it a chance
+                    if (object == null || !field.getDeclaringClass().isInstance(object)) {
+                        throw e;
+                    }
+                }
+            }
+
             field.set(object, newValue);
         }
         catch (Throwable th) {
@@ -88,6 +119,40 @@ public class FieldAccessor implements Accessor {
         }
     }
 
+    /**
+     * Creates an (Object)Object method handle reading the field, or null if the field
+     * can't be accessed this way.
+     * 
+     * @since 4.1
+     */
+    protected MethodHandle prepareGetter(Field field) {
+        try {
+            return MethodHandles.lookup()
+                    .unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        }
+        catch (IllegalAccessException | WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates an (Object,Object)void method handle writing the field, or null if the
+     * field can't be accessed this way.
+     * 
+     * @since 4.1
+     */
+    protected MethodHandle prepareSetter(Field field) {
+        try {
+            return MethodHandles.lookup()
+                    .unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+        catch (IllegalAccessException | WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
     /**
      * Finds a field for the property, ensuring that direct access via reflection is
      * possible.
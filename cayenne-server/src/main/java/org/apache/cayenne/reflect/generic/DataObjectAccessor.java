@@ -19,12 +19,17 @@
 
 package org.apache.cayenne.reflect.generic;
 
+import org.apache.cayenne.BaseDataObject;
 import org.apache.cayenne.DataObject;
 import org.apache.cayenne.reflect.Accessor;
 import org.apache.cayenne.reflect.PropertyException;
 
 /**
- * A PropertyAccessor that uses DataObject API to read/write values.
+ * A PropertyAccessor that uses DataObject API to read/write values. For
+ * {@link BaseDataObject} classes that provide property indexes the values are
+ * accessed by index, unless a class in the hierarchy overrides name-based
+ * "readPropertyDirectly" or "writePropertyDirectly" methods without providing
+ * indexes itself, in which case the overrides are called.
  * 
  * @since 3.0
  */
@@ -32,6 +37,9 @@ class DataObjectAccessor implements Accessor {
 
     protected String propertyName;
 
+    // property index resolved for the last seen object class
+    private transient volatile PropertyIndex index;
+
     DataObjectAccessor(String propertyName) {
 
         if (propertyName == null) {
@@ -52,6 +60,11 @@ class DataObjectAccessor implements Accessor {
     public Object getValue(Object object) throws PropertyException {
         try {
 
+            int propIndex = propertyIndex(object);
+            if (propIndex >= 0) {
+                return ((BaseDataObject) object).readPropertyDirectly(propIndex);
+            }
+
             DataObject dataObject = (DataObject) object;
             return dataObject.readPropertyDirectly(propertyName);
         }
@@ -74,6 +87,12 @@ class DataObjectAccessor implements Accessor {
     public void setValue(Object object, Object newValue) throws PropertyException {
 
         try {
+            int propIndex = propertyIndex(object);
+            if (propIndex >= 0) {
+                ((BaseDataObject) object).writePropertyDirectly(propIndex, newValue);
+                return;
+            }
+
             ((DataObject) object).writePropertyDirectly(propertyName, newValue);
         }
         catch (ClassCastException e) {
@@ -89,4 +108,74 @@ class DataObjectAccessor implements Accessor {
         // TODO, Andrus, 1/22/2006 - check for the right type? DataObject never did it
         // itself... Doing a check (and a conversion) may be an easy way to fix CAY-399
     }
+
+    /**
+     * Returns property index for the object, or -1 if the property should be accessed
+     * by name.
+     */
+    int propertyIndex(Object object) {
+        if (!(object instanceof BaseDataObject)) {
+            return -1;
+        }
+
+        PropertyIndex index = this.index;
+        if (index == null || index.objectClass != object.getClass()) {
+            int propIndex = PropertyIndex.INDEXED_CLASSES.get(object.getClass())
+                    ? ((BaseDataObject) object).propertyIndex(propertyName)
+                    : -1;
+            index = new PropertyIndex(object.getClass(), propIndex);
+            this.index = index;
+        }
+
+        return index.index;
+    }
+
+    static final class PropertyIndex {
+
+        // whether index based access is allowed for a class, resolved once per class
+        static final ClassValue<Boolean> INDEXED_CLASSES = new ClassValue<Boolean>() {
+
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return usesIndexedAccess(type);
+            }
+        };
+
+        final Class<?> objectClass;
+        final int index;
+
+        PropertyIndex(Class<?> objectClass, int index) {
+            this.objectClass = objectClass;
+            this.index = index;
+        }
+
+        /**
+         * Returns true if the class hierarchy provides property indexes and none of its
+         * classes overrides name-based "readPropertyDirectly" or "writePropertyDirectly"
+         * without also providing indexes, so that accessing properties by index bypasses
+         * no custom code.
+         */
+        static boolean usesIndexedAccess(Class<?> type) {
+            boolean indexed = false;
+            for (Class<?> c = type; c != null && c != BaseDataObject.class; c = c.getSuperclass()) {
+                if (declares(c, "readPropertyDirectly", Integer.TYPE)) {
+                    indexed = true;
+                } else if (declares(c, "readPropertyDirectly", String.class)
+                        || declares(c, "writePropertyDirectly", String.class, Object.class)) {
+                    return false;
+                }
+            }
+
+            return indexed;
+        }
+
+        private static boolean declares(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                type.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
 }
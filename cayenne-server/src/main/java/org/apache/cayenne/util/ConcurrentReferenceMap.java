@@ -0,0 +1,261 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe counterpart of {@link ReferenceMap}. Stores values as references in a
+ * {@link ConcurrentHashMap}, so reads never block. References cleared by GC are purged
+ * on subsequent modifications of the map.
+ * <p>
+ * Like ReferenceMap, it doesn't guarantee that value will be there even right after
+ * put(), as GC can remove it at any time. Iterators are weakly consistent and support
+ * removal.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @see ConcurrentWeakValueMap implementation that uses WeakReference to store values
+ * @see ConcurrentSoftValueMap implementation that uses SoftReference to store values
+ *
+ * @since 4.1
+ */
+abstract class ConcurrentReferenceMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    /*
+     * Implementation notes:
+     *  - references remember their keys, so a cleared reference is removed from the map
+     *  with a single conditional remove, without scanning the map;
+     *  - stale references are purged on modification only, readers simply skip them.
+     */
+
+    private static final long serialVersionUID = 6428131498207328164L;
+
+    protected transient ConcurrentHashMap<K, Reference<V>> map;
+
+    protected transient ReferenceQueue<V> referenceQueue;
+
+    protected transient Set<Entry<K, V>> entrySet;
+
+    public ConcurrentReferenceMap() {
+        map = new ConcurrentHashMap<>();
+        referenceQueue = new ReferenceQueue<>();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Reference<V> ref = map.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("ConcurrentReferenceMap can't contain null values");
+        }
+
+        checkReferenceQueue();
+        Reference<V> oldValue = map.put(key, newReference(key, value));
+        return oldValue != null ? oldValue.get() : null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkReferenceQueue();
+        Reference<V> oldValue = map.remove(key);
+        return oldValue != null ? oldValue.get() : null;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        while (referenceQueue.poll() != null) {
+            // just purge the queue
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        if (es == null) {
+            entrySet = es = new ReferenceEntrySet();
+        }
+        return es;
+    }
+
+    /**
+     * Removes all entries whose references were cleared by GC so far.
+     */
+    @SuppressWarnings("unchecked")
+    protected void checkReferenceQueue() {
+        Reference<? extends V> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            // only remove the entry if it wasn't replaced with a new value since
+            map.remove(((KeyedReference<K>) reference).getKey(), reference);
+        }
+    }
+
+    /**
+     * Creates a reference to the value that is aware of the value key. Returned
+     * reference must implement {@link KeyedReference} and be registered with
+     * {@link #referenceQueue}.
+     */
+    abstract Reference<V> newReference(K key, V value);
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Map<K, V> replacementMap = new HashMap<>(map.size());
+        for (Entry<K, V> entry : entrySet()) {
+            replacementMap.put(entry.getKey(), entry.getValue());
+        }
+        out.writeObject(replacementMap);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        @SuppressWarnings("unchecked")
+        Map<K, V> replacement = (Map<K, V>) in.readObject();
+        map = new ConcurrentHashMap<>(replacement.size());
+        referenceQueue = new ReferenceQueue<>();
+        putAll(replacement);
+    }
+
+    /**
+     * A reference that knows the map key of its referent.
+     */
+    interface KeyedReference<K> {
+
+        K getKey();
+    }
+
+    class ReferenceEntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new ReferenceEntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentReferenceMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterator that fetches ahead to make sure it never returns a cleared reference.
+     */
+    class ReferenceEntryIterator implements Iterator<Entry<K, V>> {
+
+        Iterator<Entry<K, Reference<V>>> internalIterator;
+
+        Entry<K, V> next;
+        Entry<K, V> current;
+
+        ReferenceEntryIterator() {
+            internalIterator = map.entrySet().iterator();
+            tryAdvance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            current = next;
+            tryAdvance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+
+            map.remove(current.getKey());
+            current = null;
+        }
+
+        private void tryAdvance() {
+            next = null;
+
+            while (internalIterator.hasNext()) {
+                Entry<K, Reference<V>> refEntry = internalIterator.next();
+                V value = refEntry.getValue().get();
+                if (value != null) {
+                    next = new ReferenceEntry(refEntry.getKey(), value);
+                    break;
+                }
+            }
+        }
+    }
+
+    class ReferenceEntry extends SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 2263185377553648447L;
+
+        ReferenceEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
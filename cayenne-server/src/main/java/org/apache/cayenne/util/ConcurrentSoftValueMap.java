@@ -0,0 +1,60 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+
+/**
+ * Thread-safe map that stores values wrapped into {@link SoftReference}
+ *
+ * @see SoftValueMap
+ *
+ * @since 4.1
+ */
+public class ConcurrentSoftValueMap<K, V> extends ConcurrentReferenceMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 7951239183024557191L;
+
+    public ConcurrentSoftValueMap() {
+        super();
+    }
+
+    @Override
+    Reference<V> newReference(K key, V value) {
+        return new KeyedSoftReference<>(key, value, referenceQueue);
+    }
+
+    static class KeyedSoftReference<K, V> extends SoftReference<V> implements KeyedReference<K> {
+
+        private final K key;
+
+        KeyedSoftReference(K key, V referent, ReferenceQueue<? super V> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+    }
+}
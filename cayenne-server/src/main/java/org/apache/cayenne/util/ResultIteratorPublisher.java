@@ -0,0 +1,191 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.ResultPublisher;
+
+/**
+ * A {@link ResultPublisher} that reads results from a {@link ResultIterator}, opened per
+ * subscription. Results are read and delivered on the provided executor, only as long as there
+ * is an outstanding demand, so the number of rows read ahead of the subscriber never exceeds
+ * the one requested (plus the JDBC fetch size buffer).
+ *
+ * @since 4.1
+ */
+public class ResultIteratorPublisher<T> implements ResultPublisher<T> {
+
+    private final Supplier<ResultIterator<T>> iteratorFactory;
+    private final Executor executor;
+
+    public ResultIteratorPublisher(Supplier<ResultIterator<T>> iteratorFactory, Executor executor) {
+        this.iteratorFactory = Objects.requireNonNull(iteratorFactory);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        IteratorSubscription subscription = new IteratorSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    class IteratorSubscription implements Subscription, Runnable {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested;
+        private final AtomicInteger wip;
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // only accessed from the drain loop, which is never run concurrently
+        private ResultIterator<T> iterator;
+        private boolean done;
+
+        IteratorSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.requested = new AtomicLong();
+            this.wip = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                // add demand, capping at Long.MAX_VALUE that means "unbounded"
+                requested.accumulateAndGet(n, (r, add) -> {
+                    long sum = r + add;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+
+            do {
+                if (!done) {
+                    drain();
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+
+            if (cancelled) {
+                finish();
+                return;
+            }
+
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            long demand = requested.get();
+            long emitted = 0;
+
+            try {
+                if (iterator == null) {
+                    iterator = iteratorFactory.get();
+                }
+
+                while (emitted != demand) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+
+                    if (!iterator.hasNextRow()) {
+                        complete();
+                        return;
+                    }
+
+                    subscriber.onNext(iterator.nextRow());
+                    emitted++;
+                }
+
+                // complete eagerly without waiting for more demand
+                if (!cancelled && !iterator.hasNextRow()) {
+                    complete();
+                    return;
+                }
+            } catch (Throwable th) {
+                finish();
+                subscriber.onError(th);
+                return;
+            }
+
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        private void complete() {
+            Throwable closeError = finish();
+            if (closeError != null) {
+                subscriber.onError(closeError);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        private Throwable finish() {
+            done = true;
+
+            if (iterator != null) {
+                try {
+                    iterator.close();
+                } catch (Throwable th) {
+                    return th;
+                } finally {
+                    iterator = null;
+                }
+            }
+
+            return null;
+        }
+    }
+}
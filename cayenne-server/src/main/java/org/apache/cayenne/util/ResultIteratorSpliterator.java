@@ -0,0 +1,91 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import org.apache.cayenne.ResultIterator;
+
+/**
+ * A {@link Spliterator} over the rows of a {@link ResultIterator}. Splitting reads the next
+ * "batchSize" rows into memory and hands them off as a separate array-backed spliterator, so
+ * that parallel streams process fixed-size chunks of the result while only a bounded number of
+ * rows is held in memory at any time.
+ *
+ * @since 4.1
+ */
+public class ResultIteratorSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    /**
+     * Default number of rows in a split off batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final ResultIterator<T> iterator;
+    private final int batchSize;
+
+    public ResultIteratorSpliterator(ResultIterator<T> iterator) {
+        this(iterator, DEFAULT_BATCH_SIZE);
+    }
+
+    public ResultIteratorSpliterator(ResultIterator<T> iterator, int batchSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+
+        this.iterator = iterator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!iterator.hasNextRow()) {
+            return false;
+        }
+
+        action.accept(iterator.nextRow());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (iterator.hasNextRow()) {
+            action.accept(iterator.nextRow());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!iterator.hasNextRow()) {
+            return null;
+        }
+
+        Object[] batch = new Object[batchSize];
+        int size = 0;
+        while (size < batchSize && iterator.hasNextRow()) {
+            batch[size++] = iterator.nextRow();
+        }
+
+        return Spliterators.spliterator(batch, 0, size, Spliterator.ORDERED);
+    }
+}
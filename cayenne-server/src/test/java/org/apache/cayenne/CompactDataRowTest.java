@@ -0,0 +1,192 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactDataRowTest {
+
+    private CompactDataRow.KeyIndex index;
+
+    @Before
+    public void createIndex() {
+        index = new CompactDataRow.KeyIndex(new String[]{"A", "B", "C", "A"});
+    }
+
+    @Test
+    public void testKeyIndex() {
+        assertEquals(3, index.size());
+        assertEquals(0, index.slotOf("A"));
+        assertEquals(1, index.slotOf("B"));
+        assertEquals(2, index.slotOf("C"));
+        assertEquals(-1, index.slotOf("D"));
+        assertEquals("B", index.keyAt(1));
+    }
+
+    @Test
+    public void testPutGet() {
+        CompactDataRow row = new CompactDataRow(index);
+        assertTrue(row.isEmpty());
+
+        row.putAt(0, 1);
+        row.put("B", null);
+        assertEquals(2, row.size());
+        assertEquals(1, row.get("A"));
+        assertNull(row.get("B"));
+        assertTrue(row.containsKey("B"));
+        assertFalse(row.containsKey("C"));
+        assertEquals("x", row.getOrDefault("C", "x"));
+
+        assertEquals(1, row.put("A", 2));
+        assertEquals(2, row.size());
+    }
+
+    @Test
+    public void testExtraKeys() {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("D", 4);
+
+        assertEquals(2, row.size());
+        assertEquals(4, row.get("D"));
+        assertTrue(row.containsKey("D"));
+        assertTrue(row.containsValue(4));
+
+        assertEquals(4, row.remove("D"));
+        assertEquals(1, row.size());
+    }
+
+    @Test
+    public void testRemove() {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("B", 2);
+
+        assertEquals(1, row.remove("A"));
+        assertNull(row.remove("A"));
+        assertEquals(1, row.size());
+        assertFalse(row.containsKey("A"));
+
+        row.clear();
+        assertTrue(row.isEmpty());
+    }
+
+    @Test
+    public void testEqualsHashMap() {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("C", null);
+        row.put("D", "d");
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("A", 1);
+        map.put("C", null);
+        map.put("D", "d");
+
+        assertEquals(map, row);
+        assertEquals(row, map);
+        assertEquals(map.hashCode(), row.hashCode());
+        assertEquals(map, new DataRow(row));
+        assertEquals(map.keySet(), row.keySet());
+    }
+
+    @Test
+    public void testEntryIterator() {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("C", 3);
+        row.put("D", 4);
+
+        Iterator<Map.Entry<String, Object>> it = row.entrySet().iterator();
+        Map.Entry<String, Object> e1 = it.next();
+        assertEquals("A", e1.getKey());
+        e1.setValue(10);
+        assertEquals(10, row.get("A"));
+
+        assertEquals("C", it.next().getKey());
+        it.remove();
+        assertFalse(row.containsKey("C"));
+
+        assertEquals("D", it.next().getKey());
+        assertFalse(it.hasNext());
+        assertEquals(2, row.size());
+    }
+
+    @Test
+    public void testApplyDiff() {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("B", 2);
+        row.setEntityName("E");
+
+        DataRow diff = new DataRow(2);
+        diff.put("B", 3);
+
+        DataRow merged = row.applyDiff(diff);
+        assertTrue(merged instanceof CompactDataRow);
+        assertNotSame(row, merged);
+        assertFalse(row.getVersion() == merged.getVersion());
+        assertEquals(1, merged.get("A"));
+        assertEquals(3, merged.get("B"));
+        assertEquals(2, row.get("B"));
+        assertEquals("E", merged.getEntityName());
+        assertSame(index, ((CompactDataRow) merged).getIndex());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CompactDataRow row = new CompactDataRow(index);
+        row.put("A", 1);
+        row.put("D", "d");
+        row.setEntityName("E");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(row);
+        }
+
+        Object deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = in.readObject();
+        }
+
+        assertEquals(DataRow.class, deserialized.getClass());
+        DataRow copy = (DataRow) deserialized;
+        assertEquals(row, copy);
+        assertEquals(row.getVersion(), copy.getVersion());
+        assertEquals("E", copy.getEntityName());
+    }
+}
@@ -0,0 +1,130 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.util.ConcurrentWeakValueMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 4.1
+ */
+public class ConcurrentObjectStoreTest {
+
+    private ObjectStore objectStore;
+
+    @Before
+    public void before() {
+        DataRowStore sharedCache = mock(DataRowStore.class);
+        this.objectStore = new ConcurrentObjectStore(sharedCache, new ConcurrentWeakValueMap<>(), true);
+    }
+
+    @Test
+    public void testRegisterNode() {
+
+        ObjectId id = new ObjectId("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+
+        objectStore.registerNode(id, object);
+        assertSame(object, objectStore.getNode(id));
+        assertEquals(1, objectStore.registeredObjectsCount());
+    }
+
+    @Test
+    public void testUnregisterNode() {
+
+        ObjectId id = new ObjectId("E1", "ID", 500);
+        Persistent object = mock(Persistent.class);
+        when(object.getObjectId()).thenReturn(id);
+
+        objectStore.registerNode(id, object);
+        Object unregistered = objectStore.unregisterNode(id);
+        assertSame(object, unregistered);
+        assertNull(objectStore.getNode(id));
+
+        verify(object).setObjectContext(null);
+        verify(object).setPersistenceState(PersistenceState.TRANSIENT);
+    }
+
+    @Test
+    public void testObjectsInState() {
+
+        Persistent committed = mock(Persistent.class);
+        when(committed.getPersistenceState()).thenReturn(PersistenceState.COMMITTED);
+        Persistent hollow = mock(Persistent.class);
+        when(hollow.getPersistenceState()).thenReturn(PersistenceState.HOLLOW);
+
+        objectStore.registerNode(new ObjectId("E1", "ID", 1), committed);
+        objectStore.registerNode(new ObjectId("E1", "ID", 2), hollow);
+
+        List<Persistent> objects = objectStore.objectsInState(PersistenceState.HOLLOW);
+        assertEquals(1, objects.size());
+        assertSame(hollow, objects.get(0));
+    }
+
+    @Test
+    public void testConcurrentRegisterAndLookup() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Persistent> objects = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 500;
+                final List<Persistent> batch = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    batch.add(mock(Persistent.class));
+                }
+                objects.addAll(batch);
+
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        ObjectId id = new ObjectId("E1", "ID", offset + i);
+                        objectStore.registerNode(id, batch.get(i));
+                        assertSame(batch.get(i), objectStore.getNode(id));
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(objects.size(), objectStore.registeredObjectsCount());
+    }
+}
@@ -0,0 +1,220 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.testdo.testmap.PaintingInfo;
+import org.apache.cayenne.unit.di.DataChannelInterceptor;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextBatchFaultingIT extends ServerCase {
+
+	@Inject
+	protected DataContext context;
+
+	@Inject
+	protected DBHelper dbHelper;
+
+	@Inject
+	protected DataChannelInterceptor queryInterceptor;
+
+	protected TableHelper tArtist;
+	protected TableHelper tPainting;
+	protected TableHelper tPaintingInfo;
+
+	@Before
+	public void setUp() throws Exception {
+		tArtist = new TableHelper(dbHelper, "ARTIST");
+		tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+
+		tPainting = new TableHelper(dbHelper, "PAINTING");
+		tPainting.setColumns("PAINTING_ID", "PAINTING_TITLE", "ARTIST_ID").setColumnTypes(
+				Types.INTEGER, Types.VARCHAR, Types.BIGINT);
+
+		tPaintingInfo = new TableHelper(dbHelper, "PAINTING_INFO");
+		tPaintingInfo.setColumns("PAINTING_ID", "TEXT_REVIEW");
+
+		// artist 5 has no paintings, painting 10 has no artist
+		for (int i = 1; i <= 5; i++) {
+			tArtist.insert(i, "artist" + i);
+		}
+
+		for (int i = 1; i <= 8; i++) {
+			tPainting.insert(i, "p" + i, (i + 1) / 2);
+		}
+		tPainting.insert(10, "p10", null);
+
+		tPaintingInfo.insert(2, "review2");
+		tPaintingInfo.insert(5, "review5");
+	}
+
+	@Test
+	public void testToMany() {
+		context.setBatchFaultingSize(10);
+
+		final List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc()).select(context);
+		assertEquals(5, artists.size());
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (int i = 0; i < 4; i++) {
+				List<Painting> paintings = artists.get(i).getPaintingArray();
+				assertEquals(2, paintings.size());
+				for (Painting p : paintings) {
+					assertEquals(artists.get(i), p.getToArtist());
+				}
+			}
+
+			assertEquals(0, artists.get(4).getPaintingArray().size());
+		});
+
+		assertEquals(1, queries);
+	}
+
+	@Test
+	public void testToMany_BatchSize() {
+		context.setBatchFaultingSize(2);
+
+		final List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc()).select(context);
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Artist a : artists) {
+				a.getPaintingArray().size();
+			}
+		});
+
+		assertEquals(3, queries);
+	}
+
+	@Test
+	public void testToMany_Disabled() {
+		final List<Artist> artists = ObjectSelect.query(Artist.class).select(context);
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Artist a : artists) {
+				a.getPaintingArray().size();
+			}
+		});
+
+		assertEquals(5, queries);
+	}
+
+	@Test
+	public void testToMany_ModifiedSibling() {
+		context.setBatchFaultingSize(10);
+
+		final List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc()).select(context);
+		artists.get(1).setArtistName("changed");
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Artist a : artists) {
+				a.getPaintingArray().size();
+			}
+		});
+
+		// modified object is not a part of the batch
+		assertEquals(2, queries);
+		assertEquals(2, artists.get(1).getPaintingArray().size());
+	}
+
+	@Test
+	public void testToOne_FkOnSource() {
+		context.setBatchFaultingSize(10);
+
+		final List<Painting> paintings = ObjectSelect.query(Painting.class)
+				.orderBy(Painting.PAINTING_TITLE.asc())
+				.select(context);
+		assertEquals(9, paintings.size());
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Painting p : paintings) {
+				Artist a = p.getToArtist();
+				if ("p10".equals(p.getPaintingTitle())) {
+					assertNull(a);
+				} else {
+					assertNotNull(a);
+					assertEquals(PersistenceState.COMMITTED, a.getPersistenceState());
+					assertEquals("artist" + (Integer.parseInt(p.getPaintingTitle().substring(1)) + 1) / 2,
+							a.getArtistName());
+				}
+			}
+		});
+
+		assertEquals(1, queries);
+	}
+
+	@Test
+	public void testToOne_FkOnTarget() {
+		context.setBatchFaultingSize(10);
+
+		final List<Painting> paintings = ObjectSelect.query(Painting.class)
+				.orderBy(Painting.PAINTING_TITLE.asc())
+				.select(context);
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Painting p : paintings) {
+				PaintingInfo info = p.getToPaintingInfo();
+				String title = p.getPaintingTitle();
+				if ("p2".equals(title) || "p5".equals(title)) {
+					assertNotNull(info);
+					assertEquals("review" + title.substring(1), info.getTextReview());
+				} else {
+					assertNull(info);
+				}
+			}
+		});
+
+		assertEquals(1, queries);
+	}
+
+	@Test
+	public void testNestedFetchGroups() {
+		context.setBatchFaultingSize(20);
+
+		final List<Artist> artists = ObjectSelect.query(Artist.class).select(context);
+
+		int queries = queryInterceptor.runWithQueryCounter(() -> {
+			for (Artist a : artists) {
+				for (Painting p : a.getPaintingArray()) {
+					p.getToPaintingInfo();
+				}
+			}
+		});
+
+		// paintings fetched by the batch form a fetch group of their own
+		assertEquals(2, queries);
+	}
+}
@@ -0,0 +1,138 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.SQLSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextSpilledResultIT extends ServerCase {
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DataNode node;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    @Before
+    public void before() throws Exception {
+        node.setResultSpillThreshold(3);
+        node.setResultSpillPageSize(2);
+
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 10; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+    }
+
+    @After
+    public void after() {
+        node.setResultSpillThreshold(0);
+        node.setResultSpillPageSize(DataNode.DEFAULT_RESULT_SPILL_PAGE_SIZE);
+    }
+
+    @Test
+    public void testSelectObjects() {
+        List<Artist> artists = ObjectSelect.query(Artist.class)
+                .orderBy(Artist.ARTIST_NAME.asc())
+                .select(context);
+
+        assertEquals(SpilledObjectList.class, artists.getClass());
+        assertEquals(10, artists.size());
+
+        // names are sorted as strings
+        assertEquals("artist1", artists.get(0).getArtistName());
+        assertEquals("artist10", artists.get(1).getArtistName());
+        assertEquals("artist9", artists.get(9).getArtistName());
+
+        Artist a5 = artists.get(5);
+        for (Artist a : artists) {
+            assertFalse(a.getArtistName().isEmpty());
+        }
+
+        // objects are uniqued by the context when re-read from disk
+        assertSame(a5, artists.get(5));
+        assertSame(a5, ObjectSelect.query(Artist.class, Artist.ARTIST_NAME.eq(a5.getArtistName())).selectOne(context));
+    }
+
+    @Test
+    public void testSelectObjects_BelowThreshold() {
+        List<Artist> artists = ObjectSelect.query(Artist.class)
+                .where(Artist.ARTIST_NAME.in("artist1", "artist2"))
+                .select(context);
+
+        assertEquals(ArrayList.class, artists.getClass());
+        assertEquals(2, artists.size());
+    }
+
+    @Test
+    public void testSelectDataRows() {
+        List<DataRow> rows = ObjectSelect.dataRowQuery(Artist.class)
+                .orderBy(Artist.ARTIST_NAME.asc())
+                .select(context);
+
+        assertTrue(rows instanceof SpilledDataRowList);
+        assertEquals(7, ((SpilledDataRowList) rows).getSpilledSize());
+        assertEquals(10, rows.size());
+        assertEquals("artist9", rows.get(9).get("ARTIST_NAME"));
+        assertEquals(9L, ((Number) rows.get(9).get("ARTIST_ID")).longValue());
+    }
+
+    @Test
+    public void testSQLSelect() {
+        List<Artist> artists = SQLSelect.query(Artist.class, "SELECT * FROM ARTIST ORDER BY ARTIST_ID")
+                .select(context);
+
+        assertEquals(SpilledObjectList.class, artists.getClass());
+        assertEquals(10, artists.size());
+        assertEquals("artist10", artists.get(9).getArtistName());
+
+        ((SpilledObjectList) artists).close();
+    }
+
+    @Test
+    public void testSelectScalars() {
+        List<String> names = ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME).select(context);
+        assertEquals(10, names.size());
+    }
+}
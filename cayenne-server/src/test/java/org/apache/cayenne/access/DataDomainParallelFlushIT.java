@@ -0,0 +1,116 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.testdo.db1.CrossdbM1E1;
+import org.apache.cayenne.testdo.db2.CrossdbM2E1;
+import org.apache.cayenne.testdo.db2.CrossdbM2E2;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@UseServerRuntime(CayenneProjects.MULTINODE_PROJECT)
+public class DataDomainParallelFlushIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private DataContext context;
+
+    private AtomicInteger flushThreads;
+
+    @Before
+    public void enableParallelFlush() {
+        flushThreads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            flushThreads.incrementAndGet();
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        runtime.getDataDomain().setFlushExecutor(executor);
+    }
+
+    @After
+    public void disableParallelFlush() {
+        runtime.getDataDomain().getFlushExecutor().shutdown();
+        runtime.getDataDomain().setFlushExecutor(null);
+    }
+
+    // PK generation for multiple nodes sharing the same test DB within a single transaction
+    // may lock up on some DBs (see UnitDbAdapter.supportsPKGeneratorConcurrency()), so
+    // assigning the ids upfront
+    private static <T extends Persistent> T withId(T object, int id) {
+        object.getObjectId().getReplacementIdMap().put("ID", id);
+        return object;
+    }
+
+    @Test
+    public void testIndependentNodes() {
+
+        for (int i = 1; i <= 5; i++) {
+            withId(context.newObject(CrossdbM1E1.class), i).setName("m1_" + i);
+            withId(context.newObject(CrossdbM2E1.class), i).setName("m2_" + i);
+        }
+        context.commitChanges();
+
+        assertTrue(flushThreads.get() > 0);
+        assertEquals(5, ObjectSelect.query(CrossdbM1E1.class).selectCount(context));
+        assertEquals(5, ObjectSelect.query(CrossdbM2E1.class).selectCount(context));
+    }
+
+    @Test
+    public void testRelatedNodes() {
+
+        CrossdbM1E1 o1 = withId(context.newObject(CrossdbM1E1.class), 1);
+        o1.setName("o1");
+
+        CrossdbM2E1 o2 = withId(context.newObject(CrossdbM2E1.class), 1);
+        o2.setName("o2");
+
+        CrossdbM2E2 o3 = withId(context.newObject(CrossdbM2E2.class), 1);
+        o3.setName("o3");
+        o3.setToM1E1(o1);
+        o3.setToM2E1(o2);
+        context.commitChanges();
+
+        // nodes are connected via CROSSDB_M2E2 relationships, so must be flushed sequentially
+        assertEquals(0, flushThreads.get());
+
+        CrossdbM2E2 fetched = ObjectSelect.query(CrossdbM2E2.class).selectOne(runtime.newContext());
+        assertEquals("o1", fetched.getToM1E1().getName());
+        assertEquals("o2", fetched.getToM2E1().getName());
+    }
+}
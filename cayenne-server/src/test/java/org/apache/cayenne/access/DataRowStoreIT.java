@@ -30,11 +30,15 @@ import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.After;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -123,4 +127,164 @@ public class DataRowStoreIT extends ServerCase {
         assertNotNull(cache.getCachedSnapshot(key3));
         assertNull(cache.getCachedSnapshot(key1));
     }
+
+    @Test
+    public void testMaxBytes() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_MAX_BYTES_PROPERTY, String.valueOf(3000));
+
+        cache = new DataRowStore("cacheXYZ", new DefaultRuntimeProperties(props), null);
+
+        ObjectId key1 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        ObjectId key2 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 2);
+        ObjectId key3 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 3);
+
+        DataRow small = new DataRow(2);
+        small.put("ARTIST_NAME", "a");
+
+        // ~2.8K of chars
+        DataRow large = new DataRow(2);
+        large.put("ARTIST_NAME", new String(new char[1400]));
+
+        cacheSnapshot(key1, small);
+        cacheSnapshot(key2, small);
+        assertEquals(2, cache.size());
+
+        // a single large row must push out the small ones, even though the entry count is low
+        cacheSnapshot(key3, large);
+        assertNotNull(cache.getCachedSnapshot(key3));
+        assertTrue(cache.size() < 3);
+        assertTrue(cache.getStatistics().getEvictionCount() > 0);
+        assertTrue(cache.getStatistics().getWeightedSize() <= 3000);
+        assertEquals(1, cache.getStatistics().getWeightUnitBytes());
+    }
+
+    @Test
+    public void testTtl() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_TTL_PROPERTY, String.valueOf(10));
+        props.put(Constants.SNAPSHOT_CACHE_TTL_PROPERTY + ".Painting", String.valueOf(0));
+
+        final long[] now = {1000};
+        cache = new DataRowStore("cacheXYZ", new DefaultRuntimeProperties(props), null) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+        };
+
+        ObjectId artistId = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        ObjectId paintingId = new ObjectId("Painting", "PAINTING_ID", 1);
+        cacheSnapshot(artistId, new DataRow(1));
+        cacheSnapshot(paintingId, new DataRow(1));
+
+        now[0] += 9999;
+        assertNotNull(cache.getCachedSnapshot(artistId));
+
+        now[0] += 1;
+        assertNull(cache.getCachedSnapshot(artistId));
+        assertEquals(1, cache.getStatistics().getExpirationCount());
+
+        // per-entity override disables expiration
+        assertNotNull(cache.getCachedSnapshot(paintingId));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testStatistics() {
+        cache = new DataRowStore(
+                "cacheXYZ",
+                new DefaultRuntimeProperties(Collections.<String, String>emptyMap()),
+                null);
+
+        ObjectId key1 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        ObjectId key2 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 2);
+        cacheSnapshot(key1, new DataRow(1));
+
+        assertNotNull(cache.getCachedSnapshot(key1));
+        assertNotNull(cache.getCachedSnapshot(key1));
+        assertNull(cache.getCachedSnapshot(key2));
+
+        DataRowStoreStatistics stats = cache.getStatistics();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 0.0001);
+        assertEquals(1, stats.getSize());
+        assertEquals(DataRowStore.SNAPSHOT_CACHE_SIZE_DEFAULT, stats.getCapacity());
+        assertEquals(0, stats.getWeightUnitBytes());
+
+        stats.reset();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(0, stats.getMissCount());
+    }
+
+    @Test
+    public void testJmxRegistration() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_JMX_PROPERTY, "true");
+
+        cache = new DataRowStore("cacheJMX", new DefaultRuntimeProperties(props), null);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.apache.cayenne:type=DataRowStore,name=" + ObjectName.quote("cacheJMX"));
+        assertFalse(server.isRegistered(name));
+
+        cache.registerMBean();
+        assertTrue(server.isRegistered(name));
+        assertEquals(0L, server.getAttribute(name, "HitCount"));
+
+        cache.shutdown();
+        cache = null;
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testOffHeapTier() {
+        Map<String, String> props = new HashMap<>();
+        props.put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, String.valueOf(2));
+        props.put(Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY, String.valueOf(1024 * 1024));
+        props.put(Constants.SNAPSHOT_CACHE_OFF_HEAP_SLAB_SIZE_PROPERTY, String.valueOf(64 * 1024));
+
+        cache = new DataRowStore("cacheXYZ", new DefaultRuntimeProperties(props), null);
+
+        ObjectId key1 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        ObjectId key2 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 2);
+        ObjectId key3 = new ObjectId("Artist", Artist.ARTIST_ID_PK_COLUMN, 3);
+
+        DataRow row1 = new DataRow(2);
+        row1.put("ARTIST_NAME", "a1");
+        cacheSnapshot(key1, row1);
+        cacheSnapshot(key2, new DataRow(1));
+
+        // overflow the heap, pushing the first snapshot off-heap
+        cacheSnapshot(key3, new DataRow(1));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.offHeapSize());
+
+        DataRow restored = cache.getCachedSnapshot(key1);
+        assertNotNull(restored);
+        assertEquals("a1", restored.get("ARTIST_NAME"));
+        assertEquals(row1.getVersion(), restored.getVersion());
+        assertEquals(1, cache.getStatistics().getOffHeapHitCount());
+        assertEquals(1, cache.getStatistics().getHitCount());
+
+        // promoted snapshot pushes another one off-heap
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.offHeapSize());
+
+        cache.forgetSnapshot(key2);
+        cache.forgetSnapshot(key3);
+        assertNull(cache.getCachedSnapshot(key2));
+        assertNull(cache.getCachedSnapshot(key3));
+        assertEquals(0, cache.offHeapSize());
+    }
+
+    private void cacheSnapshot(ObjectId id, DataRow snapshot) {
+        cache.processSnapshotChanges(
+                this,
+                Collections.singletonMap(id, snapshot),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList());
+    }
 }
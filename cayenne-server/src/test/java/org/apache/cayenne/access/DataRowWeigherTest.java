@@ -0,0 +1,72 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DataRowWeigherTest {
+
+    @Test
+    public void testWeightOf_LargerValuesWeighMore() {
+        DataRowWeigher weigher = new DataRowWeigher();
+
+        DataRow small = new DataRow(2);
+        small.put("A", 1);
+        small.put("B", "b");
+
+        DataRow large = new DataRow(2);
+        large.put("A", 1);
+        large.put("B", new String(new char[10000]));
+
+        assertTrue(weigher.weightOf(large) > 20000);
+        assertTrue(weigher.weightOf(small) < 500);
+    }
+
+    @Test
+    public void testWeightOf_ByteArray() {
+        DataRow row = new DataRow(1);
+        row.put("A", new byte[1000]);
+
+        long expected = DataRowWeigher.ROW_OVERHEAD + DataRowWeigher.ENTRY_OVERHEAD
+                + DataRowWeigher.ARRAY_OVERHEAD + 1000;
+        assertEquals(expected, DataRowWeigher.estimateSize(row));
+    }
+
+    @Test
+    public void testWeightOf_Units() {
+        DataRow row = new DataRow(1);
+        row.put("A", new byte[1000]);
+
+        DataRowWeigher weigher = new DataRowWeigher(1024);
+        assertEquals(2, weigher.weightOf(row));
+
+        // never less than one unit
+        assertEquals(1, weigher.weightOf(new DataRow(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidUnit() {
+        new DataRowWeigher(0);
+    }
+}
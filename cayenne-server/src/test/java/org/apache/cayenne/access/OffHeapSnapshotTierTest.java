@@ -0,0 +1,149 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapSnapshotTierTest {
+
+    private static ObjectId id(int i) {
+        return new ObjectId("Artist", "ARTIST_ID", i);
+    }
+
+    private static DataRow row(String value) {
+        DataRow row = new DataRow(2);
+        row.put("ARTIST_NAME", value);
+        return row;
+    }
+
+    @Test
+    public void testPutGet() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(64 * 1024, 16 * 1024, null);
+
+        DataRow row = row("abc");
+        row.setReplacesVersion(5);
+        assertTrue(tier.put(id(1), row));
+        assertEquals(1, tier.size());
+
+        DataRow restored = tier.get(id(1));
+        assertNotNull(restored);
+        assertEquals("abc", restored.get("ARTIST_NAME"));
+        assertEquals(row.getVersion(), restored.getVersion());
+        assertEquals(5, restored.getReplacesVersion());
+
+        assertNull(tier.get(id(2)));
+    }
+
+    @Test
+    public void testPutReplace() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(64 * 1024, 16 * 1024, null);
+
+        tier.put(id(1), row("a"));
+        tier.put(id(1), row("b"));
+        assertEquals(1, tier.size());
+        assertEquals("b", tier.get(id(1)).get("ARTIST_NAME"));
+    }
+
+    @Test
+    public void testRemove() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(64 * 1024, 16 * 1024, null);
+
+        tier.put(id(1), row("a"));
+        tier.put(id(2), row("b"));
+
+        assertEquals("a", tier.remove(id(1)).get("ARTIST_NAME"));
+        assertNull(tier.remove(id(1)));
+
+        tier.invalidate(id(2));
+        assertNull(tier.get(id(2)));
+        assertEquals(0, tier.size());
+    }
+
+    @Test
+    public void testOverwriteOldest() {
+        final List<ObjectId> dropped = new ArrayList<>();
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(4096, 1024, dropped::add);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tier.put(id(i), row("value" + i)));
+        }
+
+        // the most recent snapshots must survive, the oldest must be overwritten
+        assertEquals("value99", tier.get(id(99)).get("ARTIST_NAME"));
+        assertNull(tier.get(id(0)));
+        assertFalse(dropped.isEmpty());
+        assertEquals(id(0), dropped.get(0));
+        assertEquals(100, tier.size() + dropped.size());
+
+        for (int i = 0; i < 100; i++) {
+            DataRow row = tier.get(id(i));
+            if (row != null) {
+                assertEquals("value" + i, row.get("ARTIST_NAME"));
+            }
+        }
+    }
+
+    @Test
+    public void testPutTooLarge() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(4096, 1024, null);
+        assertFalse(tier.put(id(1), row(new String(new char[2000]))));
+        assertEquals(0, tier.size());
+    }
+
+    @Test
+    public void testPutNotSerializable() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(4096, 1024, null);
+        tier.put(id(1), row("a"));
+
+        DataRow row = new DataRow(2);
+        row.put("ARTIST_NAME", new Object());
+        assertFalse(tier.put(id(1), row));
+        assertEquals(0, tier.size());
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapSnapshotTier tier = new OffHeapSnapshotTier(4096, 1024, null);
+        tier.put(id(1), row("a"));
+        tier.clear();
+        assertEquals(0, tier.size());
+        assertNull(tier.get(id(1)));
+
+        // slabs are allocated again after clear
+        assertTrue(tier.put(id(1), row("b")));
+        assertEquals("b", tier.get(id(1)).get("ARTIST_NAME"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new OffHeapSnapshotTier(512, 1024, null);
+    }
+}
@@ -0,0 +1,212 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ResultIterator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SpilledDataRowListTest {
+
+    @Test
+    public void testReadRows() {
+        List<DataRow> source = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            DataRow row = new DataRow(10);
+            row.put("ID", i);
+            row.put("NAME", "n" + i);
+            row.put("AMOUNT", new BigDecimal("12.34").add(BigDecimal.valueOf(i)));
+            row.put("BIG", BigInteger.TEN.pow(30));
+            row.put("TS", new Timestamp(1000L * i));
+            row.put("DATE", new Date(1000L * i));
+            row.put("BYTES", new byte[] { (byte) i, 1 });
+            row.put("LIST", new ArrayList<>(Arrays.asList("x", i)));
+            row.put("EMPTY", null);
+            row.setEntityName(i % 2 == 0 ? "E1" : null);
+            source.add(row);
+        }
+
+        // a row with different keys
+        DataRow extra = new DataRow(2);
+        extra.put("ID", 7L);
+        source.add(extra);
+
+        List<?> result = SpilledDataRowList.readRows(new ListResultIterator<>(source), 3, 2);
+        assertTrue(result instanceof SpilledDataRowList);
+
+        SpilledDataRowList rows = (SpilledDataRowList) result;
+        assertEquals(8, rows.size());
+        assertEquals(5, rows.getSpilledSize());
+
+        for (int i = 0; i < 7; i++) {
+            DataRow expected = source.get(i);
+            DataRow actual = rows.get(i);
+
+            assertEquals(expected.keySet(), actual.keySet());
+            assertEquals(expected.get("ID"), actual.get("ID"));
+            assertEquals(expected.get("NAME"), actual.get("NAME"));
+            assertEquals(expected.get("AMOUNT"), actual.get("AMOUNT"));
+            assertEquals(expected.get("BIG"), actual.get("BIG"));
+            assertEquals(expected.get("TS"), actual.get("TS"));
+            assertEquals(expected.get("DATE"), actual.get("DATE"));
+            assertArrayEquals((byte[]) expected.get("BYTES"), (byte[]) actual.get("BYTES"));
+            assertEquals(expected.get("LIST"), actual.get("LIST"));
+            assertNull(actual.get("EMPTY"));
+            assertTrue(actual.containsKey("EMPTY"));
+            assertEquals(expected.getEntityName(), actual.getEntityName());
+        }
+
+        assertEquals(extra, rows.get(7));
+
+        // read pages out of order
+        assertEquals("n3", rows.get(3).get("NAME"));
+        assertEquals("n6", rows.get(6).get("NAME"));
+    }
+
+    @Test
+    public void testReadRows_BelowThreshold() {
+        List<DataRow> source = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DataRow row = new DataRow(1);
+            row.put("ID", i);
+            source.add(row);
+        }
+
+        List<?> result = SpilledDataRowList.readRows(new ListResultIterator<>(source), 3, 2);
+        assertFalse(result instanceof SpilledDataRowList);
+        assertEquals(source, result);
+    }
+
+    @Test
+    public void testReadRows_NotDataRows() {
+        List<Object> source = Arrays.asList("a", "b", "c", "d", "e");
+
+        List<?> result = SpilledDataRowList.readRows(new ListResultIterator<>(source), 2, 2);
+        assertFalse(result instanceof SpilledDataRowList);
+        assertEquals(source, result);
+    }
+
+    @Test
+    public void testClose() {
+        List<DataRow> source = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            DataRow row = new DataRow(1);
+            row.put("ID", i);
+            source.add(row);
+        }
+
+        SpilledDataRowList rows = (SpilledDataRowList) SpilledDataRowList
+                .readRows(new ListResultIterator<>(source), 2, 2);
+        rows.close();
+
+        // heap rows are still accessible, spilled rows are not
+        assertEquals(0, rows.get(1).get("ID"));
+
+        try {
+            rows.get(3);
+            fail("Spilled rows must not be readable after close");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReadRows_NotSerializable() {
+        List<DataRow> source = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            DataRow row = new DataRow(2);
+            row.put("ID", i);
+            row.put("VALUE", i == 4 ? new Object() : "v" + i);
+            source.add(row);
+        }
+
+        List<?> result = SpilledDataRowList.readRows(new ListResultIterator<>(source), 1, 2);
+        assertFalse(result instanceof SpilledDataRowList);
+        assertEquals(source.size(), result.size());
+
+        for (int i = 0; i < source.size(); i++) {
+            DataRow expected = source.get(i);
+            DataRow actual = (DataRow) result.get(i);
+            assertEquals(expected.get("ID"), actual.get("ID"));
+            if (i != 4) {
+                assertEquals(expected.get("VALUE"), actual.get("VALUE"));
+            }
+        }
+
+        assertSame(source.get(4).get("VALUE"), ((DataRow) result.get(4)).get("VALUE"));
+    }
+
+    static class ListResultIterator<T> implements ResultIterator<T> {
+
+        private final Iterator<T> iterator;
+
+        ListResultIterator(List<T> values) {
+            this.iterator = values.iterator();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return iterator;
+        }
+
+        @Override
+        public List<T> allRows() {
+            List<T> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+            return rows;
+        }
+
+        @Override
+        public boolean hasNextRow() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T nextRow() {
+            return iterator.next();
+        }
+
+        @Override
+        public void skipRow() {
+            iterator.next();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
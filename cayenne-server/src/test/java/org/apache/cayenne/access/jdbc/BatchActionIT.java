@@ -19,12 +19,18 @@
 
 package org.apache.cayenne.access.jdbc;
 
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.OperationObserver;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
+import org.apache.cayenne.access.translator.batch.DefaultBatchTranslatorFactory;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
 import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.apache.cayenne.dba.JdbcAdapter;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.log.JdbcEventLogger;
 import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.query.InsertBatchQuery;
 import org.apache.cayenne.testdo.testmap.Artist;
@@ -33,8 +39,21 @@ import org.apache.cayenne.unit.di.server.ServerCase;
 import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
 public class BatchActionIT extends ServerCase {
@@ -77,6 +96,179 @@ public class BatchActionIT extends ServerCase {
         assertFalse(new BatchAction(batch2, node, false).hasGeneratedKeys());
     }
 
+    @Test
+    public void testRunAsBatch_BatchSize() throws Exception {
+        JdbcAdapter adapter = buildAdapter(false);
+
+        DataNode node = buildNode(adapter);
+        node.setBatchSize(2);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{1, 1}, new int[]{1});
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        OperationObserver observer = mock(OperationObserver.class);
+        new BatchAction(batch, node, true).performAction(connection, observer);
+
+        verify(statement, times(5)).addBatch();
+        verify(statement, times(3)).executeBatch();
+        verify(observer).nextBatchCount(batch, new int[]{1, 1, 1, 1, 1});
+    }
+
+    @Test
+    public void testRunAsMultiRowInsert() throws Exception {
+        JdbcAdapter adapter = buildAdapter(false);
+        adapter.setSupportsMultiRowInsert(true);
+
+        DataNode node = buildNode(adapter);
+        node.setMultiRowInsertSize(2);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenReturn(2, 2, 1);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        OperationObserver observer = mock(OperationObserver.class);
+        new BatchAction(batch, node, true).performAction(connection, observer);
+
+        verify(connection).prepareStatement(
+                "INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME, DATE_OF_BIRTH) VALUES (?, ?, ?), (?, ?, ?)");
+        verify(connection).prepareStatement("INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME, DATE_OF_BIRTH) VALUES (?, ?, ?)");
+        verify(statement, times(3)).executeUpdate();
+        verify(observer, times(2)).nextCount(batch, 2);
+        verify(observer).nextCount(batch, 1);
+    }
+
+    @Test
+    public void testRunAsBulkInsert() throws Exception {
+        DataNode node = buildNode(buildAdapter(false));
+        node.setBulkInsertThreshold(3);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+        Connection connection = mock(Connection.class);
+        OperationObserver observer = mock(OperationObserver.class);
+
+        final BulkInsertStrategy strategy = mock(BulkInsertStrategy.class);
+        when(strategy.insert(same(connection), same(batch), any(InsertBatchTranslator.class), same(node)))
+                .thenReturn(5L);
+
+        new BatchAction(batch, node, true) {
+            @Override
+            protected BulkInsertStrategy createBulkInsertStrategy() {
+                return strategy;
+            }
+        }.performAction(connection, observer);
+
+        verify(connection, never()).prepareStatement(anyString());
+        verify(observer).nextCount(batch, 5);
+    }
+
+    @Test
+    public void testRunAsBulkInsert_BelowThreshold() throws Exception {
+        DataNode node = buildNode(buildAdapter(false));
+        node.setBulkInsertThreshold(6);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenReturn(1);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        final BulkInsertStrategy strategy = mock(BulkInsertStrategy.class);
+
+        new BatchAction(batch, node, false) {
+            @Override
+            protected BulkInsertStrategy createBulkInsertStrategy() {
+                return strategy;
+            }
+        }.performAction(connection, mock(OperationObserver.class));
+
+        verifyZeroInteractions(strategy);
+        verify(statement, times(5)).executeUpdate();
+    }
+
+    @Test
+    public void testRunAsBulkInsert_Fallback() throws Exception {
+        DataNode node = buildNode(buildAdapter(false));
+        node.setBulkInsertThreshold(3);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenReturn(1);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        final BulkInsertStrategy strategy = mock(BulkInsertStrategy.class);
+        when(strategy.insert(any(Connection.class), any(InsertBatchQuery.class), any(InsertBatchTranslator.class),
+                any(DataNode.class))).thenReturn(-1L);
+
+        OperationObserver observer = mock(OperationObserver.class);
+        new BatchAction(batch, node, false) {
+            @Override
+            protected BulkInsertStrategy createBulkInsertStrategy() {
+                return strategy;
+            }
+        }.performAction(connection, observer);
+
+        verify(statement, times(5)).executeUpdate();
+        verify(observer, times(5)).nextCount(batch, 1);
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testRunAsBulkInsert_RowCountMismatch() throws Exception {
+        DataNode node = buildNode(buildAdapter(false));
+        node.setBulkInsertThreshold(3);
+
+        InsertBatchQuery batch = buildArtistInsert(5);
+        Connection connection = mock(Connection.class);
+
+        final BulkInsertStrategy strategy = mock(BulkInsertStrategy.class);
+        when(strategy.insert(any(Connection.class), any(InsertBatchQuery.class), any(InsertBatchTranslator.class),
+                any(DataNode.class))).thenReturn(4L);
+
+        new BatchAction(batch, node, false) {
+            @Override
+            protected BulkInsertStrategy createBulkInsertStrategy() {
+                return strategy;
+            }
+        }.performAction(connection, mock(OperationObserver.class));
+    }
+
+    private DataNode buildNode(JdbcAdapter adapter) {
+        DataNode node = new DataNode();
+        node.setAdapter(adapter);
+        node.setEntityResolver(runtime.getChannel().getEntityResolver());
+        node.setRowReaderFactory(mock(RowReaderFactory.class));
+        node.setJdbcEventLogger(mock(JdbcEventLogger.class));
+        node.setBatchTranslatorFactory(new DefaultBatchTranslatorFactory());
+        return node;
+    }
+
+    private InsertBatchQuery buildArtistInsert(int rows) {
+        EntityResolver resolver = runtime.getChannel().getEntityResolver();
+        InsertBatchQuery batch = new InsertBatchQuery(resolver.getObjEntity(Artist.class).getDbEntity(), rows);
+
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("ARTIST_ID", (long) i);
+            snapshot.put("ARTIST_NAME", "a" + i);
+            batch.add(snapshot, new ObjectId("Artist", "ARTIST_ID", i));
+        }
+
+        return batch;
+    }
+
     JdbcAdapter buildAdapter(boolean supportGeneratedKeys) {
         JdbcAdapter adapter = objectFactory.newInstance(JdbcAdapter.class, JdbcAdapter.class.getName());
         adapter.setSupportsGeneratedKeys(supportGeneratedKeys);
@@ -0,0 +1,95 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.testdo.generated.GeneratedColumnTestEntity;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@UseServerRuntime(CayenneProjects.GENERATED_PROJECT)
+public class BatchAction_GeneratedKeysIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DataNode node;
+
+    @Before
+    public void before() {
+        node.setBatchSize(3);
+    }
+
+    @After
+    public void after() {
+        node.setBatchSize(0);
+    }
+
+    @Test
+    public void testCommit() {
+
+        // also runs for the adapters that don't support batch generated keys, checking
+        // that multi-row identity inserts fall back to per-row key retrieval
+        if (!node.getAdapter().supportsGeneratedKeys()) {
+            return;
+        }
+
+        List<GeneratedColumnTestEntity> objects = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            GeneratedColumnTestEntity o = context.newObject(GeneratedColumnTestEntity.class);
+            o.setName("n" + i);
+            objects.add(o);
+        }
+
+        context.commitChanges();
+
+        Set<Object> ids = new HashSet<>();
+        ObjectContext freshContext = runtime.newContext();
+        for (GeneratedColumnTestEntity o : objects) {
+            assertFalse(o.getObjectId().isTemporary());
+            assertTrue(ids.add(Cayenne.pkForObject(o)));
+
+            // keys must be matched to the rows they were generated for
+            GeneratedColumnTestEntity fetched = Cayenne.objectForPK(freshContext, GeneratedColumnTestEntity.class,
+                    Cayenne.intPKForObject(o));
+            assertEquals(o.getName(), fetched.getName());
+        }
+    }
+}
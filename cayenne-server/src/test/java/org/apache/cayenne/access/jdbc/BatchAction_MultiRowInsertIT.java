@@ -0,0 +1,77 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class BatchAction_MultiRowInsertIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private DataContext context;
+
+    private DataNode node;
+
+    @Before
+    public void before() {
+        node = runtime.getDataDomain().getDataNodes().iterator().next();
+        node.setMultiRowInsertSize(4);
+        node.setBatchSize(3);
+    }
+
+    @After
+    public void after() {
+        node.setMultiRowInsertSize(0);
+        node.setBatchSize(0);
+    }
+
+    @Test
+    public void testCommit() {
+        for (int i = 0; i < 11; i++) {
+            Artist a = context.newObject(Artist.class);
+            a.setArtistName("artist" + i);
+        }
+
+        context.commitChanges();
+
+        List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc())
+                .select(runtime.newContext());
+        assertEquals(11, artists.size());
+        assertEquals("artist0", artists.get(0).getArtistName());
+        assertEquals("artist9", artists.get(10).getArtistName());
+    }
+}
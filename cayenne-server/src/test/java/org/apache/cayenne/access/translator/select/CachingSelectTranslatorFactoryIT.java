@@ -0,0 +1,194 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.SelectQuery;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class CachingSelectTranslatorFactoryIT extends ServerCase {
+
+	@Inject
+	private DataContext context;
+
+	@Inject
+	private DataNode dataNode;
+
+	@Inject
+	private DBHelper dbHelper;
+
+	private CachingSelectTranslatorFactory factory;
+
+	@Before
+	public void before() throws Exception {
+		factory = new CachingSelectTranslatorFactory(10);
+
+		TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+		tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+		for (int i = 1; i <= 5; i++) {
+			tArtist.insert(i, "artist" + i);
+		}
+
+		TableHelper tPaintings = new TableHelper(dbHelper, "PAINTING");
+		tPaintings.setColumns("PAINTING_ID", "PAINTING_TITLE", "ARTIST_ID");
+		for (int i = 1; i <= 5; i++) {
+			tPaintings.insert(i, "painting" + i, i);
+		}
+	}
+
+	private SelectTranslator translator(SelectQuery<?> query) {
+		return factory.translator(query, dataNode.getAdapter(), dataNode.getEntityResolver());
+	}
+
+	@Test
+	public void testSameShape() throws Exception {
+		SelectTranslator t1 = translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a1")));
+		String sql = t1.getSql();
+		assertEquals(1, factory.getCacheSize());
+
+		SelectTranslator t2 = translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a2")));
+		assertEquals(sql, t2.getSql());
+		assertEquals(1, factory.getCacheSize());
+
+		DbAttributeBinding[] bindings = t2.getBindings();
+		assertEquals(1, bindings.length);
+		assertEquals("a2", bindings[0].getValue());
+		assertEquals(1, bindings[0].getStatementPosition());
+		assertSame(t1.getBindings()[0].getAttribute(), bindings[0].getAttribute());
+		assertSame(t1.getBindings()[0].getExtendedType(), bindings[0].getExtendedType());
+
+		assertEquals(t1.getResultColumns().length, t2.getResultColumns().length);
+		assertNotSame(t1.getResultColumns()[0], t2.getResultColumns()[0]);
+		assertEquals(t1.isSuppressingDistinct(), t2.isSuppressingDistinct());
+		assertEquals(t1.hasJoins(), t2.hasJoins());
+	}
+
+	@Test
+	public void testDifferentShapes() throws Exception {
+		translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.in("a1", "a2"))).getSql();
+		translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.in("a1", "a2", "a3"))).getSql();
+		translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.like("a1"))).getSql();
+		translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a1"))).getSql();
+		translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.isNull())).getSql();
+		assertEquals(5, factory.getCacheSize());
+
+		SelectTranslator t1 = translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.in("b1", "b2", "b3")));
+		assertEquals(5, factory.getCacheSize());
+
+		DbAttributeBinding[] bindings = t1.getBindings();
+		assertEquals(3, bindings.length);
+		assertEquals("b1", bindings[0].getValue());
+		assertEquals("b2", bindings[1].getValue());
+		assertEquals("b3", bindings[2].getValue());
+
+		SelectQuery<Artist> paged = new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a1"));
+		paged.setFetchLimit(2);
+		translator(paged).getSql();
+		assertEquals(6, factory.getCacheSize());
+	}
+
+	@Test
+	public void testObjectLiteralNotCached() throws Exception {
+		Artist artist = Cayenne.objectForPK(context, Artist.class, 1);
+
+		SelectTranslator translator = translator(new SelectQuery<>(Painting.class, Painting.TO_ARTIST.eq(artist)));
+		translator.getSql();
+		assertEquals(0, factory.getCacheSize());
+	}
+
+	@Test
+	public void testRunQueries() {
+		SelectTranslatorFactory defaultFactory = dataNode.getSelectTranslatorFactory();
+		dataNode.setSelectTranslatorFactory(factory);
+		try {
+			List<Artist> a1 = ObjectSelect.query(Artist.class)
+					.where(Artist.ARTIST_NAME.in("artist1", "artist3"))
+					.orderBy(Artist.ARTIST_NAME.asc())
+					.select(context);
+			assertEquals(2, a1.size());
+			assertEquals("artist1", a1.get(0).getArtistName());
+			assertEquals("artist3", a1.get(1).getArtistName());
+
+			List<Artist> a2 = ObjectSelect.query(Artist.class)
+					.where(Artist.ARTIST_NAME.in("artist2", "artist5"))
+					.orderBy(Artist.ARTIST_NAME.asc())
+					.select(context);
+			assertEquals(2, a2.size());
+			assertEquals("artist2", a2.get(0).getArtistName());
+			assertEquals("artist5", a2.get(1).getArtistName());
+
+			List<String> titles1 = ObjectSelect.columnQuery(Painting.class, Painting.PAINTING_TITLE)
+					.where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist4"))
+					.select(context);
+			assertEquals(Arrays.asList("painting4"), titles1);
+
+			List<String> titles2 = ObjectSelect.columnQuery(Painting.class, Painting.PAINTING_TITLE)
+					.where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist2"))
+					.select(context);
+			assertEquals(Arrays.asList("painting2"), titles2);
+
+			List<String> names1 = ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME.substring(1, 3))
+					.where(Artist.ARTIST_NAME.eq("artist1"))
+					.select(context);
+			assertEquals(Arrays.asList("art"), names1);
+
+			List<String> names2 = ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME.substring(2, 4))
+					.where(Artist.ARTIST_NAME.eq("artist1"))
+					.select(context);
+			assertEquals(Arrays.asList("rtis"), names2);
+
+			assertEquals(3, factory.getCacheSize());
+		} finally {
+			dataNode.setSelectTranslatorFactory(defaultFactory);
+		}
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		factory = new CachingSelectTranslatorFactory(0);
+
+		SelectTranslator t1 = translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a1")));
+		SelectTranslator t2 = translator(new SelectQuery<>(Artist.class, Artist.ARTIST_NAME.eq("a2")));
+		assertEquals(t1.getSql(), t2.getSql());
+		assertNotEquals(t1.getBindings()[0].getValue(), t2.getBindings()[0].getValue());
+		assertEquals(0, factory.getCacheSize());
+	}
+}
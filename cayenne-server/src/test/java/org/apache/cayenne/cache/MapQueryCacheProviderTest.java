@@ -0,0 +1,59 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.DIBootstrap;
+import org.apache.cayenne.di.Injector;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapQueryCacheProviderTest {
+
+    private static String mbeanName(Map<String, String> properties, String... locations) {
+        RuntimeProperties runtimeProperties = new DefaultRuntimeProperties(properties);
+        Injector injector = DIBootstrap.createInjector(binder -> {
+            if (locations.length > 0) {
+                binder.bindList(String.class, Constants.SERVER_PROJECT_LOCATIONS_LIST).addAll(Arrays.asList(locations));
+            }
+        });
+
+        return MapQueryCacheProvider.mbeanName(runtimeProperties, injector);
+    }
+
+    @Test
+    public void testMBeanName() {
+        Map<String, String> noProperties = Collections.emptyMap();
+
+        assertEquals("project", mbeanName(noProperties, "cayenne-project.xml"));
+        assertEquals("p2", mbeanName(noProperties, "cayenne-p1.xml", "com/example/cayenne-p2.xml"));
+        assertEquals("cayenne", mbeanName(noProperties, "project.xml"));
+        assertEquals("cayenne", mbeanName(noProperties));
+
+        assertEquals("domain", mbeanName(Collections.singletonMap(Constants.SERVER_DOMAIN_NAME_PROPERTY, "domain"),
+                "cayenne-project.xml"));
+    }
+}
@@ -22,10 +22,19 @@ import org.apache.cayenne.query.MockQueryMetadata;
 import org.apache.cayenne.util.Util;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MapQueryCacheTest {
 
@@ -47,4 +56,98 @@ public class MapQueryCacheTest {
         assertNotNull(deserialized);
         assertEquals(1, deserialized.size());
     }
+
+    @Test
+    public void testStats() {
+        MapQueryCache cache = new MapQueryCache(5);
+        MockQueryMetadata md = metadata("key", "g1");
+
+        assertNull(cache.get(md));
+        cache.put(md, new ArrayList<>());
+        assertNotNull(cache.get(md));
+        assertNotNull(cache.get(md));
+
+        QueryCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getPutCount());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 0.0001);
+        assertEquals(1, stats.getSize());
+        assertArrayEquals(new String[]{"g1"}, stats.getGroupNames());
+        assertEquals(2, stats.getGroupHitCount("g1"));
+        assertEquals(1, stats.getGroupSize("g1"));
+        assertEquals(0, stats.getGroupHitCount("g2"));
+
+        stats.reset();
+        assertEquals(0, stats.getHitCount());
+    }
+
+    @Test
+    public void testStats_Load() {
+        MapQueryCache cache = new MapQueryCache(5);
+        MockQueryMetadata md = metadata("key", "g1");
+
+        cache.get(md, () -> Collections.singletonList("x"));
+        cache.get(md, () -> Collections.singletonList("y"));
+
+        QueryCacheStats.GroupStats stats = cache.getStats().getGroupStats("g1");
+        assertEquals(1, stats.getLoadCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertTrue(stats.getTotalLoadTimeNanos() >= 0);
+    }
+
+    @Test
+    public void testStats_Eviction() {
+        MapQueryCache cache = new MapQueryCache(2);
+        for (int i = 0; i < 5; i++) {
+            cache.put(metadata("key" + i, "g1"), new ArrayList<>());
+        }
+
+        assertEquals(3, cache.getStats().getGroupEvictionCount("g1"));
+        assertEquals(2, cache.getStats().getGroupSize("g1"));
+    }
+
+    @Test
+    public void testStats_Nested() {
+        MapQueryCache cache = new MapQueryCache(5);
+        NestedQueryCache nested = new NestedQueryCache(cache);
+        nested.get(metadata("key", "g1"));
+
+        assertSame(cache.getStats(), nested.getStats());
+        assertEquals(1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    public void testStats_MBean() throws Exception {
+        MapQueryCache cache = new MapQueryCache(5);
+        cache.getStats().registerMBean("testStats_MBean");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.apache.cayenne:type=QueryCache,name=" + ObjectName.quote("testStats_MBean"));
+        try {
+            cache.get(metadata("key", "g1"));
+            assertEquals(1L, server.getAttribute(name, "MissCount"));
+            assertEquals(1L, server.invoke(name, "getGroupMissCount", new Object[]{"g1"}, new String[]{String.class.getName()}));
+        } finally {
+            cache.shutdown();
+        }
+
+        assertFalse(server.isRegistered(name));
+    }
+
+    private static MockQueryMetadata metadata(final String key, final String group) {
+        return new MockQueryMetadata() {
+
+            @Override
+            public String getCacheKey() {
+                return key;
+            }
+
+            @Override
+            public String getCacheGroup() {
+                return group;
+            }
+        };
+    }
 }
@@ -26,12 +26,14 @@ import org.apache.cayenne.access.DefaultObjectMapRetainStrategy;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
 import org.apache.cayenne.cache.MapQueryCache;
 import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DefaultObjectStoreFactory;
 import org.apache.cayenne.configuration.DefaultRuntimeProperties;
 import org.apache.cayenne.configuration.ObjectStoreFactory;
 import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.DIBootstrap;
 import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Key;
 import org.apache.cayenne.di.Module;
 import org.apache.cayenne.event.EventBridge;
 import org.apache.cayenne.event.EventManager;
@@ -46,6 +48,7 @@ import org.apache.cayenne.tx.TransactionManager;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 import static org.junit.Assert.*;
 
@@ -73,6 +76,7 @@ public class DataContextFactoryTest {
             binder.bind(TransactionManager.class).to(DefaultTransactionManager.class);
             binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
             binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
+            binder.bind(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR)).toProvider(DefaultAsyncExecutorProvider.class);
             binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
         };
 
@@ -109,6 +113,7 @@ public class DataContextFactoryTest {
             binder.bind(TransactionFactory.class).to(DefaultTransactionFactory.class);
             binder.bind(TransactionManager.class).to(DefaultTransactionManager.class);
             binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
+            binder.bind(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR)).toProvider(DefaultAsyncExecutorProvider.class);
             binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
         };
 
@@ -0,0 +1,91 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.configuration.server;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.configuration.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DataContextFactory_JmxIT {
+
+    private static final String DOMAIN_NAME = "DataContextFactory_JmxIT";
+
+    private ServerRuntime runtime;
+    private ObjectName mbeanName;
+
+    @Before
+    public void before() throws Exception {
+        runtime = ServerRuntime.builder()
+                .addModule(binder -> ServerModule.contributeProperties(binder)
+                        .put(Constants.SNAPSHOT_CACHE_JMX_PROPERTY, "true")
+                        .put(Constants.SERVER_DOMAIN_NAME_PROPERTY, DOMAIN_NAME))
+                .build();
+        mbeanName = new ObjectName("org.apache.cayenne:type=DataRowStore,name=" + ObjectName.quote(DOMAIN_NAME));
+    }
+
+    @After
+    public void after() {
+        if (runtime != null) {
+            runtime.shutdown();
+        }
+    }
+
+    @Test
+    public void testPerContextStoresNotRegistered() {
+        DataDomain domain = runtime.getDataDomain();
+        domain.setSharedCacheEnabled(false);
+
+        DataContext c1 = (DataContext) runtime.newContext();
+        DataContext c2 = (DataContext) runtime.newContext();
+        assertNotSame(c1.getObjectStore().getDataRowCache(), c2.getObjectStore().getDataRowCache());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertFalse(server.isRegistered(mbeanName));
+    }
+
+    @Test
+    public void testSharedStoreRegistered() {
+        DataDomain domain = runtime.getDataDomain();
+        domain.setSharedCacheEnabled(true);
+
+        DataContext c1 = (DataContext) runtime.newContext();
+        DataContext c2 = (DataContext) runtime.newContext();
+        assertSame(c1.getObjectStore().getDataRowCache(), c2.getObjectStore().getDataRowCache());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(mbeanName));
+
+        runtime.shutdown();
+        runtime = null;
+        assertFalse(server.isRegistered(mbeanName));
+    }
+}
@@ -0,0 +1,60 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.configuration.server;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.DIBootstrap;
+import org.apache.cayenne.di.Injector;
+import org.apache.cayenne.di.Key;
+import org.apache.cayenne.di.Module;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultAsyncExecutorProviderTest {
+
+    @Test
+    public void testGet() {
+        Module module = binder -> {
+            binder.bind(RuntimeProperties.class).toInstance(new DefaultRuntimeProperties(
+                    Collections.singletonMap(Constants.SERVER_ASYNC_THREADS_PROPERTY, "3")));
+            binder.bind(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR))
+                    .toProvider(DefaultAsyncExecutorProvider.class);
+        };
+
+        Injector injector = DIBootstrap.createInjector(module);
+        Executor executor = injector.getInstance(Key.get(Executor.class, Constants.SERVER_ASYNC_EXECUTOR));
+
+        assertTrue(executor instanceof DefaultAsyncExecutorProvider.AsyncExecutor);
+        DefaultAsyncExecutorProvider.AsyncExecutor asyncExecutor = (DefaultAsyncExecutorProvider.AsyncExecutor) executor;
+        assertEquals(3, asyncExecutor.getMaximumPoolSize());
+        assertFalse(asyncExecutor.isShutdown());
+
+        // the executor is shut down with the runtime
+        injector.shutdown();
+        assertTrue(asyncExecutor.isShutdown());
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.cayenne.datasource;
 import java.sql.Driver;
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 import org.apache.cayenne.conn.DataSourceInfo;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
@@ -45,13 +47,19 @@ public class BasePoolingDataSourceIT extends ServerCase {
 
 	@Before
 	public void before() throws SQLException {
+		PoolingDataSourceParameters poolParameters = createParameters();
+		this.dataSource = createDataSource(nonPooling(), poolParameters);
+	}
 
+	protected DataSource nonPooling() {
 		Driver driver = objectFactory.newInstance(Driver.class, dataSourceInfo.getJdbcDriver());
-		DriverDataSource nonPooling = new DriverDataSource(driver, dataSourceInfo.getDataSourceUrl(),
-				dataSourceInfo.getUserName(), dataSourceInfo.getPassword());
+		return new DriverDataSource(driver, dataSourceInfo.getDataSourceUrl(), dataSourceInfo.getUserName(),
+				dataSourceInfo.getPassword());
+	}
 
-		PoolingDataSourceParameters poolParameters = createParameters();
-		this.dataSource = new UnmanagedPoolingDataSource(nonPooling, poolParameters);
+	protected UnmanagedPoolingDataSource createDataSource(DataSource nonPooling,
+			PoolingDataSourceParameters poolParameters) {
+		return new UnmanagedPoolingDataSource(nonPooling, poolParameters);
 	}
 
 	@After
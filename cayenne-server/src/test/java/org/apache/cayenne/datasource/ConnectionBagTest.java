@@ -0,0 +1,51 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ConnectionBagTest {
+
+    @Test
+    public void testBorrow_ThreadLocal() {
+        ConnectionBag bag = new ConnectionBag();
+        ConnectionBag.Entry entry = new ConnectionBag.Entry(null);
+        bag.add(entry);
+        bag.requite(entry);
+
+        assertSame(entry, bag.borrow());
+        assertNull(bag.borrow());
+    }
+
+    @Test
+    public void testBorrow_SkipsRemoved() {
+        ConnectionBag bag = new ConnectionBag();
+        ConnectionBag.Entry entry = new ConnectionBag.Entry(null);
+        bag.add(entry);
+        bag.requite(entry);
+
+        // removed entry is still remembered by this thread, but must not be reused
+        bag.reserve(entry);
+        bag.remove(entry);
+        assertNull(bag.borrow());
+    }
+}
@@ -0,0 +1,167 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Test;
+
+/**
+ * Runs all the pool tests against the lock-free pool, plus the tests of its
+ * specific features.
+ */
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class LockFreePoolingDataSourceIT extends PoolingDataSourceIT {
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setLockFree(true);
+		params.setLeakDetectionThreshold(100);
+		params.setValidationQuery("SELECT count(1) FROM ARTIST");
+		return params;
+	}
+
+	@Override
+	protected UnmanagedPoolingDataSource createDataSource(DataSource nonPooling,
+			PoolingDataSourceParameters poolParameters) {
+		return new LockFreePoolingDataSource(nonPooling, poolParameters);
+	}
+
+	private LockFreePoolingDataSource lockFreeDataSource() {
+		return (LockFreePoolingDataSource) dataSource;
+	}
+
+	@Test
+	public void testGetConnection_ThreadAffinity() throws Exception {
+		Connection c1 = dataSource.getConnection();
+		c1.close();
+
+		// the connection just returned by this thread is reused
+		Connection c2 = dataSource.getConnection();
+		assertSame(c1, c2);
+		c2.close();
+	}
+
+	@Test
+	public void testGetConnection_ManyThreads() throws Exception {
+
+		AtomicInteger successes = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(20);
+
+		for (int i = 0; i < 400; i++) {
+			executor.submit(() -> {
+				try (Connection c = dataSource.getConnection()) {
+					try (Statement st = c.createStatement()) {
+						try (ResultSet rs = st.executeQuery("SELECT ARTIST_ID FROM ARTIST")) {
+							rs.next();
+						}
+					}
+					successes.incrementAndGet();
+				} catch (SQLException e) {
+					failures.incrementAndGet();
+				}
+			});
+		}
+
+		executor.shutdown();
+		if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+			fail("Connection pool either deadlocked or contended over the lock too long.");
+		}
+
+		assertEquals(0, failures.get());
+		assertEquals(400, successes.get());
+		assertTrue(dataSource.poolSize() <= 3);
+		assertEquals(dataSource.poolSize(), dataSource.availableSize());
+	}
+
+	@Test
+	public void testDetectLeaks() throws Exception {
+		Connection c1 = dataSource.getConnection();
+		ConnectionBag.Entry entry = null;
+		for (ConnectionBag.Entry e : getBag().values(ConnectionBag.STATE_IN_USE)) {
+			entry = e;
+		}
+
+		assertNotNull(entry);
+		assertNotNull(entry.connection.checkoutStack);
+
+		lockFreeDataSource().detectLeaks();
+		assertFalse(entry.connection.heldTooLongReported);
+
+		Thread.sleep(150);
+		lockFreeDataSource().detectLeaks();
+		assertTrue(entry.connection.heldTooLongReported);
+
+		c1.close();
+		assertEquals(ConnectionBag.STATE_NOT_IN_USE, entry.getState());
+	}
+
+	@Test
+	public void testManagePool() throws Exception {
+
+		List<Connection> connections = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			connections.add(dataSource.getConnection());
+		}
+
+		for (Connection c : connections) {
+			c.close();
+		}
+
+		assertEquals(3, dataSource.poolSize());
+		assertEquals(3, dataSource.availableSize());
+
+		// with min = 2 and max = 3 connections, max idle is 3
+		dataSource.managePool();
+		assertEquals(3, dataSource.poolSize());
+
+		// break one of the idle connections, it must be evicted by validation
+		getBag().values().get(0).connection.getConnection().close();
+
+		dataSource.managePool();
+		assertEquals(2, dataSource.poolSize());
+		assertEquals(2, dataSource.availableSize());
+	}
+
+	private ConnectionBag getBag() {
+		return lockFreeDataSource().getBag();
+	}
+}
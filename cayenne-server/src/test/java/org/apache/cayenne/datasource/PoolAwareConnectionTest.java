@@ -18,16 +18,23 @@
  ****************************************************************/
 package org.apache.cayenne.datasource;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -94,4 +101,141 @@ public class PoolAwareConnectionTest {
 		}
 
 	}
+
+	@Test
+	public void testPrepareStatement_Cached() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		assertSame(st1, ((CachedPreparedStatement) c1).getStatement());
+		assertSame(paConnection, c1.getConnection());
+		c1.close();
+
+		assertTrue(c1.isClosed());
+		verify(st1, never()).close();
+		verify(st1).clearParameters();
+		assertEquals(1, paConnection.getStatementCache().size());
+
+		PreparedStatement c2 = paConnection.prepareStatement("SELECT 1");
+		assertNotSame(c1, c2);
+		assertSame(st1, ((CachedPreparedStatement) c2).getStatement());
+		assertEquals(0, paConnection.getStatementCache().size());
+		verify(connectionMock, times(1)).prepareStatement("SELECT 1");
+
+		try {
+			c1.executeQuery();
+			fail("Closed statement should not be usable");
+		} catch (SQLException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testPrepareStatement_Cached_InUse() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1, st2);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		PreparedStatement c2 = paConnection.prepareStatement("SELECT 1");
+		assertSame(st1, ((CachedPreparedStatement) c1).getStatement());
+		assertSame(st2, ((CachedPreparedStatement) c2).getStatement());
+
+		c1.close();
+		c2.close();
+
+		// only one idle statement per SQL is kept
+		verify(st1, never()).close();
+		verify(st2).close();
+		assertEquals(1, paConnection.getStatementCache().size());
+	}
+
+	@Test
+	public void testPrepareStatement_Cached_Evict() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+		when(connectionMock.prepareStatement("SELECT 2")).thenReturn(st2);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 1);
+
+		paConnection.prepareStatement("SELECT 1").close();
+		paConnection.prepareStatement("SELECT 2").close();
+
+		verify(st1).close();
+		verify(st2, never()).close();
+		assertEquals(1, paConnection.getStatementCache().size());
+	}
+
+	@Test
+	public void testPrepareStatement_Cached_ResetState() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		when(st1.executeQuery()).thenReturn(rs);
+		when(st1.getFetchSize()).thenReturn(0);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		c1.setFetchSize(100);
+		c1.executeQuery();
+		c1.close();
+
+		verify(rs).close();
+		verify(st1).setFetchSize(100);
+		verify(st1).setFetchSize(0);
+		verify(st1, never()).close();
+	}
+
+	@Test
+	public void testPrepareStatement_Cached_NotReusable() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		c1.closeOnCompletion();
+		c1.close();
+
+		verify(st1).close();
+		assertEquals(0, paConnection.getStatementCache().size());
+	}
+
+	@Test
+	public void testPrepareStatement_Cached_GeneratedKeys() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("INSERT")).thenReturn(st1);
+		when(connectionMock.prepareStatement("INSERT", Statement.RETURN_GENERATED_KEYS)).thenReturn(st2);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+		paConnection.prepareStatement("INSERT").close();
+
+		PreparedStatement c2 = paConnection.prepareStatement("INSERT", Statement.RETURN_GENERATED_KEYS);
+		assertSame(st2, ((CachedPreparedStatement) c2).getStatement());
+	}
+
+	@Test
+	public void testRecover_ClearsStatementCache() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		when(connectionMock.prepareStatement("SELECT 1")).thenReturn(st1);
+
+		PoolAwareConnection paConnection = new PoolAwareConnection(parentMock, connectionMock, null, 5);
+		PreparedStatement c1 = paConnection.prepareStatement("SELECT 1");
+		paConnection.prepareStatement("SELECT 1").close();
+
+		paConnection.recover(mock(SQLException.class));
+		assertEquals(0, paConnection.getStatementCache().size());
+
+		// a statement of the old connection is not returned to the cache
+		c1.close();
+		assertEquals(0, paConnection.getStatementCache().size());
+	}
 }
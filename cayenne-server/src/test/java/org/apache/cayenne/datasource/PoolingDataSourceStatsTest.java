@@ -0,0 +1,80 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class PoolingDataSourceStatsTest {
+
+	@Test
+	public void testBucket() {
+		assertEquals(0, PoolingDataSourceStats.bucket(0));
+		assertEquals(1, PoolingDataSourceStats.bucket(1));
+		assertEquals(2, PoolingDataSourceStats.bucket(4));
+		assertEquals(9, PoolingDataSourceStats.bucket(999));
+		assertEquals(13, PoolingDataSourceStats.bucket(10000));
+		assertEquals(13, PoolingDataSourceStats.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testWaitTimeHistogram() {
+		PoolingDataSourceStats stats = new PoolingDataSourceStats(mock(UnmanagedPoolingDataSource.class));
+
+		for (int i = 0; i < 98; i++) {
+			stats.connectionCheckedOut(TimeUnit.MICROSECONDS.toNanos(100));
+		}
+		stats.connectionCheckedOut(TimeUnit.MILLISECONDS.toNanos(30));
+		stats.connectionCheckoutFailed(TimeUnit.MILLISECONDS.toNanos(15000));
+
+		long[] expected = new long[PoolingDataSourceStats.WAIT_TIME_BOUNDS.length];
+		expected[0] = 98;
+		expected[5] = 1;
+		expected[13] = 1;
+		assertArrayEquals(expected, stats.getWaitTimeHistogram());
+
+		assertEquals(99, stats.getCheckoutCount());
+		assertEquals(1, stats.getCheckoutFailureCount());
+		assertEquals(1, stats.getWaitTimePercentileMillis(50));
+		assertEquals(50, stats.getWaitTime99PercentileMillis());
+		assertEquals(15000, stats.getWaitTimePercentileMillis(100));
+		assertEquals(15000.0, stats.getMaxWaitTimeMillis(), 0.001);
+
+		stats.reset();
+		assertArrayEquals(new long[PoolingDataSourceStats.WAIT_TIME_BOUNDS.length], stats.getWaitTimeHistogram());
+		assertEquals(0, stats.getWaitTime99PercentileMillis());
+		assertEquals(0.0, stats.getAverageWaitTimeMillis(), 0.001);
+	}
+
+	@Test
+	public void testHoldTime() {
+		PoolingDataSourceStats stats = new PoolingDataSourceStats(mock(UnmanagedPoolingDataSource.class));
+
+		stats.connectionCheckedIn(TimeUnit.MILLISECONDS.toNanos(10));
+		stats.connectionCheckedIn(TimeUnit.MILLISECONDS.toNanos(30));
+
+		assertEquals(20.0, stats.getAverageHoldTimeMillis(), 0.001);
+		assertEquals(30.0, stats.getMaxHoldTimeMillis(), 0.001);
+	}
+}
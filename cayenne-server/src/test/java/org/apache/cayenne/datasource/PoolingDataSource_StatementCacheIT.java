@@ -0,0 +1,92 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Test;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class PoolingDataSource_StatementCacheIT extends BasePoolingDataSourceIT {
+
+	private static final String SQL = "SELECT count(1) FROM ARTIST WHERE ARTIST_ID > ?";
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setMinConnections(1);
+		params.setMaxConnections(1);
+		params.setStatementCacheSize(5);
+		return params;
+	}
+
+	private PreparedStatement execute(Connection c) throws Exception {
+		PreparedStatement st = c.prepareStatement(SQL);
+		st.setInt(1, 0);
+
+		try (ResultSet rs = st.executeQuery()) {
+			assertTrue(rs.next());
+			assertEquals(0, rs.getInt(1));
+		}
+
+		st.close();
+		return st;
+	}
+
+	@Test
+	public void testStatementReused() throws Exception {
+
+		PreparedStatement st1;
+		try (Connection c1 = dataSource.getConnection()) {
+			st1 = execute(c1);
+		}
+
+		PreparedStatement st2;
+		try (Connection c2 = dataSource.getConnection()) {
+			st2 = execute(c2);
+		}
+
+		assertNotSame(st1, st2);
+		assertSame(((CachedPreparedStatement) st1).getStatement(), ((CachedPreparedStatement) st2).getStatement());
+	}
+
+	@Test
+	public void testStatementsInUse() throws Exception {
+
+		try (Connection c = dataSource.getConnection()) {
+			PreparedStatement st1 = c.prepareStatement(SQL);
+			PreparedStatement st2 = execute(c);
+
+			assertNotSame(((CachedPreparedStatement) st1).getStatement(),
+					((CachedPreparedStatement) st2).getStatement());
+			st1.close();
+
+			assertEquals(1, ((PoolAwareConnection) c).getStatementCache().size());
+		}
+	}
+}
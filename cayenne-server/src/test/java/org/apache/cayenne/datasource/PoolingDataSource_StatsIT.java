@@ -0,0 +1,208 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Test;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class PoolingDataSource_StatsIT extends BasePoolingDataSourceIT {
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setMaxQueueWaitTime(100);
+		params.setLeakDetectionThreshold(50);
+		return params;
+	}
+
+	@Test
+	public void testCheckoutCheckin() throws Exception {
+		PoolingDataSourceStats stats = dataSource.getStats();
+
+		assertEquals(2, stats.getOpenedCount());
+		assertEquals(2, stats.getPoolSize());
+		assertEquals(0, stats.getActiveConnections());
+		assertEquals(2, stats.getIdleConnections());
+
+		Connection c1 = dataSource.getConnection();
+		Connection c2 = dataSource.getConnection();
+		Connection c3 = dataSource.getConnection();
+
+		assertEquals(3, stats.getOpenedCount());
+		assertEquals(3, stats.getCheckoutCount());
+		assertEquals(3, stats.getActiveConnections());
+		assertEquals(0, stats.getIdleConnections());
+
+		try {
+			dataSource.getConnection();
+			fail("Pool overflow not checked");
+		} catch (UnmanagedPoolingDataSource.ConnectionUnavailableException e) {
+			// expected
+		}
+
+		assertEquals(1, stats.getCheckoutFailureCount());
+		assertEquals(0, stats.getWaitingThreads());
+		assertTrue(stats.getMaxWaitTimeMillis() >= 90);
+
+		long histogramTotal = 0;
+		for (long count : stats.getWaitTimeHistogram()) {
+			histogramTotal += count;
+		}
+		assertEquals(4, histogramTotal);
+
+		c1.close();
+		c2.close();
+		c3.close();
+
+		// repeated close must not be counted twice
+		c3.close();
+
+		assertEquals(0, stats.getActiveConnections());
+		assertTrue(stats.getMaxHoldTimeMillis() > 0);
+
+		stats.reset();
+		assertEquals(0, stats.getCheckoutCount());
+		assertEquals(0, stats.getCheckoutFailureCount());
+		assertEquals(0, stats.getWaitTime99PercentileMillis());
+	}
+
+	@Test
+	public void testHeldTooLong() throws Exception {
+		List<Long> heldTooLong = new ArrayList<>();
+		dataSource.addListener(new TestListener() {
+			@Override
+			public void connectionHeldTooLong(long heldTime, Throwable stack) {
+				heldTooLong.add(heldTime);
+			}
+		});
+
+		try (Connection c = dataSource.getConnection()) {
+
+			dataSource.detectLeaks();
+			assertEquals(0, heldTooLong.size());
+
+			Thread.sleep(100);
+			dataSource.detectLeaks();
+			assertEquals(1, heldTooLong.size());
+
+			// reported only once per checkout
+			dataSource.detectLeaks();
+			assertEquals(1, heldTooLong.size());
+			assertEquals(1, dataSource.getStats().getHeldTooLongCount());
+		}
+
+		dataSource.detectLeaks();
+		assertEquals(1, heldTooLong.size());
+	}
+
+	@Test
+	public void testValidationFailure() throws Exception {
+		UnmanagedPoolingDataSource validating = createDataSource(nonPooling(), validatingParameters());
+		try {
+			PoolAwareConnection c = (PoolAwareConnection) validating.getConnection();
+			c.close();
+
+			// break the connection, so that it fails validation on checkout
+			c.getConnection().close();
+
+			// let the lock-free pool validate the connection
+			Thread.sleep(LockFreePoolingDataSource.VALIDATION_BYPASS_TIME + 100);
+			validating.getConnection().close();
+
+			assertEquals(1, validating.getStats().getValidationFailureCount());
+			assertEquals(1, validating.getStats().getClosedCount());
+		} finally {
+			validating.close();
+		}
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		PoolingDataSourceParameters params = createParameters();
+		params.setMBeanName("PoolingDataSource_StatsIT");
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("org.apache.cayenne:type=DataSource,name=\"PoolingDataSource_StatsIT\"");
+
+		UnmanagedPoolingDataSource registered = createDataSource(nonPooling(), params);
+		try {
+			assertTrue(server.isRegistered(name));
+			assertEquals(2, server.getAttribute(name, "PoolSize"));
+			assertEquals(3, server.getAttribute(name, "MaxConnections"));
+		} finally {
+			registered.close();
+		}
+
+		assertTrue(!server.isRegistered(name));
+	}
+
+	protected PoolingDataSourceParameters validatingParameters() {
+		PoolingDataSourceParameters params = createParameters();
+		params.setMinConnections(1);
+		params.setMaxConnections(1);
+		params.setValidationQuery("SELECT count(1) FROM ARTIST");
+		return params;
+	}
+
+	private static class TestListener implements PoolingDataSourceListener {
+
+		@Override
+		public void connectionOpened() {
+		}
+
+		@Override
+		public void connectionClosed() {
+		}
+
+		@Override
+		public void connectionCheckedOut(long waitTime) {
+		}
+
+		@Override
+		public void connectionCheckoutFailed(long waitTime) {
+		}
+
+		@Override
+		public void connectionCheckedIn(long heldTime) {
+		}
+
+		@Override
+		public void connectionValidationFailed() {
+		}
+
+		@Override
+		public void connectionHeldTooLong(long heldTime, Throwable stack) {
+		}
+	}
+}
@@ -32,8 +32,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
@@ -92,4 +97,102 @@ public class JdbcPkGeneratorIT extends ServerCase {
         assertTrue(pk instanceof Long);
         assertTrue("PK is too small: " + pk, ((Long) pk).longValue() > Integer.MAX_VALUE);
     }
+
+    @Test
+    public void testGeneratePks() throws Exception {
+
+        if (!JdbcPkGenerator.class.isAssignableFrom(adapter.getPkGenerator().getClass())) {
+            return;
+        }
+
+        DbEntity artistEntity = node.getEntityResolver().getObjEntity(Artist.class).getDbEntity();
+        DbAttribute pkAttribute = artistEntity.getAttribute(Artist.ARTIST_ID_PK_COLUMN);
+
+        JdbcPkGenerator pkGenerator = (JdbcPkGenerator) adapter.getPkGenerator();
+        pkGenerator.createAutoPk(node, Collections.singletonList(artistEntity));
+        pkGenerator.reset();
+
+        // leaves some keys in the cache
+        Object pk = pkGenerator.generatePk(node, pkAttribute);
+
+        List<Object> pks = pkGenerator.generatePks(node, pkAttribute, 50);
+        assertEquals(50, pks.size());
+        assertEquals(50, new HashSet<>(pks).size());
+        assertFalse(pks.contains(pk));
+
+        // cached keys are used first
+        int cacheSize = pkGenerator.getPkCacheSize();
+        if (cacheSize > 1) {
+            assertEquals(((Number) pk).longValue() + 1, ((Number) pks.get(0)).longValue());
+        }
+    }
+
+    @Test
+    public void testGeneratePk_AdaptiveCacheSize() throws Exception {
+
+        if (!JdbcPkGenerator.class.equals(adapter.getPkGenerator().getClass())) {
+            return;
+        }
+
+        DbEntity artistEntity = node.getEntityResolver().getObjEntity(Artist.class).getDbEntity();
+        DbAttribute pkAttribute = artistEntity.getAttribute(Artist.ARTIST_ID_PK_COLUMN);
+
+        JdbcPkGenerator pkGenerator = (JdbcPkGenerator) adapter.getPkGenerator();
+        pkGenerator.createAutoPk(node, Collections.singletonList(artistEntity));
+        pkGenerator.reset();
+
+        int cacheSize = pkGenerator.getPkCacheSize();
+        assertTrue(pkGenerator.getMaxPkCacheSize() >= cacheSize * 4);
+
+        List<Object> pks = new ArrayList<>();
+
+        // exhaust the first block
+        for (int i = 0; i < cacheSize; i++) {
+            pks.add(pkGenerator.generatePk(node, pkAttribute));
+        }
+
+        // blocks that are exhausted quickly are followed by bigger blocks
+        pks.add(pkGenerator.generatePk(node, pkAttribute));
+        assertEquals(cacheSize * 2 - 1, pkGenerator.pkCache.get(artistEntity.getName()).size());
+
+        for (int i = 0; i < cacheSize * 2 - 1; i++) {
+            pks.add(pkGenerator.generatePk(node, pkAttribute));
+        }
+
+        pks.add(pkGenerator.generatePk(node, pkAttribute));
+        assertEquals(cacheSize * 4 - 1, pkGenerator.pkCache.get(artistEntity.getName()).size());
+
+        // still continuous and unique
+        for (int i = 1; i < pks.size(); i++) {
+            assertEquals(((Number) pks.get(i - 1)).longValue() + 1, ((Number) pks.get(i)).longValue());
+        }
+    }
+
+    @Test
+    public void testGeneratePk_AdaptiveCacheSizeDisabled() throws Exception {
+
+        if (!JdbcPkGenerator.class.equals(adapter.getPkGenerator().getClass())) {
+            return;
+        }
+
+        DbEntity artistEntity = node.getEntityResolver().getObjEntity(Artist.class).getDbEntity();
+        DbAttribute pkAttribute = artistEntity.getAttribute(Artist.ARTIST_ID_PK_COLUMN);
+
+        JdbcPkGenerator pkGenerator = (JdbcPkGenerator) adapter.getPkGenerator();
+        pkGenerator.createAutoPk(node, Collections.singletonList(artistEntity));
+        pkGenerator.reset();
+
+        int maxCacheSize = pkGenerator.getMaxPkCacheSize();
+        int cacheSize = pkGenerator.getPkCacheSize();
+        pkGenerator.setMaxPkCacheSize(0);
+        try {
+            for (int i = 0; i < cacheSize + 1; i++) {
+                pkGenerator.generatePk(node, pkAttribute);
+            }
+
+            assertEquals(cacheSize - 1, pkGenerator.pkCache.get(artistEntity.getName()).size());
+        } finally {
+            pkGenerator.setMaxPkCacheSize(maxCacheSize);
+        }
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.cayenne.dba;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.unit.UnitDbAdapter;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
@@ -30,9 +31,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -88,4 +91,27 @@ public class PkGeneratorIT extends ServerCase {
             pkList.add(pk);
         }
     }
+
+    @Test
+    public void testGeneratePks() throws Exception {
+        DbAttribute pkAttribute = paintingEntity.getPrimaryKeys().iterator().next();
+
+        List<Object> pks = pkGenerator.generatePks(node, pkAttribute, 50);
+        assertEquals(50, pks.size());
+        assertEquals(50, new HashSet<>(pks).size());
+
+        for (int i = 0; i < pks.size(); i++) {
+            assertTrue(pks.get(i) instanceof Number);
+
+            // check that the numbers are continuous
+            if (accessStackAdapter.supportsBatchPK() && i > 0) {
+                Number last = (Number) pks.get(i - 1);
+                assertEquals(last.intValue() + 1, ((Number) pks.get(i)).intValue());
+            }
+        }
+
+        // keys generated one by one must not overlap with the bulk ones
+        Object pk = pkGenerator.generatePk(node, pkAttribute);
+        assertFalse(pks.contains(pk));
+    }
 }
@@ -0,0 +1,76 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.dba.mysql;
+
+import org.apache.cayenne.dba.DefaultQuotingStrategy;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+public class MySQLLoadDataInsertStrategyTest {
+
+    private String append(Object value) {
+        StringBuilder data = new StringBuilder();
+        new MySQLLoadDataInsertStrategy().appendValue(data, value);
+        return data.toString();
+    }
+
+    @Test
+    public void testAppendValue() {
+        assertEquals("\\N", append(null));
+        assertEquals("", append(""));
+        assertEquals("abc", append("abc"));
+        assertEquals("a\\tb\\nc\\rd", append("a\tb\nc\rd"));
+        assertEquals("a\\\\N", append("a\\N"));
+        assertEquals("\\0", append("\0"));
+        assertEquals("1", append(Boolean.TRUE));
+        assertEquals("0", append(Boolean.FALSE));
+    }
+
+    @Test
+    public void testCreateSql() {
+        DataMap map = new DataMap();
+        DbEntity entity = new DbEntity("ARTIST");
+        map.addDbEntity(entity);
+
+        DbAttribute id = new DbAttribute("ID", Types.BIGINT, entity);
+        DbAttribute name = new DbAttribute("NAME", Types.VARCHAR, entity);
+        entity.addAttribute(id);
+        entity.addAttribute(name);
+
+        String sql = new MySQLLoadDataInsertStrategy().createSql(new DefaultQuotingStrategy("`", "`"), entity,
+                Arrays.asList(id, name));
+        assertEquals("LOAD DATA LOCAL INFILE 'cayenne_bulk_insert' INTO TABLE ARTIST CHARACTER SET utf8mb4 "
+                + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (ID, NAME)", sql);
+    }
+
+    @Test
+    public void testIsLocalInfileAllowed_UnknownConnection() throws Exception {
+        assertFalse(new MySQLLoadDataInsertStrategy().isLocalInfileAllowed(mock(Connection.class)));
+    }
+}
@@ -49,6 +49,12 @@ public class OraclePkGeneratorIT extends ServerCase {
         pkGenerator = new OraclePkGenerator(adapter);
     }
 
+    @Test
+    public void testSelectNextValsQuery() throws Exception {
+        assertEquals("SELECT pk_test_entity.nextval FROM DUAL CONNECT BY LEVEL <= 5",
+                pkGenerator.selectNextValsQuery("pk_test_entity", 5));
+    }
+
     @Test
     public void testSequenceNameDefault() throws Exception {
         DbEntity entity = new DbEntity("TEST_ENTITY");
@@ -0,0 +1,165 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.dba.postgres;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.batch.InsertBatchTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.DefaultQuotingStrategy;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.BatchQueryRow;
+import org.apache.cayenne.query.InsertBatchQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PostgresCopyInsertStrategyTest {
+
+    private DbEntity entity;
+    private DbAttribute id;
+    private DbAttribute name;
+
+    @Before
+    public void before() {
+        DataMap map = new DataMap();
+        entity = new DbEntity("ARTIST");
+        map.addDbEntity(entity);
+
+        id = new DbAttribute("ID", Types.BIGINT, entity);
+        name = new DbAttribute("NAME", Types.VARCHAR, entity);
+        entity.addAttribute(id);
+        entity.addAttribute(name);
+    }
+
+    private String append(Object value) {
+        StringBuilder data = new StringBuilder();
+        new PostgresCopyInsertStrategy().appendValue(data, value);
+        return data.toString();
+    }
+
+    @Test
+    public void testAppendValue() {
+        assertEquals("", append(null));
+        assertEquals("\"\"", append(""));
+        assertEquals("\"a,b\"", append("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", append("say \"hi\""));
+        assertEquals("\"a\nb\"", append("a\nb"));
+        assertEquals("true", append(Boolean.TRUE));
+        assertEquals("false", append(Boolean.FALSE));
+        assertEquals("\"\\x00ff1a\"", append(new byte[]{0, (byte) 0xFF, 0x1A}));
+    }
+
+    @Test
+    public void testCreateSql() {
+        String sql = new PostgresCopyInsertStrategy().createSql(new DefaultQuotingStrategy("\"", "\""), entity,
+                Arrays.asList(id, name));
+        assertEquals("COPY ARTIST (ID, NAME) FROM STDIN WITH CSV", sql);
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+
+        BatchQueryRow row1 = mock(BatchQueryRow.class);
+        when(row1.getValue(0)).thenReturn(1L);
+        when(row1.getValue(1)).thenReturn("x\"y");
+
+        BatchQueryRow row2 = mock(BatchQueryRow.class);
+        when(row2.getValue(0)).thenReturn(2L);
+        when(row2.getValue(1)).thenReturn(null);
+
+        InsertBatchQuery query = mock(InsertBatchQuery.class);
+        when(query.getDbEntity()).thenReturn(entity);
+        when(query.getRows()).thenReturn(Arrays.asList(row1, row2));
+
+        InsertBatchTranslator translator = mock(InsertBatchTranslator.class);
+        when(translator.getBindings()).thenReturn(bindings());
+
+        DataNode node = mockNode();
+
+        final String[] loaded = new String[2];
+        PostgresCopyInsertStrategy strategy = new PostgresCopyInsertStrategy() {
+
+            @Override
+            protected boolean isSupported(Connection connection) {
+                return true;
+            }
+
+            @Override
+            protected long load(Connection connection, String sql, String data) {
+                loaded[0] = sql;
+                loaded[1] = data;
+                return 2;
+            }
+        };
+
+        assertEquals(2, strategy.insert(mock(Connection.class), query, translator, node));
+        assertEquals("COPY ARTIST (ID, NAME) FROM STDIN WITH CSV", loaded[0]);
+        assertEquals("\"1\",\"x\"\"y\"\n\"2\",\n", loaded[1]);
+    }
+
+    @Test
+    public void testInsert_UnsupportedValue() throws Exception {
+
+        BatchQueryRow row = mock(BatchQueryRow.class);
+        when(row.getValue(0)).thenReturn(1L);
+        when(row.getValue(1)).thenReturn(new Object());
+
+        InsertBatchQuery query = mock(InsertBatchQuery.class);
+        when(query.getDbEntity()).thenReturn(entity);
+        List<BatchQueryRow> rows = Collections.singletonList(row);
+        when(query.getRows()).thenReturn(rows);
+
+        InsertBatchTranslator translator = mock(InsertBatchTranslator.class);
+        when(translator.getBindings()).thenReturn(bindings());
+
+        assertEquals(-1, new PostgresCopyInsertStrategy().insert(mock(Connection.class), query, translator,
+                mockNode()));
+    }
+
+    private DbAttributeBinding[] bindings() {
+        DbAttributeBinding[] bindings = {new DbAttributeBinding(id), new DbAttributeBinding(name)};
+        for (DbAttributeBinding b : bindings) {
+            b.include(1, null, null);
+        }
+        return bindings;
+    }
+
+    private DataNode mockNode() {
+        DbAdapter adapter = mock(DbAdapter.class);
+        when(adapter.getQuotingStrategy()).thenReturn(new DefaultQuotingStrategy("\"", "\""));
+
+        DataNode node = mock(DataNode.class);
+        when(node.getAdapter()).thenReturn(adapter);
+        when(node.getJdbcEventLogger()).thenReturn(mock(JdbcEventLogger.class));
+        return node;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.cayenne.exp;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
 import java.util.ArrayList;
@@ -519,6 +520,41 @@ public class ExpressionFactoryTest {
         ExpressionFactory.exp("name like %32_65415'");
     }
 
+	@Test
+	public void testExp_Cached() {
+		String[] strings = { "a = 1", "a.b+.c like 'x%' and db:C_D in (1, 2, 3)", "a = $x or b between $y and $z",
+				"not (a = null)", "upper(a) = 'X'", "a = enum:org.apache.cayenne.exp.ExpEnum1.ONE",
+				"a in ($l)", "count(a) > 2", "a + 2 * b <= -c", "a = true and b != false", "b = 'x\\'y'" };
+
+		for (String string : strings) {
+			Expression e1 = ExpressionFactory.exp(string);
+			Expression e2 = ExpressionFactory.exp(string);
+
+			assertNotSame(string, e1, e2);
+			assertEquals(string, e1, e2);
+			assertEquals(string, e1.toString(), e2.toString());
+		}
+	}
+
+	@Test
+	public void testExp_CachedParams() {
+		Expression e1 = ExpressionFactory.exp("a = $x and b in ($y, $z)", 1, 2, 3);
+		Expression e2 = ExpressionFactory.exp("a = $x and b in ($y, $z)", 4, 5, 6);
+
+		assertEquals("(a = 1) and (b in (2, 3))", e1.toString());
+		assertEquals("(a = 4) and (b in (5, 6))", e2.toString());
+		assertEquals("(a = $x) and (b in ($y, $z))", ExpressionFactory.exp("a = $x and b in ($y, $z)").toString());
+	}
+
+	@Test
+	public void testExp_CachedNotModified() {
+		Expression e1 = ExpressionFactory.exp("a = 1 and b = 2");
+		e1.setOperand(0, ExpressionFactory.exp("c = 3"));
+		e1.andExp(ExpressionFactory.exp("d = 4"));
+
+		assertEquals("(a = 1) and (b = 2)", ExpressionFactory.exp("a = 1 and b = 2").toString());
+	}
+
 	public static class Bean {
 		public ExpEnum1 a;
 
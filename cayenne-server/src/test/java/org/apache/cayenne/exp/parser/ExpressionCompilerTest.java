@@ -0,0 +1,197 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.exp.parser;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.exp.CompiledExpression;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionException;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExpressionCompilerTest {
+
+	private static final String[] EXPRESSIONS = { "paintingTitle = 'P1'", "paintingTitle != 'P1'",
+			"paintingTitle like 'P%'", "paintingTitle likeIgnoreCase 'p2%'", "estimatedPrice > 1000",
+			"estimatedPrice between 500 and 3000", "estimatedPrice in (1000, 2000)", "estimatedPrice = null",
+			"not (estimatedPrice < 2000)", "paintingTitle = 'P1' or estimatedPrice >= 2000",
+			"paintingTitle like 'P%' and estimatedPrice * 2 > 3000", "toArtist.artistName = 'A1'",
+			"toArtist+.artistName in ('A1', 'A2')", "toArtist.artistName = null", "upper(paintingTitle) = 'P3'",
+			"length(paintingTitle) = 2", "null > 0 and true", "not (null > 0 or false)", "true", "false" };
+
+	private List<Painting> paintings() {
+		Artist a1 = new Artist();
+		a1.setArtistName("A1");
+		Artist a2 = new Artist();
+		a2.setArtistName("A2");
+
+		List<Painting> paintings = new ArrayList<>();
+		paintings.add(painting("P1", new BigDecimal(1000), a1));
+		paintings.add(painting("P2", new BigDecimal(2000), a1));
+		paintings.add(painting("P3", null, a2));
+		paintings.add(painting("X4", new BigDecimal(3000), null));
+		return paintings;
+	}
+
+	private Painting painting(String title, BigDecimal price, Artist artist) {
+		Painting p = new Painting();
+		p.setPaintingTitle(title);
+		p.setEstimatedPrice(price);
+		// no context to maintain the reverse relationship
+		p.writePropertyDirectly(Painting.TO_ARTIST.getName(), artist);
+		return p;
+	}
+
+	@Test
+	public void testCompile_DataObjects() {
+		List<Painting> paintings = paintings();
+
+		for (String string : EXPRESSIONS) {
+			Expression e = ExpressionFactory.exp(string);
+			CompiledExpression compiled = e.compile();
+
+			assertSame(e, compiled.getExpression());
+			assertEquals(string, e.filterObjects(paintings), compiled.filterObjects(paintings));
+			for (Painting p : paintings) {
+				assertEquals(string, e.evaluate(p), compiled.evaluate(p));
+			}
+		}
+	}
+
+	@Test
+	public void testCompile_DataRows() {
+		List<DataRow> rows = new ArrayList<>();
+		for (Painting p : paintings()) {
+			DataRow row = new DataRow(3);
+			row.put("paintingTitle", p.getPaintingTitle());
+			row.put("estimatedPrice", p.getEstimatedPrice());
+			rows.add(row);
+		}
+
+		for (String string : EXPRESSIONS) {
+			if (string.contains("toArtist")) {
+				continue;
+			}
+
+			Expression e = ExpressionFactory.exp(string);
+			CompiledExpression compiled = e.compile();
+			assertEquals(string, e.filterObjects(rows), compiled.filterObjects(rows));
+		}
+	}
+
+	@Test
+	public void testCompile_DataRowOuterJoinPath() {
+		DataRow row = new DataRow(2);
+		row.put("paintingTitle", "P1");
+		row.put("paintingTitle+", "P2");
+
+		Expression e = ExpressionFactory.exp("paintingTitle+");
+		assertEquals("P2", e.evaluate(row));
+		assertEquals(e.evaluate(row), e.compile().evaluate(row));
+
+		DataRow noOuterKey = new DataRow(1);
+		noOuterKey.put("paintingTitle", "P1");
+		assertEquals(e.evaluate(noOuterKey), e.compile().evaluate(noOuterKey));
+	}
+
+	@Test
+	public void testCompile_Beans() {
+		List<TstBean> beans = Arrays.asList(new TstBean("a", 1), new TstBean("b", 2), new TstBean(null, 3));
+
+		CompiledExpression compiled = ExpressionFactory.exp("name = 'a' or number > 2").compile();
+		assertEquals(2, compiled.filterObjects(beans).size());
+		assertTrue(compiled.match(beans.get(2)));
+		assertFalse(compiled.match(beans.get(1)));
+		assertSame(beans.get(1), ExpressionFactory.exp("number = 2").compile().first(beans));
+	}
+
+	@Test
+	public void testCompile_ToManyPath() {
+		Artist a1 = new Artist();
+		a1.setArtistName("A1");
+		a1.writePropertyDirectly(Artist.PAINTING_ARRAY.getName(),
+				Arrays.asList(painting("P1", null, null), painting("P2", null, null)));
+
+		Artist a2 = new Artist();
+		a2.setArtistName("A2");
+
+		for (String string : new String[] { "paintingArray.paintingTitle = 'P2'",
+				"paintingArray+.paintingTitle like 'P%'", "upper(paintingArray.paintingTitle) = 'P1'" }) {
+			Expression e = ExpressionFactory.exp(string);
+			CompiledExpression compiled = e.compile();
+			assertEquals(string, e.evaluate(a1), compiled.evaluate(a1));
+			assertEquals(string, e.evaluate(a2), compiled.evaluate(a2));
+		}
+	}
+
+	@Test
+	public void testCompile_Enum() {
+		CompiledExpression compiled = ExpressionFactory.exp("a = enum:org.apache.cayenne.exp.ExpEnum1.BOGUS").compile();
+
+		try {
+			compiled.evaluate(new Object());
+			fail("Invalid enum should fail on evaluation");
+		} catch (ExpressionException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCompile_Values() {
+		TstBean bean = new TstBean("abc", 5);
+
+		CompiledExpression compiled = ExpressionFactory.exp("number * 2 + 1").compile();
+		assertEquals(11, ((Number) compiled.evaluate(bean)).intValue());
+		assertEquals("abc", ExpressionFactory.exp("name").compile().evaluate(bean));
+		assertEquals(null, ExpressionFactory.exp("name").compile().evaluate(null));
+	}
+
+	public static class TstBean {
+
+		private String name;
+		private int number;
+
+		public TstBean(String name, int number) {
+			this.name = name;
+			this.number = number;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getNumber() {
+			return number;
+		}
+	}
+}
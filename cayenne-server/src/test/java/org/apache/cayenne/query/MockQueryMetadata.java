@@ -111,6 +111,16 @@ public class MockQueryMetadata implements QueryMetadata {
         return 0;
     }
 
+    @Override
+    public long getStatementTimeout() {
+        return 0;
+    }
+
+    @Override
+    public QueryCancellationHandle getCancellationHandle() {
+        return null;
+    }
+
     @Override
     public boolean isSuppressingDistinct() {
         return false;
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -368,6 +369,28 @@ public class ObjectSelectTest {
 		assertEquals(5, q.getStatementFetchSize());
 	}
 
+	@Test
+	public void testStatementTimeout() {
+		ObjectSelect<Artist> q = ObjectSelect.query(Artist.class);
+
+		assertEquals(0, q.getStatementTimeout());
+		q.statementTimeout(Duration.ofSeconds(2));
+		assertEquals(2000, q.getStatementTimeout());
+
+		q.statementTimeout(null);
+		assertEquals(0, q.getStatementTimeout());
+	}
+
+	@Test
+	public void testCancellationHandle() {
+		ObjectSelect<Artist> q = ObjectSelect.query(Artist.class);
+		assertNull(q.getCancellationHandle());
+
+		QueryCancellationHandle handle = new QueryCancellationHandle();
+		q.cancellationHandle(handle);
+		assertSame(handle, q.getCancellationHandle());
+	}
+
 	@Test
 	public void testCacheGroups_Collection() {
 		ObjectSelect<DataRow> q = ObjectSelect.dataRowQuery(Artist.class);
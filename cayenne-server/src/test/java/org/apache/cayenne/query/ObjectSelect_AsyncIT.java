@@ -0,0 +1,125 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ObjectSelect_AsyncIT extends ServerCase {
+
+	@Inject
+	private DataContext context;
+
+	@Inject
+	private DBHelper dbHelper;
+
+	private TableHelper tArtist;
+
+	@Before
+	public void createArtistsDataSet() throws Exception {
+		tArtist = new TableHelper(dbHelper, "ARTIST");
+		tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+
+		for (int i = 1; i <= 20; i++) {
+			tArtist.insert(i, "artist" + i);
+		}
+	}
+
+	@Test
+	public void testAsyncExecutor() {
+		assertNotNull(context.getAsyncExecutor());
+		assertNotSame(ForkJoinPool.commonPool(), context.getAsyncExecutor());
+	}
+
+	@Test
+	public void test_SelectAsync() throws Exception {
+		CompletableFuture<List<Artist>> future = ObjectSelect.query(Artist.class).selectAsync(context);
+		assertEquals(20, future.get(10, TimeUnit.SECONDS).size());
+	}
+
+	@Test
+	public void test_SelectOneAsync() throws Exception {
+		Artist a = ObjectSelect.query(Artist.class)
+				.where(Artist.ARTIST_NAME.eq("artist14"))
+				.selectOneAsync(context)
+				.get(10, TimeUnit.SECONDS);
+		assertNotNull(a);
+		assertEquals("artist14", a.getArtistName());
+	}
+
+	@Test
+	public void test_SelectFirstAsync() throws Exception {
+		Artist a = ObjectSelect.query(Artist.class)
+				.orderBy(Artist.ARTIST_NAME.desc())
+				.selectFirstAsync(context)
+				.get(10, TimeUnit.SECONDS);
+		assertEquals("artist9", a.getArtistName());
+	}
+
+	@Test
+	public void test_IterateAsync() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		ObjectSelect.query(Artist.class)
+				.iterateAsync(context, object -> count.incrementAndGet())
+				.get(10, TimeUnit.SECONDS);
+		assertEquals(20, count.get());
+	}
+
+	@Test
+	public void test_FanOut() throws Exception {
+		CompletableFuture<List<Artist>> f1 = context.selectAsync(ObjectSelect.query(Artist.class)
+				.where(Artist.ARTIST_NAME.like("artist1%")));
+		CompletableFuture<Long> f2 = ObjectSelect.query(Artist.class).count().selectOneAsync(context);
+
+		CompletableFuture.allOf(f1, f2).get(10, TimeUnit.SECONDS);
+		assertEquals(11, f1.get().size());
+		assertEquals(20L, f2.get().longValue());
+	}
+
+	@Test
+	public void test_CommitChangesAsync() throws Exception {
+		Artist a = context.newObject(Artist.class);
+		a.setArtistName("artist21");
+
+		context.commitChangesAsync().get(10, TimeUnit.SECONDS);
+
+		assertFalse(context.hasChanges());
+		assertEquals(21, tArtist.getRowCount());
+	}
+}
@@ -0,0 +1,152 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ResultPublisher;
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ObjectSelect_PublisherIT extends ServerCase {
+
+	@Inject
+	private DataContext context;
+
+	@Inject
+	private DBHelper dbHelper;
+
+	@Before
+	public void createArtistsDataSet() throws Exception {
+		TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+		tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+
+		for (int i = 1; i <= 20; i++) {
+			tArtist.insert(i, "artist" + i);
+		}
+	}
+
+	@Test
+	public void test_PublishObjects() throws Exception {
+		ResultPublisher<Artist> publisher = ObjectSelect.query(Artist.class)
+				.orderBy(Artist.ARTIST_NAME.asc())
+				.publisher(context);
+
+		// request in small chunks as the items are received
+		CollectingSubscriber<Artist> subscriber = new CollectingSubscriber<>(3, Integer.MAX_VALUE);
+		publisher.subscribe(subscriber);
+
+		List<Artist> artists = subscriber.result.get(10, TimeUnit.SECONDS);
+		assertEquals(20, artists.size());
+		assertEquals("artist1", artists.get(0).getArtistName());
+		assertSame(context, artists.get(0).getObjectContext());
+	}
+
+	@Test
+	public void test_PublishDataRows() throws Exception {
+		ResultPublisher<DataRow> publisher = ObjectSelect.dataRowQuery(Artist.class).publisher(context);
+
+		CollectingSubscriber<DataRow> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE, Integer.MAX_VALUE);
+		publisher.subscribe(subscriber);
+
+		List<DataRow> rows = subscriber.result.get(10, TimeUnit.SECONDS);
+		assertEquals(20, rows.size());
+	}
+
+	@Test
+	public void test_Cancel() throws Exception {
+		ResultPublisher<Artist> publisher = ObjectSelect.query(Artist.class).publisher(context);
+
+		CollectingSubscriber<Artist> subscriber = new CollectingSubscriber<>(2, 5);
+		publisher.subscribe(subscriber);
+
+		assertEquals(5, subscriber.result.get(10, TimeUnit.SECONDS).size());
+
+		// the connection must have been released, so the context is still usable
+		assertEquals(20, ObjectSelect.query(Artist.class).select(context).size());
+	}
+
+	/**
+	 * Requests items in batches and cancels the subscription after receiving "limit" items.
+	 */
+	static class CollectingSubscriber<T> implements ResultPublisher.Subscriber<T> {
+
+		final CompletableFuture<List<T>> result = new CompletableFuture<>();
+		final List<T> items = new CopyOnWriteArrayList<>();
+		final long batchSize;
+		final int limit;
+
+		ResultPublisher.Subscription subscription;
+		long outstanding;
+
+		CollectingSubscriber(long batchSize, int limit) {
+			this.batchSize = batchSize;
+			this.limit = limit;
+		}
+
+		@Override
+		public void onSubscribe(ResultPublisher.Subscription subscription) {
+			this.subscription = subscription;
+			this.outstanding = batchSize;
+			subscription.request(batchSize);
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+
+			if (items.size() == limit) {
+				subscription.cancel();
+				result.complete(items);
+				return;
+			}
+
+			if (--outstanding == 0) {
+				outstanding = batchSize;
+				subscription.request(batchSize);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			result.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			result.complete(items);
+		}
+	}
+}
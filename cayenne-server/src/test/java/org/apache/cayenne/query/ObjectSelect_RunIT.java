@@ -19,6 +19,8 @@
 package org.apache.cayenne.query;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
@@ -43,6 +45,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
 public class ObjectSelect_RunIT extends ServerCase {
@@ -123,6 +126,34 @@ public class ObjectSelect_RunIT extends ServerCase {
 		}
 	}
 
+	@Test
+	public void test_Stream() {
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).stream(context)) {
+			List<String> names = stream
+					.map(Artist::getArtistName)
+					.filter(name -> name.startsWith("artist1"))
+					.collect(Collectors.toList());
+
+			assertEquals(11, names.size());
+		}
+	}
+
+	@Test
+	public void test_StreamDataRows() {
+		try (Stream<DataRow> stream = ObjectSelect.dataRowQuery(Artist.class).stream(context)) {
+			assertEquals(20, stream.count());
+		}
+	}
+
+	@Test
+	public void test_ParallelStream() {
+		// closing the stream closes the iterator
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).iterator(context).parallelStream(3)) {
+			assertTrue(stream.isParallel());
+			assertEquals(20, stream.map(Artist::getArtistName).distinct().count());
+		}
+	}
+
 	@Test
 	public void test_SelectDataRows() {
 		List<DataRow> result = ObjectSelect.dataRowQuery(Artist.class).select(context);
@@ -0,0 +1,75 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class QueryCancellationHandleTest {
+
+    @Test
+    public void testCancel() throws SQLException {
+        Statement s1 = mock(Statement.class);
+        Statement s2 = mock(Statement.class);
+        Statement s3 = mock(Statement.class);
+        doThrow(new SQLException("test")).when(s1).cancel();
+
+        QueryCancellationHandle handle = new QueryCancellationHandle();
+        handle.register(s1);
+        handle.register(s2);
+        handle.register(s3);
+        handle.unregister(s3);
+
+        assertFalse(handle.isCancelled());
+        handle.cancel();
+        assertTrue(handle.isCancelled());
+
+        verify(s1).cancel();
+        verify(s2).cancel();
+        verify(s3, never()).cancel();
+    }
+
+    @Test
+    public void testRegister_Cancelled() throws SQLException {
+        Statement s1 = mock(Statement.class);
+
+        QueryCancellationHandle handle = new QueryCancellationHandle();
+        handle.cancel();
+
+        try {
+            handle.register(s1);
+            fail("Registering a statement with a cancelled handle must fail");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+
+        verify(s1, never()).cancel();
+    }
+}
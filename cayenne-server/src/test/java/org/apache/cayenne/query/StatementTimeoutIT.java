@@ -0,0 +1,160 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class StatementTimeoutIT extends ServerCase {
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    @Before
+    public void before() throws Exception {
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        tArtist.insert(1, "artist1");
+        tArtist.insert(2, "artist2");
+    }
+
+    @Test
+    public void testObjectSelect() {
+        RecordingHandle handle = new RecordingHandle();
+
+        List<Artist> artists = ObjectSelect.query(Artist.class)
+                .statementTimeout(Duration.ofMillis(1500))
+                .cancellationHandle(handle)
+                .select(context);
+
+        assertEquals(2, artists.size());
+        assertEquals(1, handle.timeouts.size());
+
+        // JDBC timeout is in seconds, so it is rounded up
+        assertEquals(Integer.valueOf(2), handle.timeouts.get(0));
+        assertEquals(0, handle.running);
+    }
+
+    @Test
+    public void testObjectSelect_Prefetch() {
+        RecordingHandle handle = new RecordingHandle();
+
+        ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTING_ARRAY.disjoint())
+                .statementTimeout(Duration.ofSeconds(3))
+                .cancellationHandle(handle)
+                .select(context);
+
+        assertEquals(2, handle.timeouts.size());
+        assertEquals(Integer.valueOf(3), handle.timeouts.get(0));
+        assertEquals(Integer.valueOf(3), handle.timeouts.get(1));
+        assertEquals(0, handle.running);
+    }
+
+    @Test
+    public void testObjectSelect_Iterated() {
+        RecordingHandle handle = new RecordingHandle();
+
+        try (ResultIterator<Artist> it = ObjectSelect.query(Artist.class)
+                .cancellationHandle(handle)
+                .iterator(context)) {
+
+            assertEquals(1, handle.running);
+            assertEquals(Integer.valueOf(0), handle.timeouts.get(0));
+        }
+
+        assertEquals(0, handle.running);
+    }
+
+    @Test
+    public void testSQLSelect() {
+        RecordingHandle handle = new RecordingHandle();
+
+        List<DataRow> rows = SQLSelect.dataRowQuery("SELECT * FROM ARTIST")
+                .statementTimeout(Duration.ofSeconds(1))
+                .cancellationHandle(handle)
+                .select(context);
+
+        assertEquals(2, rows.size());
+        assertEquals(1, handle.timeouts.size());
+        assertEquals(Integer.valueOf(1), handle.timeouts.get(0));
+        assertEquals(0, handle.running);
+    }
+
+    @Test
+    public void testCancelled() {
+        QueryCancellationHandle handle = new QueryCancellationHandle();
+        handle.cancel();
+
+        try {
+            ObjectSelect.query(Artist.class).cancellationHandle(handle).select(context);
+            fail("Cancelled query must not run");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+    }
+
+    static class RecordingHandle extends QueryCancellationHandle {
+
+        List<Integer> timeouts = new ArrayList<>();
+        int running;
+
+        @Override
+        public void register(Statement statement) {
+            try {
+                timeouts.add(statement.getQueryTimeout());
+            } catch (SQLException e) {
+                throw new CayenneRuntimeException("Error reading query timeout", e);
+            }
+
+            running++;
+            super.register(statement);
+        }
+
+        @Override
+        public void unregister(Statement statement) {
+            running--;
+            super.unregister(statement);
+        }
+    }
+}
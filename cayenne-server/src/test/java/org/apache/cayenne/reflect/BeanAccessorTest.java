@@ -24,6 +24,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class BeanAccessorTest {
 
@@ -97,4 +98,43 @@ public class BeanAccessorTest {
     	assertSame(o1, accessor.getValue(o1));
     }
 
+    @Test(expected = PropertyException.class)
+    public void testGetValueWrongObject() {
+        new BeanAccessor(TstJavaBean.class, "stringField", String.class).getValue(new Object());
+    }
+
+    @Test(expected = PropertyException.class)
+    public void testSetValueWrongType() {
+        new BeanAccessor(TstJavaBean.class, "byteArrayField", byte[].class).setValue(new TstJavaBean(), "a");
+    }
+
+    @Test
+    public void testSetValueSetterThrowsClassCastException() {
+        BeanAccessor accessor = new BeanAccessor(FailingSetterBean.class, "name", String.class);
+        FailingSetterBean bean = new FailingSetterBean();
+
+        try {
+            accessor.setValue(bean, "a");
+            fail("Setter exception must be rethrown");
+        } catch (PropertyException e) {
+            // expected
+        }
+
+        // a failing setter must not be retried
+        assertEquals(1, bean.setterCalls);
+    }
+
+    public static class FailingSetterBean {
+
+        int setterCalls;
+
+        public String getName() {
+            return null;
+        }
+
+        public void setName(String name) {
+            setterCalls++;
+            throw new ClassCastException("setter failure");
+        }
+    }
 }
@@ -89,4 +89,24 @@ public class FieldAccessorTest {
 
         assertEquals(0, object.intField);
     }
+
+    @Test
+    public void testSetValuePrimitiveWidening() {
+        TstFields object = new TstFields();
+
+        new FieldAccessor(TstFields.class, "intField", Integer.TYPE).setValue(
+                object,
+                new Short((short) 7));
+        assertEquals(7, object.intField);
+    }
+
+    @Test(expected = PropertyException.class)
+    public void testGetValueWrongObject() {
+        new FieldAccessor(TstFields.class, "stringField", String.class).getValue(new Object());
+    }
+
+    @Test(expected = PropertyException.class)
+    public void testSetValueWrongObject() {
+        new FieldAccessor(TstFields.class, "stringField", String.class).setValue(new Object(), "a");
+    }
 }
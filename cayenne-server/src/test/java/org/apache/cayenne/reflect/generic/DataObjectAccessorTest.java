@@ -0,0 +1,186 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.reflect.generic;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.CayenneDataObject;
+import org.apache.cayenne.testdo.inheritance_vertical.IvRoot;
+import org.apache.cayenne.testdo.inheritance_vertical.IvSub1;
+import org.apache.cayenne.testdo.inheritance_vertical.IvSub1Sub1;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataObjectAccessorTest {
+
+    @Test
+    public void testIndexedProperty() {
+        DataObjectAccessor accessor = new DataObjectAccessor("name");
+
+        TstIndexedObject o = new TstIndexedObject();
+        accessor.setValue(o, "abc");
+        assertEquals("abc", o.name);
+        assertEquals("abc", accessor.getValue(o));
+        assertEquals(1, o.indexedWrites);
+    }
+
+    @Test
+    public void testNotIndexedProperty() {
+        DataObjectAccessor accessor = new DataObjectAccessor("other");
+
+        TstIndexedObject o = new TstIndexedObject();
+        accessor.setValue(o, "xyz");
+        assertEquals("xyz", o.other);
+        assertEquals("xyz", accessor.getValue(o));
+        assertEquals(0, o.indexedWrites);
+    }
+
+    @Test
+    public void testMixedClasses() {
+        DataObjectAccessor accessor = new DataObjectAccessor("name");
+
+        TstIndexedObject o1 = new TstIndexedObject();
+        CayenneDataObject o2 = new CayenneDataObject();
+
+        accessor.setValue(o1, "a");
+        accessor.setValue(o2, "b");
+
+        assertEquals("a", accessor.getValue(o1));
+        assertEquals("b", accessor.getValue(o2));
+        assertNull(o1.other);
+    }
+
+    @Test
+    public void testOverriddenNameAccess() {
+        DataObjectAccessor accessor = new DataObjectAccessor("name");
+
+        TstOverridingObject o = new TstOverridingObject();
+        accessor.setValue(o, "abc");
+        assertEquals("abc", o.name);
+        assertEquals("abc", accessor.getValue(o));
+        assertEquals(0, o.indexedWrites);
+        assertEquals(1, o.overriddenWrites);
+        assertEquals(1, o.overriddenReads);
+    }
+
+    @Test
+    public void testUsesIndexedAccess() {
+        assertTrue(DataObjectAccessor.PropertyIndex.usesIndexedAccess(TstIndexedObject.class));
+        assertTrue(DataObjectAccessor.PropertyIndex.usesIndexedAccess(IvSub1Sub1.class));
+        assertFalse(DataObjectAccessor.PropertyIndex.usesIndexedAccess(TstOverridingObject.class));
+        assertFalse(DataObjectAccessor.PropertyIndex.usesIndexedAccess(CayenneDataObject.class));
+    }
+
+    @Test
+    public void testInheritedIndexes() {
+        assertEquals(2, IvRoot.PROPERTY_COUNT);
+        assertEquals(3, IvSub1.PROPERTY_COUNT);
+        assertEquals(4, IvSub1Sub1.PROPERTY_COUNT);
+
+        IvSub1Sub1 o = new IvSub1Sub1();
+        assertEquals(1, o.propertyIndex("name"));
+        assertEquals(2, o.propertyIndex("sub1Name"));
+        assertEquals(3, o.propertyIndex("sub1Sub1Name"));
+        assertEquals(-1, o.propertyIndex("xyz"));
+
+        for (String property : new String[] { "discriminator", "name", "sub1Name", "sub1Sub1Name" }) {
+            DataObjectAccessor accessor = new DataObjectAccessor(property);
+            accessor.setValue(o, property + "_value");
+            assertEquals(property + "_value", o.readPropertyDirectly(property));
+            assertEquals(property + "_value", accessor.getValue(o));
+        }
+    }
+
+    static class TstOverridingObject extends TstIndexedObject {
+
+        int overriddenReads;
+        int overriddenWrites;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            overriddenReads++;
+            return super.readPropertyDirectly(propName);
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            overriddenWrites++;
+            super.writePropertyDirectly(propName, val);
+        }
+    }
+
+    static class TstIndexedObject extends BaseDataObject {
+
+        public static final int PROPERTY_COUNT = BaseDataObject.PROPERTY_COUNT + 1;
+
+        String name;
+        String other;
+        int indexedWrites;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            switch (propName) {
+                case "name":
+                    return name;
+                case "other":
+                    return other;
+                default:
+                    return super.readPropertyDirectly(propName);
+            }
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            switch (propName) {
+                case "name":
+                    name = (String) val;
+                    break;
+                case "other":
+                    other = (String) val;
+                    break;
+                default:
+                    super.writePropertyDirectly(propName, val);
+            }
+        }
+
+        @Override
+        public int propertyIndex(String propName) {
+            return "name".equals(propName) ? BaseDataObject.PROPERTY_COUNT : super.propertyIndex(propName);
+        }
+
+        @Override
+        public Object readPropertyDirectly(int propIndex) {
+            return propIndex == BaseDataObject.PROPERTY_COUNT ? name : super.readPropertyDirectly(propIndex);
+        }
+
+        @Override
+        public void writePropertyDirectly(int propIndex, Object val) {
+            if (propIndex == BaseDataObject.PROPERTY_COUNT) {
+                indexedWrites++;
+                name = (String) val;
+            } else {
+                super.writePropertyDirectly(propIndex, val);
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.apache.cayenne.exp.Property;
 public abstract class _IvRoot extends BaseDataObject {
 
     private static final long serialVersionUID = 1L; 
+    public static final int PROPERTY_COUNT = BaseDataObject.PROPERTY_COUNT + 2;
 
     public static final String ID_PK_COLUMN = "ID";
 
@@ -80,6 +81,48 @@ public abstract class _IvRoot extends BaseDataObject {
         }
     }
 
+    @Override
+    public int propertyIndex(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "discriminator":
+                return BaseDataObject.PROPERTY_COUNT + 0;
+            case "name":
+                return BaseDataObject.PROPERTY_COUNT + 1;
+            default:
+                return super.propertyIndex(propName);
+        }
+    }
+
+    @Override
+    public Object readPropertyDirectly(int propIndex) {
+        switch(propIndex - BaseDataObject.PROPERTY_COUNT) {
+            case 0:
+                return this.discriminator;
+            case 1:
+                return this.name;
+            default:
+                return super.readPropertyDirectly(propIndex);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(int propIndex, Object val) {
+        switch(propIndex - BaseDataObject.PROPERTY_COUNT) {
+            case 0:
+                this.discriminator = (String)val;
+                break;
+            case 1:
+                this.name = (String)val;
+                break;
+            default:
+                super.writePropertyDirectly(propIndex, val);
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         writeSerialized(out);
     }
@@ -16,6 +16,7 @@ import org.apache.cayenne.testdo.inheritance_vertical.IvRoot;
 public abstract class _IvSub1 extends IvRoot {
 
     private static final long serialVersionUID = 1L; 
+    public static final int PROPERTY_COUNT = IvRoot.PROPERTY_COUNT + 1;
 
     public static final String ID_PK_COLUMN = "ID";
 
@@ -63,6 +64,41 @@ public abstract class _IvSub1 extends IvRoot {
         }
     }
 
+    @Override
+    public int propertyIndex(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "sub1Name":
+                return IvRoot.PROPERTY_COUNT + 0;
+            default:
+                return super.propertyIndex(propName);
+        }
+    }
+
+    @Override
+    public Object readPropertyDirectly(int propIndex) {
+        switch(propIndex - IvRoot.PROPERTY_COUNT) {
+            case 0:
+                return this.sub1Name;
+            default:
+                return super.readPropertyDirectly(propIndex);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(int propIndex, Object val) {
+        switch(propIndex - IvRoot.PROPERTY_COUNT) {
+            case 0:
+                this.sub1Name = (String)val;
+                break;
+            default:
+                super.writePropertyDirectly(propIndex, val);
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         writeSerialized(out);
     }
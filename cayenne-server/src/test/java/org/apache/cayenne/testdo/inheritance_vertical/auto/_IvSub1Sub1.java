@@ -16,6 +16,7 @@ import org.apache.cayenne.testdo.inheritance_vertical.IvSub1;
 public abstract class _IvSub1Sub1 extends IvSub1 {
 
     private static final long serialVersionUID = 1L; 
+    public static final int PROPERTY_COUNT = IvSub1.PROPERTY_COUNT + 1;
 
     public static final String ID_PK_COLUMN = "ID";
 
@@ -63,6 +64,41 @@ public abstract class _IvSub1Sub1 extends IvSub1 {
         }
     }
 
+    @Override
+    public int propertyIndex(String propName) {
+        if(propName == null) {
+            throw new IllegalArgumentException();
+        }
+
+        switch(propName) {
+            case "sub1Sub1Name":
+                return IvSub1.PROPERTY_COUNT + 0;
+            default:
+                return super.propertyIndex(propName);
+        }
+    }
+
+    @Override
+    public Object readPropertyDirectly(int propIndex) {
+        switch(propIndex - IvSub1.PROPERTY_COUNT) {
+            case 0:
+                return this.sub1Sub1Name;
+            default:
+                return super.readPropertyDirectly(propIndex);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(int propIndex, Object val) {
+        switch(propIndex - IvSub1.PROPERTY_COUNT) {
+            case 0:
+                this.sub1Sub1Name = (String)val;
+                break;
+            default:
+                super.writePropertyDirectly(propIndex, val);
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         writeSerialized(out);
     }
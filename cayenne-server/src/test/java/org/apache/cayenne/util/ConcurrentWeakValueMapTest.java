@@ -0,0 +1,153 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * As ConcurrentWeakValueMap and ConcurrentSoftValueMap share almost all code from their super class
+ * only one test is present for both of them.
+ *
+ * @since 4.1
+ */
+public class ConcurrentWeakValueMapTest {
+
+    @Test
+    public void testSimpleOperations() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("key_1"));
+
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+        assertEquals(2, map.size());
+        assertEquals(Integer.valueOf(42), map.get("key_2"));
+        assertTrue(map.containsKey("key_1"));
+        assertTrue(map.containsValue(123));
+
+        assertEquals(Integer.valueOf(42), map.remove("key_2"));
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("key_2"));
+    }
+
+    @Test
+    public void testEntryIteratorRemoval() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+        map.put("key_3", 543);
+
+        Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            if ("key_2".equals(it.next().getKey())) {
+                it.remove();
+            }
+        }
+
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("key_2"));
+    }
+
+    @Test
+    public void testModificationDuringIteration() {
+        Map<String, Integer> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", 123);
+        map.put("key_2", 42);
+        map.put("key_3", 543);
+
+        // unlike WeakValueMap, concurrent map iterators are weakly consistent
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            if ("key_2".equals(entry.getKey())) {
+                map.remove("key_2");
+            }
+        }
+
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        Map<String, Integer> map1 = new ConcurrentWeakValueMap<>();
+        map1.put("key_1", 123);
+        map1.put("key_2", 42);
+
+        Map<String, Integer> map2 = new HashMap<>();
+        map2.put("key_1", 123);
+        map2.put("key_2", 42);
+
+        assertEquals(map1, map2);
+        assertEquals(map1.hashCode(), map2.hashCode());
+    }
+
+    @Test
+    public void testSerializationSupport() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        map.put("key_1", 123);
+        map.put("key_2", "abc");
+
+        ConcurrentWeakValueMap<String, Object> clone = Util.cloneViaSerialization(map);
+        assertEquals(2, clone.size());
+        assertEquals(123, clone.get("key_1"));
+        assertEquals("abc", clone.get("key_2"));
+    }
+
+    @Test
+    public void testConcurrentPuts() throws Exception {
+        final Map<Integer, Integer> map = new ConcurrentWeakValueMap<>();
+        final Integer[] values = new Integer[4000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new Integer(i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 1000;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = offset; i < offset + 1000; i++) {
+                        map.put(i, values[i]);
+                        map.get(i - 1);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(values.length, map.size());
+        for (Integer value : values) {
+            assertSame(value, map.get(value));
+        }
+    }
+}
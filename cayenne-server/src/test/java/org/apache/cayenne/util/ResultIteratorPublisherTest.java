@@ -0,0 +1,228 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.ResultPublisher;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 4.1
+ */
+public class ResultIteratorPublisherTest {
+
+    private AtomicInteger opened = new AtomicInteger();
+    private AtomicInteger closed = new AtomicInteger();
+
+    private ResultPublisher<Integer> publisher(Integer... values) {
+        return new ResultIteratorPublisher<>(() -> {
+            opened.incrementAndGet();
+            return new ListResultIterator(Arrays.asList(values));
+        }, Runnable::run);
+    }
+
+    @Test
+    public void testUnboundedDemand() {
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher(1, 2, 3).subscribe(subscriber);
+        assertEquals(0, opened.get());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testBoundedDemand() {
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher(1, 2, 3, 4, 5).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2, 3, 4), subscriber.items);
+        assertFalse(subscriber.completed);
+        assertEquals(0, closed.get());
+
+        // completes without requiring extra demand
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testCancel() {
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher(1, 2, 3, 4, 5).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        subscriber.subscription.cancel();
+        assertEquals(1, closed.get());
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testReentrantRequest() {
+        // requesting from onNext must not recurse, but still deliver all items
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        publisher(1, 2, 3, 4, 5).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.items);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher(1, 2, 3).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void testFailure() {
+        RuntimeException failure = new RuntimeException("test");
+        ResultPublisher<Integer> publisher = new ResultIteratorPublisher<>(() -> {
+            throw failure;
+        }, Runnable::run);
+
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertEquals(failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testSubscriptionPerSubscriber() {
+        ResultPublisher<Integer> publisher = publisher(1, 2);
+
+        TestSubscriber s1 = new TestSubscriber();
+        TestSubscriber s2 = new TestSubscriber();
+        publisher.subscribe(s1);
+        publisher.subscribe(s2);
+
+        s1.subscription.request(5);
+        s2.subscription.request(5);
+        assertEquals(Arrays.asList(1, 2), s1.items);
+        assertEquals(Arrays.asList(1, 2), s2.items);
+        assertEquals(2, opened.get());
+        assertEquals(2, closed.get());
+    }
+
+    class ListResultIterator implements ResultIterator<Integer> {
+
+        private final Iterator<Integer> iterator;
+
+        ListResultIterator(List<Integer> values) {
+            this.iterator = values.iterator();
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return iterator;
+        }
+
+        @Override
+        public List<Integer> allRows() {
+            List<Integer> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+            return rows;
+        }
+
+        @Override
+        public boolean hasNextRow() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer nextRow() {
+            return iterator.next();
+        }
+
+        @Override
+        public void skipRow() {
+            iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+
+    static class TestSubscriber implements ResultPublisher.Subscriber<Integer> {
+
+        ResultPublisher.Subscription subscription;
+        List<Integer> items = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(ResultPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+}
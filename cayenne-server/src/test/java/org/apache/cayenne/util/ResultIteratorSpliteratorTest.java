@@ -0,0 +1,135 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.cayenne.ResultIterator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 4.1
+ */
+public class ResultIteratorSpliteratorTest {
+
+    @Test
+    public void testTrySplit() {
+        ListResultIterator it = new ListResultIterator(Arrays.asList(1, 2, 3, 4, 5));
+        Spliterator<Integer> spliterator = new ResultIteratorSpliterator<>(it, 2);
+
+        Spliterator<Integer> batch1 = spliterator.trySplit();
+        assertEquals(2, batch1.estimateSize());
+
+        List<Integer> consumed = new ArrayList<>();
+        batch1.forEachRemaining(consumed::add);
+        assertEquals(Arrays.asList(1, 2), consumed);
+
+        Spliterator<Integer> batch2 = spliterator.trySplit();
+        Spliterator<Integer> batch3 = spliterator.trySplit();
+        assertEquals(2, batch2.estimateSize());
+        assertEquals(1, batch3.estimateSize());
+        assertNull(spliterator.trySplit());
+        assertFalse(spliterator.tryAdvance(consumed::add));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new ResultIteratorSpliterator<>(new ListResultIterator(Collections.emptyList()), 0);
+    }
+
+    @Test
+    public void testStreamClose() {
+        ListResultIterator it = new ListResultIterator(Arrays.asList(1, 2, 3));
+
+        try (Stream<Integer> stream = it.stream()) {
+            assertEquals(Arrays.asList(2, 4, 6), stream.map(i -> i * 2).collect(Collectors.toList()));
+            assertFalse(it.closed);
+        }
+
+        assertTrue(it.closed);
+    }
+
+    @Test
+    public void testParallelStream() {
+        List<Integer> values = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+        ListResultIterator it = new ListResultIterator(values);
+
+        try (Stream<Integer> stream = it.parallelStream(100)) {
+            assertTrue(stream.isParallel());
+            assertEquals(values, stream.map(i -> i).collect(Collectors.toList()));
+        }
+
+        assertTrue(it.closed);
+    }
+
+    static class ListResultIterator implements ResultIterator<Integer> {
+
+        private final Iterator<Integer> iterator;
+        boolean closed;
+
+        ListResultIterator(List<Integer> values) {
+            this.iterator = values.iterator();
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return iterator;
+        }
+
+        @Override
+        public List<Integer> allRows() {
+            List<Integer> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+            return rows;
+        }
+
+        @Override
+        public boolean hasNextRow() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer nextRow() {
+            return iterator.next();
+        }
+
+        @Override
+        public void skipRow() {
+            iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}